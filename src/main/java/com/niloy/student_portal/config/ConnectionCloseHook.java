@@ -0,0 +1,33 @@
+package com.niloy.student_portal.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands out a connection proxy that runs a callback the first time the
+ * connection is closed. Every other call goes straight to the target.
+ */
+final class ConnectionCloseHook {
+
+    private ConnectionCloseHook() {
+    }
+
+    static Connection onClose(Connection connection, Runnable hook) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    boolean closing = method.getName().equals("close") && closed.compareAndSet(false, true);
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    } finally {
+                        if (closing) {
+                            hook.run();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,63 @@
+package com.niloy.student_portal.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each request held a JDBC connection and whether it
+ * needed one at all, tagged by the matched handler pattern. Runs ahead of
+ * Spring Security so the user lookup done during authentication is included.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ConnectionUsageFilter extends OncePerRequestFilter {
+
+    private final ConnectionUsageTracker tracker;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        tracker.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ConnectionUsageTracker.Usage usage = tracker.end();
+            String uri = endpoint(request);
+            // Requests that never acquired one are left out, so the timer is not diluted by zero holds
+            if (usage.getAcquisitions() > 0) {
+                Timer.builder("portal.db.connection.hold")
+                        .description("Time a request held at least one JDBC connection")
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .record(usage.getHeldNanos(), TimeUnit.NANOSECONDS);
+            }
+            Counter.builder("portal.db.connection.requests")
+                    .description("Requests by whether they acquired a physical JDBC connection")
+                    .tag("uri", uri)
+                    .tag("connection", usage.getAcquisitions() > 0 ? "acquired" : "none")
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,91 @@
+package com.niloy.student_portal.config;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-thread bookkeeping of JDBC connections held while serving a request.
+ * The tracking datasource reports checkouts and returns, the request filter
+ * opens and closes the window and publishes the totals.
+ */
+@Component
+public class ConnectionUsageTracker {
+
+    private final ThreadLocal<Usage> current = new ThreadLocal<>();
+
+    public void begin() {
+        current.set(new Usage());
+    }
+
+    public Usage end() {
+        Usage usage = current.get();
+        current.remove();
+        return usage;
+    }
+
+    /**
+     * Binds the calling thread's usage window to a task that runs on another
+     * thread, so connections taken by fanned-out work still count for the request.
+     */
+    public Runnable propagate(Runnable task) {
+        Usage usage = current.get();
+        if (usage == null) {
+            return task;
+        }
+        return () -> {
+            Usage previous = current.get();
+            current.set(usage);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    current.set(previous);
+                } else {
+                    current.remove();
+                }
+            }
+        };
+    }
+
+    void connectionAcquired() {
+        Usage usage = current.get();
+        if (usage != null) {
+            usage.acquired();
+        }
+    }
+
+    void connectionReleased() {
+        Usage usage = current.get();
+        if (usage != null) {
+            usage.released();
+        }
+    }
+
+    public static class Usage {
+        private int acquisitions;
+        private int open;
+        private long openedAt;
+        private long heldNanos;
+
+        private synchronized void acquired() {
+            acquisitions++;
+            if (open++ == 0) {
+                openedAt = System.nanoTime();
+            }
+        }
+
+        private synchronized void released() {
+            if (open > 0 && --open == 0) {
+                heldNanos += System.nanoTime() - openedAt;
+            }
+        }
+
+        public synchronized int getAcquisitions() {
+            return acquisitions;
+        }
+
+        // Time at least one connection was checked out, a connection still open counts up to now
+        public synchronized long getHeldNanos() {
+            return open > 0 ? heldNanos + System.nanoTime() - openedAt : heldNanos;
+        }
+    }
+}
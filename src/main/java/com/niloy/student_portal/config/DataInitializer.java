@@ -2,6 +2,7 @@ package com.niloy.student_portal.config;
 
 import com.niloy.student_portal.entity.*;
 import com.niloy.student_portal.repository.*;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -9,6 +10,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -17,6 +21,7 @@ public class DataInitializer implements CommandLineRunner {
     private final TeacherRepository teacherRepository;
     private final DepartmentRepository departmentRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -53,5 +58,20 @@ public class DataInitializer implements CommandLineRunner {
             log.info("Default data initialized successfully!");
             log.info("Default Teacher Login - Username: teacher, Password: teacher123");
         }
+
+        backfillChangeTimes();
+    }
+
+    // Rows written before change times were kept count as changed now, so the next /api/sync sends them once
+    private void backfillChangeTimes() {
+        Instant now = Instant.now();
+        for (String entity : List.of("Department", "Teacher", "Course", "Student")) {
+            int updated = entityManager.createQuery("update " + entity + " e set e.updatedAt = :now where e.updatedAt is null")
+                    .setParameter("now", now)
+                    .executeUpdate();
+            if (updated > 0) {
+                log.info("Backfilled change times of {} {} rows", updated, entity);
+            }
+        }
     }
 }
@@ -0,0 +1,41 @@
+package com.niloy.student_portal.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Wraps the auto-configured pool so that a transaction only checks out a
+     * physical connection on its first statement, and so that checkouts can be
+     * attributed to requests. Transactions that are served from memory or fail
+     * validation early never touch the pool. When app.datasource.max-concurrency
+     * is set, checkouts are additionally bounded by a semaphore.
+     */
+    @Bean
+    public static BeanPostProcessor lazyTrackingDataSourcePostProcessor(ObjectProvider<ConnectionUsageTracker> tracker,
+                                                                        Environment environment) {
+        int maxConcurrency = environment.getProperty("app.datasource.max-concurrency", Integer.class, 0);
+        long acquireTimeoutMillis = environment.getProperty("app.datasource.acquire-timeout-ms", Long.class, 30000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    DataSource tracked = new TrackingDataSource(dataSource, tracker.getObject());
+                    if (maxConcurrency > 0) {
+                        tracked = new ConcurrencyLimitedDataSource(tracked, maxConcurrency, acquireTimeoutMillis);
+                    }
+                    return new LazyConnectionDataSourceProxy(tracked);
+                }
+                return bean;
+            }
+        };
+    }
+}
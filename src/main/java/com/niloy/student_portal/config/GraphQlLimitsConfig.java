@@ -0,0 +1,40 @@
+package com.niloy.student_portal.config;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Rejects GraphQL queries before they run when they nest too deep or would
+ * read too much. Every field costs 1, and what is selected under a list field
+ * is counted as many times as a list is expected to hold, so cost grows with
+ * the rows a query can fan out to rather than with its length.
+ */
+@Configuration
+public class GraphQlLimitsConfig {
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${app.graphql.max-depth:6}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${app.graphql.max-complexity:5000}") int maxComplexity,
+            @Value("${app.graphql.list-size:10}") int listSize) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, listComplexity(listSize));
+    }
+
+    static FieldComplexityCalculator listComplexity(int listSize) {
+        return (environment, childComplexity) -> {
+            boolean list = GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()) instanceof GraphQLList;
+            return 1 + (list ? childComplexity * listSize : childComplexity);
+        };
+    }
+}
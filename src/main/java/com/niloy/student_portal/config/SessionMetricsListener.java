@@ -0,0 +1,96 @@
+package com.niloy.student_portal.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks live HTTP sessions (form-login users) and exposes their count and
+ * estimated memory footprint as metrics. The size is estimated by serializing
+ * the session attributes, so it is only computed when the gauge is scraped.
+ */
+@Component
+public class SessionMetricsListener implements HttpSessionListener {
+
+    private final Map<String, HttpSession> liveSessions = new ConcurrentHashMap<>();
+
+    public SessionMetricsListener(MeterRegistry meterRegistry) {
+        Gauge.builder("portal.sessions.active", liveSessions, Map::size)
+                .description("Number of live HTTP sessions")
+                .register(meterRegistry);
+        Gauge.builder("portal.sessions.memory", this, SessionMetricsListener::estimateMemoryBytes)
+                .description("Estimated serialized size of all live session attributes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void sessionCreated(HttpSessionEvent event) {
+        liveSessions.put(event.getSession().getId(), event.getSession());
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        liveSessions.remove(event.getSession().getId());
+    }
+
+    public int getActiveSessionCount() {
+        return liveSessions.size();
+    }
+
+    public long estimateMemoryBytes() {
+        long total = 0;
+        for (HttpSession session : liveSessions.values()) {
+            total += estimateSessionBytes(session);
+        }
+        return total;
+    }
+
+    private long estimateSessionBytes(HttpSession session) {
+        long size = 0;
+        try {
+            for (String name : Collections.list(session.getAttributeNames())) {
+                size += name.length() + serializedSize(session.getAttribute(name));
+            }
+        } catch (IllegalStateException ex) {
+            // Session was invalidated while we were measuring it
+            return 0;
+        }
+        return size;
+    }
+
+    private long serializedSize(Object value) {
+        CountingOutputStream counter = new CountingOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+            out.writeObject(value);
+        } catch (IOException ex) {
+            // Non-serializable attributes are not counted
+            return 0;
+        }
+        return counter.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.niloy.student_portal.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Reports every physical connection checkout and return to the
+ * {@link ConnectionUsageTracker}. Connections are handed out behind a proxy
+ * that notices {@code close()}, everything else goes straight to the pool.
+ */
+public class TrackingDataSource extends DelegatingDataSource {
+
+    private final ConnectionUsageTracker tracker;
+
+    public TrackingDataSource(DataSource targetDataSource, ConnectionUsageTracker tracker) {
+        super(targetDataSource);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        tracker.connectionAcquired();
+        return ConnectionCloseHook.onClose(connection, tracker::connectionReleased);
+    }
+}
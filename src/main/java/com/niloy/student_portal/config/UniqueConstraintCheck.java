@@ -0,0 +1,136 @@
+package com.niloy.student_portal.config;
+
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks at startup that the unique constraints carry the names
+ * {@link ConstraintViolationTranslator} maps. Under ddl-auto=update Hibernate
+ * adds each named constraint next to an old auto-named one, or cannot add it
+ * at all where the column already holds duplicates, as users.email may.
+ * Each missing constraint is reported, with the duplicated values keeping it
+ * out, and its existsBy* pre-check is turned on so writes stay checked. Old
+ * constraints are only renamed or dropped when
+ * app.persistence.reconcile-unique-constraints is set; the check runs before
+ * the web server takes requests.
+ */
+@Component
+@Slf4j
+public class UniqueConstraintCheck implements SmartInitializingSingleton {
+
+    // Tables and columns as the naming strategy writes them
+    private static final List<UniqueColumn> UNIQUE_COLUMNS = List.of(
+            new UniqueColumn("users", "username", ConstraintViolationTranslator.UK_USERS_USERNAME),
+            new UniqueColumn("users", "email", ConstraintViolationTranslator.UK_USERS_EMAIL),
+            new UniqueColumn("students", "student_id", ConstraintViolationTranslator.UK_STUDENTS_STUDENT_ID),
+            new UniqueColumn("teachers", "employee_id", ConstraintViolationTranslator.UK_TEACHERS_EMPLOYEE_ID),
+            new UniqueColumn("courses", "course_code", ConstraintViolationTranslator.UK_COURSES_COURSE_CODE),
+            new UniqueColumn("departments", "name", ConstraintViolationTranslator.UK_DEPARTMENTS_NAME));
+
+    // Single-column unique constraints of the current schema, in information_schema as PostgreSQL and H2 both have it
+    private static final String UNIQUE_CONSTRAINTS = """
+            select tc.table_name, tc.constraint_name, kcu.column_name
+            from information_schema.table_constraints tc
+            join information_schema.key_column_usage kcu
+              on kcu.constraint_schema = tc.constraint_schema
+             and kcu.constraint_name = tc.constraint_name
+             and kcu.table_name = tc.table_name
+            where tc.constraint_type = 'UNIQUE' and tc.table_schema = current_schema
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConstraintViolationTranslator constraintViolationTranslator;
+    private final boolean reconcile;
+
+    public UniqueConstraintCheck(JdbcTemplate jdbcTemplate, ConstraintViolationTranslator constraintViolationTranslator,
+                                 @Value("${app.persistence.reconcile-unique-constraints:false}") boolean reconcile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.constraintViolationTranslator = constraintViolationTranslator;
+        this.reconcile = reconcile;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        check().forEach((constraint, duplicates) -> {
+            log.warn("Unique constraint {} is missing, checking for duplicates before writes; "
+                    + "values held by more than one row: {}", constraint, duplicates);
+            constraintViolationTranslator.constraintMissing(constraint);
+        });
+    }
+
+    /**
+     * Returns each named constraint missing from the schema, with the values
+     * that are duplicated in its column. Old constraints are reported, or
+     * renamed and dropped when reconciling.
+     */
+    Map<String, List<String>> check() {
+        List<Existing> constraints = singleColumnConstraints();
+        Map<String, List<String>> missing = new LinkedHashMap<>();
+        for (UniqueColumn column : UNIQUE_COLUMNS) {
+            List<Existing> onColumn = constraints.stream().filter(existing -> existing.covers(column)).toList();
+            boolean named = onColumn.stream().anyMatch(existing -> existing.name().equalsIgnoreCase(column.constraint()));
+            for (Existing old : onColumn) {
+                if (old.name().equalsIgnoreCase(column.constraint())) {
+                    continue;
+                }
+                if (!reconcile) {
+                    log.warn("Unique constraint {} on {}.{} is not named {}, "
+                                    + "set app.persistence.reconcile-unique-constraints to rename or drop it",
+                            old.name(), column.table(), column.column(), column.constraint());
+                } else if (!named) {
+                    jdbcTemplate.execute("alter table \"" + old.table() + "\" rename constraint \"" + old.name()
+                            + "\" to " + column.constraint());
+                    log.info("Renamed unique constraint {} on {}.{} to {}",
+                            old.name(), column.table(), column.column(), column.constraint());
+                    named = true;
+                } else {
+                    jdbcTemplate.execute("alter table \"" + old.table() + "\" drop constraint \"" + old.name() + "\"");
+                    log.info("Dropped unique constraint {} on {}.{}, {} covers it",
+                            old.name(), column.table(), column.column(), column.constraint());
+                }
+            }
+            if (!named) {
+                missing.put(column.constraint(), jdbcTemplate.queryForList(
+                        "select " + column.column() + " from " + column.table() + " where " + column.column()
+                                + " is not null group by " + column.column() + " having count(*) > 1",
+                        String.class));
+            }
+        }
+        return missing;
+    }
+
+    private List<Existing> singleColumnConstraints() {
+        Map<List<String>, List<String>> columnsByConstraint = new LinkedHashMap<>();
+        jdbcTemplate.query(UNIQUE_CONSTRAINTS, rs -> {
+            columnsByConstraint.computeIfAbsent(List.of(rs.getString(1), rs.getString(2)), key -> new ArrayList<>())
+                    .add(rs.getString(3));
+        });
+        List<Existing> constraints = new ArrayList<>();
+        columnsByConstraint.forEach((key, columns) -> {
+            if (columns.size() == 1) {
+                constraints.add(new Existing(key.get(0), key.get(1), columns.get(0)));
+            }
+        });
+        return constraints;
+    }
+
+    private record UniqueColumn(String table, String column, String constraint) {
+    }
+
+    // Names as the database reports them, in its case
+    private record Existing(String table, String name, String column) {
+
+        boolean covers(UniqueColumn unique) {
+            return table.equalsIgnoreCase(unique.table()) && column.equalsIgnoreCase(unique.column());
+        }
+    }
+}
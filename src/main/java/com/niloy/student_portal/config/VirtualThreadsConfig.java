@@ -0,0 +1,28 @@
+package com.niloy.student_portal.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Guard for the virtual-threads profile. Spring Boot silently ignores
+ * spring.threads.virtual.enabled below Java 21, which would leave requests on
+ * platform threads while the profile's Hikari pool, JDBC semaphore
+ * (app.datasource.max-concurrency) and
+ * spring.task.execution.simple.concurrency-limit still apply, so refuse to
+ * start.
+ */
+@Configuration
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    public VirtualThreadsConfig() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            throw new IllegalStateException(
+                    "The virtual-threads profile requires Java 21 or newer, running on Java " + javaVersion);
+        }
+        log.info("Serving requests on virtual threads (Java {})", javaVersion);
+    }
+}
@@ -0,0 +1,76 @@
+package com.niloy.student_portal.controller;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Body formats the API negotiates from the Accept header. JSON is the
+ * default; CBOR and Smile carry the same DTOs in fewer bytes and parse faster,
+ * for clients that pull whole listings on a schedule. Message converters for
+ * all three are registered by Spring when the Jackson dataformats are present,
+ * this is only needed where a response is serialized ahead of the converters.
+ */
+enum ApiFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    ApiFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    MediaType mediaType() {
+        return mediaType;
+    }
+
+    /** ETag suffix of the format's representation, none for JSON so its tags stay as they were. */
+    String tagSuffix() {
+        return this == JSON ? null : name().toLowerCase();
+    }
+
+    /**
+     * The format with the highest quality in {@code accept}, JSON on ties, and
+     * also when nothing matches or the header is missing or malformed. Each
+     * format is rated by the most specific range that includes it.
+     */
+    static ApiFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return JSON;
+        }
+        ApiFormat best = JSON;
+        double bestQuality = 0;
+        for (ApiFormat format : values()) {
+            double quality = format.quality(accepted);
+            if (quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private double quality(List<MediaType> accepted) {
+        MediaType match = null;
+        for (MediaType range : accepted) {
+            if (range.includes(mediaType) && (match == null || wildcards(range) < wildcards(match))) {
+                match = range;
+            }
+        }
+        return match == null ? 0 : match.getQualityValue();
+    }
+
+    private static int wildcards(MediaType range) {
+        return (range.isWildcardType() ? 1 : 0) + (range.isWildcardSubtype() ? 1 : 0);
+    }
+}
@@ -0,0 +1,34 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.request.BatchRequest;
+import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.BatchOperationResponse;
+import com.niloy.student_portal.security.PortalUserDetails;
+import com.niloy.student_portal.service.BatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchService batchService;
+
+    /**
+     * Apply create, update and delete operations on own students in order, all or nothing - Teachers only
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<BatchOperationResponse>>> executeBatch(
+            @RequestBody BatchRequest request,
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        List<BatchOperationResponse> results = batchService.execute(request.getOperations(), principal.requireTeacherId());
+        return ResponseEntity.ok(ApiResponse.success("Batch applied", results));
+    }
+}
@@ -0,0 +1,72 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.service.CatalogVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for the catalog API listings. The ETag and Last-Modified
+ * come from the {@link CatalogVersion} of the listing's collection, so a
+ * client that already has the current version is answered with 304 before any
+ * service or database work; HTTP Basic finds the caller in the
+ * {@link com.niloy.student_portal.security.PortalUserCache} ahead of it.
+ * Hashing the body instead would still build the whole response on every poll.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogETags {
+
+    // Clients may keep the body but must revalidate it every time
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    // Versions restart at zero with the process, so tags from an earlier run must not match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final CatalogVersion catalogVersion;
+
+    public <T> ResponseEntity<T> respond(WebRequest request, CatalogVersion.Collection collection, Supplier<T> body) {
+        // Read before the body, so a write committed meanwhile can only make the tag older than the data
+        CatalogVersion.Stamp stamp = catalogVersion.current(collection);
+        ApiFormat format = ApiFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        String etag = etag(collection, stamp, format, null);
+        long lastModified = stamp.lastModified().toEpochMilli();
+
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        // The tag names the format, so the converter must write that one
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body.get());
+    }
+
+    /**
+     * Strong tag for one representation of a collection version. Each format
+     * and content coding is a different representation, so it gets a tag of its own.
+     */
+    String etag(CatalogVersion.Collection collection, CatalogVersion.Stamp stamp,
+                ApiFormat format, String contentCoding) {
+        StringBuilder tag = new StringBuilder("\"").append(collection.name().toLowerCase())
+                .append('-').append(epoch).append('-').append(stamp.version());
+        if (format.tagSuffix() != null) {
+            tag.append('-').append(format.tagSuffix());
+        }
+        if (contentCoding != null) {
+            tag.append('-').append(contentCoding);
+        }
+        return tag.append('"').toString();
+    }
+}
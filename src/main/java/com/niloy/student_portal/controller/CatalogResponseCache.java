@@ -0,0 +1,155 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.service.CatalogVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of the final bytes of the catalog API listings, per negotiated
+ * {@link ApiFormat}, plain and gzipped, keyed by the {@link CatalogVersion} of
+ * their collection. A hit is written straight from the cached array, skipping
+ * the service, Jackson and the compressor. Conditional requests are answered
+ * like {@link CatalogETags}, with a separate tag per format and content coding.
+ */
+@Component
+public class CatalogResponseCache {
+
+    static final String GZIP = "gzip";
+
+    private final CatalogVersion catalogVersion;
+    private final CatalogETags catalogETags;
+    private final Map<ApiFormat, ObjectMapper> mappers;
+    private final MeterRegistry meterRegistry;
+    private final int maxEntries;
+    private final Map<Key, Encoded> entries = new ConcurrentHashMap<>();
+
+    public CatalogResponseCache(CatalogVersion catalogVersion,
+                                CatalogETags catalogETags,
+                                JsonMapper jsonMapper,
+                                CBORMapper cborMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.api.response-cache.max-entries:200}") int maxEntries) {
+        this.catalogVersion = catalogVersion;
+        this.catalogETags = catalogETags;
+        // Boot configures no Smile mapper, the Smile message converter uses a default one as well
+        this.mappers = Map.of(ApiFormat.JSON, jsonMapper, ApiFormat.CBOR, cborMapper,
+                ApiFormat.SMILE, SmileMapper.builder().build());
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+        meterRegistry.gaugeMapSize("portal.api.response.cache.size", List.of(), entries);
+    }
+
+    /**
+     * Returns the serialized listing in the best format and coding the client accepts.
+     * {@code key} must tell apart every listing of the collection, and
+     * {@code body} is only called on a miss.
+     */
+    public ResponseEntity<byte[]> respond(WebRequest request, CatalogVersion.Collection collection,
+                                          String key, Supplier<?> body) {
+        CatalogVersion.Stamp stamp = catalogVersion.current(collection);
+        ApiFormat format = ApiFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = catalogETags.etag(collection, stamp, format, gzip ? GZIP : null);
+        long lastModified = stamp.lastModified().toEpochMilli();
+
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CatalogETags.CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        Encoded encoded = get(new Key(collection, key, format, stamp.version()), body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CatalogETags.CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(encoded.gzip());
+        }
+        return response.body(encoded.identity());
+    }
+
+    private Encoded get(Key key, Supplier<?> body) {
+        Encoded encoded = maxEntries > 0 ? entries.get(key) : null;
+        if (encoded != null) {
+            count(key.collection(), "hit");
+            return encoded;
+        }
+        count(key.collection(), "miss");
+
+        byte[] bytes = mappers.get(key.format()).writeValueAsBytes(body.get());
+        encoded = new Encoded(bytes, gzip(bytes));
+        store(key, encoded);
+        return encoded;
+    }
+
+    private void store(Key key, Encoded encoded) {
+        // Same rule as the fragment cache: a stale key must not evict entries of the newer version
+        if (maxEntries <= 0 || catalogVersion.current(key.collection()).version() != key.version()) {
+            return;
+        }
+        entries.keySet().removeIf(existing ->
+                existing.collection() == key.collection() && existing.version() != key.version());
+        if (entries.size() < maxEntries) {
+            entries.putIfAbsent(key, encoded);
+        }
+    }
+
+    private void count(CatalogVersion.Collection collection, String result) {
+        meterRegistry.counter("portal.api.response.cache",
+                "collection", collection.name().toLowerCase(), "result", result).increment();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase(GZIP) && !name.equals("*")) {
+                continue;
+            }
+            // q=0 means "not acceptable"
+            return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0{0,3})?");
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private record Key(CatalogVersion.Collection collection, String listing, ApiFormat format, long version) {
+    }
+
+    private record Encoded(byte[] identity, byte[] gzip) {
+    }
+}
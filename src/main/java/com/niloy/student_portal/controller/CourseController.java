@@ -2,15 +2,19 @@ package com.niloy.student_portal.controller;
 
 import com.niloy.student_portal.dto.request.CourseRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.MultiGetResult;
 import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.service.CatalogVersion;
 import com.niloy.student_portal.service.CourseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -18,6 +22,8 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CatalogETags catalogETags;
+    private final CatalogResponseCache catalogResponseCache;
 
     @PostMapping
     @PreAuthorize("hasRole('TEACHER')")
@@ -33,16 +39,48 @@ public class CourseController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    // ?fields=id,courseCode,... returns only those fields, and queries only their columns
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCourseFieldsById(
+            @PathVariable Long id,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(courseService.getCourseFieldsById(id, fields)));
+    }
+
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CourseResponse>>> getAllCourses() {
-        List<CourseResponse> response = courseService.getAllCourses();
-        return ResponseEntity.ok(ApiResponse.success(response));
+    public ResponseEntity<byte[]> getAllCourses(WebRequest request) {
+        // Most polled endpoint, served from pre-serialized bytes
+        return catalogResponseCache.respond(request, CatalogVersion.Collection.COURSES, "all",
+                () -> ApiResponse.success(courseService.getAllCourses()));
+    }
+
+    // ?ids=1,2,3 reads the listed courses in one query, in that order, and lists the ids not found
+    @GetMapping(params = "ids")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getCoursesByIds(
+            @RequestParam String ids,
+            @RequestParam(required = false) String fields) {
+        MultiGetResult result = courseService.getCoursesByIds(ids, fields);
+        return ResponseEntity.ok(ApiResponse.successWithMissing(result.getRows(), result.getMissing()));
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllCourseFields(@RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(courseService.getAllCourseFields(fields)));
     }
 
     @GetMapping("/department/{departmentId}")
-    public ResponseEntity<ApiResponse<List<CourseResponse>>> getCoursesByDepartment(@PathVariable Long departmentId) {
-        List<CourseResponse> response = courseService.getCoursesByDepartment(departmentId);
-        return ResponseEntity.ok(ApiResponse.success(response));
+    public ResponseEntity<ApiResponse<List<CourseResponse>>> getCoursesByDepartment(
+            @PathVariable Long departmentId,
+            WebRequest request) {
+        return catalogETags.respond(request, CatalogVersion.Collection.COURSES,
+                () -> ApiResponse.success(courseService.getCoursesByDepartment(departmentId)));
+    }
+
+    @GetMapping(value = "/department/{departmentId}", params = "fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getCourseFieldsByDepartment(
+            @PathVariable Long departmentId,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(courseService.getCourseFieldsByDepartment(departmentId, fields)));
     }
 
     @PutMapping("/{id}")
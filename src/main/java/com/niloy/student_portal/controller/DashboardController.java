@@ -0,0 +1,29 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.DashboardSummaryResponse;
+import com.niloy.student_portal.security.PortalUserDetails;
+import com.niloy.student_portal.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * Counts and the most recent items for the caller's role
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<DashboardSummaryResponse>> getSummary(
+            @AuthenticationPrincipal PortalUserDetails principal,
+            @RequestParam(defaultValue = "" + DashboardService.DEFAULT_RECENT_LIMIT) int limit) {
+        DashboardSummaryResponse response = dashboardService.getSummary(principal, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
@@ -3,14 +3,14 @@ package com.niloy.student_portal.controller;
 import com.niloy.student_portal.dto.request.DepartmentRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
 import com.niloy.student_portal.dto.response.DepartmentResponse;
+import com.niloy.student_portal.service.CatalogVersion;
 import com.niloy.student_portal.service.DepartmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/departments")
@@ -18,6 +18,7 @@ import java.util.List;
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final CatalogResponseCache catalogResponseCache;
 
     @PostMapping
     @PreAuthorize("hasRole('TEACHER')")
@@ -34,9 +35,9 @@ public class DepartmentController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<DepartmentResponse>>> getAllDepartments() {
-        List<DepartmentResponse> response = departmentService.getAllDepartments();
-        return ResponseEntity.ok(ApiResponse.success(response));
+    public ResponseEntity<byte[]> getAllDepartments(WebRequest request) {
+        return catalogResponseCache.respond(request, CatalogVersion.Collection.DEPARTMENTS, "all",
+                () -> ApiResponse.success(departmentService.getAllDepartments()));
     }
 
     @PutMapping("/{id}")
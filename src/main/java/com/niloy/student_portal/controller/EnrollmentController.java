@@ -3,11 +3,12 @@ package com.niloy.student_portal.controller;
 import com.niloy.student_portal.dto.request.EnrollmentRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
 import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.security.PortalUserDetails;
 import com.niloy.student_portal.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -24,8 +25,8 @@ public class EnrollmentController {
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<ApiResponse<StudentResponse>> enrollInCourse(
             @RequestBody EnrollmentRequest request,
-            Authentication authentication) {
-        StudentResponse response = studentService.enrollInCourse(request.getCourseId(), authentication.getName());
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        StudentResponse response = studentService.enrollInCourse(request.getCourseId(), principal.requireStudentId());
         return ResponseEntity.ok(ApiResponse.success("Successfully enrolled in course", response));
     }
 
@@ -34,8 +35,8 @@ public class EnrollmentController {
      */
     @DeleteMapping
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<ApiResponse<StudentResponse>> dropCourse(Authentication authentication) {
-        StudentResponse response = studentService.dropCourse(authentication.getName());
+    public ResponseEntity<ApiResponse<StudentResponse>> dropCourse(@AuthenticationPrincipal PortalUserDetails principal) {
+        StudentResponse response = studentService.dropCourse(principal.requireStudentId());
         return ResponseEntity.ok(ApiResponse.success("Successfully dropped course", response));
     }
 
@@ -44,8 +45,9 @@ public class EnrollmentController {
      */
     @GetMapping("/status")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<ApiResponse<StudentResponse>> getEnrollmentStatus(Authentication authentication) {
-        StudentResponse response = studentService.getStudentByUsername(authentication.getName());
+    public ResponseEntity<ApiResponse<StudentResponse>> getEnrollmentStatus(
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        StudentResponse response = studentService.getStudentById(principal.requireStudentId());
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
@@ -0,0 +1,104 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.service.CatalogVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Output cache for the catalog fragments in fragments/panels.html that render
+ * the same for every user. Entries are keyed by fragment, arguments and
+ * {@link CatalogVersion}, so a catalog write makes them unreachable and the
+ * next request renders afresh. A hit skips both the service read and the
+ * template. Per-user fragments must not go through here.
+ */
+@Component
+public class FragmentCache {
+
+    static final String TEMPLATE = "fragments/panels";
+
+    private final ITemplateEngine templateEngine;
+    private final CatalogVersion catalogVersion;
+    private final MeterRegistry meterRegistry;
+    private final int maxEntries;
+    private final Map<Key, String> entries = new ConcurrentHashMap<>();
+
+    public FragmentCache(ITemplateEngine templateEngine,
+                         CatalogVersion catalogVersion,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.web.fragment-cache.max-entries:500}") int maxEntries) {
+        this.templateEngine = templateEngine;
+        this.catalogVersion = catalogVersion;
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+        meterRegistry.gaugeMapSize("portal.web.fragment.cache.size", List.of(), entries);
+    }
+
+    /**
+     * Returns the rendered fragment. {@code model} is only called on a miss, and
+     * {@code args} must cover everything the model depends on besides the catalog.
+     */
+    public String render(String fragment, List<?> args, Supplier<Map<String, Object>> model) {
+        Key key = new Key(fragment, List.copyOf(args), catalogVersion.current());
+        String html = maxEntries > 0 ? entries.get(key) : null;
+        if (html != null) {
+            count(fragment, "hit");
+            return html;
+        }
+        count(fragment, "miss");
+
+        html = process(fragment, model.get());
+        store(key, html);
+        return html;
+    }
+
+    private void store(Key key, String html) {
+        // A write committed while rendering: this key is already stale and storing it would evict newer entries
+        if (maxEntries <= 0 || catalogVersion.current() != key.version()) {
+            return;
+        }
+        entries.keySet().removeIf(existing -> existing.version() != key.version());
+        if (entries.size() < maxEntries) {
+            entries.putIfAbsent(key, html);
+        }
+    }
+
+    private String process(String fragment, Map<String, Object> model) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+        // The output is shared, so links must not carry this caller's jsessionid
+        HttpServletResponse response = new HttpServletResponseWrapper(attributes.getResponse()) {
+            @Override
+            public String encodeURL(String url) {
+                return url;
+            }
+        };
+        IWebExchange exchange = JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, response);
+        return templateEngine.process(TEMPLATE, Set.of(fragment),
+                new WebContext(exchange, LocaleContextHolder.getLocale(), model));
+    }
+
+    private void count(String fragment, String result) {
+        meterRegistry.counter("portal.web.fragment.cache", "fragment", fragment, "result", result).increment();
+    }
+
+    private record Key(String fragment, List<?> args, long version) {
+    }
+}
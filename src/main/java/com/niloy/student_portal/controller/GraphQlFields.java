@@ -0,0 +1,84 @@
+package com.niloy.student_portal.controller;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.dataloader.BatchLoaderEnvironment;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fields to read for each GraphQL type of a query, so a level selects
+ * only the columns asked for. A root resolver works them out once for its
+ * whole subtree and hands them down as the local context, which reaches the
+ * batch mappings of every nested level as their key context. Nested fields
+ * add the foreign key that links a child row to its parent; ids are always
+ * read.
+ */
+final class GraphQlFields {
+
+    private record Link(String type, String field) {
+    }
+
+    // For each nested field, the type and field that link its rows to their parent
+    private static final Map<String, Link> LINKS = Map.of(
+            "Department.courses", new Link("Course", "departmentId"),
+            "Department.teachers", new Link("Teacher", "departmentId"),
+            "Course.department", new Link("Course", "departmentId"),
+            "Course.students", new Link("Student", "enrolledCourseId"),
+            "Teacher.department", new Link("Teacher", "departmentId"),
+            "Teacher.students", new Link("Student", "teacherId"),
+            "Student.teacher", new Link("Student", "teacherId"),
+            "Student.course", new Link("Student", "enrolledCourseId"));
+
+    // Every field of every type, for rows reached without a plan
+    private static final GraphQlFields ALL = new GraphQlFields(null);
+
+    private final Map<String, Set<String>> byType;
+
+    private GraphQlFields(Map<String, Set<String>> byType) {
+        this.byType = byType;
+    }
+
+    /** Fields of every type selected anywhere under a root field. */
+    static GraphQlFields of(DataFetchingFieldSelectionSet selection) {
+        Map<String, Set<String>> byType = new HashMap<>();
+        for (SelectedField field : selection.getFields()) {
+            if (field.getName().startsWith("__")) {
+                continue;
+            }
+            for (String type : field.getObjectTypeNames()) {
+                Link link = LINKS.get(type + "." + field.getName());
+                if (link == null) {
+                    byType.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(field.getName());
+                } else {
+                    byType.computeIfAbsent(link.type(), key -> new LinkedHashSet<>()).add(link.field());
+                }
+            }
+        }
+        return new GraphQlFields(byType);
+    }
+
+    /**
+     * Fields of a batch of nested rows. One batch may serve several root
+     * fields of the same operation, so their selections are merged.
+     */
+    static GraphQlFields of(BatchLoaderEnvironment environment) {
+        Map<String, Set<String>> byType = new HashMap<>();
+        for (Object context : environment.getKeyContextsList()) {
+            if (!(context instanceof GraphQlFields fields) || fields.byType == null) {
+                return ALL;
+            }
+            fields.byType.forEach((type, names) ->
+                    byType.computeIfAbsent(type, key -> new LinkedHashSet<>()).addAll(names));
+        }
+        return new GraphQlFields(byType);
+    }
+
+    /** The {@code fields} parameter for a type, empty reading just the ids and {@code null} all fields. */
+    String of(String type) {
+        return byType == null ? null : String.join(",", byType.getOrDefault(type, Set.of()));
+    }
+}
@@ -0,0 +1,120 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.config.ConnectionUsageTracker;
+import com.niloy.student_portal.exception.PageLoadTimeoutException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent service reads of a web page concurrently on the
+ * application task executor. That executor is a bounded pool, or virtual
+ * threads when spring.threads.virtual.enabled is set. Page latency becomes
+ * that of the slowest read rather than the sum.
+ */
+@Component
+public class PageDataLoader {
+
+    private final AsyncTaskExecutor executor;
+    private final ConnectionUsageTracker connectionUsageTracker;
+    private final long deadlineMillis;
+
+    public PageDataLoader(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                          ConnectionUsageTracker connectionUsageTracker,
+                          @Value("${app.web.page-deadline-ms:5000}") long deadlineMillis) {
+        this.executor = executor;
+        this.connectionUsageTracker = connectionUsageTracker;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public Page page() {
+        return new Page(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis));
+    }
+
+    /**
+     * One page worth of forked reads. Call {@link #join()} before reading any
+     * result. The first failure or the deadline cancels everything still
+     * running.
+     */
+    public class Page {
+        private final long deadlineNanos;
+        private final List<Future<?>> tasks = new ArrayList<>();
+        private final List<CompletableFuture<?>> results = new ArrayList<>();
+
+        private Page(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public <T> Supplier<T> fork(Supplier<T> read) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Runnable task = connectionUsageTracker.propagate(() -> {
+                try {
+                    result.complete(read.get());
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+            try {
+                tasks.add(executor.submit(task));
+            } catch (TaskRejectedException ex) {
+                // Executor saturated: do the read on the request thread instead of failing the page
+                FutureTask<Void> inline = new FutureTask<>(task, null);
+                inline.run();
+                tasks.add(inline);
+            }
+            results.add(result);
+            return result::join;
+        }
+
+        public void join() {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                    .whenComplete((ignored, ex) -> done.complete(null));
+            results.forEach(result -> result.whenComplete((value, ex) -> {
+                if (ex != null) {
+                    done.completeExceptionally(ex);
+                }
+            }));
+
+            try {
+                done.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException ex) {
+                cancelAll();
+                throw rethrow(ex.getCause());
+            } catch (TimeoutException ex) {
+                cancelAll();
+                throw new PageLoadTimeoutException(deadlineMillis);
+            } catch (InterruptedException ex) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new PageLoadTimeoutException(deadlineMillis);
+            }
+        }
+
+        private void cancelAll() {
+            tasks.forEach(task -> task.cancel(true));
+        }
+
+        private RuntimeException rethrow(Throwable cause) {
+            if (cause instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new IllegalStateException(cause);
+        }
+    }
+}
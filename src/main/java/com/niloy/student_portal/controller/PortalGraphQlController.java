@@ -0,0 +1,189 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.service.CourseService;
+import com.niloy.student_portal.service.DepartmentService;
+import com.niloy.student_portal.service.StudentService;
+import com.niloy.student_portal.service.TeacherService;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import lombok.RequiredArgsConstructor;
+import org.dataloader.BatchLoaderEnvironment;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL resolvers over the sparse-field reads of the services. Records are
+ * the same field-name rows the REST ?fields= variants return, with only the
+ * fields the query selects (see {@link GraphQlFields}), and every nested
+ * field is a batch mapping: one IN query loads it for all the parents of a
+ * level, so a query costs one statement per level however many rows it
+ * touches.
+ */
+@Controller
+@RequiredArgsConstructor
+public class PortalGraphQlController {
+
+    private final DepartmentService departmentService;
+    private final CourseService courseService;
+    private final TeacherService teacherService;
+    private final StudentService studentService;
+
+    @QueryMapping
+    public DataFetcherResult<List<Map<String, Object>>> departments(DataFetchingFieldSelectionSet selection) {
+        GraphQlFields fields = GraphQlFields.of(selection);
+        return result(departmentService.getAllDepartmentFields(fields.of("Department")), fields);
+    }
+
+    @QueryMapping
+    public DataFetcherResult<Map<String, Object>> department(@Argument Long id, DataFetchingFieldSelectionSet selection) {
+        GraphQlFields fields = GraphQlFields.of(selection);
+        return result(first(departmentService.getDepartmentFieldsByIds(List.of(id), fields.of("Department"))), fields);
+    }
+
+    @QueryMapping
+    public DataFetcherResult<List<Map<String, Object>>> courses(DataFetchingFieldSelectionSet selection) {
+        GraphQlFields fields = GraphQlFields.of(selection);
+        return result(courseService.getAllCourseFields(fields.of("Course")), fields);
+    }
+
+    @QueryMapping
+    public DataFetcherResult<Map<String, Object>> course(@Argument Long id, DataFetchingFieldSelectionSet selection) {
+        GraphQlFields fields = GraphQlFields.of(selection);
+        return result(first(courseService.getCourseFieldsByIds(List.of(id), fields.of("Course"))), fields);
+    }
+
+    @QueryMapping
+    @PreAuthorize("hasRole('TEACHER')")
+    public DataFetcherResult<List<Map<String, Object>>> teachers(DataFetchingFieldSelectionSet selection) {
+        GraphQlFields fields = GraphQlFields.of(selection);
+        return result(teacherService.getAllTeacherFields(fields.of("Teacher")), fields);
+    }
+
+    @QueryMapping
+    @PreAuthorize("hasRole('TEACHER')")
+    public DataFetcherResult<Map<String, Object>> teacher(@Argument Long id, DataFetchingFieldSelectionSet selection) {
+        GraphQlFields fields = GraphQlFields.of(selection);
+        return result(first(teacherService.getTeacherFieldsByIds(List.of(id), fields.of("Teacher"))), fields);
+    }
+
+    @BatchMapping(typeName = "Department", field = "courses")
+    public Map<Map<String, Object>, List<Map<String, Object>>> departmentCourses(List<Map<String, Object>> departments,
+            BatchLoaderEnvironment environment) {
+        String fields = GraphQlFields.of(environment).of("Course");
+        return children(departments, "departmentId",
+                ids -> courseService.getCourseFieldsByDepartmentIds(ids, fields));
+    }
+
+    @BatchMapping(typeName = "Department", field = "teachers")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<Map<String, Object>, List<Map<String, Object>>> departmentTeachers(List<Map<String, Object>> departments,
+            BatchLoaderEnvironment environment) {
+        String fields = GraphQlFields.of(environment).of("Teacher");
+        return children(departments, "departmentId",
+                ids -> teacherService.getTeacherFieldsByDepartmentIds(ids, fields));
+    }
+
+    @BatchMapping(typeName = "Course", field = "department")
+    public Map<Map<String, Object>, Map<String, Object>> courseDepartment(List<Map<String, Object>> courses,
+            BatchLoaderEnvironment environment) {
+        String fields = GraphQlFields.of(environment).of("Department");
+        return parents(courses, "departmentId", ids -> departmentService.getDepartmentFieldsByIds(ids, fields));
+    }
+
+    @BatchMapping(typeName = "Course", field = "students")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<Map<String, Object>, List<Map<String, Object>>> courseStudents(List<Map<String, Object>> courses,
+            BatchLoaderEnvironment environment) {
+        String fields = GraphQlFields.of(environment).of("Student");
+        return children(courses, "enrolledCourseId",
+                ids -> studentService.getStudentFieldsByCourseIds(ids, fields));
+    }
+
+    @BatchMapping(typeName = "Teacher", field = "department")
+    public Map<Map<String, Object>, Map<String, Object>> teacherDepartment(List<Map<String, Object>> teachers,
+            BatchLoaderEnvironment environment) {
+        String fields = GraphQlFields.of(environment).of("Department");
+        return parents(teachers, "departmentId", ids -> departmentService.getDepartmentFieldsByIds(ids, fields));
+    }
+
+    @BatchMapping(typeName = "Teacher", field = "students")
+    public Map<Map<String, Object>, List<Map<String, Object>>> teacherStudents(List<Map<String, Object>> teachers,
+            BatchLoaderEnvironment environment) {
+        String fields = GraphQlFields.of(environment).of("Student");
+        return children(teachers, "teacherId",
+                ids -> studentService.getStudentFieldsByTeacherIds(ids, fields));
+    }
+
+    @BatchMapping(typeName = "Student", field = "teacher")
+    public Map<Map<String, Object>, Map<String, Object>> studentTeacher(List<Map<String, Object>> students,
+            BatchLoaderEnvironment environment) {
+        String fields = GraphQlFields.of(environment).of("Teacher");
+        return parents(students, "teacherId", ids -> teacherService.getTeacherFieldsByIds(ids, fields));
+    }
+
+    @BatchMapping(typeName = "Student", field = "course")
+    public Map<Map<String, Object>, Map<String, Object>> studentCourse(List<Map<String, Object>> students,
+            BatchLoaderEnvironment environment) {
+        String fields = GraphQlFields.of(environment).of("Course");
+        return parents(students, "enrolledCourseId", ids -> courseService.getCourseFieldsByIds(ids, fields));
+    }
+
+    // The fields plan travels down to every nested level with the rows
+    private static <T> DataFetcherResult<T> result(T data, GraphQlFields fields) {
+        return DataFetcherResult.<T>newResult().data(data).localContext(fields).build();
+    }
+
+    private static Map<String, Object> first(List<Map<String, Object>> rows) {
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Rows of a to-many field for every source, loaded for all of them at once
+     * and matched back by {@code foreignKey}; sources without any get an empty list.
+     */
+    private static Map<Map<String, Object>, List<Map<String, Object>>> children(
+            List<Map<String, Object>> sources, String foreignKey,
+            Function<Collection<Long>, List<Map<String, Object>>> loader) {
+        Map<Object, List<Map<String, Object>>> byParent = loader.apply(ids(sources, "id")).stream()
+                .collect(Collectors.groupingBy(row -> row.get(foreignKey)));
+        Map<Map<String, Object>, List<Map<String, Object>>> result = new LinkedHashMap<>();
+        sources.forEach(source -> result.put(source, byParent.getOrDefault(source.get("id"), new ArrayList<>())));
+        return result;
+    }
+
+    /** The row each source refers to through {@code foreignKey}, loaded for all of them at once. */
+    private static Map<Map<String, Object>, Map<String, Object>> parents(
+            List<Map<String, Object>> sources, String foreignKey,
+            Function<Collection<Long>, List<Map<String, Object>>> loader) {
+        Map<Object, Map<String, Object>> byId = loader.apply(ids(sources, foreignKey)).stream()
+                .collect(Collectors.toMap(row -> row.get("id"), Function.identity()));
+        Map<Map<String, Object>, Map<String, Object>> result = new LinkedHashMap<>();
+        sources.stream()
+                .filter(source -> byId.containsKey(source.get(foreignKey)))
+                .forEach(source -> result.put(source, byId.get(source.get(foreignKey))));
+        return result;
+    }
+
+    private static Set<Long> ids(List<Map<String, Object>> rows, String key) {
+        Set<Long> ids = new LinkedHashSet<>();
+        rows.forEach(row -> {
+            if (row.get(key) != null) {
+                ids.add((Long) row.get(key));
+            }
+        });
+        return ids;
+    }
+}
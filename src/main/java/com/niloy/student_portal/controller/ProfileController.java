@@ -4,13 +4,12 @@ import com.niloy.student_portal.dto.request.StudentUpdateRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
 import com.niloy.student_portal.dto.response.StudentResponse;
 import com.niloy.student_portal.dto.response.TeacherResponse;
-import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.security.PortalUserDetails;
 import com.niloy.student_portal.service.StudentService;
 import com.niloy.student_portal.service.TeacherService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -25,17 +24,12 @@ public class ProfileController {
      * Get current user's profile
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<?>> getProfile(Authentication authentication) {
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .findFirst()
-                .orElse("");
-
-        if (role.equals(Role.ROLE_STUDENT.name())) {
-            StudentResponse response = studentService.getStudentByUsername(authentication.getName());
+    public ResponseEntity<ApiResponse<?>> getProfile(@AuthenticationPrincipal PortalUserDetails principal) {
+        if (principal.isStudent()) {
+            StudentResponse response = studentService.getStudentById(principal.requireStudentId());
             return ResponseEntity.ok(ApiResponse.success(response));
-        } else if (role.equals(Role.ROLE_TEACHER.name())) {
-            TeacherResponse response = teacherService.getTeacherByUsername(authentication.getName());
+        } else if (principal.isTeacher()) {
+            TeacherResponse response = teacherService.getTeacherById(principal.requireTeacherId());
             return ResponseEntity.ok(ApiResponse.success(response));
         }
 
@@ -43,19 +37,14 @@ public class ProfileController {
     }
 
     /**
-     * Update student profile - Students can only update limited fields
+     * Update student profile - Students can only update limited fields, and only the ones sent are changed
      */
-    @PutMapping
+    @RequestMapping(method = {RequestMethod.PUT, RequestMethod.PATCH})
     public ResponseEntity<ApiResponse<?>> updateProfile(
             @RequestBody StudentUpdateRequest request,
-            Authentication authentication) {
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .findFirst()
-                .orElse("");
-
-        if (role.equals(Role.ROLE_STUDENT.name())) {
-            StudentResponse response = studentService.updateStudentProfile(request, authentication.getName());
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        if (principal.isStudent()) {
+            StudentResponse response = studentService.updateStudentProfile(request, principal.requireStudentId());
             return ResponseEntity.ok(ApiResponse.success("Profile updated successfully", response));
         }
 
@@ -3,16 +3,20 @@ package com.niloy.student_portal.controller;
 import com.niloy.student_portal.dto.request.StudentCreateRequest;
 import com.niloy.student_portal.dto.request.StudentUpdateRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.MultiGetResult;
+import com.niloy.student_portal.dto.response.NormalizedList;
 import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.security.PortalUserDetails;
 import com.niloy.student_portal.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/students")
@@ -28,8 +32,8 @@ public class StudentController {
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<ApiResponse<StudentResponse>> createStudent(
             @RequestBody StudentCreateRequest request,
-            Authentication authentication) {
-        StudentResponse response = studentService.createStudent(request, authentication.getName());
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        StudentResponse response = studentService.createStudent(request, principal.requireTeacherId());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Student created successfully", response));
     }
@@ -43,6 +47,16 @@ public class StudentController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Sparse variant - ?fields=id,studentId,... returns only those fields, and queries only their columns
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStudentFieldsById(
+            @PathVariable Long id,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(studentService.getStudentFieldsById(id, fields)));
+    }
+
     /**
      * Get all students - Accessible by teachers
      */
@@ -53,16 +67,65 @@ public class StudentController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping(params = {"fields", "!include", "!ids"})
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllStudentFields(@RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(studentService.getAllStudentFields(fields)));
+    }
+
+    /**
+     * Normalized variant - ?include=teacher,course sends each referenced teacher and course once,
+     * rows refer to them by id. Combines with ?fields=
+     */
+    @GetMapping(params = {"include", "!ids"})
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllStudentsIncluding(
+            @RequestParam String include,
+            @RequestParam(required = false) String fields) {
+        return normalized(studentService.getAllStudentsIncluding(include, fields));
+    }
+
+    /**
+     * Multi-get - ?ids=1,2,3 reads the listed students in one query, in that order,
+     * and lists the ids not found. Combines with ?fields=
+     */
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getStudentsByIds(
+            @RequestParam String ids,
+            @RequestParam(required = false) String fields) {
+        return multiGet(studentService.getStudentsByIds(ids, fields));
+    }
+
     /**
      * Get students managed by the authenticated teacher
      */
     @GetMapping("/my-students")
     @PreAuthorize("hasRole('TEACHER')")
-    public ResponseEntity<ApiResponse<List<StudentResponse>>> getMyStudents(Authentication authentication) {
-        List<StudentResponse> response = studentService.getStudentsByTeacher(authentication.getName());
+    public ResponseEntity<ApiResponse<List<StudentResponse>>> getMyStudents(
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        List<StudentResponse> response = studentService.getStudentsByTeacher(principal.requireTeacherId());
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping(value = "/my-students", params = {"fields", "!include"})
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMyStudentFields(
+            @RequestParam String fields,
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        return ResponseEntity.ok(ApiResponse.success(
+                studentService.getStudentFieldsByTeacher(principal.requireTeacherId(), fields)));
+    }
+
+    @GetMapping(value = "/my-students", params = "include")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMyStudentsIncluding(
+            @RequestParam String include,
+            @RequestParam(required = false) String fields,
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        return normalized(studentService.getStudentsByTeacherIncluding(principal.requireTeacherId(), include, fields));
+    }
+
     /**
      * Get students enrolled in a specific course
      */
@@ -73,6 +136,23 @@ public class StudentController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping(value = "/course/{courseId}", params = {"fields", "!include"})
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getStudentFieldsByCourse(
+            @PathVariable Long courseId,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(studentService.getStudentFieldsByCourse(courseId, fields)));
+    }
+
+    @GetMapping(value = "/course/{courseId}", params = "include")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getStudentsByCourseIncluding(
+            @PathVariable Long courseId,
+            @RequestParam String include,
+            @RequestParam(required = false) String fields) {
+        return normalized(studentService.getStudentsByCourseIncluding(courseId, include, fields));
+    }
+
     /**
      * Update student by teacher - full update capability
      */
@@ -81,8 +161,21 @@ public class StudentController {
     public ResponseEntity<ApiResponse<StudentResponse>> updateStudentByTeacher(
             @PathVariable Long id,
             @RequestBody StudentCreateRequest request,
-            Authentication authentication) {
-        StudentResponse response = studentService.updateStudentByTeacher(id, request, authentication.getName());
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        StudentResponse response = studentService.updateStudentByTeacher(id, request, principal.requireTeacherId());
+        return ResponseEntity.ok(ApiResponse.success("Student updated successfully", response));
+    }
+
+    /**
+     * Partial update by teacher - only the fields sent are changed
+     */
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<StudentResponse>> patchStudentByTeacher(
+            @PathVariable Long id,
+            @RequestBody StudentCreateRequest request,
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        StudentResponse response = studentService.patchStudentByTeacher(id, request, principal.requireTeacherId());
         return ResponseEntity.ok(ApiResponse.success("Student updated successfully", response));
     }
 
@@ -93,8 +186,16 @@ public class StudentController {
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<ApiResponse<Void>> deleteStudent(
             @PathVariable Long id,
-            Authentication authentication) {
-        studentService.deleteStudent(id, authentication.getName());
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        studentService.deleteStudent(id, principal.requireTeacherId());
         return ResponseEntity.ok(ApiResponse.success("Student deleted successfully", null));
     }
+
+    private ResponseEntity<ApiResponse<List<Map<String, Object>>>> normalized(NormalizedList list) {
+        return ResponseEntity.ok(ApiResponse.successIncluding(list.getRows(), list.getIncluded()));
+    }
+
+    private ResponseEntity<ApiResponse<List<Map<String, Object>>>> multiGet(MultiGetResult result) {
+        return ResponseEntity.ok(ApiResponse.successWithMissing(result.getRows(), result.getMissing()));
+    }
 }
@@ -0,0 +1,31 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.SyncResponse;
+import com.niloy.student_portal.security.PortalUserDetails;
+import com.niloy.student_portal.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * Rows created, changed or deleted since ?since=, the nextToken of the previous sync;
+     * without it, everything. Keep requesting with nextToken while hasMore is set.
+     * Teachers and students are only synced to teachers
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<SyncResponse>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + SyncService.DEFAULT_LIMIT) int limit,
+            @AuthenticationPrincipal PortalUserDetails principal) {
+        return ResponseEntity.ok(ApiResponse.success(syncService.getChanges(since, limit, principal.isTeacher())));
+    }
+}
@@ -2,6 +2,7 @@ package com.niloy.student_portal.controller;
 
 import com.niloy.student_portal.dto.request.TeacherRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.MultiGetResult;
 import com.niloy.student_portal.dto.response.TeacherResponse;
 import com.niloy.student_portal.service.TeacherService;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +12,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/teachers")
@@ -34,6 +36,15 @@ public class TeacherController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    // ?fields=id,employeeId,... returns only those fields, and queries only their columns
+    @GetMapping(value = "/{id}", params = "fields")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTeacherFieldsById(
+            @PathVariable Long id,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(teacherService.getTeacherFieldsById(id, fields)));
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<ApiResponse<List<TeacherResponse>>> getAllTeachers() {
@@ -41,6 +52,22 @@ public class TeacherController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    // ?ids=1,2,3 reads the listed teachers in one query, in that order, and lists the ids not found
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getTeachersByIds(
+            @RequestParam String ids,
+            @RequestParam(required = false) String fields) {
+        MultiGetResult result = teacherService.getTeachersByIds(ids, fields);
+        return ResponseEntity.ok(ApiResponse.successWithMissing(result.getRows(), result.getMissing()));
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllTeacherFields(@RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(teacherService.getAllTeacherFields(fields)));
+    }
+
     @GetMapping("/department/{departmentId}")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<ApiResponse<List<TeacherResponse>>> getTeachersByDepartment(@PathVariable Long departmentId) {
@@ -48,6 +75,14 @@ public class TeacherController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping(value = "/department/{departmentId}", params = "fields")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getTeacherFieldsByDepartment(
+            @PathVariable Long departmentId,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(teacherService.getTeacherFieldsByDepartment(departmentId, fields)));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<ApiResponse<TeacherResponse>> updateTeacher(
@@ -57,6 +92,15 @@ public class TeacherController {
         return ResponseEntity.ok(ApiResponse.success("Teacher updated successfully", response));
     }
 
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<TeacherResponse>> patchTeacher(
+            @PathVariable Long id,
+            @RequestBody TeacherRequest request) {
+        TeacherResponse response = teacherService.patchTeacher(id, request);
+        return ResponseEntity.ok(ApiResponse.success("Teacher updated successfully", response));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<ApiResponse<Void>> deleteTeacher(@PathVariable Long id) {
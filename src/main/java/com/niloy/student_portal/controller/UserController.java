@@ -0,0 +1,44 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.service.AccountAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final AccountAvailabilityService accountAvailabilityService;
+
+    /**
+     * Check whether a username, email and/or student ID is still free.
+     * Only the supplied parameters appear in the result.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<Map<String, Boolean>>> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String studentId) {
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+        if (username != null && !username.isBlank()) {
+            availability.put("username", accountAvailabilityService.isUsernameAvailable(username));
+        }
+        if (email != null && !email.isBlank()) {
+            availability.put("email", accountAvailabilityService.isEmailAvailable(email));
+        }
+        if (studentId != null && !studentId.isBlank()) {
+            availability.put("studentId", accountAvailabilityService.isStudentIdAvailable(studentId));
+        }
+        if (availability.isEmpty()) {
+            throw new BadRequestException("At least one of username, email or studentId is required");
+        }
+        return ResponseEntity.ok(ApiResponse.success(availability));
+    }
+}
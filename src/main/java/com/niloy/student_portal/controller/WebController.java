@@ -1,151 +1,159 @@
 package com.niloy.student_portal.controller;
 
 import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.DashboardSummaryResponse;
 import com.niloy.student_portal.dto.response.DepartmentResponse;
 import com.niloy.student_portal.dto.response.StudentResponse;
 import com.niloy.student_portal.dto.response.TeacherResponse;
-import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.security.PortalUserDetails;
 import com.niloy.student_portal.service.CourseService;
+import com.niloy.student_portal.service.DashboardService;
 import com.niloy.student_portal.service.DepartmentService;
 import com.niloy.student_portal.service.StudentService;
 import com.niloy.student_portal.service.TeacherService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Controller
 @RequestMapping("/web")
 @RequiredArgsConstructor
 public class WebController {
 
+    static final int DASHBOARD_PANEL_SIZE = 5;
+    static final int COURSE_PANEL_SIZE = 12;
+    static final int STUDENT_PANEL_SIZE = 20;
+    static final int MAX_PANEL_SIZE = 50;
+
+    // Panels are per user, so only the browser may keep them
+    private static final CacheControl PANEL_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate();
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
     private final DepartmentService departmentService;
     private final CourseService courseService;
     private final StudentService studentService;
     private final TeacherService teacherService;
+    private final DashboardService dashboardService;
+    private final PageDataLoader pageDataLoader;
+    private final FragmentCache fragmentCache;
 
     @GetMapping("/dashboard")
-    public String dashboard(Model model, Authentication authentication) {
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .findFirst()
-                .orElse("");
-
-        model.addAttribute("username", authentication.getName());
-        model.addAttribute("role", role);
-
-        if (role.equals(Role.ROLE_TEACHER.name())) {
-            TeacherResponse teacher = teacherService.getTeacherByUsername(authentication.getName());
-            List<StudentResponse> myStudents = studentService.getStudentsByTeacher(authentication.getName());
-            model.addAttribute("teacher", teacher);
-            model.addAttribute("myStudents", myStudents);
-            model.addAttribute("studentCount", myStudents.size());
-        } else if (role.equals(Role.ROLE_STUDENT.name())) {
-            StudentResponse student = studentService.getStudentByUsername(authentication.getName());
-            model.addAttribute("student", student);
+    public String dashboard(Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        model.addAttribute("username", principal.getUsername());
+        model.addAttribute("role", principal.getRole().name());
+
+        // The shell only shows the counts, the lists are panels loaded by the page itself
+        PageDataLoader.Page page = pageDataLoader.page();
+        Supplier<DashboardSummaryResponse> counts = page.fork(() -> dashboardService.getCounts(principal));
+        Supplier<StudentResponse> student = null;
+        if (principal.isStudent()) {
+            Long studentId = principal.requireStudentId();
+            student = page.fork(() -> studentService.getStudentById(studentId));
         }
+        page.join();
 
-        List<DepartmentResponse> departments = departmentService.getAllDepartments();
-        List<CourseResponse> courses = courseService.getAllCourses();
+        DashboardSummaryResponse dashboard = counts.get();
+        if (principal.isTeacher()) {
+            model.addAttribute("studentCount", dashboard.getStudentCount());
+        } else if (student != null) {
+            model.addAttribute("student", student.get());
+        }
 
-        model.addAttribute("departments", departments);
-        model.addAttribute("courses", courses);
-        model.addAttribute("departmentCount", departments.size());
-        model.addAttribute("courseCount", courses.size());
+        model.addAttribute("departmentCount", dashboard.getDepartmentCount());
+        model.addAttribute("courseCount", dashboard.getCourseCount());
 
         return "dashboard";
     }
 
     @GetMapping("/departments")
-    public String departments(Model model, Authentication authentication) {
-        addAuthInfo(model, authentication);
-        List<DepartmentResponse> departments = departmentService.getAllDepartments();
-        model.addAttribute("departments", departments);
+    public String departments(Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        addAuthInfo(model, principal);
+        model.addAttribute("departmentCards", fragmentCache.render("departmentCards", List.of(),
+                () -> Map.of("departments", departmentService.getAllDepartments())));
         return "departments";
     }
 
     @GetMapping("/departments/{id}")
-    public String departmentDetail(@PathVariable Long id, Model model, Authentication authentication) {
-        addAuthInfo(model, authentication);
-        DepartmentResponse department = departmentService.getDepartmentById(id);
-        List<CourseResponse> courses = courseService.getCoursesByDepartment(id);
-        List<TeacherResponse> teachers = teacherService.getTeachersByDepartment(id);
-        model.addAttribute("department", department);
-        model.addAttribute("courses", courses);
-        model.addAttribute("teachers", teachers);
+    public String departmentDetail(@PathVariable Long id, Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        addAuthInfo(model, principal);
+        PageDataLoader.Page page = pageDataLoader.page();
+        Supplier<DepartmentResponse> department = page.fork(() -> departmentService.getDepartmentById(id));
+        Supplier<List<CourseResponse>> courses = page.fork(() -> courseService.getCoursesByDepartment(id));
+        Supplier<List<TeacherResponse>> teachers = page.fork(() -> teacherService.getTeachersByDepartment(id));
+        page.join();
+        model.addAttribute("department", department.get());
+        model.addAttribute("courses", courses.get());
+        model.addAttribute("teachers", teachers.get());
         return "department-detail";
     }
 
     @GetMapping("/courses")
-    public String courses(Model model, Authentication authentication) {
-        addAuthInfo(model, authentication);
-        List<CourseResponse> courses = courseService.getAllCourses();
-        List<DepartmentResponse> departments = departmentService.getAllDepartments();
-        model.addAttribute("courses", courses);
-        model.addAttribute("departments", departments);
+    public String courses(Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        addAuthInfo(model, principal);
+        // Course cards are a panel, only the add-course form needs the departments
+        model.addAttribute("departments", principal.isTeacher() ? departmentService.getAllDepartments() : List.of());
         return "courses";
     }
 
     @GetMapping("/courses/{id}")
-    public String courseDetail(@PathVariable Long id, Model model, Authentication authentication) {
-        addAuthInfo(model, authentication);
+    public String courseDetail(@PathVariable Long id, Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        addAuthInfo(model, principal);
         CourseResponse course = courseService.getCourseById(id);
-        List<StudentResponse> students = studentService.getStudentsByCourse(id);
+        // Rows are fetched chunk by chunk while the template streams them out
+        Iterable<StudentResponse> students = studentService.streamStudentsByCourse(id);
         model.addAttribute("course", course);
         model.addAttribute("students", students);
         return "course-detail";
     }
 
     @GetMapping("/students")
-    public String students(Model model, Authentication authentication) {
-        addAuthInfo(model, authentication);
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .findFirst()
-                .orElse("");
-
-        if (role.equals(Role.ROLE_TEACHER.name())) {
-            List<StudentResponse> students = studentService.getStudentsByTeacher(authentication.getName());
-            model.addAttribute("students", students);
-            model.addAttribute("viewType", "my-students");
-        } else {
-            model.addAttribute("students", List.of());
-            model.addAttribute("viewType", "none");
-        }
+    public String students(Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        addAuthInfo(model, principal);
 
-        List<CourseResponse> courses = courseService.getAllCourses();
-        model.addAttribute("courses", courses);
+        // The roster itself is a panel
+        model.addAttribute("viewType", principal.isTeacher() ? "my-students" : "none");
         return "students";
     }
 
     @GetMapping("/students/{id}")
-    public String studentDetail(@PathVariable Long id, Model model, Authentication authentication) {
-        addAuthInfo(model, authentication);
+    public String studentDetail(@PathVariable Long id, Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        addAuthInfo(model, principal);
         StudentResponse student = studentService.getStudentById(id);
         model.addAttribute("student", student);
         return "student-detail";
     }
 
     @GetMapping("/profile")
-    public String profile(Model model, Authentication authentication) {
-        addAuthInfo(model, authentication);
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .findFirst()
-                .orElse("");
-
-        if (role.equals(Role.ROLE_STUDENT.name())) {
-            StudentResponse student = studentService.getStudentByUsername(authentication.getName());
+    public String profile(Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        addAuthInfo(model, principal);
+
+        if (principal.isStudent()) {
+            StudentResponse student = studentService.getStudentById(principal.requireStudentId());
             model.addAttribute("student", student);
             model.addAttribute("profileType", "student");
-        } else if (role.equals(Role.ROLE_TEACHER.name())) {
-            TeacherResponse teacher = teacherService.getTeacherByUsername(authentication.getName());
+        } else if (principal.isTeacher()) {
+            TeacherResponse teacher = teacherService.getTeacherById(principal.requireTeacherId());
             model.addAttribute("teacher", teacher);
             model.addAttribute("profileType", "teacher");
         }
@@ -154,23 +162,89 @@ public class WebController {
     }
 
     @GetMapping("/enrollment")
-    public String enrollment(Model model, Authentication authentication) {
-        addAuthInfo(model, authentication);
-        StudentResponse student = studentService.getStudentByUsername(authentication.getName());
-        List<CourseResponse> courses = courseService.getAllCourses();
+    public String enrollment(Model model, @AuthenticationPrincipal PortalUserDetails principal) {
+        addAuthInfo(model, principal);
+        StudentResponse student = studentService.getStudentById(principal.requireStudentId());
         model.addAttribute("student", student);
-        model.addAttribute("courses", courses);
+        // Shared course cards, the page script marks the student's own enrollment
+        model.addAttribute("courseCards", fragmentCache.render("enrollmentCourseCards", List.of(),
+                () -> Map.of("courses", courseService.getAllCourses())));
         return "enrollment";
     }
 
-    private void addAuthInfo(Model model, Authentication authentication) {
-        String role = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .findFirst()
-                .orElse("");
-        model.addAttribute("username", authentication.getName());
-        model.addAttribute("role", role);
-        model.addAttribute("isTeacher", role.equals(Role.ROLE_TEACHER.name()));
-        model.addAttribute("isStudent", role.equals(Role.ROLE_STUDENT.name()));
+    @GetMapping("/fragments/dashboard/departments")
+    public ResponseEntity<String> dashboardDepartmentsPanel(@RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "" + DASHBOARD_PANEL_SIZE) int size) {
+        return sharedPanel("dashboardDepartments", "/web/fragments/dashboard/departments", pageable(page, size),
+                departmentService::getDepartmentPage);
+    }
+
+    @GetMapping("/fragments/dashboard/courses")
+    public ResponseEntity<String> dashboardCoursesPanel(@RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "" + DASHBOARD_PANEL_SIZE) int size) {
+        return sharedPanel("dashboardCourses", "/web/fragments/dashboard/courses", pageable(page, size),
+                courseService::getCoursePage);
+    }
+
+    @GetMapping("/fragments/dashboard/students")
+    public String dashboardStudentsPanel(@RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "" + DASHBOARD_PANEL_SIZE) int size,
+                                         Model model, HttpServletResponse response,
+                                         @AuthenticationPrincipal PortalUserDetails principal) {
+        Slice<StudentResponse> students = getMyStudents(principal, pageable(page, size));
+        return panel("dashboardStudents", "/web/fragments/dashboard/students", students, model, response);
+    }
+
+    @GetMapping("/fragments/courses")
+    public ResponseEntity<String> coursesPanel(@RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "" + COURSE_PANEL_SIZE) int size) {
+        return sharedPanel("courseCards", "/web/fragments/courses", pageable(page, size), courseService::getCoursePage);
+    }
+
+    @GetMapping("/fragments/students")
+    public String studentsPanel(@RequestParam(defaultValue = "0") int page,
+                                @RequestParam(defaultValue = "" + STUDENT_PANEL_SIZE) int size,
+                                Model model, HttpServletResponse response,
+                                @AuthenticationPrincipal PortalUserDetails principal) {
+        Slice<StudentResponse> students = getMyStudents(principal, pageable(page, size));
+        return panel("studentRows", "/web/fragments/students", students, model, response);
+    }
+
+    private Slice<StudentResponse> getMyStudents(PortalUserDetails principal, Pageable pageable) {
+        if (!principal.isTeacher()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        return studentService.getStudentPageByTeacher(principal.requireTeacherId(), pageable);
+    }
+
+    private Pageable pageable(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PANEL_SIZE)));
+    }
+
+    // Catalog panels render the same for everyone, so their HTML comes from the fragment cache
+    private ResponseEntity<String> sharedPanel(String fragment, String src, Pageable pageable,
+                                               Function<Pageable, Slice<?>> loader) {
+        String html = fragmentCache.render(fragment, List.of(pageable.getPageNumber(), pageable.getPageSize()),
+                () -> Map.of("page", loader.apply(pageable), "panelSrc", src));
+        return ResponseEntity.ok()
+                .contentType(TEXT_HTML_UTF8)
+                .cacheControl(PANEL_CACHE_CONTROL)
+                .body(html);
+    }
+
+    private String panel(String fragment, String src, Slice<?> page, Model model, HttpServletResponse response) {
+        model.addAttribute("page", page);
+        model.addAttribute("panelSrc", src);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, PANEL_CACHE_CONTROL.getHeaderValue());
+        // The session cookie tells users apart when several share a browser
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        return "fragments/panels :: " + fragment;
+    }
+
+    private void addAuthInfo(Model model, PortalUserDetails principal) {
+        model.addAttribute("username", principal.getUsername());
+        model.addAttribute("role", principal.getRole().name());
+        model.addAttribute("isTeacher", principal.isTeacher());
+        model.addAttribute("isStudent", principal.isStudent());
     }
 }
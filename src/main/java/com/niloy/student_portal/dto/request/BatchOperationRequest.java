@@ -0,0 +1,19 @@
+package com.niloy.student_portal.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationRequest {
+    // create, update or delete
+    private String op;
+    // Only "students" for now
+    private String resource;
+    // Target of update and delete
+    private Long id;
+    // Payload of create and update, as for POST and PUT /api/students
+    private StudentCreateRequest body;
+}
@@ -1,10 +1,14 @@
 package com.niloy.student_portal.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,6 +18,14 @@ public class ApiResponse<T> {
     private String message;
     private T data;
 
+    // Referenced records sent once by type, only on responses that side-load them
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, ?> included;
+
+    // Requested ids that matched nothing, only on multi-get responses
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> missing;
+
     public static <T> ApiResponse<T> success(T data) {
         return ApiResponse.<T>builder()
                 .success(true)
@@ -30,6 +42,24 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<T> successIncluding(T data, Map<String, ?> included) {
+        return ApiResponse.<T>builder()
+                .success(true)
+                .message("Operation successful")
+                .data(data)
+                .included(included)
+                .build();
+    }
+
+    public static <T> ApiResponse<T> successWithMissing(T data, List<Long> missing) {
+        return ApiResponse.<T>builder()
+                .success(true)
+                .message(missing.isEmpty() ? "Operation successful" : missing.size() + " of the requested ids were not found")
+                .data(data)
+                .missing(missing)
+                .build();
+    }
+
     public static <T> ApiResponse<T> error(String message) {
         return ApiResponse.<T>builder()
                 .success(false)
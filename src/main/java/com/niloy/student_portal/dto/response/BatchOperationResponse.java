@@ -0,0 +1,19 @@
+package com.niloy.student_portal.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOperationResponse {
+    private int index;
+    private String op;
+    private Long id;
+    // HTTP status the operation would have had as a request of its own
+    private int status;
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.niloy.student_portal.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardSummaryResponse {
+    private String role;
+    private long departmentCount;
+    private long courseCount;
+    // Teachers only
+    private Long studentCount;
+    // Students only
+    private Integer enrolledCourseCount;
+    private List<DepartmentResponse> recentDepartments;
+    private List<CourseResponse> recentCourses;
+    // Teachers only
+    private List<StudentResponse> recentStudents;
+}
@@ -0,0 +1,22 @@
+package com.niloy.student_portal.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records read by a list of ids, in the order the ids were given, along with
+ * the ids that matched nothing
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MultiGetResult {
+    private List<Map<String, Object>> rows;
+    private List<Long> missing;
+}
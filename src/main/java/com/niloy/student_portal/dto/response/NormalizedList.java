@@ -0,0 +1,22 @@
+package com.niloy.student_portal.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * List rows that refer to other records by id only, with each referenced
+ * record included once under its type
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NormalizedList {
+    private List<Map<String, Object>> rows;
+    private Map<String, List<Map<String, Object>>> included;
+}
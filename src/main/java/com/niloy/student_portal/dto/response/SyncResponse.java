@@ -0,0 +1,31 @@
+package com.niloy.student_portal.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows created or changed since a sync token, by collection, the rows deleted
+ * since then, and the token to pass to read on from this page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncResponse {
+    private List<Map<String, Object>> departments;
+    // Only synced to teachers
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Map<String, Object>> teachers;
+    private List<Map<String, Object>> courses;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Map<String, Object>> students;
+    private List<Map<String, Object>> deleted;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -2,12 +2,17 @@ package com.niloy.student_portal.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", uniqueConstraints =
+        @UniqueConstraint(name = "uk_courses_course_code", columnNames = "courseCode"),
+        indexes = @Index(name = "idx_courses_updated_at", columnList = "updatedAt, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +24,7 @@ public class Course {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String courseCode;
 
     @Column(nullable = false)
@@ -30,6 +35,14 @@ public class Course {
 
     private Integer credits;
 
+    // Change times for /api/sync, see Student
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // Many Courses belong to one Department
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
@@ -2,12 +2,17 @@ package com.niloy.student_portal.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "departments")
+@Table(name = "departments", uniqueConstraints =
+        @UniqueConstraint(name = "uk_departments_name", columnNames = "name"),
+        indexes = @Index(name = "idx_departments_updated_at", columnList = "updatedAt, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,12 +24,20 @@ public class Department {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String name;
 
     @Column(length = 500)
     private String description;
 
+    // Change times for /api/sync, see Student
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // One Department has many Teachers
     @OneToMany(mappedBy = "department", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Teacher> teachers = new ArrayList<>();
@@ -2,11 +2,18 @@ package com.niloy.student_portal.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "students")
+// No @DynamicUpdate: Hibernate never JDBC-batches dirty-column updates, and /api/batch
+// updates students in bulk. Unchanged students are still skipped by dirty checking.
+@Table(name = "students", uniqueConstraints =
+        @UniqueConstraint(name = "uk_students_student_id", columnNames = "studentId"),
+        indexes = @Index(name = "idx_students_updated_at", columnList = "updatedAt, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,7 +31,7 @@ public class Student {
     @Column(nullable = false)
     private String lastName;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String studentId;
 
     private LocalDate dateOfBirth;
@@ -33,6 +40,14 @@ public class Student {
 
     private String phoneNumber;
 
+    // Change times for /api/sync, kept by Hibernate on insert and on every update
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // One-to-One relationship with User for authentication
     @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
@@ -48,4 +63,18 @@ public class Student {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "enrolled_course_id")
     private Course enrolledCourse;
+
+    /**
+     * Sets the account's email when it is given and differs, and tells whether
+     * it did. The email is the account's, but /api/sync reads the student's
+     * change time, so a changed email touches the student as well.
+     */
+    public boolean changeEmail(String email) {
+        if (email == null || email.equals(user.getEmail())) {
+            return false;
+        }
+        user.setEmail(email);
+        updatedAt = Instant.now();
+        return true;
+    }
 }
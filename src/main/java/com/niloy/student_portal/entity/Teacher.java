@@ -2,12 +2,19 @@ package com.niloy.student_portal.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "teachers")
+@DynamicUpdate
+@Table(name = "teachers", uniqueConstraints =
+        @UniqueConstraint(name = "uk_teachers_employee_id", columnNames = "employeeId"),
+        indexes = @Index(name = "idx_teachers_updated_at", columnList = "updatedAt, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,11 +32,19 @@ public class Teacher {
     @Column(nullable = false)
     private String lastName;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String employeeId;
 
     private String specialization;
 
+    // Change times for /api/sync, see Student
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // One-to-One relationship with User for authentication
     @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
@@ -43,4 +58,14 @@ public class Teacher {
     // One Teacher manages many Students
     @OneToMany(mappedBy = "teacher", cascade = CascadeType.ALL)
     private List<Student> students = new ArrayList<>();
+
+    /** Sets the account's email when it is given and differs, as {@link Student#changeEmail} does. */
+    public boolean changeEmail(String email) {
+        if (email == null || email.equals(user.getEmail())) {
+            return false;
+        }
+        user.setEmail(email);
+        updatedAt = Instant.now();
+        return true;
+    }
 }
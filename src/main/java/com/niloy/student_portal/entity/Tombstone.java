@@ -0,0 +1,52 @@
+package com.niloy.student_portal.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Record of a deleted row, kept so /api/sync can tell clients to drop their
+ * copy. Deleted rows are gone from their own table, so without it a delta
+ * could only ever add and change rows.
+ */
+@Entity
+@Table(name = "tombstones", indexes =
+        @Index(name = "idx_tombstones_deleted_at", columnList = "deletedAt, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tombstone {
+
+    /** Synced tables whose deletes are recorded. */
+    public enum Kind {
+        DEPARTMENT,
+        TEACHER,
+        COURSE,
+        STUDENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    // Id the row had in its own table
+    @Column(nullable = false)
+    private Long entityId;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant deletedAt;
+
+    public Tombstone(Kind kind, Long entityId) {
+        this.kind = kind;
+        this.entityId = entityId;
+    }
+}
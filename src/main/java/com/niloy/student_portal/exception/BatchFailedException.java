@@ -0,0 +1,24 @@
+package com.niloy.student_portal.exception;
+
+import com.niloy.student_portal.dto.request.BatchOperationRequest;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A batch operation failed and the whole batch was rolled back. The cause is
+ * the failure of operation {@code failedIndex}, or of the final flush when the
+ * index equals the number of operations.
+ */
+@Getter
+public class BatchFailedException extends RuntimeException {
+
+    private final List<BatchOperationRequest> operations;
+    private final int failedIndex;
+
+    public BatchFailedException(List<BatchOperationRequest> operations, int failedIndex, RuntimeException cause) {
+        super(cause.getMessage(), cause);
+        this.operations = operations;
+        this.failedIndex = failedIndex;
+    }
+}
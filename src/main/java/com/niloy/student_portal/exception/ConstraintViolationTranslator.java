@@ -0,0 +1,94 @@
+package com.niloy.student_portal.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps unique-constraint violations raised by the database back to the
+ * DuplicateResourceException the API has always returned, so writes can rely
+ * on the constraints instead of running existsBy* queries first.
+ */
+@Component
+public class ConstraintViolationTranslator {
+
+    public static final String UK_USERS_USERNAME = "uk_users_username";
+    public static final String UK_USERS_EMAIL = "uk_users_email";
+    public static final String UK_STUDENTS_STUDENT_ID = "uk_students_student_id";
+    public static final String UK_TEACHERS_EMPLOYEE_ID = "uk_teachers_employee_id";
+    public static final String UK_COURSES_COURSE_CODE = "uk_courses_course_code";
+    public static final String UK_DEPARTMENTS_NAME = "uk_departments_name";
+
+    private static final Map<String, UniqueKey> UNIQUE_KEYS = Map.of(
+            UK_USERS_USERNAME, new UniqueKey("User", "username"),
+            UK_USERS_EMAIL, new UniqueKey("User", "email"),
+            UK_STUDENTS_STUDENT_ID, new UniqueKey("Student", "studentId"),
+            UK_TEACHERS_EMPLOYEE_ID, new UniqueKey("Teacher", "employeeId"),
+            UK_COURSES_COURSE_CODE, new UniqueKey("Course", "courseCode"),
+            UK_DEPARTMENTS_NAME, new UniqueKey("Department", "name")
+    );
+
+    private final boolean strictDuplicateChecks;
+    // Named constraints the schema lacks, checked with existsBy* queries whatever the mode
+    private final Set<String> missingConstraints = ConcurrentHashMap.newKeySet();
+
+    public ConstraintViolationTranslator(
+            @Value("${app.persistence.strict-duplicate-checks:false}") boolean strictDuplicateChecks) {
+        this.strictDuplicateChecks = strictDuplicateChecks;
+    }
+
+    /**
+     * Whether services run their existsBy* check for a constraint before writing:
+     * always in strict mode, otherwise only while the constraint is missing.
+     */
+    public boolean checksDuplicates(String constraint) {
+        return strictDuplicateChecks || missingConstraints.contains(constraint);
+    }
+
+    /**
+     * Records that a named constraint is not in the schema, so duplicates of its
+     * column are checked for before writing instead of being left unchecked.
+     */
+    public void constraintMissing(String constraint) {
+        missingConstraints.add(constraint);
+    }
+
+    /**
+     * Translate a violation into a DuplicateResourceException, reading the offending
+     * value from the request property with the same name as the constrained field.
+     * Violations of other constraints are returned unchanged.
+     */
+    public RuntimeException translate(DataIntegrityViolationException ex, Object request) {
+        String violated = violatedConstraint(ex);
+        for (Map.Entry<String, UniqueKey> entry : UNIQUE_KEYS.entrySet()) {
+            if (violated.contains(entry.getKey())) {
+                UniqueKey key = entry.getValue();
+                BeanWrapperImpl source = new BeanWrapperImpl(request);
+                Object value = source.isReadableProperty(key.field()) ? source.getPropertyValue(key.field()) : null;
+                return new DuplicateResourceException(key.resource(), key.field(), value);
+            }
+        }
+        return ex;
+    }
+
+    private String violatedConstraint(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        // Some drivers only report the constraint inside the message
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null ? message.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private record UniqueKey(String resource, String field) {
+    }
+}
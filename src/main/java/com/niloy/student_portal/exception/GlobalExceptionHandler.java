@@ -1,6 +1,8 @@
 package com.niloy.student_portal.exception;
 
 import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.BatchOperationResponse;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -8,6 +10,9 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -23,6 +28,12 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Request conflicts with existing data"));
+    }
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiResponse<Void>> handleBadRequestException(BadRequestException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -35,6 +46,12 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(PageLoadTimeoutException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePageLoadTimeoutException(PageLoadTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiResponse<Void>> handleAccessDeniedException(AccessDeniedException ex) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -47,9 +64,64 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Invalid username or password"));
     }
 
+    /**
+     * Answers with the failing operation's own status and a status per operation:
+     * the failed one with its error, every other one 424 as it was rolled back or
+     * never run. A failure of the final flush cannot be pinned on one operation.
+     */
+    @ExceptionHandler(BatchFailedException.class)
+    public ResponseEntity<ApiResponse<List<BatchOperationResponse>>> handleBatchFailedException(BatchFailedException ex) {
+        Throwable cause = ex.getCause();
+        HttpStatus status = batchStatus(cause);
+        String message = cause instanceof DataIntegrityViolationException
+                ? "Request conflicts with existing data"
+                : cause.getMessage();
+
+        List<BatchOperationResponse> results = new ArrayList<>();
+        for (int index = 0; index < ex.getOperations().size(); index++) {
+            BatchOperationResponse.BatchOperationResponseBuilder result = BatchOperationResponse.builder()
+                    .index(index)
+                    .op(ex.getOperations().get(index).getOp())
+                    .id(ex.getOperations().get(index).getId());
+            if (index == ex.getFailedIndex()) {
+                result.status(status.value()).message(message);
+            } else {
+                result.status(HttpStatus.FAILED_DEPENDENCY.value())
+                        .message(index < ex.getFailedIndex() ? "Rolled back" : "Not run");
+            }
+            results.add(result.build());
+        }
+
+        String summary = ex.getFailedIndex() < results.size()
+                ? "Batch rolled back, operation " + ex.getFailedIndex() + " failed: " + message
+                : "Batch rolled back: " + message;
+        return ResponseEntity.status(status)
+                .body(ApiResponse.<List<BatchOperationResponse>>builder()
+                        .success(false)
+                        .message(summary)
+                        .data(results)
+                        .build());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleGenericException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("An unexpected error occurred: " + ex.getMessage()));
     }
+
+    private static HttpStatus batchStatus(Throwable cause) {
+        if (cause instanceof ResourceNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (cause instanceof DuplicateResourceException || cause instanceof DataIntegrityViolationException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (cause instanceof BadRequestException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (cause instanceof UnauthorizedAccessException) {
+            return HttpStatus.FORBIDDEN;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
 }
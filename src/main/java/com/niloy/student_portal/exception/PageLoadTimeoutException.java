@@ -0,0 +1,12 @@
+package com.niloy.student_portal.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PageLoadTimeoutException extends RuntimeException {
+
+    public PageLoadTimeoutException(long deadlineMillis) {
+        super(String.format("Page data was not loaded within %d ms", deadlineMillis));
+    }
+}
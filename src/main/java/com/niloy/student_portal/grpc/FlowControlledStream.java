@@ -0,0 +1,89 @@
+package com.niloy.student_portal.grpc;
+
+import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.exception.ResourceNotFoundException;
+import com.niloy.student_portal.exception.UnauthorizedAccessException;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sends a lazily read sequence of rows on a server-streaming call only as fast
+ * as the client takes them. Rows are pulled from the iterator while the
+ * transport is ready and the pump stops as soon as it is not, resuming from
+ * the onReady callback once the client's flow control window opens again, so
+ * a slow client holds back the database reads instead of the server buffering
+ * the whole result.
+ */
+@Slf4j
+final class FlowControlledStream<T, M> implements Runnable {
+
+    private final ServerCallStreamObserver<M> observer;
+    private final Iterator<T> rows;
+    private final Function<T, M> toMessage;
+    private boolean done;
+
+    private FlowControlledStream(ServerCallStreamObserver<M> observer, Iterator<T> rows, Function<T, M> toMessage) {
+        this.observer = observer;
+        this.rows = rows;
+        this.toMessage = toMessage;
+    }
+
+    /**
+     * Streams the rows {@code source} returns, each converted with {@code toMessage}.
+     * {@code source} runs right away so a missing parent fails the call before
+     * anything is sent; its rows are read only as the client is ready for them.
+     */
+    static <T, M> void send(StreamObserver<M> responseObserver, Supplier<Iterable<T>> source, Function<T, M> toMessage) {
+        ServerCallStreamObserver<M> observer = (ServerCallStreamObserver<M>) responseObserver;
+        Iterator<T> rows;
+        try {
+            rows = source.get().iterator();
+        } catch (RuntimeException ex) {
+            observer.onError(failure(ex));
+            return;
+        }
+        FlowControlledStream<T, M> stream = new FlowControlledStream<>(observer, rows, toMessage);
+        observer.setOnCancelHandler(() -> stream.done = true);
+        observer.setOnReadyHandler(stream);
+    }
+
+    @Override
+    public void run() {
+        if (done) {
+            return;
+        }
+        try {
+            while (observer.isReady() && !done) {
+                if (!rows.hasNext()) {
+                    done = true;
+                    observer.onCompleted();
+                    return;
+                }
+                observer.onNext(toMessage.apply(rows.next()));
+            }
+        } catch (RuntimeException ex) {
+            done = true;
+            observer.onError(failure(ex));
+        }
+    }
+
+    private static RuntimeException failure(RuntimeException ex) {
+        if (ex instanceof ResourceNotFoundException) {
+            return Status.NOT_FOUND.withDescription(ex.getMessage()).asRuntimeException();
+        }
+        if (ex instanceof BadRequestException) {
+            return Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).asRuntimeException();
+        }
+        if (ex instanceof UnauthorizedAccessException) {
+            return Status.PERMISSION_DENIED.withDescription(ex.getMessage()).asRuntimeException();
+        }
+        log.error("gRPC stream failed", ex);
+        return Status.INTERNAL.withDescription("An unexpected error occurred").asRuntimeException();
+    }
+}
@@ -0,0 +1,85 @@
+package com.niloy.student_portal.grpc;
+
+import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.grpc.proto.Course;
+import com.niloy.student_portal.grpc.proto.CourseRosterRequest;
+import com.niloy.student_portal.grpc.proto.ListCoursesRequest;
+import com.niloy.student_portal.grpc.proto.ListStudentsRequest;
+import com.niloy.student_portal.grpc.proto.RosterServiceGrpc;
+import com.niloy.student_portal.grpc.proto.Student;
+import com.niloy.student_portal.service.CourseService;
+import com.niloy.student_portal.service.StudentService;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.grpc.server.service.GrpcService;
+
+import java.util.function.Consumer;
+
+/**
+ * gRPC reads for internal systems, served on the gRPC port next to the REST
+ * API. Every RPC streams the same keyset-chunked reads the roster page uses,
+ * paced by {@link FlowControlledStream}.
+ */
+@GrpcService
+@RequiredArgsConstructor
+public class RosterGrpcService extends RosterServiceGrpc.RosterServiceImplBase {
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+
+    @Override
+    public void listStudents(ListStudentsRequest request, StreamObserver<Student> responseObserver) {
+        FlowControlledStream.send(responseObserver, studentService::streamAllStudents, RosterGrpcService::toMessage);
+    }
+
+    @Override
+    public void listCourses(ListCoursesRequest request, StreamObserver<Course> responseObserver) {
+        FlowControlledStream.send(responseObserver, courseService::streamAllCourses, RosterGrpcService::toMessage);
+    }
+
+    @Override
+    public void getCourseRoster(CourseRosterRequest request, StreamObserver<Student> responseObserver) {
+        FlowControlledStream.send(responseObserver, () -> {
+            courseService.getCourseEntity(request.getCourseId());
+            return studentService.streamStudentsByCourse(request.getCourseId());
+        }, RosterGrpcService::toMessage);
+    }
+
+    private static Student toMessage(StudentResponse student) {
+        Student.Builder message = Student.newBuilder()
+                .setId(student.getId())
+                .setFirstName(student.getFirstName())
+                .setLastName(student.getLastName())
+                .setStudentId(student.getStudentId());
+        ifPresent(student.getDateOfBirth() == null ? null : student.getDateOfBirth().toString(), message::setDateOfBirth);
+        ifPresent(student.getAddress(), message::setAddress);
+        ifPresent(student.getPhoneNumber(), message::setPhoneNumber);
+        ifPresent(student.getEmail(), message::setEmail);
+        ifPresent(student.getTeacherId(), message::setTeacherId);
+        ifPresent(student.getTeacherName(), message::setTeacherName);
+        ifPresent(student.getEnrolledCourseId(), message::setEnrolledCourseId);
+        ifPresent(student.getEnrolledCourseName(), message::setEnrolledCourseName);
+        return message.build();
+    }
+
+    private static Course toMessage(CourseResponse course) {
+        Course.Builder message = Course.newBuilder()
+                .setId(course.getId())
+                .setCourseCode(course.getCourseCode())
+                .setCourseName(course.getCourseName())
+                .setEnrolledStudentCount(course.getEnrolledStudentCount());
+        ifPresent(course.getDescription(), message::setDescription);
+        ifPresent(course.getCredits(), message::setCredits);
+        ifPresent(course.getDepartmentId(), message::setDepartmentId);
+        ifPresent(course.getDepartmentName(), message::setDepartmentName);
+        return message.build();
+    }
+
+    // Protobuf setters reject null, absent values stay unset
+    private static <V> void ifPresent(V value, Consumer<V> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+}
@@ -1,15 +1,83 @@
 package com.niloy.student_portal.repository;
 
 import com.niloy.student_portal.entity.Course;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, SparseFieldRepository {
+    // CourseResponse fields for ?fields= queries, see SparseFieldRepository
+    SparseFields SPARSE_FIELDS = SparseFields.of("Course", "c")
+            .field("id", "c.id")
+            .field("courseCode", "c.courseCode")
+            .field("courseName", "c.courseName")
+            .field("description", "c.description")
+            .field("credits", "c.credits")
+            .field("departmentName", "d.name", "left join c.department d")
+            .field("departmentId", "c.department.id")
+            .field("enrolledStudentCount", "(select count(s) from Student s where s.enrolledCourse = c)")
+            .build();
+
+    // Own columns of a course for /api/sync, see StudentRepository.SYNC_FIELDS
+    SparseFields SYNC_FIELDS = SparseFields.of("Course", "c")
+            .field("id", "c.id")
+            .field("courseCode", "c.courseCode")
+            .field("courseName", "c.courseName")
+            .field("description", "c.description")
+            .field("credits", "c.credits")
+            .field("departmentId", "c.department.id")
+            .field("updatedAt", "c.updatedAt")
+            .build();
+
     Optional<Course> findByCourseCode(String courseCode);
     List<Course> findByDepartmentId(Long departmentId);
+
+    @Query("select c.id from Course c where c.department.id = :departmentId")
+    List<Long> findIdsByDepartmentId(@Param("departmentId") Long departmentId);
     boolean existsByCourseCode(String courseCode);
+
+    @Query("select c.id as id, c.courseCode as courseCode, c.courseName as courseName, " +
+           "c.description as description, c.credits as credits, d.id as departmentId, d.name as departmentName, " +
+           "(select count(s) from Student s where s.enrolledCourse = c) as enrolledStudentCount " +
+           "from Course c left join c.department d order by c.id desc")
+    List<CourseSummary> findRecentSummaries(Limit limit);
+
+    @Query("select c.id as id, c.courseCode as courseCode, c.courseName as courseName, " +
+           "c.description as description, c.credits as credits, d.id as departmentId, d.name as departmentName, " +
+           "(select count(s) from Student s where s.enrolledCourse = c) as enrolledStudentCount " +
+           "from Course c left join c.department d order by c.id desc")
+    Slice<CourseSummary> findSummaries(Pageable pageable);
+
+    @Query("select c.id as id, c.courseCode as courseCode, c.courseName as courseName, " +
+           "c.description as description, c.credits as credits, d.id as departmentId, d.name as departmentName, " +
+           "(select count(s) from Student s where s.enrolledCourse = c) as enrolledStudentCount " +
+           "from Course c left join c.department d where c.id = :id")
+    Optional<CourseSummary> findSummaryById(@Param("id") Long id);
+
+    // Keyset chunk of all courses: pass the last id of the previous chunk, 0 for the first
+    @Query("select c.id as id, c.courseCode as courseCode, c.courseName as courseName, " +
+           "c.description as description, c.credits as credits, d.id as departmentId, d.name as departmentName, " +
+           "(select count(s) from Student s where s.enrolledCourse = c) as enrolledStudentCount " +
+           "from Course c left join c.department d where c.id > :afterId order by c.id")
+    List<CourseSummary> findSummaryChunk(@Param("afterId") Long afterId, Limit limit);
+
+    // Course row with its department name and enrollment count, computed in SQL
+    interface CourseSummary {
+        Long getId();
+        String getCourseCode();
+        String getCourseName();
+        String getDescription();
+        Integer getCredits();
+        Long getDepartmentId();
+        String getDepartmentName();
+        long getEnrolledStudentCount();
+    }
 }
@@ -1,13 +1,57 @@
 package com.niloy.student_portal.repository;
 
 import com.niloy.student_portal.entity.Department;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DepartmentRepository extends JpaRepository<Department, Long> {
+public interface DepartmentRepository extends JpaRepository<Department, Long>, SparseFieldRepository {
+
+    SparseFields SPARSE_FIELDS = SparseFields.of("Department", "d")
+            .field("id", "d.id")
+            .field("name", "d.name")
+            .field("description", "d.description")
+            .field("teacherCount", "(select count(t) from Teacher t where t.department = d)")
+            .field("courseCount", "(select count(c) from Course c where c.department = d)")
+            .build();
+
+    // Own columns of a department for /api/sync, see StudentRepository.SYNC_FIELDS
+    SparseFields SYNC_FIELDS = SparseFields.of("Department", "d")
+            .field("id", "d.id")
+            .field("name", "d.name")
+            .field("description", "d.description")
+            .field("updatedAt", "d.updatedAt")
+            .build();
+
     Optional<Department> findByName(String name);
     boolean existsByName(String name);
+
+    @Query("select d.id as id, d.name as name, d.description as description, " +
+           "(select count(t) from Teacher t where t.department = d) as teacherCount, " +
+           "(select count(c) from Course c where c.department = d) as courseCount " +
+           "from Department d order by d.id desc")
+    List<DepartmentSummary> findRecentSummaries(Limit limit);
+
+    // Same rows one page at a time, a Slice reads size + 1 rows instead of running a count query
+    @Query("select d.id as id, d.name as name, d.description as description, " +
+           "(select count(t) from Teacher t where t.department = d) as teacherCount, " +
+           "(select count(c) from Course c where c.department = d) as courseCount " +
+           "from Department d order by d.id desc")
+    Slice<DepartmentSummary> findSummaries(Pageable pageable);
+
+    // Department row with its child counts, computed in SQL instead of loading the collections
+    interface DepartmentSummary {
+        Long getId();
+        String getName();
+        String getDescription();
+        long getTeacherCount();
+        long getCourseCount();
+    }
 }
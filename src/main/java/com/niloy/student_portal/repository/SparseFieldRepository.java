@@ -0,0 +1,28 @@
+package com.niloy.student_portal.repository;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository fragment for queries that read a chosen subset of
+ * {@link SparseFields}. Mixed into the repositories whose entities define them.
+ */
+public interface SparseFieldRepository {
+
+    /**
+     * Rows of the selected fields, keyed by field name in the given order.
+     * {@code condition} is a fixed JPQL predicate on the root alias, with
+     * {@code parameters} bound by name; pass {@code null} for every row.
+     */
+    List<Map<String, Object>> findFields(SparseFields definition, List<String> fields,
+                                         String condition, Map<String, ?> parameters);
+
+    /**
+     * As above, ordered by {@code orderBy}, a JPQL ordering on the root alias,
+     * and at most {@code limit} rows.
+     */
+    List<Map<String, Object>> findFields(SparseFields definition, List<String> fields,
+                                         String condition, Map<String, ?> parameters, String orderBy, Limit limit);
+}
@@ -0,0 +1,44 @@
+package com.niloy.student_portal.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+class SparseFieldRepositoryImpl implements SparseFieldRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(SparseFields definition, List<String> fields,
+                                                String condition, Map<String, ?> parameters) {
+        return rows(entityManager.createQuery(definition.jpql(fields, condition), Tuple.class), fields, parameters);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(SparseFields definition, List<String> fields,
+                                                String condition, Map<String, ?> parameters, String orderBy, Limit limit) {
+        TypedQuery<Tuple> query = entityManager.createQuery(definition.jpql(fields, condition, orderBy), Tuple.class);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return rows(query, fields, parameters);
+    }
+
+    private static List<Map<String, Object>> rows(TypedQuery<Tuple> query, List<String> fields, Map<String, ?> parameters) {
+        parameters.forEach(query::setParameter);
+        return query.getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    fields.forEach(field -> row.put(field, tuple.get(field)));
+                    return row;
+                })
+                .toList();
+    }
+}
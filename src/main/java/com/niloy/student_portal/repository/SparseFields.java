@@ -0,0 +1,127 @@
+package com.niloy.student_portal.repository;
+
+import com.niloy.student_portal.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Response fields of one entity that the API can select one by one, each
+ * with the JPQL expression that reads it and the join it needs, if any. A
+ * query for a subset of the fields selects only their columns and joins only
+ * what they use. Field names are the ones of the matching response DTO.
+ */
+public final class SparseFields {
+
+    private final String entity;
+    private final String alias;
+    private final Map<String, Field> fields;
+
+    private SparseFields(String entity, String alias, Map<String, Field> fields) {
+        this.entity = entity;
+        this.alias = alias;
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+
+    public static Builder of(String entity, String alias) {
+        return new Builder(entity, alias);
+    }
+
+    public Set<String> names() {
+        return fields.keySet();
+    }
+
+    /**
+     * JPQL expression of a field, for conditions and orderings on it. It may
+     * use the field's join, which the query has whenever the field is selected.
+     */
+    public String expression(String name) {
+        return fields.get(name).expression();
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter, {@code null} meaning
+     * all fields. The id is always selected, first, so rows can still be told apart.
+     */
+    public List<String> parse(String requested) {
+        if (requested == null) {
+            return new ArrayList<>(names());
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String name : requested.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!fields.containsKey(field)) {
+                throw new BadRequestException("Unknown field '" + field + "', expected any of " + names());
+            }
+            selected.add(field);
+        }
+        return new ArrayList<>(selected);
+    }
+
+    /**
+     * Builds the query for the given fields, in the given order, aliased by
+     * field name. {@code condition} may only refer to the root alias.
+     */
+    String jpql(List<String> selected, String condition) {
+        return jpql(selected, condition, alias + ".id");
+    }
+
+    /** As above, ordered by {@code orderBy} instead of by id. */
+    String jpql(List<String> selected, String condition, String orderBy) {
+        List<String> columns = new ArrayList<>();
+        Set<String> joins = new LinkedHashSet<>();
+        for (String name : selected) {
+            Field field = fields.get(name);
+            columns.add(field.expression() + " as " + name);
+            if (field.join() != null) {
+                joins.add(field.join());
+            }
+        }
+        StringBuilder jpql = new StringBuilder("select ").append(String.join(", ", columns))
+                .append(" from ").append(entity).append(' ').append(alias);
+        joins.forEach(join -> jpql.append(' ').append(join));
+        if (condition != null) {
+            jpql.append(" where ").append(condition);
+        }
+        return jpql.append(" order by ").append(orderBy).toString();
+    }
+
+    private record Field(String expression, String join) {
+    }
+
+    public static final class Builder {
+
+        private final String entity;
+        private final String alias;
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+
+        private Builder(String entity, String alias) {
+            this.entity = entity;
+            this.alias = alias;
+        }
+
+        /** A field read from the root entity or through a foreign key, without a join. */
+        public Builder field(String name, String expression) {
+            return field(name, expression, null);
+        }
+
+        /** A field that needs {@code join}; fields sharing a join must spell it the same. */
+        public Builder field(String name, String expression, String join) {
+            fields.put(name, new Field(expression, join));
+            return this;
+        }
+
+        public SparseFields build() {
+            return new SparseFields(entity, alias, new LinkedHashMap<>(fields));
+        }
+    }
+}
@@ -1,18 +1,169 @@
 package com.niloy.student_portal.repository;
 
 import com.niloy.student_portal.entity.Student;
-import com.niloy.student_portal.entity.Teacher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, SparseFieldRepository {
+    // StudentResponse fields for ?fields= queries, see SparseFieldRepository
+    SparseFields SPARSE_FIELDS = SparseFields.of("Student", "s")
+            .field("id", "s.id")
+            .field("firstName", "s.firstName")
+            .field("lastName", "s.lastName")
+            .field("studentId", "s.studentId")
+            .field("dateOfBirth", "s.dateOfBirth")
+            .field("address", "s.address")
+            .field("phoneNumber", "s.phoneNumber")
+            .field("email", "u.email", "left join s.user u")
+            .field("teacherName", "concat(t.firstName, ' ', t.lastName)", "left join s.teacher t")
+            .field("teacherId", "s.teacher.id")
+            .field("enrolledCourseName", "c.courseName", "left join s.enrolledCourse c")
+            .field("enrolledCourseId", "s.enrolledCourse.id")
+            .build();
+
+    // Own columns of a student for /api/sync, references by id. Email changes on the account touch s.updatedAt too
+    SparseFields SYNC_FIELDS = SparseFields.of("Student", "s")
+            .field("id", "s.id")
+            .field("firstName", "s.firstName")
+            .field("lastName", "s.lastName")
+            .field("studentId", "s.studentId")
+            .field("dateOfBirth", "s.dateOfBirth")
+            .field("address", "s.address")
+            .field("phoneNumber", "s.phoneNumber")
+            .field("email", "u.email", "left join s.user u")
+            .field("teacherId", "s.teacher.id")
+            .field("enrolledCourseId", "s.enrolledCourse.id")
+            .field("updatedAt", "s.updatedAt")
+            .build();
+
     Optional<Student> findByStudentId(String studentId);
-    Optional<Student> findByUserUsername(String username);
-    List<Student> findByTeacher(Teacher teacher);
+    List<Student> findByTeacherId(Long teacherId);
     List<Student> findByEnrolledCourseId(Long courseId);
     boolean existsByStudentId(String studentId);
+    boolean existsByStudentIdAndIdNot(String studentId, Long id);
+
+    @Query("select s.studentId from Student s")
+    List<String> findAllStudentIds();
+
+    @Query("select s.id from Student s where s.teacher.id in :teacherIds")
+    List<Long> findIdsByTeacherIdIn(@Param("teacherIds") Collection<Long> teacherIds);
+
+    @EntityGraph(attributePaths = {"user", "teacher", "enrolledCourse"})
+    Optional<Student> findWithDetailsById(Long id);
+
+    @EntityGraph(attributePaths = {"user", "teacher", "enrolledCourse"})
+    Optional<Student> findWithDetailsByIdAndTeacherId(Long id, Long teacherId);
+
+    // Batch edits check ownership of all their students with this one query
+    @EntityGraph(attributePaths = {"user"})
+    List<Student> findByIdInAndTeacherId(Collection<Long> ids, Long teacherId);
+
+    // Which students hold the student ids a batch assigns, in one query
+    List<StudentIdHolder> findByStudentIdIn(Collection<String> studentIds);
+
+    // All dashboard counts for a student in one round trip
+    @Query("select (select count(d) from Department d) as departmentCount, " +
+           "(select count(c) from Course c) as courseCount, " +
+           "case when s.enrolledCourse is null then 0 else 1 end as enrolledCourseCount " +
+           "from Student s where s.id = :studentId")
+    Optional<DashboardCounts> findDashboardCounts(@Param("studentId") Long studentId);
+
+    @Query("select s.id as id, s.firstName as firstName, s.lastName as lastName, s.studentId as studentId, " +
+           "u.email as email, s.phoneNumber as phoneNumber, c.id as enrolledCourseId, c.courseName as enrolledCourseName " +
+           "from Student s left join s.user u left join s.enrolledCourse c " +
+           "where s.teacher.id = :teacherId order by s.id desc")
+    List<StudentSummary> findRecentSummariesByTeacherId(@Param("teacherId") Long teacherId, Limit limit);
+
+    @Query("select s.id as id, s.firstName as firstName, s.lastName as lastName, s.studentId as studentId, " +
+           "u.email as email, s.phoneNumber as phoneNumber, c.id as enrolledCourseId, c.courseName as enrolledCourseName " +
+           "from Student s left join s.user u left join s.enrolledCourse c " +
+           "where s.teacher.id = :teacherId order by s.id desc")
+    Slice<StudentSummary> findSummariesByTeacherId(@Param("teacherId") Long teacherId, Pageable pageable);
+
+    // Keyset chunk of a course roster: pass the last id of the previous chunk, 0 for the first
+    @Query("select s.id as id, s.firstName as firstName, s.lastName as lastName, s.studentId as studentId, " +
+           "u.email as email, s.phoneNumber as phoneNumber, c.id as enrolledCourseId, c.courseName as enrolledCourseName " +
+           "from Student s left join s.user u join s.enrolledCourse c " +
+           "where c.id = :courseId and s.id > :afterId order by s.id")
+    List<StudentSummary> findRosterChunk(@Param("courseId") Long courseId, @Param("afterId") Long afterId, Limit limit);
+
+    // Keyset chunk of all students with their details, same paging as the roster
+    @EntityGraph(attributePaths = {"user", "teacher", "enrolledCourse"})
+    List<Student> findByIdGreaterThanOrderById(Long afterId, Limit limit);
+
+    // Ownership-scoped writes: 0 affected rows means the student is missing or managed by another teacher
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Student s set s.firstName = :firstName, s.lastName = :lastName, s.studentId = :studentId, " +
+           "s.dateOfBirth = :dateOfBirth, s.address = :address, s.phoneNumber = :phoneNumber, " +
+           "s.updatedAt = :updatedAt " +
+           "where s.id = :id and s.teacher.id = :teacherId")
+    int updateManagedStudent(@Param("id") Long id,
+                             @Param("teacherId") Long teacherId,
+                             @Param("firstName") String firstName,
+                             @Param("lastName") String lastName,
+                             @Param("studentId") String studentId,
+                             @Param("dateOfBirth") LocalDate dateOfBirth,
+                             @Param("address") String address,
+                             @Param("phoneNumber") String phoneNumber,
+                             @Param("updatedAt") Instant updatedAt);
+
+    @Query("select u.email as email, t.id as teacherId, t.firstName as teacherFirstName, " +
+           "t.lastName as teacherLastName, c.id as enrolledCourseId, c.courseName as enrolledCourseName " +
+           "from Student s left join s.user u left join s.teacher t left join s.enrolledCourse c " +
+           "where s.id = :id")
+    Optional<StudentRelations> findRelationsById(@Param("id") Long id);
+
+    @Query("select s.user.id from Student s where s.id = :id and s.teacher.id = :teacherId")
+    Optional<Long> findUserIdByIdAndTeacherId(@Param("id") Long id, @Param("teacherId") Long teacherId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Student s where s.id = :id and s.teacher.id = :teacherId")
+    int deleteManagedStudent(@Param("id") Long id, @Param("teacherId") Long teacherId);
+
+    interface StudentIdHolder {
+        Long getId();
+        String getStudentId();
+    }
+
+    interface DashboardCounts {
+        long getDepartmentCount();
+        long getCourseCount();
+        int getEnrolledCourseCount();
+    }
+
+    // What a full update by the teacher leaves untouched: the account email and the related names
+    interface StudentRelations {
+        String getEmail();
+        Long getTeacherId();
+        String getTeacherFirstName();
+        String getTeacherLastName();
+        Long getEnrolledCourseId();
+        String getEnrolledCourseName();
+    }
+
+    // Roster row for dashboard lists, without loading the teacher
+    interface StudentSummary {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getStudentId();
+        String getEmail();
+        String getPhoneNumber();
+        Long getEnrolledCourseId();
+        String getEnrolledCourseName();
+    }
 }
@@ -2,15 +2,57 @@ package com.niloy.student_portal.repository;
 
 import com.niloy.student_portal.entity.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TeacherRepository extends JpaRepository<Teacher, Long> {
+public interface TeacherRepository extends JpaRepository<Teacher, Long>, SparseFieldRepository {
+    // TeacherResponse fields for ?fields= queries, see SparseFieldRepository
+    SparseFields SPARSE_FIELDS = SparseFields.of("Teacher", "t")
+            .field("id", "t.id")
+            .field("firstName", "t.firstName")
+            .field("lastName", "t.lastName")
+            .field("employeeId", "t.employeeId")
+            .field("specialization", "t.specialization")
+            .field("departmentName", "d.name", "left join t.department d")
+            .field("departmentId", "t.department.id")
+            .field("email", "u.email", "left join t.user u")
+            .field("studentCount", "(select count(s) from Student s where s.teacher = t)")
+            .build();
+
+    // Own columns of a teacher for /api/sync, see StudentRepository.SYNC_FIELDS
+    SparseFields SYNC_FIELDS = SparseFields.of("Teacher", "t")
+            .field("id", "t.id")
+            .field("firstName", "t.firstName")
+            .field("lastName", "t.lastName")
+            .field("employeeId", "t.employeeId")
+            .field("specialization", "t.specialization")
+            .field("email", "u.email", "left join t.user u")
+            .field("departmentId", "t.department.id")
+            .field("updatedAt", "t.updatedAt")
+            .build();
+
     Optional<Teacher> findByEmployeeId(String employeeId);
-    Optional<Teacher> findByUserUsername(String username);
     List<Teacher> findByDepartmentId(Long departmentId);
+
+    @Query("select t.id from Teacher t where t.department.id = :departmentId")
+    List<Long> findIdsByDepartmentId(@Param("departmentId") Long departmentId);
     boolean existsByEmployeeId(String employeeId);
+
+    // All dashboard counts for a teacher in one round trip
+    @Query("select (select count(d) from Department d) as departmentCount, " +
+           "(select count(c) from Course c) as courseCount, " +
+           "(select count(s) from Student s where s.teacher = t) as studentCount " +
+           "from Teacher t where t.id = :teacherId")
+    Optional<DashboardCounts> findDashboardCounts(@Param("teacherId") Long teacherId);
+
+    interface DashboardCounts {
+        long getDepartmentCount();
+        long getCourseCount();
+        long getStudentCount();
+    }
 }
@@ -0,0 +1,16 @@
+package com.niloy.student_portal.repository;
+
+import com.niloy.student_portal.entity.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long>, SparseFieldRepository {
+    // Deletes for /api/sync, see StudentRepository.SYNC_FIELDS
+    SparseFields SYNC_FIELDS = SparseFields.of("Tombstone", "x")
+            .field("id", "x.id")
+            .field("kind", "x.kind")
+            .field("entityId", "x.entityId")
+            .field("updatedAt", "x.deletedAt")
+            .build();
+}
@@ -1,9 +1,15 @@
 package com.niloy.student_portal.repository;
 
+import com.niloy.student_portal.entity.Role;
 import com.niloy.student_portal.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
+
+    @Query("select u.email from User u where u.email is not null")
+    List<String> findAllEmails();
+
+    // Which accounts hold the emails a batch assigns, in one query
+    List<EmailHolder> findByEmailIn(Collection<String> emails);
+
+    @Query("select u.id as id, u.username as username, u.password as password, u.enabled as enabled, " +
+           "u.role as role, s.id as studentId, t.id as teacherId " +
+           "from User u left join Student s on s.user = u left join Teacher t on t.user = u " +
+           "where u.username = :username")
+    Optional<AccountIdentity> findAccountIdentityByUsername(@Param("username") String username);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.email = :email where u.id = (select s.user.id from Student s where s.id = :studentId)")
+    int updateEmailByStudentId(@Param("studentId") Long studentId, @Param("email") String email);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int deleteAccountById(@Param("id") Long id);
+
+    interface EmailHolder {
+        Long getId();
+        String getEmail();
+    }
+
+    // Login-time view of a user account together with the id of its student or teacher profile
+    interface AccountIdentity {
+        Long getId();
+        String getUsername();
+        String getPassword();
+        boolean isEnabled();
+        Role getRole();
+        Long getStudentId();
+        Long getTeacherId();
+    }
 }
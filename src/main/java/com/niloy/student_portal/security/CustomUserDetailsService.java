@@ -1,16 +1,12 @@
 package com.niloy.student_portal.security;
 
-import com.niloy.student_portal.entity.User;
 import com.niloy.student_portal.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
@@ -19,17 +15,18 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        // One query resolves the account together with its student/teacher id
+        UserRepository.AccountIdentity account = userRepository.findAccountIdentityByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                user.isEnabled(),
-                true,
-                true,
-                true,
-                Collections.singletonList(new SimpleGrantedAuthority(user.getRole().name()))
+        return new PortalUserDetails(
+                account.getId(),
+                account.getUsername(),
+                account.getPassword(),
+                account.isEnabled(),
+                account.getRole(),
+                account.getStudentId(),
+                account.getTeacherId()
         );
     }
 }
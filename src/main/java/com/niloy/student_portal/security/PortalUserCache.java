@@ -0,0 +1,103 @@
+package com.niloy.student_portal.security;
+
+import com.niloy.student_portal.entity.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accounts loaded for HTTP Basic, kept for a short time so a stateless API
+ * client does not cost a user lookup, and with it a connection, on every
+ * request. The password is still checked against the cached hash each time.
+ * Entries are snapshots: the principal handed out is a fresh copy, since its
+ * credentials are erased after authentication. Accounts are only ever created
+ * or deleted, so deletes clear the cache and the time to live bounds the rest.
+ */
+@Component
+public class PortalUserCache implements UserCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public PortalUserCache(MeterRegistry meterRegistry,
+                           @Value("${app.security.user-cache.ttl:5m}") Duration ttl,
+                           @Value("${app.security.user-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        meterRegistry.gaugeMapSize("portal.security.user.cache.size", List.of(), entries);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expired(System.nanoTime())) {
+            entries.remove(username, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        // Only accounts resolved by CustomUserDetailsService carry the ids the app needs
+        if (maxEntries <= 0 || !(user instanceof PortalUserDetails principal) || principal.getPassword() == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.expired(now));
+        }
+        if (entries.size() < maxEntries || entries.containsKey(principal.getUsername())) {
+            entries.put(principal.getUsername(), new Entry(principal.getUserId(), principal.getUsername(),
+                    principal.getPassword(), principal.isEnabled(), principal.getRole(), principal.getStudentId(),
+                    principal.getTeacherId(), now + ttlNanos));
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        entries.remove(username);
+    }
+
+    /**
+     * Drops every cached account once the current transaction commits, or
+     * right away outside of one, so a deleted login stops working at once.
+     */
+    public void accountsRemoved() {
+        entries.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A request that reloads an account before the commit would put it back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.clear();
+                }
+            });
+        }
+    }
+
+    private record Entry(Long userId, String username, String password, boolean enabled, Role role,
+                         Long studentId, Long teacherId, long expiresAt) {
+
+        boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        PortalUserDetails principal() {
+            return new PortalUserDetails(userId, username, password, enabled, role, studentId, teacherId);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.niloy.student_portal.security;
+
+import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.exception.ResourceNotFoundException;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+/**
+ * Authenticated principal that carries the ids resolved at login time, so
+ * controllers and services don't have to look the caller up by username again.
+ */
+@Getter
+public class PortalUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final Long userId;
+    private final Role role;
+    private final Long studentId;
+    private final Long teacherId;
+
+    public PortalUserDetails(Long userId, String username, String password, boolean enabled,
+                             Role role, Long studentId, Long teacherId) {
+        super(username, password, enabled, true, true, true,
+                role != null ? Collections.singletonList(new SimpleGrantedAuthority(role.name()))
+                             : Collections.emptyList());
+        this.userId = userId;
+        this.role = role;
+        this.studentId = studentId;
+        this.teacherId = teacherId;
+    }
+
+    public boolean isTeacher() {
+        return role == Role.ROLE_TEACHER;
+    }
+
+    public boolean isStudent() {
+        return role == Role.ROLE_STUDENT;
+    }
+
+    public Long requireStudentId() {
+        if (studentId == null) {
+            throw new ResourceNotFoundException("Student", "username", getUsername());
+        }
+        return studentId;
+    }
+
+    public Long requireTeacherId() {
+        if (teacherId == null) {
+            throw new ResourceNotFoundException("Teacher", "username", getUsername());
+        }
+        return teacherId;
+    }
+}
@@ -1,9 +1,13 @@
 package com.niloy.student_portal.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.grpc.server.security.AuthenticationProcessInterceptor;
+import org.springframework.grpc.server.security.GrpcSecurity;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
@@ -24,6 +28,11 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
+    private final PortalUserCache userCache;
+
+    // Stateless by default so HTTP Basic clients that ignore cookies don't leave a session behind per call
+    @Value("${app.security.api.stateless:true}")
+    private boolean statelessApi;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -34,15 +43,18 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Stateless HTTP Basic authenticates every request, the cache keeps that off the database
+        authProvider.setUserCache(userCache);
         return new ProviderManager(authProvider);
     }
 
-    // API Security Filter Chain - for REST API with HTTP Basic and session support
+    // API Security Filter Chain - for REST API with HTTP Basic, optionally session backed
     @Bean
     @Order(1)
     public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
         http
             .securityMatcher("/api/**")
+            .authenticationManager(authenticationManager())
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
@@ -74,23 +86,53 @@ public class SecurityConfig {
                 // Profile endpoints
                 .requestMatchers("/api/profile/**").authenticated()
 
+                // Dashboard endpoints
+                .requestMatchers(HttpMethod.GET, "/api/dashboard/**").authenticated()
+
+                // GraphQL reads - each resolver checks its own role
+                .requestMatchers(HttpMethod.POST, "/api/graphql").authenticated()
+
+                // Delta sync - the service leaves people out for students
+                .requestMatchers(HttpMethod.GET, "/api/sync").authenticated()
+
+                // Account availability checks
+                .requestMatchers(HttpMethod.GET, "/api/users/availability").authenticated()
+
                 .anyRequest().authenticated()
             )
-            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
+            .sessionManagement(session -> session.sessionCreationPolicy(
+                    statelessApi ? SessionCreationPolicy.STATELESS : SessionCreationPolicy.IF_REQUIRED))
             .httpBasic(Customizer.withDefaults());
 
         return http.build();
     }
 
+    // gRPC Security - HTTP Basic in the call metadata, teachers only; health and reflection stay open
+    @Bean
+    @GlobalServerInterceptor
+    public AuthenticationProcessInterceptor grpcSecurityInterceptor(GrpcSecurity grpc) throws Exception {
+        return grpc
+            .authenticationManager(authenticationManager())
+            .authorizeRequests(requests -> requests
+                .methods("grpc.*/*").permitAll()
+                .allRequests().hasAuthority("ROLE_TEACHER")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .build();
+    }
+
     // Web Security Filter Chain - for web pages with form login
     @Bean
     @Order(2)
     public SecurityFilterChain webSecurityFilterChain(HttpSecurity http) throws Exception {
         http
             .securityMatcher("/**")
+            .authenticationManager(authenticationManager())
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/", "/login", "/css/**", "/js/**", "/images/**", "/error").permitAll()
+                // Metrics give away pool sizes, connection hold times and request rates
+                .requestMatchers("/actuator/metrics/**").hasRole("TEACHER")
                 .requestMatchers("/web/enrollment/**").hasRole("STUDENT")
                 .requestMatchers("/web/**").authenticated()
                 .anyRequest().authenticated()
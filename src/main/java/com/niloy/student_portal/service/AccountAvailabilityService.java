@@ -0,0 +1,208 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Answers "is this username / email / student ID free?" using in-memory Bloom
+ * filters built from the database at startup. A Bloom miss is a definite
+ * "available" and never touches the database; only possible hits fall
+ * through to the matching existsBy query.
+ */
+@Service
+@Slf4j
+public class AccountAvailabilityService {
+
+    private final IdentifierFilter usernames;
+    private final IdentifierFilter emails;
+    private final IdentifierFilter studentIds;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    public AccountAvailabilityService(UserRepository userRepository,
+                                      StudentRepository studentRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.availability.expected-insertions:100000}") long expectedInsertions,
+                                      @Value("${app.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.usernames = new IdentifierFilter("username", userRepository::count, userRepository::findAllUsernames,
+                userRepository::existsByUsername, meterRegistry);
+        this.emails = new IdentifierFilter("email", userRepository::count, userRepository::findAllEmails,
+                userRepository::existsByEmail, meterRegistry);
+        this.studentIds = new IdentifierFilter("studentId", studentRepository::count,
+                studentRepository::findAllStudentIds, studentRepository::existsByStudentId, meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        usernames.rebuild();
+        emails.rebuild();
+        studentIds.rebuild();
+        log.info("Availability filters built: {} usernames, {} emails, {} student IDs",
+                usernames.size(), emails.size(), studentIds.size());
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isUsernameAvailable(String username) {
+        return !usernames.isTaken(username);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmailAvailable(String email) {
+        return !emails.isTaken(email);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isStudentIdAvailable(String studentId) {
+        return !studentIds.isTaken(studentId);
+    }
+
+    // Callers record values they write; the filters are only updated once the transaction commits
+    public void recordAccount(String username, String email) {
+        afterCommit(() -> {
+            usernames.add(username);
+            emails.add(email);
+        });
+    }
+
+    public void recordEmail(String email) {
+        afterCommit(() -> emails.add(email));
+    }
+
+    public void recordStudentId(String studentId) {
+        afterCommit(() -> studentIds.add(studentId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * One Bloom filter plus the query used to confirm its hits. Until the first
+     * build completes every lookup is treated as a possible hit.
+     */
+    private class IdentifierFilter {
+        private final LongSupplier counter;
+        private final Supplier<List<String>> loader;
+        private final Predicate<String> exists;
+        private final Counter definitelyAbsent;
+        private final Counter confirmedPresent;
+        private final Counter falsePositives;
+        private volatile BloomFilter current;
+        private volatile BloomFilter building;
+
+        IdentifierFilter(String name, LongSupplier counter, Supplier<List<String>> loader,
+                         Predicate<String> exists, MeterRegistry meterRegistry) {
+            this.counter = counter;
+            this.loader = loader;
+            this.exists = exists;
+            this.definitelyAbsent = lookupCounter(meterRegistry, name, "absent");
+            this.confirmedPresent = lookupCounter(meterRegistry, name, "present");
+            this.falsePositives = lookupCounter(meterRegistry, name, "false_positive");
+            Gauge.builder("portal.availability.bloom.false_positive_rate", this, IdentifierFilter::observedFalsePositiveRate)
+                    .description("Share of absent values the filter reported as possibly present")
+                    .tag("identifier", name)
+                    .register(meterRegistry);
+            Gauge.builder("portal.availability.bloom.expected_false_positive_rate", this,
+                            f -> f.current == null ? 1.0 : f.current.expectedFalsePositiveRate())
+                    .description("False-positive probability implied by the filter size and fill")
+                    .tag("identifier", name)
+                    .register(meterRegistry);
+            Gauge.builder("portal.availability.bloom.memory", this,
+                            f -> f.current == null ? 0 : f.current.memoryBytes())
+                    .description("Size of the filter bit array")
+                    .baseUnit("bytes")
+                    .tag("identifier", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * The new filter is published before the values are loaded: a value
+         * committed after the load's snapshot is then added to it by
+         * {@link #add}, and one committed before is in the snapshot. Its size
+         * is fixed before the load, from the configured expected insertions
+         * or twice the rows counted in the table, whichever is larger, so the
+         * values added until the next restart have room as well.
+         */
+        void rebuild() {
+            long rows = counter.getAsLong();
+            BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, rows * 2), falsePositiveRate);
+            building = filter;
+            loader.get().forEach(filter::put);
+            current = filter;
+            building = null;
+        }
+
+        boolean isTaken(String value) {
+            BloomFilter filter = current;
+            if (filter != null && !filter.mightContain(value)) {
+                definitelyAbsent.increment();
+                return false;
+            }
+            boolean taken = exists.test(value);
+            if (filter != null) {
+                (taken ? confirmedPresent : falsePositives).increment();
+            }
+            return taken;
+        }
+
+        void add(String value) {
+            if (value == null) {
+                return;
+            }
+            BloomFilter pending = building;
+            if (pending != null) {
+                pending.put(value);
+            }
+            BloomFilter filter = current;
+            if (filter != null) {
+                filter.put(value);
+            }
+        }
+
+        long size() {
+            BloomFilter filter = current;
+            return filter == null ? 0 : filter.insertions();
+        }
+
+        double observedFalsePositiveRate() {
+            double negatives = definitelyAbsent.count() + falsePositives.count();
+            return negatives == 0 ? 0 : falsePositives.count() / negatives;
+        }
+
+        private Counter lookupCounter(MeterRegistry meterRegistry, String name, String outcome) {
+            return Counter.builder("portal.availability.lookups")
+                    .description("Availability lookups by filter outcome")
+                    .tag("identifier", name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.request.BatchOperationRequest;
+import com.niloy.student_portal.dto.request.StudentCreateRequest;
+import com.niloy.student_portal.dto.response.BatchOperationResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.entity.Student;
+import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.exception.BatchFailedException;
+import com.niloy.student_portal.exception.DuplicateResourceException;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs an ordered list of create, update and delete operations on a teacher's
+ * students in one transaction. Ownership of every student the batch touches is
+ * checked with one query up front, and updates and deletes are applied to the
+ * loaded entities so the final flush sends them as JDBC batches. The first
+ * failing operation rolls back the whole batch.
+ * <p>
+ * Since updates only reach the database at that flush, or when a later create
+ * flushes them ahead of its insert, a student id or email they duplicate would
+ * be reported against the wrong operation. Each operation therefore claims the
+ * unique values it assigns before it runs, against their current holders
+ * looked up with one query per column and against the earlier operations. A
+ * value stays claimed for the whole batch, even if an earlier operation moved
+ * it away, as the flush does not apply updates in request order.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BatchService {
+
+    static final int MAX_OPERATIONS = 500;
+
+    private static final Set<String> OPS = Set.of("create", "update", "delete");
+
+    private final StudentService studentService;
+    private final StudentRepository studentRepository;
+    private final UserRepository userRepository;
+
+    public List<BatchOperationResponse> execute(List<BatchOperationRequest> operations, Long teacherId) {
+        validate(operations);
+
+        Set<Long> targets = operations.stream()
+                .filter(operation -> !operation.getOp().equals("create"))
+                .map(BatchOperationRequest::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Student> managed = studentService.getManagedStudents(targets, teacherId);
+        Map<String, String> studentIds = studentIdHolders(operations);
+        Map<String, String> emails = emailHolders(operations);
+
+        List<BatchOperationResponse> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            try {
+                claimUniqueValues(index, operations.get(index), managed, studentIds, emails);
+                results.add(apply(index, operations.get(index), managed, teacherId));
+            } catch (RuntimeException ex) {
+                throw new BatchFailedException(operations, index, ex);
+            }
+        }
+        try {
+            // Updates and deletes were only queued on the entities so far
+            studentRepository.flush();
+        } catch (RuntimeException ex) {
+            // Only a row written concurrently gets here, the batch's own values were claimed above
+            throw new BatchFailedException(operations, operations.size(), ex);
+        }
+        return results;
+    }
+
+    private BatchOperationResponse apply(int index, BatchOperationRequest operation,
+                                         Map<Long, Student> managed, Long teacherId) {
+        BatchOperationResponse.BatchOperationResponseBuilder result = BatchOperationResponse.builder()
+                .index(index)
+                .op(operation.getOp());
+        switch (operation.getOp()) {
+            case "create" -> {
+                StudentResponse created = studentService.createStudent(operation.getBody(), teacherId);
+                return result.id(created.getId()).status(HttpStatus.CREATED.value())
+                        .message("Student created successfully").build();
+            }
+            case "update" -> {
+                studentService.applyUpdate(managedStudent(managed, operation.getId(), "update"), operation.getBody());
+                return result.id(operation.getId()).status(HttpStatus.OK.value())
+                        .message("Student updated successfully").build();
+            }
+            default -> {
+                studentService.applyDelete(managedStudent(managed, operation.getId(), "delete"));
+                // Later operations on the same student find nothing
+                managed.remove(operation.getId());
+                return result.id(operation.getId()).status(HttpStatus.OK.value())
+                        .message("Student deleted successfully").build();
+            }
+        }
+    }
+
+    private Map<String, String> studentIdHolders(List<BatchOperationRequest> operations) {
+        Set<String> assigned = assignedByUpdates(operations, StudentCreateRequest::getStudentId);
+        Map<String, String> holders = new HashMap<>();
+        if (!assigned.isEmpty()) {
+            studentRepository.findByStudentIdIn(assigned)
+                    .forEach(holder -> holders.put(holder.getStudentId(), "student " + holder.getId()));
+        }
+        return holders;
+    }
+
+    private Map<String, String> emailHolders(List<BatchOperationRequest> operations) {
+        Set<String> assigned = assignedByUpdates(operations, StudentCreateRequest::getEmail);
+        Map<String, String> holders = new HashMap<>();
+        if (!assigned.isEmpty()) {
+            userRepository.findByEmailIn(assigned)
+                    .forEach(holder -> holders.put(holder.getEmail(), "user " + holder.getId()));
+        }
+        return holders;
+    }
+
+    // Creates flush their own insert, so only values set by updates need their holders up front
+    private Set<String> assignedByUpdates(List<BatchOperationRequest> operations,
+                                          Function<StudentCreateRequest, String> field) {
+        return operations.stream()
+                .filter(operation -> operation.getOp().equals("update"))
+                .map(operation -> field.apply(operation.getBody()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private void claimUniqueValues(int index, BatchOperationRequest operation, Map<Long, Student> managed,
+                                   Map<String, String> studentIds, Map<String, String> emails) {
+        StudentCreateRequest body = operation.getBody();
+        switch (operation.getOp()) {
+            case "create" -> {
+                claim(studentIds, body.getStudentId(), "operation " + index, "Student", "studentId");
+                claim(emails, body.getEmail(), "operation " + index, "User", "email");
+            }
+            case "update" -> {
+                Student student = managed.get(operation.getId());
+                if (student == null) {
+                    // apply reports the missing student
+                    return;
+                }
+                claim(studentIds, body.getStudentId(), "student " + student.getId(), "Student", "studentId");
+                if (body.getEmail() != null) {
+                    claim(emails, body.getEmail(), "user " + student.getUser().getId(), "User", "email");
+                }
+            }
+            default -> {
+                // A delete frees its values only at the flush, after the updates
+            }
+        }
+    }
+
+    private void claim(Map<String, String> holders, String value, String claimant, String resource, String field) {
+        if (value == null) {
+            return;
+        }
+        String holder = holders.putIfAbsent(value, claimant);
+        if (holder != null && !holder.equals(claimant)) {
+            throw new DuplicateResourceException(resource, field, value);
+        }
+    }
+
+    private Student managedStudent(Map<Long, Student> managed, Long id, String action) {
+        Student student = managed.get(id);
+        if (student == null) {
+            // Not managed by this teacher, or deleted earlier in the batch
+            throw studentService.ownershipFailure(id, action);
+        }
+        return student;
+    }
+
+    private void validate(List<BatchOperationRequest> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("A batch needs at least one operation");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new BadRequestException("A batch accepts at most " + MAX_OPERATIONS + " operations");
+        }
+        for (int index = 0; index < operations.size(); index++) {
+            BatchOperationRequest operation = operations.get(index);
+            String prefix = "Operation " + index + ": ";
+            if (operation.getOp() == null || !OPS.contains(operation.getOp())) {
+                throw new BadRequestException(prefix + "op must be one of " + OPS);
+            }
+            if (!"students".equals(operation.getResource())) {
+                throw new BadRequestException(prefix + "unsupported resource '" + operation.getResource() + "'");
+            }
+            if (!operation.getOp().equals("create") && operation.getId() == null) {
+                throw new BadRequestException(prefix + operation.getOp() + " needs an id");
+            }
+            if (!operation.getOp().equals("delete") && operation.getBody() == null) {
+                throw new BadRequestException(prefix + operation.getOp() + " needs a body");
+            }
+        }
+    }
+}
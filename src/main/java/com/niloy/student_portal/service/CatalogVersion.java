@@ -0,0 +1,85 @@
+package com.niloy.student_portal.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version number of the shared catalog, meaning departments and courses
+ * together with the teacher and enrollment counts shown next to them. Every
+ * write that changes what a catalog listing shows bumps it once its
+ * transaction commits, so anything keyed by the version goes stale at the
+ * moment the new rows become visible. Kept in memory, like the availability
+ * filters, so it only covers writes made through this instance.
+ * <p>
+ * Each {@link Collection} also keeps its own version and change time, so a
+ * client polling one listing is not sent it again for a write that only
+ * touched the other.
+ */
+@Component
+public class CatalogVersion {
+
+    /** Catalog listings that are versioned separately. */
+    public enum Collection {
+        /** Departments with their teacher and course counts. */
+        DEPARTMENTS,
+        /** Courses with their department name and enrollment count. */
+        COURSES
+    }
+
+    /** Version of one collection and when it last changed. */
+    public record Stamp(long version, Instant lastModified) {
+    }
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Collection, AtomicReference<Stamp>> stamps = new EnumMap<>(Collection.class);
+
+    public CatalogVersion() {
+        Instant started = Instant.now();
+        for (Collection collection : Collection.values()) {
+            stamps.put(collection, new AtomicReference<>(new Stamp(0, started)));
+        }
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public Stamp current(Collection collection) {
+        return stamps.get(collection).get();
+    }
+
+    /**
+     * Records a write that changes the given listings, once the current
+     * transaction commits or right away outside of one.
+     */
+    public void changed(Collection... affected) {
+        List<Collection> collections = List.of(affected);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(collections);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(collections);
+            }
+        });
+    }
+
+    private void bump(List<Collection> collections) {
+        Instant now = Instant.now();
+        // Collections first, so a reader that sees the new global version also sees their new stamps
+        for (Collection collection : collections) {
+            stamps.get(collection).updateAndGet(stamp -> new Stamp(stamp.version() + 1, now));
+        }
+        version.incrementAndGet();
+    }
+}
@@ -2,16 +2,27 @@ package com.niloy.student_portal.service;
 
 import com.niloy.student_portal.dto.request.CourseRequest;
 import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.MultiGetResult;
 import com.niloy.student_portal.entity.Course;
 import com.niloy.student_portal.entity.Department;
+import com.niloy.student_portal.entity.Tombstone;
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
 import com.niloy.student_portal.exception.DuplicateResourceException;
 import com.niloy.student_portal.exception.ResourceNotFoundException;
 import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.SparseFields;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,11 +30,17 @@ import java.util.stream.Collectors;
 @Transactional
 public class CourseService {
 
+    static final int CHUNK_SIZE = 200;
+
     private final CourseRepository courseRepository;
     private final DepartmentService departmentService;
+    private final ConstraintViolationTranslator constraintViolationTranslator;
+    private final CatalogVersion catalogVersion;
+    private final SyncService syncService;
 
     public CourseResponse createCourse(CourseRequest request) {
-        if (courseRepository.existsByCourseCode(request.getCourseCode())) {
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_COURSES_COURSE_CODE) &&
+            courseRepository.existsByCourseCode(request.getCourseCode())) {
             throw new DuplicateResourceException("Course", "courseCode", request.getCourseCode());
         }
 
@@ -36,15 +53,21 @@ public class CourseService {
         course.setCredits(request.getCredits());
         course.setDepartment(department);
 
-        Course savedCourse = courseRepository.save(course);
-        return mapToResponse(savedCourse);
+        try {
+            Course savedCourse = courseRepository.saveAndFlush(course);
+            catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS, CatalogVersion.Collection.COURSES);
+            return mapToResponse(savedCourse);
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
+        }
     }
 
     @Transactional(readOnly = true)
     public CourseResponse getCourseById(Long id) {
-        Course course = courseRepository.findById(id)
+        // The enrollment count comes from SQL, large rosters are never loaded just to be counted
+        CourseRepository.CourseSummary course = courseRepository.findSummaryById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
-        return mapToResponse(course);
+        return Summaries.toResponse(course);
     }
 
     @Transactional(readOnly = true)
@@ -54,6 +77,23 @@ public class CourseService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public Slice<CourseResponse> getCoursePage(Pageable pageable) {
+        return courseRepository.findSummaries(pageable).map(Summaries::toResponse);
+    }
+
+    /**
+     * All courses in id order, read in keyset chunks while the caller iterates
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Iterable<CourseResponse> streamAllCourses() {
+        return new KeysetChunks<>(CHUNK_SIZE,
+                (afterId, limit) -> courseRepository.findSummaryChunk(afterId, Limit.of(limit)).stream()
+                        .map(Summaries::toResponse)
+                        .collect(Collectors.toList()),
+                CourseResponse::getId);
+    }
+
     @Transactional(readOnly = true)
     public List<CourseResponse> getCoursesByDepartment(Long departmentId) {
         return courseRepository.findByDepartmentId(departmentId).stream()
@@ -61,12 +101,64 @@ public class CourseService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Sparse variants of the reads above: only the requested CourseResponse
+     * fields, from a query that selects and joins nothing else
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCourseFieldsById(Long id, String fields) {
+        return findFields(fields, "c.id = :id", Map.of("id", id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllCourseFields(String fields) {
+        return findFields(fields, null, Map.of());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCourseFieldsByDepartment(Long departmentId, String fields) {
+        return findFields(fields, "c.department.id = :departmentId", Map.of("departmentId", departmentId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCourseFieldsByIds(Collection<Long> ids, String fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return findFields(fields, "c.id in :ids", Map.of("ids", ids));
+    }
+
+    /**
+     * Courses of all the given departments in one IN query, for nested reads
+     * that load one level for every parent at once
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCourseFieldsByDepartmentIds(Collection<Long> departmentIds, String fields) {
+        if (departmentIds.isEmpty()) {
+            return List.of();
+        }
+        return findFields(fields, "c.department.id in :departmentIds", Map.of("departmentIds", departmentIds));
+    }
+
+    /**
+     * Multi-get for ?ids=1,2,3: one IN query for all the ids, rows in the
+     * order requested and the ids that matched nothing listed
+     */
+    @Transactional(readOnly = true)
+    public MultiGetResult getCoursesByIds(String ids, String fields) {
+        List<Long> requested = MultiGets.parseIds(ids);
+        return MultiGets.inRequestOrder(requested, findFields(fields, "c.id in :ids", Map.of("ids", requested)));
+    }
+
     public CourseResponse updateCourse(Long id, CourseRequest request) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
 
-        // Check for duplicate course code if code is being changed
-        if (!course.getCourseCode().equals(request.getCourseCode()) &&
+        // Check for duplicate course code if code is being changed (strict mode or a missing constraint)
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_COURSES_COURSE_CODE) &&
+            !course.getCourseCode().equals(request.getCourseCode()) &&
             courseRepository.existsByCourseCode(request.getCourseCode())) {
             throw new DuplicateResourceException("Course", "courseCode", request.getCourseCode());
         }
@@ -79,14 +171,21 @@ public class CourseService {
         course.setCredits(request.getCredits());
         course.setDepartment(department);
 
-        Course updatedCourse = courseRepository.save(course);
-        return mapToResponse(updatedCourse);
+        try {
+            Course updatedCourse = courseRepository.saveAndFlush(course);
+            catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS, CatalogVersion.Collection.COURSES);
+            return mapToResponse(updatedCourse);
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
+        }
     }
 
     public void deleteCourse(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
+        syncService.deleted(Tombstone.Kind.COURSE, id);
         courseRepository.delete(course);
+        catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS, CatalogVersion.Collection.COURSES);
     }
 
     @Transactional(readOnly = true)
@@ -95,6 +194,11 @@ public class CourseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
     }
 
+    private List<Map<String, Object>> findFields(String fields, String condition, Map<String, ?> parameters) {
+        SparseFields definition = CourseRepository.SPARSE_FIELDS;
+        return courseRepository.findFields(definition, definition.parse(fields), condition, parameters);
+    }
+
     private CourseResponse mapToResponse(Course course) {
         return CourseResponse.builder()
                 .id(course.getId())
@@ -0,0 +1,134 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.DashboardSummaryResponse;
+import com.niloy.student_portal.dto.response.DepartmentResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.exception.ResourceNotFoundException;
+import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.TeacherRepository;
+import com.niloy.student_portal.security.PortalUserDetails;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard counts and short "recent" lists. Counts come from one aggregate
+ * query per role, and lists are top-N projections ordered by id. No
+ * department or course collection is ever loaded. The web dashboard only
+ * takes the counts and pages the lists through the entity services.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DashboardService {
+
+    public static final int DEFAULT_RECENT_LIMIT = 5;
+    public static final int MAX_RECENT_LIMIT = 50;
+
+    private final DepartmentRepository departmentRepository;
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final TeacherRepository teacherRepository;
+
+    public DashboardSummaryResponse getSummary(PortalUserDetails principal, int limit) {
+        if (principal.isTeacher()) {
+            return getTeacherSummary(principal.requireTeacherId(), limit);
+        }
+        if (principal.isStudent()) {
+            return getStudentSummary(principal.requireStudentId(), limit);
+        }
+        return otherCounts(principal)
+                .recentDepartments(getRecentDepartments(limit))
+                .recentCourses(getRecentCourses(limit))
+                .build();
+    }
+
+    /**
+     * Only the aggregate counts, for the dashboard shell. The recent lists are
+     * loaded separately as paged panels.
+     */
+    public DashboardSummaryResponse getCounts(PortalUserDetails principal) {
+        if (principal.isTeacher()) {
+            return teacherCounts(principal.requireTeacherId()).build();
+        }
+        if (principal.isStudent()) {
+            return studentCounts(principal.requireStudentId()).build();
+        }
+        return otherCounts(principal).build();
+    }
+
+    public DashboardSummaryResponse getTeacherSummary(Long teacherId, int limit) {
+        DashboardSummaryResponse.DashboardSummaryResponseBuilder summary = teacherCounts(teacherId);
+
+        List<StudentResponse> recentStudents = studentRepository
+                .findRecentSummariesByTeacherId(teacherId, Limit.of(clamp(limit))).stream()
+                .map(Summaries::toResponse)
+                .collect(Collectors.toList());
+
+        return summary
+                .recentDepartments(getRecentDepartments(limit))
+                .recentCourses(getRecentCourses(limit))
+                .recentStudents(recentStudents)
+                .build();
+    }
+
+    public DashboardSummaryResponse getStudentSummary(Long studentId, int limit) {
+        return studentCounts(studentId)
+                .recentDepartments(getRecentDepartments(limit))
+                .recentCourses(getRecentCourses(limit))
+                .build();
+    }
+
+    private DashboardSummaryResponse.DashboardSummaryResponseBuilder teacherCounts(Long teacherId) {
+        TeacherRepository.DashboardCounts counts = teacherRepository.findDashboardCounts(teacherId)
+                .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", teacherId));
+
+        return DashboardSummaryResponse.builder()
+                .role(Role.ROLE_TEACHER.name())
+                .departmentCount(counts.getDepartmentCount())
+                .courseCount(counts.getCourseCount())
+                .studentCount(counts.getStudentCount());
+    }
+
+    private DashboardSummaryResponse.DashboardSummaryResponseBuilder studentCounts(Long studentId) {
+        StudentRepository.DashboardCounts counts = studentRepository.findDashboardCounts(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", studentId));
+
+        return DashboardSummaryResponse.builder()
+                .role(Role.ROLE_STUDENT.name())
+                .departmentCount(counts.getDepartmentCount())
+                .courseCount(counts.getCourseCount())
+                .enrolledCourseCount(counts.getEnrolledCourseCount());
+    }
+
+    private DashboardSummaryResponse.DashboardSummaryResponseBuilder otherCounts(PortalUserDetails principal) {
+        return DashboardSummaryResponse.builder()
+                .role(principal.getRole() != null ? principal.getRole().name() : null)
+                .departmentCount(departmentRepository.count())
+                .courseCount(courseRepository.count());
+    }
+
+    private List<DepartmentResponse> getRecentDepartments(int limit) {
+        return departmentRepository.findRecentSummaries(Limit.of(clamp(limit))).stream()
+                .map(Summaries::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private List<CourseResponse> getRecentCourses(int limit) {
+        return courseRepository.findRecentSummaries(Limit.of(clamp(limit))).stream()
+                .map(Summaries::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_RECENT_LIMIT));
+    }
+}
@@ -3,14 +3,23 @@ package com.niloy.student_portal.service;
 import com.niloy.student_portal.dto.request.DepartmentRequest;
 import com.niloy.student_portal.dto.response.DepartmentResponse;
 import com.niloy.student_portal.entity.Department;
+import com.niloy.student_portal.entity.Tombstone;
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
 import com.niloy.student_portal.exception.DuplicateResourceException;
 import com.niloy.student_portal.exception.ResourceNotFoundException;
 import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.repository.SparseFields;
+import com.niloy.student_portal.security.PortalUserCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,9 +28,14 @@ import java.util.stream.Collectors;
 public class DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final ConstraintViolationTranslator constraintViolationTranslator;
+    private final CatalogVersion catalogVersion;
+    private final SyncService syncService;
+    private final PortalUserCache userCache;
 
     public DepartmentResponse createDepartment(DepartmentRequest request) {
-        if (departmentRepository.existsByName(request.getName())) {
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_DEPARTMENTS_NAME) &&
+            departmentRepository.existsByName(request.getName())) {
             throw new DuplicateResourceException("Department", "name", request.getName());
         }
 
@@ -29,8 +43,13 @@ public class DepartmentService {
         department.setName(request.getName());
         department.setDescription(request.getDescription());
 
-        Department savedDepartment = departmentRepository.save(department);
-        return mapToResponse(savedDepartment);
+        try {
+            Department savedDepartment = departmentRepository.saveAndFlush(department);
+            catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS);
+            return mapToResponse(savedDepartment);
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -47,12 +66,35 @@ public class DepartmentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Department rows with the chosen fields, {@code null} meaning all, for
+     * nested reads that start from or lead to departments
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllDepartmentFields(String fields) {
+        return findFields(fields, null, Map.of());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDepartmentFieldsByIds(Collection<Long> ids, String fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return findFields(fields, "d.id in :ids", Map.of("ids", ids));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<DepartmentResponse> getDepartmentPage(Pageable pageable) {
+        return departmentRepository.findSummaries(pageable).map(Summaries::toResponse);
+    }
+
     public DepartmentResponse updateDepartment(Long id, DepartmentRequest request) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Department", "id", id));
 
-        // Check for duplicate name if name is being changed
-        if (!department.getName().equals(request.getName()) &&
+        // Check for duplicate name if name is being changed (strict mode or a missing constraint)
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_DEPARTMENTS_NAME) &&
+            !department.getName().equals(request.getName()) &&
             departmentRepository.existsByName(request.getName())) {
             throw new DuplicateResourceException("Department", "name", request.getName());
         }
@@ -60,14 +102,25 @@ public class DepartmentService {
         department.setName(request.getName());
         department.setDescription(request.getDescription());
 
-        Department updatedDepartment = departmentRepository.save(department);
-        return mapToResponse(updatedDepartment);
+        try {
+            Department updatedDepartment = departmentRepository.saveAndFlush(department);
+            // Course cards show the department name
+            catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS, CatalogVersion.Collection.COURSES);
+            return mapToResponse(updatedDepartment);
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
+        }
     }
 
     public void deleteDepartment(Long id) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Department", "id", id));
+        syncService.deleted(Tombstone.Kind.DEPARTMENT, id);
         departmentRepository.delete(department);
+        // Its teachers go with it, and their students and logins
+        userCache.accountsRemoved();
+        // Its courses go with it
+        catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS, CatalogVersion.Collection.COURSES);
     }
 
     @Transactional(readOnly = true)
@@ -76,6 +129,11 @@ public class DepartmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Department", "id", id));
     }
 
+    private List<Map<String, Object>> findFields(String fields, String condition, Map<String, ?> parameters) {
+        SparseFields definition = DepartmentRepository.SPARSE_FIELDS;
+        return departmentRepository.findFields(definition, definition.parse(fields), condition, parameters);
+    }
+
     private DepartmentResponse mapToResponse(Department department) {
         return DepartmentResponse.builder()
                 .id(department.getId())
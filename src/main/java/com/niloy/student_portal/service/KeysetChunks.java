@@ -0,0 +1,64 @@
+package com.niloy.student_portal.service;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Iterable over rows ordered by id that reads the next chunk only when
+ * iteration reaches it. Each chunk is its own short query keyed on the last
+ * id seen, so a view can render any number of rows while holding at most one
+ * chunk in memory and no connection between chunks. Every iterator starts
+ * again from the first row. The queries run after the method that returned
+ * the iterable, each in the repository's own transaction, so such methods
+ * do not begin one ({@code Propagation.SUPPORTS}).
+ */
+final class KeysetChunks<T> implements Iterable<T> {
+
+    private final int chunkSize;
+    private final BiFunction<Long, Integer, List<T>> loader;
+    private final Function<T, Long> idOf;
+
+    /**
+     * @param loader reads up to {@code limit} rows with an id above {@code afterId}, in id order
+     */
+    KeysetChunks(int chunkSize, BiFunction<Long, Integer, List<T>> loader, Function<T, Long> idOf) {
+        this.chunkSize = chunkSize;
+        this.loader = loader;
+        this.idOf = idOf;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private Iterator<T> chunk = Collections.emptyIterator();
+            private long afterId;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext() && !exhausted) {
+                    List<T> rows = loader.apply(afterId, chunkSize);
+                    // A short chunk is the last one, no need for a query that returns nothing
+                    exhausted = rows.size() < chunkSize;
+                    if (!rows.isEmpty()) {
+                        afterId = idOf.apply(rows.get(rows.size() - 1));
+                    }
+                    chunk = rows.iterator();
+                }
+                return chunk.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.response.MultiGetResult;
+import com.niloy.student_portal.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsing and ordering for ?ids= multi-get reads, which fetch all the
+ * requested records with one IN query instead of one request per id.
+ */
+final class MultiGets {
+
+    static final int MAX_IDS = 100;
+
+    private MultiGets() {
+    }
+
+    /** Distinct ids of a comma-separated parameter, in the order given. */
+    static List<Long> parseIds(String ids) {
+        Set<Long> parsed = new LinkedHashSet<>();
+        for (String id : ids.split(",")) {
+            String value = id.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                parsed.add(Long.valueOf(value));
+            } catch (NumberFormatException ex) {
+                throw new BadRequestException("Invalid id '" + value + "'");
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new BadRequestException("ids must name at least one id");
+        }
+        if (parsed.size() > MAX_IDS) {
+            throw new BadRequestException("ids accepts at most " + MAX_IDS + " ids, got " + parsed.size());
+        }
+        return new ArrayList<>(parsed);
+    }
+
+    /** Puts rows found by id back into the requested order and lists the ids that were not found. */
+    static MultiGetResult inRequestOrder(List<Long> ids, List<Map<String, Object>> found) {
+        Map<Object, Map<String, Object>> byId = new HashMap<>();
+        found.forEach(row -> byId.put(row.get("id"), row));
+        List<Map<String, Object>> rows = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Map<String, Object> row = byId.get(id);
+            if (row != null) {
+                rows.add(row);
+            } else {
+                missing.add(id);
+            }
+        }
+        return MultiGetResult.builder().rows(rows).missing(missing).build();
+    }
+}
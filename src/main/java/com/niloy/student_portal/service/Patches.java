@@ -0,0 +1,38 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.exception.BadRequestException;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Field updates for PATCH requests, where a null field means "leave as is".
+ * Only values that actually differ are set, so unchanged entities stay clean
+ * and a patch that changes nothing writes nothing.
+ */
+final class Patches {
+
+    private Patches() {
+    }
+
+    /** Sets {@code value} when it is given and differs from the current one, and tells whether it did. */
+    static <T> boolean apply(T value, Supplier<T> current, Consumer<T> setter) {
+        if (value == null || Objects.equals(value, current.get())) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
+    /**
+     * Rejects login credentials in a patch. The request types are shared with
+     * create, but a PATCH cannot change the account, and ignoring them would
+     * report a change that did not happen.
+     */
+    static void rejectCredentials(String username, String password) {
+        if (username != null || password != null) {
+            throw new BadRequestException("username and password cannot be changed with PATCH");
+        }
+    }
+}
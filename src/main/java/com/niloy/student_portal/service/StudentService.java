@@ -2,24 +2,44 @@ package com.niloy.student_portal.service;
 
 import com.niloy.student_portal.dto.request.StudentCreateRequest;
 import com.niloy.student_portal.dto.request.StudentUpdateRequest;
+import com.niloy.student_portal.dto.response.MultiGetResult;
+import com.niloy.student_portal.dto.response.NormalizedList;
 import com.niloy.student_portal.dto.response.StudentResponse;
 import com.niloy.student_portal.entity.Course;
 import com.niloy.student_portal.entity.Role;
 import com.niloy.student_portal.entity.Student;
 import com.niloy.student_portal.entity.Teacher;
+import com.niloy.student_portal.entity.Tombstone;
 import com.niloy.student_portal.entity.User;
 import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
 import com.niloy.student_portal.exception.DuplicateResourceException;
 import com.niloy.student_portal.exception.ResourceNotFoundException;
 import com.niloy.student_portal.exception.UnauthorizedAccessException;
+import com.niloy.student_portal.repository.SparseFields;
 import com.niloy.student_portal.repository.StudentRepository;
 import com.niloy.student_portal.repository.UserRepository;
+import com.niloy.student_portal.security.PortalUserCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,29 +47,46 @@ import java.util.stream.Collectors;
 @Transactional
 public class StudentService {
 
+    static final int ROSTER_CHUNK_SIZE = 200;
+
+    // Row fields of a normalized list when none are requested: all but the names the included records carry
+    private static final String NORMALIZED_ROW_FIELDS =
+            "firstName,lastName,studentId,dateOfBirth,address,phoneNumber,email,teacherId,enrolledCourseId";
+    private static final String INCLUDED_TEACHER_FIELDS = "firstName,lastName,employeeId,departmentId";
+    private static final String INCLUDED_COURSE_FIELDS = "courseCode,courseName,credits,departmentId";
+
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
     private final TeacherService teacherService;
     private final CourseService courseService;
     private final PasswordEncoder passwordEncoder;
+    private final ConstraintViolationTranslator constraintViolationTranslator;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final CatalogVersion catalogVersion;
+    private final SyncService syncService;
+    private final PortalUserCache userCache;
 
     /**
      * Create a new student - Only teachers can create students
      */
-    public StudentResponse createStudent(StudentCreateRequest request, String teacherUsername) {
-        // Check for duplicates
-        if (studentRepository.existsByStudentId(request.getStudentId())) {
+    public StudentResponse createStudent(StudentCreateRequest request, Long teacherId) {
+        // Duplicates are caught by the unique constraints, pre-checks only run in strict mode
+        // or for a constraint the schema lacks
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_STUDENTS_STUDENT_ID) &&
+            studentRepository.existsByStudentId(request.getStudentId())) {
             throw new DuplicateResourceException("Student", "studentId", request.getStudentId());
         }
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_USERS_USERNAME) &&
+            userRepository.existsByUsername(request.getUsername())) {
             throw new DuplicateResourceException("User", "username", request.getUsername());
         }
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_USERS_EMAIL) &&
+            userRepository.existsByEmail(request.getEmail())) {
             throw new DuplicateResourceException("User", "email", request.getEmail());
         }
 
-        // Get the teacher who is creating this student
-        Teacher teacher = teacherService.getTeacherEntityByUsername(teacherUsername);
+        // The creating teacher's id comes from the principal, a reference avoids loading the row
+        Teacher teacher = teacherService.getTeacherReference(teacherId);
 
         // Create User for authentication
         User user = new User();
@@ -70,8 +107,14 @@ public class StudentService {
         student.setUser(user);
         student.setTeacher(teacher);
 
-        Student savedStudent = studentRepository.save(student);
-        return mapToResponse(savedStudent);
+        try {
+            Student savedStudent = studentRepository.saveAndFlush(student);
+            accountAvailabilityService.recordAccount(request.getUsername(), request.getEmail());
+            accountAvailabilityService.recordStudentId(request.getStudentId());
+            return mapToResponse(savedStudent);
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -81,13 +124,6 @@ public class StudentService {
         return mapToResponse(student);
     }
 
-    @Transactional(readOnly = true)
-    public StudentResponse getStudentByUsername(String username) {
-        Student student = studentRepository.findByUserUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "username", username));
-        return mapToResponse(student);
-    }
-
     @Transactional(readOnly = true)
     public List<StudentResponse> getAllStudents() {
         return studentRepository.findAll().stream()
@@ -96,13 +132,17 @@ public class StudentService {
     }
 
     @Transactional(readOnly = true)
-    public List<StudentResponse> getStudentsByTeacher(String teacherUsername) {
-        Teacher teacher = teacherService.getTeacherEntityByUsername(teacherUsername);
-        return studentRepository.findByTeacher(teacher).stream()
+    public List<StudentResponse> getStudentsByTeacher(Long teacherId) {
+        return studentRepository.findByTeacherId(teacherId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public Slice<StudentResponse> getStudentPageByTeacher(Long teacherId, Pageable pageable) {
+        return studentRepository.findSummariesByTeacherId(teacherId, pageable).map(Summaries::toResponse);
+    }
+
     @Transactional(readOnly = true)
     public List<StudentResponse> getStudentsByCourse(Long courseId) {
         return studentRepository.findByEnrolledCourseId(courseId).stream()
@@ -111,99 +151,278 @@ public class StudentService {
     }
 
     /**
-     * Update student by teacher - full update
+     * Sparse variants of the reads above: only the requested StudentResponse
+     * fields, from a query that selects and joins nothing else
      */
-    public StudentResponse updateStudentByTeacher(Long id, StudentCreateRequest request, String teacherUsername) {
-        Student student = studentRepository.findById(id)
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStudentFieldsById(Long id, String fields) {
+        return findFields(fields, "s.id = :id", Map.of("id", id)).stream()
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllStudentFields(String fields) {
+        return findFields(fields, null, Map.of());
+    }
 
-        Teacher teacher = teacherService.getTeacherEntityByUsername(teacherUsername);
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStudentFieldsByTeacher(Long teacherId, String fields) {
+        return findFields(fields, "s.teacher.id = :teacherId", Map.of("teacherId", teacherId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStudentFieldsByCourse(Long courseId, String fields) {
+        return findFields(fields, "s.enrolledCourse.id = :courseId", Map.of("courseId", courseId));
+    }
 
-        // Verify the teacher manages this student
-        if (!student.getTeacher().getId().equals(teacher.getId())) {
-            throw new UnauthorizedAccessException("You are not authorized to update this student");
+    /**
+     * Students of all the given courses, or teachers, in one IN query, for
+     * nested reads that load one level for every parent at once
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStudentFieldsByCourseIds(Collection<Long> courseIds, String fields) {
+        if (courseIds.isEmpty()) {
+            return List.of();
         }
+        return findFields(fields, "s.enrolledCourse.id in :courseIds", Map.of("courseIds", courseIds));
+    }
 
-        // Check for duplicate student ID if it's being changed
-        if (!student.getStudentId().equals(request.getStudentId()) &&
-            studentRepository.existsByStudentId(request.getStudentId())) {
-            throw new DuplicateResourceException("Student", "studentId", request.getStudentId());
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStudentFieldsByTeacherIds(Collection<Long> teacherIds, String fields) {
+        if (teacherIds.isEmpty()) {
+            return List.of();
         }
+        return findFields(fields, "s.teacher.id in :teacherIds", Map.of("teacherIds", teacherIds));
+    }
 
-        student.setFirstName(request.getFirstName());
-        student.setLastName(request.getLastName());
-        student.setStudentId(request.getStudentId());
-        student.setDateOfBirth(request.getDateOfBirth());
-        student.setAddress(request.getAddress());
-        student.setPhoneNumber(request.getPhoneNumber());
+    /**
+     * Multi-get for ?ids=1,2,3: one IN query for all the ids, rows in the
+     * order requested and the ids that matched nothing listed
+     */
+    @Transactional(readOnly = true)
+    public MultiGetResult getStudentsByIds(String ids, String fields) {
+        List<Long> requested = MultiGets.parseIds(ids);
+        return MultiGets.inRequestOrder(requested, findFields(fields, "s.id in :ids", Map.of("ids", requested)));
+    }
 
-        if (request.getEmail() != null) {
-            student.getUser().setEmail(request.getEmail());
-        }
+    /**
+     * Normalized variants for ?include=teacher,course: rows refer to their
+     * teacher and course by id, and each referenced record is sent once
+     * instead of its name being repeated on every row
+     */
+    @Transactional(readOnly = true)
+    public NormalizedList getAllStudentsIncluding(String include, String fields) {
+        return findNormalized(include, fields, null, Map.of());
+    }
 
-        Student updatedStudent = studentRepository.save(student);
-        return mapToResponse(updatedStudent);
+    @Transactional(readOnly = true)
+    public NormalizedList getStudentsByTeacherIncluding(Long teacherId, String include, String fields) {
+        return findNormalized(include, fields, "s.teacher.id = :teacherId", Map.of("teacherId", teacherId));
+    }
+
+    @Transactional(readOnly = true)
+    public NormalizedList getStudentsByCourseIncluding(Long courseId, String include, String fields) {
+        return findNormalized(include, fields, "s.enrolledCourse.id = :courseId", Map.of("courseId", courseId));
     }
 
     /**
-     * Update student by student themselves - limited fields
+     * Course roster for views that render it as they go. Rows are read in keyset
+     * chunks while the caller iterates, each chunk in its own short read-only
+     * query, so memory and connection time stay bounded however large the course.
      */
-    public StudentResponse updateStudentProfile(StudentUpdateRequest request, String studentUsername) {
-        Student student = studentRepository.findByUserUsername(studentUsername)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "username", studentUsername));
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Iterable<StudentResponse> streamStudentsByCourse(Long courseId) {
+        return new KeysetChunks<>(ROSTER_CHUNK_SIZE,
+                (afterId, limit) -> studentRepository.findRosterChunk(courseId, afterId, Limit.of(limit)).stream()
+                        .map(Summaries::toResponse)
+                        .collect(Collectors.toList()),
+                StudentResponse::getId);
+    }
 
-        // Students can only update limited fields
-        if (request.getFirstName() != null) {
-            student.setFirstName(request.getFirstName());
+    /**
+     * All students with their teacher and course, read in keyset chunks while
+     * the caller iterates, for bulk exports that must not hold the whole table
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Iterable<StudentResponse> streamAllStudents() {
+        return new KeysetChunks<>(ROSTER_CHUNK_SIZE,
+                (afterId, limit) -> studentRepository.findByIdGreaterThanOrderById(afterId, Limit.of(limit)).stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList()),
+                StudentResponse::getId);
+    }
+
+    /**
+     * Update student by teacher - full update, scoped to students the teacher manages
+     */
+    public StudentResponse updateStudentByTeacher(Long id, StudentCreateRequest request, Long teacherId) {
+        // Check for duplicate student ID if it's being changed (strict mode or a missing constraint)
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_STUDENTS_STUDENT_ID) &&
+            studentRepository.existsByStudentIdAndIdNot(request.getStudentId(), id)) {
+            throw new DuplicateResourceException("Student", "studentId", request.getStudentId());
         }
-        if (request.getLastName() != null) {
-            student.setLastName(request.getLastName());
+
+        try {
+            int updated = studentRepository.updateManagedStudent(id, teacherId,
+                    request.getFirstName(), request.getLastName(), request.getStudentId(),
+                    request.getDateOfBirth(), request.getAddress(), request.getPhoneNumber(), Instant.now());
+            if (updated == 0) {
+                throw ownershipFailure(id, "update");
+            }
+
+            accountAvailabilityService.recordStudentId(request.getStudentId());
+
+            if (request.getEmail() != null) {
+                userRepository.updateEmailByStudentId(id, request.getEmail());
+                accountAvailabilityService.recordEmail(request.getEmail());
+            }
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
         }
-        if (request.getDateOfBirth() != null) {
-            student.setDateOfBirth(request.getDateOfBirth());
+
+        // The request carries the student's own fields, one projection adds the email and the related names
+        StudentRepository.StudentRelations relations = studentRepository.findRelationsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
+        return StudentResponse.builder()
+                .id(id)
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .studentId(request.getStudentId())
+                .dateOfBirth(request.getDateOfBirth())
+                .address(request.getAddress())
+                .phoneNumber(request.getPhoneNumber())
+                .email(relations.getEmail())
+                .teacherName(relations.getTeacherId() != null ?
+                    relations.getTeacherFirstName() + " " + relations.getTeacherLastName() : null)
+                .teacherId(relations.getTeacherId())
+                .enrolledCourseName(relations.getEnrolledCourseName())
+                .enrolledCourseId(relations.getEnrolledCourseId())
+                .build();
+    }
+
+    /**
+     * Partial update by teacher - only the fields given are changed, scoped to students the teacher manages
+     */
+    public StudentResponse patchStudentByTeacher(Long id, StudentCreateRequest request, Long teacherId) {
+        Patches.rejectCredentials(request.getUsername(), request.getPassword());
+        Student student = studentRepository.findWithDetailsByIdAndTeacherId(id, teacherId)
+                .orElseThrow(() -> ownershipFailure(id, "update"));
+
+        // Check for duplicate student ID if it's being changed (strict mode or a missing constraint)
+        if (request.getStudentId() != null && !request.getStudentId().equals(student.getStudentId()) &&
+            constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_STUDENTS_STUDENT_ID) &&
+            studentRepository.existsByStudentIdAndIdNot(request.getStudentId(), id)) {
+            throw new DuplicateResourceException("Student", "studentId", request.getStudentId());
         }
-        if (request.getAddress() != null) {
-            student.setAddress(request.getAddress());
+
+        boolean studentIdChanged = Patches.apply(request.getStudentId(), student::getStudentId, student::setStudentId);
+        Patches.apply(request.getDateOfBirth(), student::getDateOfBirth, student::setDateOfBirth);
+        boolean emailChanged = applyProfilePatch(student, request.getFirstName(), request.getLastName(),
+                request.getAddress(), request.getPhoneNumber(), request.getEmail());
+
+        try {
+            studentRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
         }
-        if (request.getPhoneNumber() != null) {
-            student.setPhoneNumber(request.getPhoneNumber());
+        if (studentIdChanged) {
+            accountAvailabilityService.recordStudentId(request.getStudentId());
         }
-        if (request.getEmail() != null) {
-            // Check for duplicate email
-            if (!student.getUser().getEmail().equals(request.getEmail()) &&
-                userRepository.existsByEmail(request.getEmail())) {
-                throw new DuplicateResourceException("User", "email", request.getEmail());
-            }
-            student.getUser().setEmail(request.getEmail());
+        if (emailChanged) {
+            accountAvailabilityService.recordEmail(request.getEmail());
         }
+        return mapToResponse(student);
+    }
 
-        Student updatedStudent = studentRepository.save(student);
-        return mapToResponse(updatedStudent);
+    /**
+     * Update student by student themselves - limited fields, only the ones given are changed
+     */
+    public StudentResponse updateStudentProfile(StudentUpdateRequest request, Long studentId) {
+        Student student = getStudentEntity(studentId);
+
+        // Students can only update limited fields
+        Patches.apply(request.getDateOfBirth(), student::getDateOfBirth, student::setDateOfBirth);
+        applyProfilePatch(student, request.getFirstName(), request.getLastName(),
+                request.getAddress(), request.getPhoneNumber(), request.getEmail());
+
+        try {
+            Student updatedStudent = studentRepository.saveAndFlush(student);
+            accountAvailabilityService.recordEmail(request.getEmail());
+            return mapToResponse(updatedStudent);
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
+        }
     }
 
     /**
      * Delete student - Only the teacher who manages the student can delete
      */
-    public void deleteStudent(Long id, String teacherUsername) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
+    public void deleteStudent(Long id, Long teacherId) {
+        // Bulk deletes skip the cascade, so the login account is removed explicitly. Its id has
+        // to be read while the student row exists; the delete's own count decides ownership.
+        Optional<Long> userId = studentRepository.findUserIdByIdAndTeacherId(id, teacherId);
+
+        syncService.deleted(Tombstone.Kind.STUDENT, id);
+        if (studentRepository.deleteManagedStudent(id, teacherId) == 0) {
+            throw ownershipFailure(id, "delete");
+        }
+        userId.ifPresent(userRepository::deleteAccountById);
+        userCache.accountsRemoved();
+        // Course cards show enrollment counts
+        catalogVersion.changed(CatalogVersion.Collection.COURSES);
+    }
 
-        Teacher teacher = teacherService.getTeacherEntityByUsername(teacherUsername);
+    /**
+     * Students among the ids that the teacher manages, with their accounts, by id.
+     * Batch edits load them once and then change the managed entities, so their
+     * updates and deletes are written together at the next flush.
+     */
+    public Map<Long, Student> getManagedStudents(Collection<Long> ids, Long teacherId) {
+        Map<Long, Student> students = new HashMap<>();
+        if (!ids.isEmpty()) {
+            studentRepository.findByIdInAndTeacherId(ids, teacherId)
+                    .forEach(student -> students.put(student.getId(), student));
+        }
+        return students;
+    }
 
-        // Verify the teacher manages this student
-        if (!student.getTeacher().getId().equals(teacher.getId())) {
-            throw new UnauthorizedAccessException("You are not authorized to delete this student");
+    /**
+     * Full teacher update of a student from {@link #getManagedStudents}, left for the next flush
+     */
+    public void applyUpdate(Student student, StudentCreateRequest request) {
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_STUDENTS_STUDENT_ID) &&
+            studentRepository.existsByStudentIdAndIdNot(request.getStudentId(), student.getId())) {
+            throw new DuplicateResourceException("Student", "studentId", request.getStudentId());
+        }
+
+        student.setFirstName(request.getFirstName());
+        student.setLastName(request.getLastName());
+        student.setStudentId(request.getStudentId());
+        student.setDateOfBirth(request.getDateOfBirth());
+        student.setAddress(request.getAddress());
+        student.setPhoneNumber(request.getPhoneNumber());
+        accountAvailabilityService.recordStudentId(request.getStudentId());
+        if (student.changeEmail(request.getEmail())) {
+            accountAvailabilityService.recordEmail(request.getEmail());
         }
+    }
 
+    /**
+     * Deletes a student from {@link #getManagedStudents} with its login account, left for the next flush
+     */
+    public void applyDelete(Student student) {
+        syncService.deleted(Tombstone.Kind.STUDENT, student.getId());
         studentRepository.delete(student);
+        // Course cards show enrollment counts
+        catalogVersion.changed(CatalogVersion.Collection.COURSES);
     }
 
     /**
      * Enroll student in a course - Student can only enroll in one course at a time
      */
-    public StudentResponse enrollInCourse(Long courseId, String studentUsername) {
-        Student student = studentRepository.findByUserUsername(studentUsername)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "username", studentUsername));
+    public StudentResponse enrollInCourse(Long courseId, Long studentId) {
+        Student student = getStudentEntity(studentId);
 
         // Check if student is already enrolled in a course
         if (student.getEnrolledCourse() != null) {
@@ -215,15 +434,15 @@ public class StudentService {
         student.setEnrolledCourse(course);
 
         Student updatedStudent = studentRepository.save(student);
+        catalogVersion.changed(CatalogVersion.Collection.COURSES);
         return mapToResponse(updatedStudent);
     }
 
     /**
      * Drop current course enrollment
      */
-    public StudentResponse dropCourse(String studentUsername) {
-        Student student = studentRepository.findByUserUsername(studentUsername)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "username", studentUsername));
+    public StudentResponse dropCourse(Long studentId) {
+        Student student = getStudentEntity(studentId);
 
         if (student.getEnrolledCourse() == null) {
             throw new BadRequestException("You are not enrolled in any course");
@@ -232,6 +451,7 @@ public class StudentService {
         student.setEnrolledCourse(null);
 
         Student updatedStudent = studentRepository.save(student);
+        catalogVersion.changed(CatalogVersion.Collection.COURSES);
         return mapToResponse(updatedStudent);
     }
 
@@ -241,6 +461,92 @@ public class StudentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", id));
     }
 
+    /**
+     * Changes the given profile fields that differ, and tells whether the email did.
+     * Unchanged fields leave the entities clean, so an empty patch writes nothing.
+     */
+    private boolean applyProfilePatch(Student student, String firstName, String lastName,
+                                      String address, String phoneNumber, String email) {
+        Patches.apply(firstName, student::getFirstName, student::setFirstName);
+        Patches.apply(lastName, student::getLastName, student::setLastName);
+        Patches.apply(address, student::getAddress, student::setAddress);
+        Patches.apply(phoneNumber, student::getPhoneNumber, student::setPhoneNumber);
+
+        // Check for duplicate email if it's being changed (strict mode or a missing constraint)
+        if (email != null && !email.equals(student.getUser().getEmail()) &&
+            constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_USERS_EMAIL) &&
+            userRepository.existsByEmail(email)) {
+            throw new DuplicateResourceException("User", "email", email);
+        }
+        return student.changeEmail(email);
+    }
+
+    /**
+     * Probe run only after a scoped write matched nothing, to tell "not found" from "not yours"
+     */
+    RuntimeException ownershipFailure(Long id, String action) {
+        if (!studentRepository.existsById(id)) {
+            return new ResourceNotFoundException("Student", "id", id);
+        }
+        return new UnauthorizedAccessException("You are not authorized to " + action + " this student");
+    }
+
+    private List<Map<String, Object>> findFields(String fields, String condition, Map<String, ?> parameters) {
+        SparseFields definition = StudentRepository.SPARSE_FIELDS;
+        return studentRepository.findFields(definition, definition.parse(fields), condition, parameters);
+    }
+
+    private NormalizedList findNormalized(String include, String fields, String condition, Map<String, ?> parameters) {
+        Set<String> includes = parseIncludes(include);
+        SparseFields definition = StudentRepository.SPARSE_FIELDS;
+        List<String> selected = new ArrayList<>(definition.parse(fields != null ? fields : NORMALIZED_ROW_FIELDS));
+        // Rows must carry the ids the included records are looked up by
+        if (includes.contains("teacher") && !selected.contains("teacherId")) {
+            selected.add("teacherId");
+        }
+        if (includes.contains("course") && !selected.contains("enrolledCourseId")) {
+            selected.add("enrolledCourseId");
+        }
+
+        List<Map<String, Object>> rows = studentRepository.findFields(definition, selected, condition, parameters);
+        Map<String, List<Map<String, Object>>> included = new LinkedHashMap<>();
+        if (includes.contains("teacher")) {
+            included.put("teachers",
+                    teacherService.getTeacherFieldsByIds(distinctIds(rows, "teacherId"), INCLUDED_TEACHER_FIELDS));
+        }
+        if (includes.contains("course")) {
+            included.put("courses",
+                    courseService.getCourseFieldsByIds(distinctIds(rows, "enrolledCourseId"), INCLUDED_COURSE_FIELDS));
+        }
+        return NormalizedList.builder().rows(rows).included(included).build();
+    }
+
+    private Set<String> parseIncludes(String include) {
+        Set<String> includes = new LinkedHashSet<>();
+        for (String name : include.split(",")) {
+            String type = name.trim();
+            if (type.isEmpty()) {
+                continue;
+            }
+            if (!type.equals("teacher") && !type.equals("course")) {
+                throw new BadRequestException("Unknown include '" + type + "', expected any of [teacher, course]");
+            }
+            includes.add(type);
+        }
+        return includes;
+    }
+
+    private static Set<Long> distinctIds(List<Map<String, Object>> rows, String field) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            Long id = (Long) row.get(field);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
     private StudentResponse mapToResponse(Student student) {
         return StudentResponse.builder()
                 .id(student.getId())
@@ -0,0 +1,55 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.DepartmentResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.repository.StudentRepository;
+
+/**
+ * Responses built from the summary projections, shared by the entity services
+ * and the dashboard. Only the projected fields are set; relations a summary
+ * does not carry stay null.
+ */
+final class Summaries {
+
+    private Summaries() {
+    }
+
+    static DepartmentResponse toResponse(DepartmentRepository.DepartmentSummary department) {
+        return DepartmentResponse.builder()
+                .id(department.getId())
+                .name(department.getName())
+                .description(department.getDescription())
+                .teacherCount((int) department.getTeacherCount())
+                .courseCount((int) department.getCourseCount())
+                .build();
+    }
+
+    static CourseResponse toResponse(CourseRepository.CourseSummary course) {
+        return CourseResponse.builder()
+                .id(course.getId())
+                .courseCode(course.getCourseCode())
+                .courseName(course.getCourseName())
+                .description(course.getDescription())
+                .credits(course.getCredits())
+                .departmentName(course.getDepartmentName())
+                .departmentId(course.getDepartmentId())
+                .enrolledStudentCount((int) course.getEnrolledStudentCount())
+                .build();
+    }
+
+    static StudentResponse toResponse(StudentRepository.StudentSummary student) {
+        return StudentResponse.builder()
+                .id(student.getId())
+                .firstName(student.getFirstName())
+                .lastName(student.getLastName())
+                .studentId(student.getStudentId())
+                .email(student.getEmail())
+                .phoneNumber(student.getPhoneNumber())
+                .enrolledCourseId(student.getEnrolledCourseId())
+                .enrolledCourseName(student.getEnrolledCourseName())
+                .build();
+    }
+}
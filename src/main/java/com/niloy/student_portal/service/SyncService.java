@@ -0,0 +1,185 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.response.SyncResponse;
+import com.niloy.student_portal.entity.Tombstone;
+import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.repository.SparseFieldRepository;
+import com.niloy.student_portal.repository.SparseFields;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.TeacherRepository;
+import com.niloy.student_portal.repository.TombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delta sync of departments, teachers, courses and students. Rows are sent
+ * in one order across all of them and the deletes, by change time, then
+ * source, then id, and a sync token is a position in that order, so a page
+ * costs one keyset query per source however large the tables are.
+ * <p>
+ * A change time is taken when the row is written, but the row only becomes
+ * visible when its transaction commits, possibly after rows written later.
+ * Rows changed within the last {@code app.sync.settle-ms} are therefore not
+ * sent yet, on any page, so no token gets past a transaction that may still
+ * commit with an earlier change time.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SyncService {
+
+    public static final int DEFAULT_LIMIT = 500;
+    static final int MAX_LIMIT = 1000;
+
+    // Rows of people are only synced to teachers, as in the REST API
+    private static final Set<Tombstone.Kind> CATALOG_KINDS = EnumSet.of(Tombstone.Kind.DEPARTMENT, Tombstone.Kind.COURSE);
+
+    private final DepartmentRepository departmentRepository;
+    private final TeacherRepository teacherRepository;
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final TombstoneRepository tombstoneRepository;
+
+    @Value("${app.sync.settle-ms:5000}")
+    private long settleMillis;
+
+    /** A table read by sync, its index being its place in the order of changes at the same time. */
+    private record Source(int index, String name, SparseFieldRepository repository, SparseFields fields,
+                          boolean tombstones) {
+    }
+
+    private record Change(Source source, Map<String, Object> row, SyncToken position) {
+    }
+
+    /**
+     * Records the delete of a row and of the rows deleting it cascades to.
+     * Call it before the delete, while those rows can still be found.
+     */
+    public void deleted(Tombstone.Kind kind, Long id) {
+        List<Tombstone> tombstones = new ArrayList<>();
+        tombstones.add(new Tombstone(kind, id));
+        if (kind == Tombstone.Kind.DEPARTMENT) {
+            List<Long> teacherIds = teacherRepository.findIdsByDepartmentId(id);
+            addAll(tombstones, Tombstone.Kind.TEACHER, teacherIds);
+            addAll(tombstones, Tombstone.Kind.COURSE, courseRepository.findIdsByDepartmentId(id));
+            if (!teacherIds.isEmpty()) {
+                addAll(tombstones, Tombstone.Kind.STUDENT, studentRepository.findIdsByTeacherIdIn(teacherIds));
+            }
+        } else if (kind == Tombstone.Kind.TEACHER) {
+            addAll(tombstones, Tombstone.Kind.STUDENT, studentRepository.findIdsByTeacherIdIn(List.of(id)));
+        }
+        tombstoneRepository.saveAll(tombstones);
+    }
+
+    private static void addAll(List<Tombstone> tombstones, Tombstone.Kind kind, Collection<Long> ids) {
+        ids.forEach(id -> tombstones.add(new Tombstone(kind, id)));
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code since}, from the start when it is
+     * {@code null}. Teachers and students are included for teachers only.
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse getChanges(String since, int limit, boolean teacher) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        SyncToken from = since == null ? SyncToken.START : SyncToken.parse(since);
+        SyncToken settled = SyncToken.before(Instant.now().minusMillis(settleMillis));
+
+        // One more than a page from each source tells whether anything is left after the page
+        List<Change> changes = new ArrayList<>();
+        for (Source source : sources(teacher)) {
+            changes.addAll(read(source, from, settled, limit + 1, teacher));
+        }
+        changes.sort(Comparator.comparing(Change::position));
+        boolean hasMore = changes.size() > limit;
+        List<Change> page = hasMore ? changes.subList(0, limit) : changes;
+
+        // Everything before the settled point has been sent once the last page is read
+        SyncToken next;
+        if (hasMore) {
+            next = page.get(page.size() - 1).position();
+        } else {
+            next = from.compareTo(settled) > 0 ? from : settled;
+        }
+
+        Map<String, List<Map<String, Object>>> byName = new HashMap<>();
+        sources(teacher).forEach(source -> byName.put(source.name(), new ArrayList<>()));
+        page.forEach(change -> byName.get(change.source().name()).add(change.row()));
+        return SyncResponse.builder()
+                .departments(byName.get("departments"))
+                .teachers(byName.get("teachers"))
+                .courses(byName.get("courses"))
+                .students(byName.get("students"))
+                .deleted(byName.get("deleted"))
+                .nextToken(next.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private List<Source> sources(boolean teacher) {
+        List<Source> sources = new ArrayList<>();
+        sources.add(new Source(0, "departments", departmentRepository, DepartmentRepository.SYNC_FIELDS, false));
+        if (teacher) {
+            sources.add(new Source(1, "teachers", teacherRepository, TeacherRepository.SYNC_FIELDS, false));
+        }
+        sources.add(new Source(2, "courses", courseRepository, CourseRepository.SYNC_FIELDS, false));
+        if (teacher) {
+            sources.add(new Source(3, "students", studentRepository, StudentRepository.SYNC_FIELDS, false));
+        }
+        sources.add(new Source(4, "deleted", tombstoneRepository, TombstoneRepository.SYNC_FIELDS, true));
+        return sources;
+    }
+
+    private List<Change> read(Source source, SyncToken from, SyncToken settled, int max, boolean teacher) {
+        SparseFields fields = source.fields();
+        String changedAt = fields.expression("updatedAt");
+        String id = fields.expression("id");
+        // Changed after the token, or at its time and after it in source and id order, and before the settled point
+        StringBuilder condition = new StringBuilder("(").append(changedAt).append(" > :since or (")
+                .append(changedAt).append(" = :since and ").append(id).append(" > :afterId)) and ")
+                .append(changedAt).append(" < :settled");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("since", from.changedAt());
+        parameters.put("afterId", from.afterId(source.index()));
+        parameters.put("settled", settled.changedAt());
+        if (source.tombstones() && !teacher) {
+            condition.append(" and ").append(fields.expression("kind")).append(" in :kinds");
+            parameters.put("kinds", CATALOG_KINDS);
+        }
+
+        List<Change> changes = new ArrayList<>();
+        for (Map<String, Object> row : source.repository().findFields(fields, new ArrayList<>(fields.names()),
+                condition.toString(), parameters, changedAt + ", " + id, Limit.of(max))) {
+            SyncToken position = new SyncToken((Instant) row.get("updatedAt"), source.index(), (Long) row.get("id"));
+            changes.add(new Change(source, source.tombstones() ? deletion(row) : row, position));
+        }
+        return changes;
+    }
+
+    // Deletes are sent by what was deleted, not by their own id
+    private static Map<String, Object> deletion(Map<String, Object> tombstone) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("type", tombstone.get("kind").toString().toLowerCase());
+        row.put("id", tombstone.get("entityId"));
+        row.put("deletedAt", tombstone.get("updatedAt"));
+        return row;
+    }
+}
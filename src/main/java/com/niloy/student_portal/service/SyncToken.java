@@ -0,0 +1,63 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in the order /api/sync sends changes in: change time, then source,
+ * then id within the source. Sent to clients as an opaque string, with the
+ * time in microseconds, the precision the columns store.
+ */
+record SyncToken(Instant changedAt, int source, long id) implements Comparable<SyncToken> {
+
+    /** Before every row, for a first, full sync. */
+    static final SyncToken START = new SyncToken(Instant.EPOCH, -1, 0);
+
+    private static final Comparator<SyncToken> ORDER = Comparator.comparing(SyncToken::changedAt)
+            .thenComparingInt(SyncToken::source)
+            .thenComparingLong(SyncToken::id);
+
+    /** Before every row changed at {@code time} or later. */
+    static SyncToken before(Instant time) {
+        return new SyncToken(time.truncatedTo(ChronoUnit.MICROS), -1, 0);
+    }
+
+    static SyncToken parse(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            return new SyncToken(Instant.EPOCH.plus(Long.parseLong(parts[0]), ChronoUnit.MICROS),
+                    Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid sync token '" + token + "'");
+        }
+    }
+
+    String encode() {
+        String position = ChronoUnit.MICROS.between(Instant.EPOCH, changedAt) + ":" + source + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Highest id of the given source that this position is past, at its
+     * change time: none for later sources, all for earlier ones.
+     */
+    long afterId(int otherSource) {
+        if (otherSource > source) {
+            return 0;
+        }
+        return otherSource == source ? id : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int compareTo(SyncToken other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,21 +1,29 @@
 package com.niloy.student_portal.service;
 
 import com.niloy.student_portal.dto.request.TeacherRequest;
+import com.niloy.student_portal.dto.response.MultiGetResult;
 import com.niloy.student_portal.dto.response.TeacherResponse;
 import com.niloy.student_portal.entity.Department;
 import com.niloy.student_portal.entity.Role;
 import com.niloy.student_portal.entity.Teacher;
+import com.niloy.student_portal.entity.Tombstone;
 import com.niloy.student_portal.entity.User;
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
 import com.niloy.student_portal.exception.DuplicateResourceException;
 import com.niloy.student_portal.exception.ResourceNotFoundException;
+import com.niloy.student_portal.repository.SparseFields;
 import com.niloy.student_portal.repository.TeacherRepository;
 import com.niloy.student_portal.repository.UserRepository;
+import com.niloy.student_portal.security.PortalUserCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,16 +35,25 @@ public class TeacherService {
     private final UserRepository userRepository;
     private final DepartmentService departmentService;
     private final PasswordEncoder passwordEncoder;
+    private final ConstraintViolationTranslator constraintViolationTranslator;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final CatalogVersion catalogVersion;
+    private final SyncService syncService;
+    private final PortalUserCache userCache;
 
     public TeacherResponse createTeacher(TeacherRequest request) {
-        // Check for duplicates
-        if (teacherRepository.existsByEmployeeId(request.getEmployeeId())) {
+        // Duplicates are caught by the unique constraints, pre-checks only run in strict mode
+        // or for a constraint the schema lacks
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_TEACHERS_EMPLOYEE_ID) &&
+            teacherRepository.existsByEmployeeId(request.getEmployeeId())) {
             throw new DuplicateResourceException("Teacher", "employeeId", request.getEmployeeId());
         }
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_USERS_USERNAME) &&
+            userRepository.existsByUsername(request.getUsername())) {
             throw new DuplicateResourceException("User", "username", request.getUsername());
         }
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_USERS_EMAIL) &&
+            userRepository.existsByEmail(request.getEmail())) {
             throw new DuplicateResourceException("User", "email", request.getEmail());
         }
 
@@ -59,8 +76,15 @@ public class TeacherService {
         teacher.setDepartment(department);
         teacher.setUser(user);
 
-        Teacher savedTeacher = teacherRepository.save(teacher);
-        return mapToResponse(savedTeacher);
+        try {
+            Teacher savedTeacher = teacherRepository.saveAndFlush(teacher);
+            accountAvailabilityService.recordAccount(request.getUsername(), request.getEmail());
+            // Department cards show teacher counts
+            catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS);
+            return mapToResponse(savedTeacher);
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -70,13 +94,6 @@ public class TeacherService {
         return mapToResponse(teacher);
     }
 
-    @Transactional(readOnly = true)
-    public TeacherResponse getTeacherByUsername(String username) {
-        Teacher teacher = teacherRepository.findByUserUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Teacher", "username", username));
-        return mapToResponse(teacher);
-    }
-
     @Transactional(readOnly = true)
     public List<TeacherResponse> getAllTeachers() {
         return teacherRepository.findAll().stream()
@@ -91,12 +108,63 @@ public class TeacherService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Sparse variants of the reads above: only the requested TeacherResponse
+     * fields, from a query that selects and joins nothing else
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTeacherFieldsById(Long id, String fields) {
+        return findFields(fields, "t.id = :id", Map.of("id", id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllTeacherFields(String fields) {
+        return findFields(fields, null, Map.of());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTeacherFieldsByDepartment(Long departmentId, String fields) {
+        return findFields(fields, "t.department.id = :departmentId", Map.of("departmentId", departmentId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTeacherFieldsByIds(Collection<Long> ids, String fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return findFields(fields, "t.id in :ids", Map.of("ids", ids));
+    }
+
+    /**
+     * Teachers of all the given departments in one IN query, for nested reads
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTeacherFieldsByDepartmentIds(Collection<Long> departmentIds, String fields) {
+        if (departmentIds.isEmpty()) {
+            return List.of();
+        }
+        return findFields(fields, "t.department.id in :departmentIds", Map.of("departmentIds", departmentIds));
+    }
+
+    /**
+     * Multi-get for ?ids=1,2,3: one IN query for all the ids, rows in the
+     * order requested and the ids that matched nothing listed
+     */
+    @Transactional(readOnly = true)
+    public MultiGetResult getTeachersByIds(String ids, String fields) {
+        List<Long> requested = MultiGets.parseIds(ids);
+        return MultiGets.inRequestOrder(requested, findFields(fields, "t.id in :ids", Map.of("ids", requested)));
+    }
+
     public TeacherResponse updateTeacher(Long id, TeacherRequest request) {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", id));
 
-        // Check for duplicate employee ID if it's being changed
-        if (!teacher.getEmployeeId().equals(request.getEmployeeId()) &&
+        // Check for duplicate employee ID if it's being changed (strict mode or a missing constraint)
+        if (constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_TEACHERS_EMPLOYEE_ID) &&
+            !teacher.getEmployeeId().equals(request.getEmployeeId()) &&
             teacherRepository.existsByEmployeeId(request.getEmployeeId())) {
             throw new DuplicateResourceException("Teacher", "employeeId", request.getEmployeeId());
         }
@@ -110,18 +178,73 @@ public class TeacherService {
         teacher.setDepartment(department);
 
         // Update email if provided
-        if (request.getEmail() != null) {
-            teacher.getUser().setEmail(request.getEmail());
+        teacher.changeEmail(request.getEmail());
+
+        try {
+            Teacher updatedTeacher = teacherRepository.saveAndFlush(teacher);
+            accountAvailabilityService.recordEmail(request.getEmail());
+            catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS);
+            return mapToResponse(updatedTeacher);
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
         }
+    }
 
-        Teacher updatedTeacher = teacherRepository.save(teacher);
-        return mapToResponse(updatedTeacher);
+    /**
+     * Partial update - only the fields given are changed, and nothing is written when none differ
+     */
+    public TeacherResponse patchTeacher(Long id, TeacherRequest request) {
+        Patches.rejectCredentials(request.getUsername(), request.getPassword());
+        Teacher teacher = teacherRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", id));
+
+        // Check for duplicate employee ID if it's being changed (strict mode or a missing constraint)
+        if (request.getEmployeeId() != null && !request.getEmployeeId().equals(teacher.getEmployeeId()) &&
+            constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_TEACHERS_EMPLOYEE_ID) &&
+            teacherRepository.existsByEmployeeId(request.getEmployeeId())) {
+            throw new DuplicateResourceException("Teacher", "employeeId", request.getEmployeeId());
+        }
+
+        Patches.apply(request.getFirstName(), teacher::getFirstName, teacher::setFirstName);
+        Patches.apply(request.getLastName(), teacher::getLastName, teacher::setLastName);
+        Patches.apply(request.getEmployeeId(), teacher::getEmployeeId, teacher::setEmployeeId);
+        Patches.apply(request.getSpecialization(), teacher::getSpecialization, teacher::setSpecialization);
+        // Only a move changes the department listings, through their teacher counts
+        boolean moved = request.getDepartmentId() != null && (teacher.getDepartment() == null ||
+                !request.getDepartmentId().equals(teacher.getDepartment().getId()));
+        if (moved) {
+            teacher.setDepartment(departmentService.getDepartmentEntity(request.getDepartmentId()));
+        }
+        // Check for duplicate email if it's being changed (strict mode or a missing constraint), as for students
+        if (request.getEmail() != null && !request.getEmail().equals(teacher.getUser().getEmail()) &&
+            constraintViolationTranslator.checksDuplicates(ConstraintViolationTranslator.UK_USERS_EMAIL) &&
+            userRepository.existsByEmail(request.getEmail())) {
+            throw new DuplicateResourceException("User", "email", request.getEmail());
+        }
+        boolean emailChanged = teacher.changeEmail(request.getEmail());
+
+        try {
+            teacherRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw constraintViolationTranslator.translate(ex, request);
+        }
+        if (emailChanged) {
+            accountAvailabilityService.recordEmail(request.getEmail());
+        }
+        if (moved) {
+            catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS);
+        }
+        return mapToResponse(teacher);
     }
 
     public void deleteTeacher(Long id) {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", id));
+        syncService.deleted(Tombstone.Kind.TEACHER, id);
         teacherRepository.delete(teacher);
+        // Their students go with them, logins included, which changes enrollment counts
+        userCache.accountsRemoved();
+        catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS, CatalogVersion.Collection.COURSES);
     }
 
     @Transactional(readOnly = true)
@@ -130,10 +253,17 @@ public class TeacherService {
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher", "id", id));
     }
 
+    /**
+     * Proxy for a teacher whose id is already known (e.g. from the principal), no SELECT is issued
+     */
     @Transactional(readOnly = true)
-    public Teacher getTeacherEntityByUsername(String username) {
-        return teacherRepository.findByUserUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Teacher", "username", username));
+    public Teacher getTeacherReference(Long id) {
+        return teacherRepository.getReferenceById(id);
+    }
+
+    private List<Map<String, Object>> findFields(String fields, String condition, Map<String, ?> parameters) {
+        SparseFields definition = TeacherRepository.SPARSE_FIELDS;
+        return teacherRepository.findFields(definition, definition.parse(fields), condition, parameters);
     }
 
     private TeacherResponse mapToResponse(Teacher teacher) {
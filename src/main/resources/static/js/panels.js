@@ -0,0 +1,58 @@
+// Loads server-rendered panel fragments into every [data-panel-src] element
+// once the page shell is on screen, and follows their pager buttons.
+(function () {
+    function load(panel, src, options) {
+        panel.setAttribute('aria-busy', 'true');
+        return fetch(src, Object.assign({ credentials: 'same-origin', headers: { 'Accept': 'text/html' } }, options))
+            .then(function (response) {
+                // An expired session is redirected to the login form, reload so the whole page does that
+                if (response.redirected && new URL(response.url).pathname === '/login') {
+                    location.reload();
+                    return null;
+                }
+                if (!response.ok) {
+                    throw new Error('HTTP ' + response.status);
+                }
+                return response.text();
+            })
+            .then(function (html) {
+                if (html !== null) {
+                    panel.innerHTML = html;
+                    panel.dataset.panelCurrent = src;
+                }
+            })
+            .catch(function () {
+                panel.innerHTML = '<div class="text-center text-muted py-4">Could not load this panel. ' +
+                    '<button type="button" class="btn btn-link btn-sm p-0 align-baseline" data-panel-retry>Retry</button></div>';
+            })
+            .finally(function () {
+                panel.removeAttribute('aria-busy');
+            });
+    }
+
+    document.addEventListener('click', function (event) {
+        const target = event.target.closest('[data-panel-href], [data-panel-retry]');
+        const panel = target && target.closest('[data-panel-src]');
+        if (!panel) {
+            return;
+        }
+        event.preventDefault();
+        if (target.hasAttribute('data-panel-retry')) {
+            load(panel, panel.dataset.panelCurrent || panel.dataset.panelSrc);
+        } else {
+            load(panel, target.dataset.panelHref);
+        }
+    });
+
+    window.Panels = {
+        // Re-fetch past the browser cache after a change, from the first page or the one on screen
+        refresh: function (panel, fromStart) {
+            const src = fromStart ? panel.dataset.panelSrc : (panel.dataset.panelCurrent || panel.dataset.panelSrc);
+            return load(panel, src, { cache: 'no-cache' });
+        }
+    };
+
+    document.querySelectorAll('[data-panel-src]').forEach(function (panel) {
+        load(panel, panel.dataset.panelSrc);
+    });
+})();
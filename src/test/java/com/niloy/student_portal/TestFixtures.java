@@ -0,0 +1,116 @@
+package com.niloy.student_portal;
+
+import com.niloy.student_portal.dto.request.CourseRequest;
+import com.niloy.student_portal.dto.request.StudentCreateRequest;
+import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.TeacherRepository;
+import com.niloy.student_portal.service.CourseService;
+import com.niloy.student_portal.service.StudentService;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Courses and students for integration tests, created through the services
+ * under the seeded Computer Science department and teacher. Every test context
+ * shares one H2 database, so a test calls {@link #deleteAll} afterwards and
+ * leaves only the seed data behind for the next one.
+ */
+public class TestFixtures {
+
+    public static final String PASSWORD = "password123";
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final DepartmentRepository departmentRepository;
+    private final Long teacherId;
+
+    private final List<Long> students = new ArrayList<>();
+    private final List<Long> courses = new ArrayList<>();
+
+    public TestFixtures(ApplicationContext context) {
+        this.studentService = context.getBean(StudentService.class);
+        this.courseService = context.getBean(CourseService.class);
+        this.studentRepository = context.getBean(StudentRepository.class);
+        this.courseRepository = context.getBean(CourseRepository.class);
+        this.departmentRepository = context.getBean(DepartmentRepository.class);
+        this.teacherId = context.getBean(TeacherRepository.class).findByEmployeeId("EMP001").orElseThrow().getId();
+    }
+
+    public Long teacherId() {
+        return teacherId;
+    }
+
+    public CourseResponse createCourse(String courseCode, String courseName) {
+        CourseRequest request = new CourseRequest();
+        request.setCourseCode(courseCode);
+        request.setCourseName(courseName);
+        request.setCredits(3);
+        request.setDepartmentId(departmentRepository.findByName("Computer Science").orElseThrow().getId());
+        CourseResponse course = courseService.createCourse(request);
+        courses.add(course.getId());
+        return course;
+    }
+
+    /**
+     * A student named "{firstName} Student" whose username is the lowercased
+     * student id, signing in with {@link #PASSWORD}.
+     */
+    public StudentCreateRequest studentRequest(String firstName, String studentId) {
+        return studentRequest(firstName, studentId, studentId.toLowerCase());
+    }
+
+    public StudentCreateRequest studentRequest(String firstName, String studentId, String username) {
+        StudentCreateRequest request = new StudentCreateRequest();
+        request.setFirstName(firstName);
+        request.setLastName("Student");
+        request.setStudentId(studentId);
+        request.setUsername(username);
+        request.setPassword(PASSWORD);
+        request.setEmail(username + "@email.com");
+        return request;
+    }
+
+    public StudentResponse createStudent(StudentCreateRequest request) {
+        StudentResponse student = studentService.createStudent(request, teacherId);
+        students.add(student.getId());
+        return student;
+    }
+
+    public StudentResponse createStudent(String firstName, String studentId) {
+        return createStudent(studentRequest(firstName, studentId));
+    }
+
+    public StudentResponse createEnrolledStudent(StudentCreateRequest request, Long courseId) {
+        return studentService.enrollInCourse(courseId, createStudent(request).getId());
+    }
+
+    /**
+     * Deletes a student the test created some other way, such as through the API.
+     */
+    public void deleteLater(Long studentId) {
+        students.add(studentId);
+    }
+
+    /**
+     * Deletes the students, with their accounts, and then the courses, skipping
+     * whatever the test deleted itself.
+     */
+    public void deleteAll() {
+        students.stream()
+                .filter(studentRepository::existsById)
+                .forEach(id -> studentService.deleteStudent(id, teacherId));
+        students.clear();
+        courses.stream()
+                .filter(courseRepository::existsById)
+                .forEach(courseService::deleteCourse);
+        courses.clear();
+    }
+}
@@ -0,0 +1,91 @@
+package com.niloy.student_portal.client;
+
+import com.niloy.student_portal.StudentPortalApplication;
+import com.niloy.student_portal.client.model.Course;
+import com.niloy.student_portal.client.model.CourseRequest;
+import com.niloy.student_portal.client.model.Department;
+import com.niloy.student_portal.client.model.DepartmentRequest;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Requests and time the client spends on reads by id, sent one by one or
+ * batched, and on a catalog listing, downloaded every time or revalidated,
+ * against the portal started in-process on H2. Not a test, surefire does not
+ * pick it up; run it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.niloy.student_portal.client.PortalClientBenchmark}.
+ * Optional arguments are the number of courses and the measured rounds.
+ */
+public final class PortalClientBenchmark {
+
+    private PortalClientBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(StudentPortalApplication.class,
+                "--server.port=0", "--logging.level.root=WARN")) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            List<Long> ids = seed(baseUri, size);
+
+            System.out.printf("%d courses, %d rounds%n", size, rounds);
+            System.out.printf("%-28s %12s %10s %12s%n", "scenario", "requests/op", "304s/op", "ms/op");
+            Consumer<PortalClient> readAll = portal -> {
+                List<CompletableFuture<Course>> reads = new ArrayList<>(ids.size());
+                ids.forEach(id -> reads.add(portal.courses().getAsync(id)));
+                reads.forEach(PortalClient::join);
+            };
+            run("reads by id, one by one", client(baseUri).batchWindow(Duration.ZERO), rounds, readAll);
+            run("reads by id, coalesced", client(baseUri), rounds, readAll);
+            run("listing, no cache", client(baseUri).cacheSize(0), rounds, portal -> portal.courses().list());
+            run("listing, ETag revalidated", client(baseUri), rounds, portal -> portal.courses().list());
+        }
+    }
+
+    private static PortalClient.Builder client(URI baseUri) {
+        return PortalClient.builder(baseUri).credentials("teacher", "teacher123");
+    }
+
+    private static List<Long> seed(URI baseUri, int size) {
+        try (PortalClient portal = client(baseUri).build()) {
+            Department department = portal.departments().create(new DepartmentRequest("Benchmark", null));
+            List<Long> ids = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                CourseRequest request = new CourseRequest(String.format("BEN%04d", i), "Benchmark course " + i,
+                        "Seeded for the client benchmark", 3, department.id());
+                ids.add(portal.courses().create(request).id());
+            }
+            return ids;
+        }
+    }
+
+    private static void run(String scenario, PortalClient.Builder builder, int rounds, Consumer<PortalClient> op) {
+        try (PortalClient portal = builder.build()) {
+            // warm up the connections, the server and the cache
+            for (int i = 0; i < Math.max(1, rounds / 5); i++) {
+                op.accept(portal);
+            }
+            long requests = portal.requestsSent();
+            long notModified = portal.notModified();
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                op.accept(portal);
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%-28s %12.1f %10.1f %12.2f%n", scenario,
+                    (portal.requestsSent() - requests) / (double) rounds,
+                    (portal.notModified() - notModified) / (double) rounds,
+                    nanos / 1_000_000.0 / rounds);
+        }
+    }
+}
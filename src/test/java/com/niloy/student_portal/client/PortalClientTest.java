@@ -0,0 +1,176 @@
+package com.niloy.student_portal.client;
+
+import com.niloy.student_portal.client.model.Course;
+import com.niloy.student_portal.client.model.CourseRequest;
+import com.niloy.student_portal.client.model.Department;
+import com.niloy.student_portal.client.model.DepartmentRequest;
+import com.niloy.student_portal.client.model.Student;
+import com.niloy.student_portal.client.model.StudentCreateRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("PortalClient Tests")
+class PortalClientTest {
+
+    @LocalServerPort
+    private int port;
+
+    private PortalClient teacher;
+    private Department department;
+
+    private PortalClient client(String username, String password, Duration batchWindow) {
+        return PortalClient.builder(URI.create("http://localhost:" + port))
+                .credentials(username, password)
+                .batchWindow(batchWindow)
+                .build();
+    }
+
+    private Course createCourse(String code) {
+        return teacher.courses().create(new CourseRequest(code, "Client " + code, null, 3, department.id()));
+    }
+
+    @BeforeEach
+    void setUp() {
+        teacher = client("teacher", "teacher123", Duration.ofMillis(100));
+        department = teacher.departments().create(new DepartmentRequest("Client Department " + System.nanoTime(), null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Takes the department's courses with it
+        teacher.departments().delete(department.id());
+        teacher.close();
+    }
+
+    @Test
+    @DisplayName("Should create, read, update and delete typed records")
+    void crud_ShouldRoundTripTypedRecords() {
+        // Act
+        Course created = createCourse("CLI101");
+        Course read = teacher.courses().get(created.id());
+        Course updated = teacher.courses().update(created.id(),
+                new CourseRequest("CLI101", "Renamed", "Now described", 4, department.id()));
+        List<Course> listed = teacher.courses().listByDepartment(department.id());
+        teacher.courses().delete(created.id());
+
+        // Assert
+        assertEquals(created, read);
+        assertEquals(department.name(), read.departmentName());
+        assertEquals("Renamed", updated.courseName());
+        assertEquals(4, updated.credits());
+        assertEquals(List.of(updated), listed);
+        PortalClientException ex = assertThrows(PortalClientException.class, () -> teacher.courses().get(created.id()));
+        assertEquals(404, ex.getStatus());
+        assertEquals("Course not found with id: '" + created.id() + "'", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should send concurrent reads by id as one request")
+    void getAsync_Concurrently_ShouldCoalesce() {
+        // Arrange
+        Course first = createCourse("CLI201");
+        Course second = createCourse("CLI202");
+        long sent = teacher.requestsSent();
+
+        // Act
+        CompletableFuture<Course> firstRead = teacher.courses().getAsync(first.id());
+        CompletableFuture<Course> secondRead = teacher.courses().getAsync(second.id());
+        CompletableFuture<Course> missingRead = teacher.courses().getAsync(Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(first, PortalClient.join(firstRead));
+        assertEquals(second, PortalClient.join(secondRead));
+        PortalClientException ex = assertThrows(PortalClientException.class, () -> PortalClient.join(missingRead));
+        assertEquals(404, ex.getStatus());
+        assertEquals("Course not found with id: '" + Long.MAX_VALUE + "'", ex.getMessage());
+        assertEquals(1, teacher.requestsSent() - sent);
+        assertEquals(List.of(second, first), teacher.courses().getAll(List.of(second.id(), Long.MAX_VALUE, first.id())));
+    }
+
+    @Test
+    @DisplayName("Should send waiting reads on close and refuse later ones")
+    void close_WithReadsWaiting_ShouldAnswerThem() {
+        // Arrange
+        Course course = createCourse("CLI301");
+        PortalClient waiting = client("teacher", "teacher123", Duration.ofHours(1));
+        CompletableFuture<Course> read = waiting.courses().getAsync(course.id());
+        CompletableFuture<Course> missingRead = waiting.courses().getAsync(Long.MAX_VALUE);
+
+        // Act
+        waiting.close();
+
+        // Assert
+        assertEquals(course, PortalClient.join(read));
+        assertEquals(404, assertThrows(PortalClientException.class, () -> PortalClient.join(missingRead)).getStatus());
+        PortalClientException ex = assertThrows(PortalClientException.class, () -> waiting.courses().get(course.id()));
+        assertEquals(0, ex.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should revalidate a cached listing and reuse it while unchanged")
+    void list_Twice_ShouldBeAnsweredNotModified() {
+        // Act
+        List<Department> first = teacher.departments().list();
+        long notModified = teacher.notModified();
+        List<Department> second = teacher.departments().list();
+        long afterRepeat = teacher.notModified();
+        Department added = teacher.departments().create(new DepartmentRequest("Client Added " + System.nanoTime(), null));
+        List<Department> third = teacher.departments().list();
+        teacher.departments().delete(added.id());
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(notModified + 1, afterRepeat);
+        assertEquals(afterRepeat, teacher.notModified());
+        assertTrue(third.contains(added));
+    }
+
+    @Test
+    @DisplayName("Should read one by one for accounts refused batched reads")
+    void getAsync_AsStudent_ShouldFallBackToSingleReads() {
+        // Arrange
+        Student own = teacher.students().create(new StudentCreateRequest("Client", "Student", "CLI301",
+                LocalDate.of(2004, 5, 6), null, null, "cli301", "password123", "cli301@email.com"));
+        Student other = teacher.students().create(new StudentCreateRequest("Other", "Student", "CLI302",
+                null, null, null, "cli302", "password123", "cli302@email.com"));
+
+        try (PortalClient student = client("cli301", "password123", Duration.ofMillis(100))) {
+            // Act
+            CompletableFuture<Student> ownRead = student.students().getAsync(own.id());
+            CompletableFuture<Student> otherRead = student.students().getAsync(other.id());
+
+            // Assert
+            assertEquals(own, PortalClient.join(ownRead));
+            assertEquals(LocalDate.of(2004, 5, 6), own.dateOfBirth());
+            assertEquals(other, PortalClient.join(otherRead));
+            assertEquals(3, student.requestsSent());
+            assertEquals(403, assertThrows(PortalClientException.class,
+                    () -> student.students().getAll(List.of(own.id()))).getStatus());
+        } finally {
+            teacher.students().delete(own.id());
+            teacher.students().delete(other.id());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report a rejected login as 401")
+    void request_WithWrongPassword_ShouldThrow() {
+        try (PortalClient wrong = client("teacher", "wrong", Duration.ZERO)) {
+            PortalClientException ex = assertThrows(PortalClientException.class, () -> wrong.departments().list());
+            assertEquals(401, ex.getStatus());
+        }
+    }
+}
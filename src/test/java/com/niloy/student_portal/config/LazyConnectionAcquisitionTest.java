@@ -0,0 +1,130 @@
+package com.niloy.student_portal.config;
+
+import com.niloy.student_portal.service.CatalogVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Lazy Connection Acquisition Tests")
+class LazyConnectionAcquisitionTest {
+
+    // Real API clients authenticate every request, which also looks the account up
+    private static final RequestPostProcessor TEACHER = httpBasic("teacher", "teacher123");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Test
+    @DisplayName("Should wrap the pool in a lazy connection proxy")
+    void dataSource_ShouldBeLazy() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+    }
+
+    @Test
+    @DisplayName("Should not acquire a connection when a transaction issues no statement")
+    void availabilityMiss_ShouldCompleteWithoutConnection() throws Exception {
+        authenticateTeacher();
+
+        // The Bloom filter answers the miss, so the read-only transaction never runs a query
+        mockMvc.perform(get("/api/users/availability").param("username", "nobody.has.this.name")
+                        .with(TEACHER))
+                .andExpect(status().isOk());
+
+        assertEquals(1.0, connectionRequests("/api/users/availability", "none"));
+        assertEquals(0.0, connectionRequests("/api/users/availability", "acquired"));
+        assertNull(meterRegistry.find("portal.db.connection.hold").tag("uri", "/api/users/availability").timer());
+    }
+
+    @Test
+    @DisplayName("Should count requests that run queries as acquiring a connection")
+    void databaseRead_ShouldAcquireConnection() throws Exception {
+        authenticateTeacher();
+
+        // Teachers are not behind a response cache, so every read reaches the database
+        mockMvc.perform(get("/api/teachers").with(TEACHER))
+                .andExpect(status().isOk());
+
+        assertTrue(connectionRequests("/api/teachers", "acquired") >= 1);
+    }
+
+    @Test
+    @DisplayName("Should answer a revalidated catalog listing with 304 without a connection")
+    void notModifiedListing_ShouldCompleteWithoutConnection() throws Exception {
+        String etag = mockMvc.perform(get("/api/courses").with(TEACHER))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        double acquiredBefore = connectionRequests("/api/courses", "acquired");
+        double noneBefore = connectionRequests("/api/courses", "none");
+
+        // Authentication included, the poll is answered before any service or database work
+        mockMvc.perform(get("/api/courses").header(HttpHeaders.IF_NONE_MATCH, etag).with(TEACHER))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+        assertEquals(acquiredBefore, connectionRequests("/api/courses", "acquired"));
+        assertEquals(noneBefore + 1, connectionRequests("/api/courses", "none"));
+
+        // A course change retires the tag
+        catalogVersion.changed(CatalogVersion.Collection.COURSES);
+        mockMvc.perform(get("/api/courses").header(HttpHeaders.IF_NONE_MATCH, etag).with(TEACHER))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    @DisplayName("Should serve cached catalog listings as JSON without a connection")
+    void cachedListing_ShouldCompleteWithoutConnection() throws Exception {
+        authenticateTeacher();
+        mockMvc.perform(get("/api/departments").with(TEACHER)).andExpect(status().isOk());
+        double acquiredBefore = connectionRequests("/api/departments", "acquired");
+
+        mockMvc.perform(get("/api/departments").with(TEACHER))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data[?(@.name == 'Computer Science')]").exists());
+        assertEquals(acquiredBefore, connectionRequests("/api/departments", "acquired"));
+    }
+
+    // Signs the teacher in over HTTP Basic once, so later requests find the account in the user cache
+    private void authenticateTeacher() throws Exception {
+        mockMvc.perform(get("/api/auth/status").with(TEACHER)).andExpect(status().isOk());
+    }
+
+    private double connectionRequests(String uri, String connection) {
+        Counter counter = meterRegistry.find("portal.db.connection.requests")
+                .tags("uri", uri, "connection", connection).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
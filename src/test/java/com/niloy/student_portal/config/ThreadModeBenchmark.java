@@ -0,0 +1,188 @@
+package com.niloy.student_portal.config;
+
+import com.niloy.student_portal.StudentPortalApplication;
+import com.niloy.student_portal.client.PortalClient;
+import com.niloy.student_portal.client.model.Course;
+import com.niloy.student_portal.client.model.CourseRequest;
+import com.niloy.student_portal.client.model.Department;
+import com.niloy.student_portal.client.model.DepartmentRequest;
+import com.niloy.student_portal.client.model.StudentCreateRequest;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput and latency of the dashboard and enrollment endpoints with
+ * requests served on platform threads and, under the virtual-threads profile,
+ * on virtual threads, each against the portal started in-process on H2 with
+ * the same connection pool size. Every worker is a client thread sending its
+ * requests back to back; the enrollment scenario enrolls each worker's own
+ * student in a course and drops it again. Both modes pay the same BCrypt check
+ * of HTTP Basic on every request.
+ * <p>
+ * Left out: the virtual-thread mode needs a Java 21 runtime and is skipped
+ * below it, and there is no run against embedded Postgres, the build having no
+ * embedded Postgres dependency; point spring.datasource.url at a PostgreSQL
+ * database for that. Not a test, surefire does not pick it up; run it from the
+ * IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.niloy.student_portal.config.ThreadModeBenchmark}.
+ * Optional arguments are the concurrent workers, the requests per worker and
+ * the pool size.
+ */
+public final class ThreadModeBenchmark {
+
+    private static final String PASSWORD = "bench123";
+
+    private ThreadModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        System.out.printf("%d workers, %d requests each, pool of %d, Java %d%n",
+                workers, requests, poolSize, Runtime.version().feature());
+        System.out.printf("%-9s %-11s %10s %10s %10s %8s%n", "threads", "endpoint", "req/s", "p50 ms", "p99 ms", "errors");
+        run("platform", workers, requests, "--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        if (Runtime.version().feature() < 21) {
+            System.out.printf("%-9s skipped, the virtual-threads profile needs Java 21 or newer%n", "virtual");
+        } else {
+            run("virtual", workers, requests, "--spring.profiles.active=virtual-threads",
+                    "--APP_DATASOURCE_POOL_SIZE=" + poolSize);
+        }
+    }
+
+    private static void run(String mode, int workers, int requests, String... properties) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN"));
+        arguments.addAll(Arrays.asList(properties));
+        try (ConfigurableApplicationContext context = SpringApplication.run(StudentPortalApplication.class,
+                arguments.toArray(String[]::new))) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            long courseId = seed(baseUri, workers);
+            HttpClient http = HttpClient.newHttpClient();
+
+            Scenario dashboard = worker -> List.of(
+                    get(baseUri, "/api/dashboard/summary", basic("teacher", "teacher123")));
+            Scenario enrollment = worker -> {
+                String student = basic(username(worker), PASSWORD);
+                return List.of(
+                        HttpRequest.newBuilder(baseUri.resolve("/api/enrollment"))
+                                .header("Authorization", student)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"courseId\":" + courseId + "}"))
+                                .build(),
+                        HttpRequest.newBuilder(baseUri.resolve("/api/enrollment"))
+                                .header("Authorization", student)
+                                .DELETE()
+                                .build());
+            };
+            // warm up the server and both scenarios before timing them
+            measure(http, workers, Math.max(1, requests / 5), dashboard);
+            measure(http, workers, Math.max(1, requests / 5), enrollment);
+            print(mode, "dashboard", measure(http, workers, requests, dashboard));
+            print(mode, "enrollment", measure(http, workers, requests, enrollment));
+        }
+    }
+
+    private static long seed(URI baseUri, int workers) {
+        try (PortalClient portal = PortalClient.builder(baseUri).credentials("teacher", "teacher123").build()) {
+            Department department = portal.departments().create(new DepartmentRequest("Thread Benchmark", null));
+            Course course = portal.courses().create(new CourseRequest("THR0001", "Thread benchmark course",
+                    "Seeded for the thread mode benchmark", 3, department.id()));
+            for (int worker = 0; worker < workers; worker++) {
+                portal.students().create(new StudentCreateRequest("Bench", "Student" + worker,
+                        String.format("THR%05d", worker), LocalDate.of(2000, 1, 1), null, null,
+                        username(worker), PASSWORD, username(worker) + "@email.com"));
+            }
+            return course.id();
+        }
+    }
+
+    /** Sends each worker's requests back to back, timing every request. */
+    private static Result measure(HttpClient http, int workers, int requests, Scenario scenario) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        AtomicInteger errors = new AtomicInteger();
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(workers);
+            long start = System.nanoTime();
+            for (int worker = 0; worker < workers; worker++) {
+                List<HttpRequest> round = scenario.requests(worker);
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[requests * round.size()];
+                    int sent = 0;
+                    for (int i = 0; i < requests; i++) {
+                        for (HttpRequest request : round) {
+                            long sentAt = System.nanoTime();
+                            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            latencies[sent++] = System.nanoTime() - sentAt;
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+            List<long[]> perWorker = new ArrayList<>(workers);
+            for (Future<long[]> future : futures) {
+                perWorker.add(future.get());
+            }
+            long elapsed = System.nanoTime() - start;
+            long[] latencies = perWorker.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(latencies, elapsed, errors.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void print(String mode, String endpoint, Result result) {
+        long[] latencies = result.latencies();
+        System.out.printf("%-9s %-11s %10.0f %10.2f %10.2f %8d%n", mode, endpoint,
+                latencies.length / (result.elapsedNanos() / 1_000_000_000.0),
+                percentile(latencies, 0.50) / 1_000_000.0,
+                percentile(latencies, 0.99) / 1_000_000.0,
+                result.errors());
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static HttpRequest get(URI baseUri, String path, String authorization) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).header("Authorization", authorization).GET().build();
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String username(int worker) {
+        return "thread.bench" + worker;
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+        /** The requests a worker sends, in order, for one round. */
+        List<HttpRequest> requests(int worker);
+    }
+
+    private record Result(long[] latencies, long elapsedNanos, int errors) {
+    }
+}
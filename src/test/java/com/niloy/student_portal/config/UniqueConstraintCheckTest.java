@@ -0,0 +1,135 @@
+package com.niloy.student_portal.config;
+
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Unique Constraint Check Tests")
+class UniqueConstraintCheckTest {
+
+    @Autowired
+    private UniqueConstraintCheck uniqueConstraintCheck;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UniqueConstraintCheck reconciling() {
+        return new UniqueConstraintCheck(jdbcTemplate, new ConstraintViolationTranslator(false), true);
+    }
+
+    private List<String> constraintsOn(String table, String column) {
+        return jdbcTemplate.queryForList("""
+                select lower(tc.constraint_name)
+                from information_schema.table_constraints tc
+                join information_schema.key_column_usage kcu
+                  on kcu.constraint_name = tc.constraint_name and kcu.table_name = tc.table_name
+                where tc.constraint_type = 'UNIQUE' and lower(tc.table_name) = ? and lower(kcu.column_name) = ?
+                """, String.class, table, column);
+    }
+
+    @Test
+    @DisplayName("Should leave a schema with the named constraints as it is")
+    void check_WithNamedConstraints_ShouldChangeNothing() {
+        // Act
+        Map<String, List<String>> missing = uniqueConstraintCheck.check();
+
+        // Assert
+        assertTrue(missing.isEmpty());
+        assertEquals(List.of("uk_users_email"), constraintsOn("users", "email"));
+    }
+
+    @Test
+    @DisplayName("Should drop an old constraint next to the named one")
+    void check_WithOldConstraintBesideNamed_ShouldDropIt() {
+        // Arrange
+        jdbcTemplate.execute("alter table departments add constraint uk_old_departments_name unique (name)");
+
+        // Act
+        reconciling().check();
+
+        // Assert
+        assertEquals(List.of("uk_departments_name"), constraintsOn("departments", "name"));
+    }
+
+    @Test
+    @DisplayName("Should rename an old constraint standing alone")
+    void check_WithOnlyOldConstraint_ShouldRenameIt() {
+        // Arrange
+        jdbcTemplate.execute("alter table courses drop constraint uk_courses_course_code");
+        jdbcTemplate.execute("alter table courses add constraint uk_old_courses_code unique (course_code)");
+
+        // Act
+        reconciling().check();
+
+        // Assert
+        assertEquals(List.of("uk_courses_course_code"), constraintsOn("courses", "course_code"));
+    }
+
+    @Test
+    @DisplayName("Should only report an old constraint unless reconciling")
+    void check_WithoutReconcile_ShouldNotAlterSchema() {
+        // Arrange
+        jdbcTemplate.execute("alter table courses drop constraint uk_courses_course_code");
+        jdbcTemplate.execute("alter table courses add constraint uk_old_courses_code unique (course_code)");
+        try {
+            // Act
+            Map<String, List<String>> missing = uniqueConstraintCheck.check();
+
+            // Assert
+            assertEquals(Map.of("uk_courses_course_code", List.of()), missing);
+            assertEquals(List.of("uk_old_courses_code"), constraintsOn("courses", "course_code"));
+        } finally {
+            jdbcTemplate.execute("alter table courses drop constraint uk_old_courses_code");
+            jdbcTemplate.execute("alter table courses add constraint uk_courses_course_code unique (course_code)");
+        }
+    }
+
+    @Test
+    @DisplayName("Should turn on the duplicate pre-check for a missing constraint only")
+    void afterSingletonsInstantiated_WithMissingConstraint_ShouldForceItsChecks() {
+        // Arrange
+        ConstraintViolationTranslator translator = new ConstraintViolationTranslator(false);
+        jdbcTemplate.execute("alter table users drop constraint uk_users_email");
+        try {
+            // Act
+            new UniqueConstraintCheck(jdbcTemplate, translator, false).afterSingletonsInstantiated();
+
+            // Assert
+            assertTrue(translator.checksDuplicates(ConstraintViolationTranslator.UK_USERS_EMAIL));
+            assertFalse(translator.checksDuplicates(ConstraintViolationTranslator.UK_USERS_USERNAME));
+        } finally {
+            jdbcTemplate.execute("alter table users add constraint uk_users_email unique (email)");
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the duplicates keeping a named constraint out")
+    void check_WithDuplicateEmails_ShouldReportThem() {
+        // Arrange
+        jdbcTemplate.execute("alter table users drop constraint uk_users_email");
+        try {
+            for (String username : new String[]{"shared.one", "shared.two"}) {
+                jdbcTemplate.update("insert into users (username, password, email, role, enabled) values (?, ?, ?, ?, ?)",
+                        username, "secret", "shared@email.com", "ROLE_STUDENT", true);
+            }
+
+            // Act
+            Map<String, List<String>> missing = uniqueConstraintCheck.check();
+
+            // Assert
+            assertEquals(Map.of("uk_users_email", List.of("shared@email.com")), missing);
+        } finally {
+            jdbcTemplate.update("delete from users where email = ?", "shared@email.com");
+            jdbcTemplate.execute("alter table users add constraint uk_users_email unique (email)");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.niloy.student_portal.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ApiFormat Tests")
+class ApiFormatTest {
+
+    @Test
+    @DisplayName("Should default to JSON")
+    void negotiate_WithoutPreference_ShouldPickJson() {
+        // Act & Assert
+        assertEquals(ApiFormat.JSON, ApiFormat.negotiate(null));
+        assertEquals(ApiFormat.JSON, ApiFormat.negotiate("*/*"));
+        assertEquals(ApiFormat.JSON, ApiFormat.negotiate("text/html"));
+        assertEquals(ApiFormat.JSON, ApiFormat.negotiate("not a media type;;"));
+    }
+
+    @Test
+    @DisplayName("Should pick a binary format the client asks for")
+    void negotiate_WithBinaryType_ShouldPickIt() {
+        // Act & Assert
+        assertEquals(ApiFormat.CBOR, ApiFormat.negotiate("application/cbor"));
+        assertEquals(ApiFormat.SMILE, ApiFormat.negotiate("application/x-jackson-smile, application/json;q=0.5"));
+        assertEquals(ApiFormat.CBOR, ApiFormat.negotiate("application/*;q=0.5, application/cbor"));
+    }
+
+    @Test
+    @DisplayName("Should rate each format by the most specific range")
+    void negotiate_WithExcludedType_ShouldSkipIt() {
+        // Act & Assert
+        assertEquals(ApiFormat.SMILE, ApiFormat.negotiate("application/json;q=0, application/cbor;q=0, */*"));
+        assertEquals(ApiFormat.JSON, ApiFormat.negotiate("application/cbor;q=0.5, */*"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.TestFixtures;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.security.CustomUserDetailsService;
+import com.niloy.student_portal.security.PortalUserDetails;
+import com.niloy.student_portal.service.StudentService;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// JDBC batching as in the main configuration, with every batch execution counted
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "spring.jpa.properties.hibernate.session.events.auto="
+                + "com.niloy.student_portal.controller.BatchApiTest$BatchExecutions"
+})
+@AutoConfigureMockMvc
+@DisplayName("Batch API Tests")
+class BatchApiTest {
+
+    public static class BatchExecutions implements SessionEventListener {
+        static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            COUNT.incrementAndGet();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private TestFixtures fixtures;
+    private PortalUserDetails teacher;
+
+    @BeforeEach
+    void setUp() {
+        teacher = (PortalUserDetails) userDetailsService.loadUserByUsername("teacher");
+        fixtures = new TestFixtures(context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    private Long createStudent(String studentId) {
+        return fixtures.createStudent("Batch", studentId).getId();
+    }
+
+    private static String update(Long id, String studentId, String firstName) {
+        return update(id, studentId, firstName, "Student");
+    }
+
+    private static String update(Long id, String studentId, String firstName, String lastName) {
+        return """
+                {"op": "update", "resource": "students", "id": %d,
+                 "body": {"firstName": "%s", "lastName": "%s", "studentId": "%s"}}
+                """.formatted(id, firstName, lastName, studentId);
+    }
+
+    private static String delete(Long id) {
+        return """
+                {"op": "delete", "resource": "students", "id": %d}
+                """.formatted(id);
+    }
+
+    private static String batch(String... operations) {
+        return "{\"operations\": [" + String.join(",", operations) + "]}";
+    }
+
+    @Test
+    @DisplayName("Should apply every operation and report each status")
+    void batch_ShouldApplyAll() throws Exception {
+        // Arrange
+        Long kept = createStudent("BATCH001");
+        Long removed = createStudent("BATCH002");
+        String create = """
+                {"op": "create", "resource": "students",
+                 "body": {"firstName": "Batch", "lastName": "Created", "studentId": "BATCH003",
+                          "username": "batch003", "password": "password123", "email": "batch003@email.com"}}
+                """;
+
+        // Act & Assert
+        mockMvc.perform(post("/api/batch").with(user(teacher))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch(update(kept, "BATCH001", "Renamed"), delete(removed), create)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data[0].status").value(200))
+                .andExpect(jsonPath("$.data[1].status").value(200))
+                .andExpect(jsonPath("$.data[2].status").value(201));
+
+        assertEquals("Renamed", studentService.getStudentById(kept).getFirstName());
+        assertFalse(studentRepository.existsById(removed));
+        fixtures.deleteLater(studentRepository.findByStudentId("BATCH003").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Should roll back every operation when one fails")
+    void batch_WhenOneFails_ShouldRollBack() throws Exception {
+        // Arrange
+        Long kept = createStudent("BATCH011");
+        Long removed = createStudent("BATCH012");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/batch").with(user(teacher))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch(update(kept, "BATCH011", "Renamed"), delete(removed), delete(999999L))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.data[0].status").value(424))
+                .andExpect(jsonPath("$.data[1].status").value(424))
+                .andExpect(jsonPath("$.data[2].status").value(404));
+
+        assertEquals("Batch", studentService.getStudentById(kept).getFirstName());
+        assertTrue(studentRepository.existsById(removed));
+    }
+
+    @Test
+    @DisplayName("Should blame a conflicting update, not the create that follows it")
+    void batch_WhenUpdateConflictsBeforeCreate_ShouldFailAtUpdate() throws Exception {
+        // Arrange
+        Long renamed = createStudent("BATCH021");
+        createStudent("BATCH022");
+        String create = """
+                {"op": "create", "resource": "students",
+                 "body": {"firstName": "Batch", "lastName": "Created", "studentId": "BATCH023",
+                          "username": "batch023", "password": "password123", "email": "batch023@email.com"}}
+                """;
+
+        // Act & Assert
+        mockMvc.perform(post("/api/batch").with(user(teacher))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch(update(renamed, "BATCH022", "Renamed"), create)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.data[0].status").value(409))
+                .andExpect(jsonPath("$.data[0].message").value(containsString("BATCH022")))
+                .andExpect(jsonPath("$.data[1].status").value(424));
+
+        assertEquals("BATCH021", studentService.getStudentById(renamed).getStudentId());
+        assertFalse(studentRepository.existsByStudentId("BATCH023"));
+    }
+
+    @Test
+    @DisplayName("Should send the updates of a batch as one JDBC batch")
+    void batch_WithManyUpdates_ShouldUseOneJdbcBatch() throws Exception {
+        // Arrange
+        List<String> updates = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String studentId = "BATCH1%02d".formatted(i);
+            Long id = createStudent(studentId);
+            // Alternate the changed column, so rows differ in what they change
+            updates.add(i % 2 == 0
+                    ? update(id, studentId, "Renamed")
+                    : update(id, studentId, "Batch", "Renamed"));
+        }
+        BatchExecutions.COUNT.set(0);
+
+        // Act
+        mockMvc.perform(post("/api/batch").with(user(teacher))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch(updates.toArray(String[]::new))))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertEquals(1, BatchExecutions.COUNT.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed batch")
+    void batch_WhenMalformed_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/batch").with(user(teacher))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch("{\"op\": \"update\", \"resource\": \"courses\", \"id\": 1}")))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,97 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.security.CustomUserDetailsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Binary Formats API Tests")
+class BinaryFormatsApiTest {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    private UserDetails teacher;
+
+    @BeforeEach
+    void setUp() {
+        teacher = userDetailsService.loadUserByUsername("teacher");
+    }
+
+    private byte[] fetch(String path, MediaType accept) throws Exception {
+        return mockMvc.perform(get(path).with(user(teacher)).accept(accept))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(accept))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Test
+    @DisplayName("Should send a listing as CBOR when asked for it")
+    void teachers_WithCborAccept_ShouldSendSameDataInCbor() throws Exception {
+        // Act
+        byte[] json = fetch("/api/teachers", MediaType.APPLICATION_JSON);
+        byte[] cbor = fetch("/api/teachers", MediaType.APPLICATION_CBOR);
+
+        // Assert
+        JsonNode fromJson = JsonMapper.builder().build().readTree(json);
+        JsonNode fromCbor = CBORMapper.builder().build().readTree(cbor);
+        assertEquals(fromJson, fromCbor);
+        assertTrue(cbor.length < json.length);
+    }
+
+    @Test
+    @DisplayName("Should send a cached catalog listing as Smile when asked for it")
+    void courses_WithSmileAccept_ShouldSendSameDataInSmile() throws Exception {
+        // Act
+        byte[] json = fetch("/api/courses", MediaType.APPLICATION_JSON);
+        byte[] smile = fetch("/api/courses", SMILE);
+
+        // Assert
+        JsonNode fromJson = JsonMapper.builder().build().readTree(json);
+        JsonNode fromSmile = SmileMapper.builder().build().readTree(smile);
+        assertEquals(fromJson, fromSmile);
+        assertTrue(smile.length < json.length);
+    }
+
+    @Test
+    @DisplayName("Should tag each format of a cached listing apart")
+    void courses_InDifferentFormats_ShouldHaveDifferentETags() throws Exception {
+        // Act
+        String jsonTag = mockMvc.perform(get("/api/courses").with(user(teacher)).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborTag = mockMvc.perform(get("/api/courses").with(user(teacher)).accept(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Assert
+        assertNotNull(jsonTag);
+        assertNotEquals(jsonTag, cborTag);
+        mockMvc.perform(get("/api/courses").with(user(teacher))
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborTag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,155 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.service.CatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CatalogResponseCache Tests")
+class CatalogResponseCacheTest {
+
+    private CatalogVersion catalogVersion;
+    private CatalogResponseCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        cache = new CatalogResponseCache(catalogVersion, new CatalogETags(catalogVersion),
+                JsonMapper.builder().build(), CBORMapper.builder().build(), new SimpleMeterRegistry(), 100);
+    }
+
+    private Supplier<ApiResponse<List<String>>> body() {
+        return () -> ApiResponse.success(List.of("course " + loads.incrementAndGet()));
+    }
+
+    private ServletWebRequest request(String acceptEncoding) {
+        return request(null, acceptEncoding);
+    }
+
+    private ServletWebRequest request(String accept, String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private ResponseEntity<byte[]> respond(String acceptEncoding) {
+        return cache.respond(request(acceptEncoding), CatalogVersion.Collection.COURSES, "all", body());
+    }
+
+    @Test
+    @DisplayName("Should serve repeat requests from the cached bytes")
+    void respond_WhenCached_ShouldSkipBody() {
+        // Act
+        ResponseEntity<byte[]> first = respond(null);
+        ResponseEntity<byte[]> second = respond(null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertArrayEquals(first.getBody(), second.getBody());
+        assertEquals(1, loads.get());
+        assertNull(second.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    @DisplayName("Should send the gzipped variant with its own ETag when the client accepts it")
+    void respond_WhenGzipAccepted_ShouldSendGzip() throws IOException {
+        // Act
+        ResponseEntity<byte[]> plain = respond(null);
+        ResponseEntity<byte[]> gzipped = respond("br, gzip;q=0.8");
+
+        // Assert
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), gzipped.getHeaders().getVary());
+        assertNotEquals(plain.getHeaders().getETag(), gzipped.getHeaders().getETag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should send plain JSON when gzip is refused")
+    void respond_WhenGzipRefused_ShouldSendIdentity() {
+        // Act
+        ResponseEntity<byte[]> response = respond("gzip;q=0, identity");
+
+        // Assert
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    @DisplayName("Should send and cache CBOR separately when the client asks for it")
+    void respond_WhenCborAccepted_ShouldSendCbor() {
+        // Act
+        ResponseEntity<byte[]> json = respond(null);
+        ResponseEntity<byte[]> cbor = cache.respond(request("application/cbor", null),
+                CatalogVersion.Collection.COURSES, "all", body());
+        ResponseEntity<byte[]> cborAgain = cache.respond(request("application/cbor", null),
+                CatalogVersion.Collection.COURSES, "all", body());
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertNotEquals(json.getHeaders().getETag(), cbor.getHeaders().getETag());
+        assertEquals("course 2", CBORMapper.builder().build().readTree(cbor.getBody()).get("data").get(0).asString());
+        assertArrayEquals(cbor.getBody(), cborAgain.getBody());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should serialize again after the collection changes")
+    void respond_AfterCollectionChange_ShouldMiss() {
+        // Arrange
+        ResponseEntity<byte[]> before = respond(null);
+
+        // Act
+        catalogVersion.changed(CatalogVersion.Collection.DEPARTMENTS);
+        respond(null);
+        catalogVersion.changed(CatalogVersion.Collection.COURSES);
+        ResponseEntity<byte[]> after = respond(null);
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertNotEquals(before.getHeaders().getETag(), after.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Should always serialize when disabled")
+    void respond_WhenDisabled_ShouldNotCache() {
+        // Arrange
+        cache = new CatalogResponseCache(catalogVersion, new CatalogETags(catalogVersion),
+                JsonMapper.builder().build(), CBORMapper.builder().build(), new SimpleMeterRegistry(), 0);
+
+        // Act
+        respond(null);
+        respond(null);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+}
@@ -3,7 +3,9 @@ package com.niloy.student_portal.controller;
 import com.niloy.student_portal.dto.request.CourseRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
 import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.service.CatalogVersion;
 import com.niloy.student_portal.service.CourseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,9 +13,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -31,6 +41,18 @@ class CourseControllerTest {
     @Mock
     private CourseService courseService;
 
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Spy
+    private CatalogETags catalogETags = new CatalogETags(catalogVersion);
+
+    @Spy
+    private CatalogResponseCache catalogResponseCache =
+            new CatalogResponseCache(catalogVersion, catalogETags, jsonMapper, CBORMapper.builder().build(),
+                    new SimpleMeterRegistry(), 100);
+
     @InjectMocks
     private CourseController courseController;
 
@@ -58,6 +80,22 @@ class CourseControllerTest {
                 .build();
     }
 
+    private JsonNode json(ResponseEntity<byte[]> response) {
+        return jsonMapper.readTree(response.getBody());
+    }
+
+    private ServletWebRequest getRequest() {
+        return getRequest(null);
+    }
+
+    private ServletWebRequest getRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @Nested
     @DisplayName("Create Course Tests")
     class CreateCourseTests {
@@ -120,13 +158,13 @@ class CourseControllerTest {
             when(courseService.getAllCourses()).thenReturn(courses);
 
             // Act
-            ResponseEntity<ApiResponse<List<CourseResponse>>> response = courseController.getAllCourses();
+            ResponseEntity<byte[]> response = courseController.getAllCourses(getRequest());
 
             // Assert
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertTrue(response.getBody().isSuccess());
-            assertEquals(2, response.getBody().getData().size());
+            assertTrue(json(response).path("success").asBoolean());
+            assertEquals(2, json(response).path("data").size());
             verify(courseService, times(1)).getAllCourses();
         }
 
@@ -137,12 +175,30 @@ class CourseControllerTest {
             when(courseService.getAllCourses()).thenReturn(Collections.emptyList());
 
             // Act
-            ResponseEntity<ApiResponse<List<CourseResponse>>> response = courseController.getAllCourses();
+            ResponseEntity<byte[]> response = courseController.getAllCourses(getRequest());
 
             // Assert
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertTrue(response.getBody().getData().isEmpty());
+            assertTrue(json(response).path("data").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should answer 304 without loading courses when the ETag still matches")
+        void getAllCourses_WhenETagMatches_ShouldReturnNotModified() {
+            // Arrange
+            when(courseService.getAllCourses()).thenReturn(Collections.emptyList());
+            String etag = courseController.getAllCourses(getRequest()).getHeaders().getETag();
+
+            // Act
+            ResponseEntity<byte[]> response =
+                    courseController.getAllCourses(getRequest(etag));
+
+            // Assert
+            assertNotNull(etag);
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+            assertNull(response.getBody());
+            verify(courseService, times(1)).getAllCourses();
         }
     }
 
@@ -159,7 +215,7 @@ class CourseControllerTest {
 
             // Act
             ResponseEntity<ApiResponse<List<CourseResponse>>> response =
-                    courseController.getCoursesByDepartment(1L);
+                    courseController.getCoursesByDepartment(1L, getRequest());
 
             // Assert
             assertNotNull(response);
@@ -0,0 +1,52 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.DashboardSummaryResponse;
+import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.security.PortalUserDetails;
+import com.niloy.student_portal.service.DashboardService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardController Tests")
+class DashboardControllerTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @InjectMocks
+    private DashboardController dashboardController;
+
+    @Test
+    @DisplayName("Should return the caller's dashboard summary")
+    void getSummary_ShouldReturnSummary() {
+        // Arrange
+        PortalUserDetails principal = new PortalUserDetails(10L, "teacher1", "password", true,
+                Role.ROLE_TEACHER, null, 1L);
+        DashboardSummaryResponse summary = DashboardSummaryResponse.builder()
+                .role(Role.ROLE_TEACHER.name())
+                .departmentCount(2)
+                .courseCount(5)
+                .studentCount(3L)
+                .build();
+        when(dashboardService.getSummary(principal, 10)).thenReturn(summary);
+
+        // Act
+        ResponseEntity<ApiResponse<DashboardSummaryResponse>> response = dashboardController.getSummary(principal, 10);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isSuccess());
+        assertEquals(3L, response.getBody().getData().getStudentCount());
+    }
+}
@@ -3,7 +3,9 @@ package com.niloy.student_portal.controller;
 import com.niloy.student_portal.dto.request.DepartmentRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
 import com.niloy.student_portal.dto.response.DepartmentResponse;
+import com.niloy.student_portal.service.CatalogVersion;
 import com.niloy.student_portal.service.DepartmentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,9 +13,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -31,6 +41,18 @@ class DepartmentControllerTest {
     @Mock
     private DepartmentService departmentService;
 
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Spy
+    private CatalogETags catalogETags = new CatalogETags(catalogVersion);
+
+    @Spy
+    private CatalogResponseCache catalogResponseCache =
+            new CatalogResponseCache(catalogVersion, catalogETags, jsonMapper, CBORMapper.builder().build(),
+                    new SimpleMeterRegistry(), 100);
+
     @InjectMocks
     private DepartmentController departmentController;
 
@@ -52,6 +74,22 @@ class DepartmentControllerTest {
                 .build();
     }
 
+    private JsonNode json(ResponseEntity<byte[]> response) {
+        return jsonMapper.readTree(response.getBody());
+    }
+
+    private ServletWebRequest getRequest() {
+        return getRequest(null);
+    }
+
+    private ServletWebRequest getRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @Nested
     @DisplayName("Create Department Tests")
     class CreateDepartmentTests {
@@ -118,14 +156,14 @@ class DepartmentControllerTest {
             when(departmentService.getAllDepartments()).thenReturn(departments);
 
             // Act
-            ResponseEntity<ApiResponse<List<DepartmentResponse>>> response =
-                    departmentController.getAllDepartments();
+            ResponseEntity<byte[]> response =
+                    departmentController.getAllDepartments(getRequest());
 
             // Assert
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertTrue(response.getBody().isSuccess());
-            assertEquals(2, response.getBody().getData().size());
+            assertTrue(json(response).path("success").asBoolean());
+            assertEquals(2, json(response).path("data").size());
             verify(departmentService, times(1)).getAllDepartments();
         }
 
@@ -136,13 +174,13 @@ class DepartmentControllerTest {
             when(departmentService.getAllDepartments()).thenReturn(Collections.emptyList());
 
             // Act
-            ResponseEntity<ApiResponse<List<DepartmentResponse>>> response =
-                    departmentController.getAllDepartments();
+            ResponseEntity<byte[]> response =
+                    departmentController.getAllDepartments(getRequest());
 
             // Assert
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertTrue(response.getBody().getData().isEmpty());
+            assertTrue(json(response).path("data").isEmpty());
         }
     }
 
@@ -3,6 +3,8 @@ package com.niloy.student_portal.controller;
 import com.niloy.student_portal.dto.request.EnrollmentRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
 import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.security.PortalUserDetails;
 import com.niloy.student_portal.service.StudentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,7 +16,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 
 import java.time.LocalDate;
 
@@ -29,17 +30,17 @@ class EnrollmentControllerTest {
     @Mock
     private StudentService studentService;
 
-    @Mock
-    private Authentication authentication;
-
     @InjectMocks
     private EnrollmentController enrollmentController;
 
     private StudentResponse studentResponse;
     private EnrollmentRequest enrollmentRequest;
+    private PortalUserDetails principal;
 
     @BeforeEach
     void setUp() {
+        principal = new PortalUserDetails(2L, "john.doe", "password", true, Role.ROLE_STUDENT, 1L, null);
+
         studentResponse = StudentResponse.builder()
                 .id(1L)
                 .firstName("John")
@@ -62,20 +63,19 @@ class EnrollmentControllerTest {
         @Test
         @DisplayName("Should enroll in course successfully")
         void enrollInCourse_WithValidRequest_ShouldReturnSuccess() {
-            when(authentication.getName()).thenReturn("john.doe");
             studentResponse.setEnrolledCourseName("Introduction to CS");
             studentResponse.setEnrolledCourseId(1L);
-            when(studentService.enrollInCourse(eq(1L), eq("john.doe"))).thenReturn(studentResponse);
+            when(studentService.enrollInCourse(eq(1L), eq(1L))).thenReturn(studentResponse);
 
             ResponseEntity<ApiResponse<StudentResponse>> response =
-                    enrollmentController.enrollInCourse(enrollmentRequest, authentication);
+                    enrollmentController.enrollInCourse(enrollmentRequest, principal);
 
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertNotNull(response.getBody());
             assertTrue(response.getBody().isSuccess());
             assertEquals("Successfully enrolled in course", response.getBody().getMessage());
-            verify(studentService, times(1)).enrollInCourse(eq(1L), eq("john.doe"));
+            verify(studentService, times(1)).enrollInCourse(eq(1L), eq(1L));
         }
     }
 
@@ -86,18 +86,17 @@ class EnrollmentControllerTest {
         @Test
         @DisplayName("Should drop course successfully")
         void dropCourse_WhenEnrolled_ShouldReturnSuccess() {
-            when(authentication.getName()).thenReturn("john.doe");
-            when(studentService.dropCourse("john.doe")).thenReturn(studentResponse);
+            when(studentService.dropCourse(1L)).thenReturn(studentResponse);
 
             ResponseEntity<ApiResponse<StudentResponse>> response =
-                    enrollmentController.dropCourse(authentication);
+                    enrollmentController.dropCourse(principal);
 
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertNotNull(response.getBody());
             assertTrue(response.getBody().isSuccess());
             assertEquals("Successfully dropped course", response.getBody().getMessage());
-            verify(studentService, times(1)).dropCourse("john.doe");
+            verify(studentService, times(1)).dropCourse(1L);
         }
     }
 
@@ -108,17 +107,16 @@ class EnrollmentControllerTest {
         @Test
         @DisplayName("Should return enrollment status")
         void getEnrollmentStatus_ShouldReturnStatus() {
-            when(authentication.getName()).thenReturn("john.doe");
-            when(studentService.getStudentByUsername("john.doe")).thenReturn(studentResponse);
+            when(studentService.getStudentById(1L)).thenReturn(studentResponse);
 
             ResponseEntity<ApiResponse<StudentResponse>> response =
-                    enrollmentController.getEnrollmentStatus(authentication);
+                    enrollmentController.getEnrollmentStatus(principal);
 
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertNotNull(response.getBody());
             assertTrue(response.getBody().isSuccess());
-            verify(studentService, times(1)).getStudentByUsername("john.doe");
+            verify(studentService, times(1)).getStudentById(1L);
         }
     }
 }
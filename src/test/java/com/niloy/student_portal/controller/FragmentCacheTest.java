@@ -0,0 +1,141 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.service.CatalogVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FragmentCache Tests")
+class FragmentCacheTest {
+
+    @Mock
+    private ITemplateEngine templateEngine;
+
+    private CatalogVersion catalogVersion;
+    private MeterRegistry meterRegistry;
+    private FragmentCache fragmentCache;
+    private final AtomicInteger modelLoads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), new MockHttpServletResponse()));
+        catalogVersion = new CatalogVersion();
+        meterRegistry = new SimpleMeterRegistry();
+        fragmentCache = new FragmentCache(templateEngine, catalogVersion, meterRegistry, 100);
+        AtomicInteger renders = new AtomicInteger();
+        lenient().when(templateEngine.process(eq(FragmentCache.TEMPLATE), any(Set.class), any(IContext.class)))
+                .thenAnswer(invocation -> "<div>render " + renders.incrementAndGet() + "</div>");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private Supplier<Map<String, Object>> model() {
+        return () -> {
+            modelLoads.incrementAndGet();
+            return Map.of("departments", List.of());
+        };
+    }
+
+    @Test
+    @DisplayName("Should serve repeat renders from the cache without loading the model")
+    void render_WhenCached_ShouldSkipModelAndTemplate() {
+        // Act
+        String first = fragmentCache.render("departmentCards", List.of(), model());
+        String second = fragmentCache.render("departmentCards", List.of(), model());
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, modelLoads.get());
+        verify(templateEngine, times(1)).process(eq(FragmentCache.TEMPLATE), eq(Set.of("departmentCards")), any(IContext.class));
+        assertEquals(1.0, meterRegistry.get("portal.web.fragment.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should key entries by their arguments")
+    void render_WithDifferentArgs_ShouldRenderEach() {
+        // Act
+        String page0 = fragmentCache.render("courseCards", List.of(0, 12), model());
+        String page1 = fragmentCache.render("courseCards", List.of(1, 12), model());
+
+        // Assert
+        assertNotEquals(page0, page1);
+        assertEquals(2, modelLoads.get());
+    }
+
+    @Test
+    @DisplayName("Should render again after a catalog change")
+    void render_AfterCatalogChange_ShouldMiss() {
+        // Arrange
+        String before = fragmentCache.render("departmentCards", List.of(), model());
+
+        // Act
+        catalogVersion.changed(CatalogVersion.Collection.COURSES);
+        String after = fragmentCache.render("departmentCards", List.of(), model());
+
+        // Assert
+        assertNotEquals(before, after);
+        assertEquals(2, modelLoads.get());
+        // Entries of the old version are dropped rather than left to pile up
+        assertEquals(1.0, meterRegistry.get("portal.web.fragment.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should not let a render that spans a catalog change evict newer entries")
+    void render_WhenCatalogChangesWhileRendering_ShouldKeepNewerEntries() {
+        // Arrange
+        Supplier<Map<String, Object>> racingModel = () -> {
+            catalogVersion.changed(CatalogVersion.Collection.COURSES);
+            fragmentCache.render("courseCards", List.of(0, 12), model());
+            return model().get();
+        };
+        fragmentCache.render("departmentCards", List.of(), racingModel);
+
+        // Act
+        fragmentCache.render("courseCards", List.of(0, 12), model());
+
+        // Assert
+        assertEquals(2, modelLoads.get());
+    }
+
+    @Test
+    @DisplayName("Should always render when disabled")
+    void render_WhenDisabled_ShouldNotCache() {
+        // Arrange
+        FragmentCache disabled = new FragmentCache(templateEngine, catalogVersion, new SimpleMeterRegistry(), 0);
+
+        // Act
+        disabled.render("departmentCards", List.of(), model());
+        disabled.render("departmentCards", List.of(), model());
+
+        // Assert
+        assertEquals(2, modelLoads.get());
+    }
+}
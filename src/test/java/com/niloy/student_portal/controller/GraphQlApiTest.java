@@ -0,0 +1,140 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.TestFixtures;
+import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.security.CustomUserDetailsService;
+import com.niloy.student_portal.security.PortalUserDetails;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DisplayName("GraphQL API Tests")
+class GraphQlApiTest {
+
+    private static final String NESTED_QUERY = """
+            { departments { name courses { courseCode students { studentId teacher { employeeId } } } } }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private TestFixtures fixtures;
+    private PortalUserDetails teacher;
+    private PortalUserDetails student;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        teacher = (PortalUserDetails) userDetailsService.loadUserByUsername("teacher");
+
+        fixtures = new TestFixtures(context);
+        CourseResponse course = fixtures.createCourse("GRAPH101", "Graph Queries");
+        for (String studentId : new String[]{"GRAPH001", "GRAPH002"}) {
+            fixtures.createEnrolledStudent(fixtures.studentRequest("Graph", studentId), course.getId());
+        }
+        student = (PortalUserDetails) userDetailsService.loadUserByUsername("graph001");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    private ResultActions query(String query, UserDetails principal) throws Exception {
+        String body = JsonMapper.builder().build().writeValueAsString(Map.of("query", query));
+        return mockMvc.perform(post("/api/graphql").with(user(principal))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    @Test
+    @DisplayName("Should resolve nested levels with one statement per level")
+    void nestedQuery_ShouldLoadEachLevelOnce() throws Exception {
+        query(NESTED_QUERY, teacher)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").doesNotExist())
+                .andExpect(jsonPath("$.data.departments[*].courses[*].courseCode", hasItem("GRAPH101")))
+                .andExpect(jsonPath("$.data.departments[*].courses[*].students[*].studentId", hasItem("GRAPH002")))
+                .andExpect(jsonPath("$.data.departments[*].courses[*].students[*].teacher.employeeId",
+                        hasItem(notNullValue())));
+
+        // departments, their courses, the courses' students, the students' teachers
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should read only the selected fields and the keys that link the levels")
+    void nestedQuery_ShouldSelectOnlyRequestedFields() throws Exception {
+        query(NESTED_QUERY, teacher)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").doesNotExist());
+
+        // No counts, descriptions, names of related rows or account emails were asked for
+        for (String jpql : statistics.getQueries()) {
+            assertFalse(jpql.contains("count("), jpql);
+            assertFalse(jpql.contains("description"), jpql);
+            assertFalse(jpql.contains(" join "), jpql);
+        }
+        assertTrue(Arrays.asList(statistics.getQueries()).contains(
+                "select t.id as id, t.employeeId as employeeId from Teacher t where t.id in :ids order by t.id"));
+    }
+
+    @Test
+    @DisplayName("Should hide teachers and students from students")
+    void nestedQuery_AsStudent_ShouldDenyPeople() throws Exception {
+        query(NESTED_QUERY, student)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors[0].extensions.classification").value("FORBIDDEN"))
+                .andExpect(jsonPath("$.data.departments[*].courses[*].courseCode", hasItem("GRAPH101")));
+    }
+
+    @Test
+    @DisplayName("Should reject a query nested deeper than allowed before running it")
+    void deepQuery_ShouldBeRejected() throws Exception {
+        query("{ courses { students { teacher { students { course { department { name } } } } } } }", teacher)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("depth")))
+                .andExpect(jsonPath("$.data").doesNotExist());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.config.ConnectionUsageTracker;
+import com.niloy.student_portal.exception.PageLoadTimeoutException;
+import com.niloy.student_portal.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PageDataLoader Tests")
+class PageDataLoaderTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run reads concurrently and return their results")
+    void join_ShouldWaitForAllReads() {
+        // Arrange
+        PageDataLoader loader = new PageDataLoader(executor, new ConnectionUsageTracker(), 5000);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        PageDataLoader.Page page = loader.page();
+
+        // Act: each read waits for the other, which only completes if they run at the same time
+        Supplier<String> first = page.fork(() -> awaitPeer(bothStarted, "first"));
+        Supplier<String> second = page.fork(() -> awaitPeer(bothStarted, "second"));
+        page.join();
+
+        // Assert
+        assertEquals("first", first.get());
+        assertEquals("second", second.get());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the first failure and cancel the remaining reads")
+    void join_WhenReadFails_ShouldCancelOthers() {
+        // Arrange
+        PageDataLoader loader = new PageDataLoader(executor, new ConnectionUsageTracker(), 5000);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PageDataLoader.Page page = loader.page();
+        page.fork(() -> sleepUntilInterrupted(interrupted));
+        page.fork(() -> {
+            throw new ResourceNotFoundException("Department", "id", 99L);
+        });
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, page::join);
+        assertTrue(await(interrupted));
+    }
+
+    @Test
+    @DisplayName("Should fail the page when the deadline passes")
+    void join_WhenDeadlinePasses_ShouldThrowTimeout() {
+        // Arrange
+        PageDataLoader loader = new PageDataLoader(executor, new ConnectionUsageTracker(), 50);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PageDataLoader.Page page = loader.page();
+        page.fork(() -> sleepUntilInterrupted(interrupted));
+
+        // Act & Assert
+        assertThrows(PageLoadTimeoutException.class, page::join);
+        assertTrue(await(interrupted));
+    }
+
+    private String awaitPeer(CountDownLatch latch, String value) {
+        latch.countDown();
+        if (!await(latch)) {
+            throw new IllegalStateException("reads did not overlap");
+        }
+        return value;
+    }
+
+    private String sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException ex) {
+            interrupted.countDown();
+        }
+        return "slow";
+    }
+
+    private boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.TestFixtures;
+import com.niloy.student_portal.dto.request.StudentCreateRequest;
+import com.niloy.student_portal.security.CustomUserDetailsService;
+import com.niloy.student_portal.security.PortalUserDetails;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DisplayName("Patch API Tests")
+class PatchApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private TestFixtures fixtures;
+    private PortalUserDetails teacher;
+    private PortalUserDetails studentUser;
+    private Long studentId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        teacher = (PortalUserDetails) userDetailsService.loadUserByUsername("teacher");
+
+        fixtures = new TestFixtures(context);
+        StudentCreateRequest request = fixtures.studentRequest("Patch", "PATCH001", "patch.student");
+        request.setAddress("1 Old Road");
+        studentId = fixtures.createStudent(request).getId();
+        studentUser = (PortalUserDetails) userDetailsService.loadUserByUsername("patch.student");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should change only the fields sent and update only the student row")
+    void patchStudent_ShouldUpdateOnlyChangedEntity() throws Exception {
+        mockMvc.perform(patch("/api/students/" + studentId).with(user(teacher))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phoneNumber\": \"5550100\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.phoneNumber").value("5550100"))
+                .andExpect(jsonPath("$.data.firstName").value("Patch"))
+                .andExpect(jsonPath("$.data.email").value("patch.student@email.com"));
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    @DisplayName("Should write nothing when the patch changes nothing")
+    void patchStudent_WithSameValues_ShouldNotUpdate() throws Exception {
+        mockMvc.perform(patch("/api/students/" + studentId).with(user(teacher))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\": \"Patch\", \"email\": \"patch.student@email.com\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    @DisplayName("Should reject credentials rather than ignore them")
+    void patchStudent_WithCredentials_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/students/" + studentId).with(user(teacher))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"renamed\", \"phoneNumber\": \"5550199\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    @DisplayName("Should patch the own profile as a student")
+    void patchProfile_ShouldChangeOnlyFieldsSent() throws Exception {
+        mockMvc.perform(patch("/api/profile").with(user(studentUser))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\": \"2 New Road\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.address").value("2 New Road"))
+                .andExpect(jsonPath("$.data.lastName").value("Student"));
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+}
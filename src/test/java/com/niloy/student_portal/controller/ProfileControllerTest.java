@@ -5,6 +5,7 @@ import com.niloy.student_portal.dto.response.ApiResponse;
 import com.niloy.student_portal.dto.response.StudentResponse;
 import com.niloy.student_portal.dto.response.TeacherResponse;
 import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.security.PortalUserDetails;
 import com.niloy.student_portal.service.StudentService;
 import com.niloy.student_portal.service.TeacherService;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,12 +18,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.time.LocalDate;
-import java.util.Collection;
-import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,9 +36,6 @@ class ProfileControllerTest {
     @Mock
     private TeacherService teacherService;
 
-    @Mock
-    private Authentication authentication;
-
     @InjectMocks
     private ProfileController profileController;
 
@@ -92,13 +86,11 @@ class ProfileControllerTest {
         @DisplayName("Should return student profile for student role")
         void getProfile_AsStudent_ShouldReturnStudentProfile() {
             // Arrange
-            when(authentication.getName()).thenReturn("john.doe");
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_STUDENT.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
-            when(studentService.getStudentByUsername("john.doe")).thenReturn(studentResponse);
+            PortalUserDetails principal = studentPrincipal();
+            when(studentService.getStudentById(1L)).thenReturn(studentResponse);
 
             // Act
-            ResponseEntity<ApiResponse<?>> response = profileController.getProfile(authentication);
+            ResponseEntity<ApiResponse<?>> response = profileController.getProfile(principal);
 
             // Assert
             assertNotNull(response);
@@ -107,21 +99,19 @@ class ProfileControllerTest {
             StudentResponse data = (StudentResponse) response.getBody().getData();
             assertEquals("John", data.getFirstName());
             assertEquals("STU001", data.getStudentId());
-            verify(studentService, times(1)).getStudentByUsername("john.doe");
-            verify(teacherService, never()).getTeacherByUsername(anyString());
+            verify(studentService, times(1)).getStudentById(1L);
+            verify(teacherService, never()).getTeacherById(anyLong());
         }
 
         @Test
         @DisplayName("Should return teacher profile for teacher role")
         void getProfile_AsTeacher_ShouldReturnTeacherProfile() {
             // Arrange
-            when(authentication.getName()).thenReturn("jane.smith");
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_TEACHER.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
-            when(teacherService.getTeacherByUsername("jane.smith")).thenReturn(teacherResponse);
+            PortalUserDetails principal = teacherPrincipal();
+            when(teacherService.getTeacherById(1L)).thenReturn(teacherResponse);
 
             // Act
-            ResponseEntity<ApiResponse<?>> response = profileController.getProfile(authentication);
+            ResponseEntity<ApiResponse<?>> response = profileController.getProfile(principal);
 
             // Assert
             assertNotNull(response);
@@ -130,19 +120,18 @@ class ProfileControllerTest {
             TeacherResponse data = (TeacherResponse) response.getBody().getData();
             assertEquals("Jane", data.getFirstName());
             assertEquals("EMP001", data.getEmployeeId());
-            verify(teacherService, times(1)).getTeacherByUsername("jane.smith");
-            verify(studentService, never()).getStudentByUsername(anyString());
+            verify(teacherService, times(1)).getTeacherById(1L);
+            verify(studentService, never()).getStudentById(anyLong());
         }
 
         @Test
         @DisplayName("Should return error for unknown role")
         void getProfile_WithUnknownRole_ShouldReturnError() {
             // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_UNKNOWN"));
-            when(authentication.getAuthorities()).thenReturn(authorities);
+            PortalUserDetails principal = unknownRolePrincipal();
 
             // Act
-            ResponseEntity<ApiResponse<?>> response = profileController.getProfile(authentication);
+            ResponseEntity<ApiResponse<?>> response = profileController.getProfile(principal);
 
             // Assert
             assertNotNull(response);
@@ -160,9 +149,7 @@ class ProfileControllerTest {
         @DisplayName("Should update student profile successfully")
         void updateProfile_AsStudent_ShouldReturnUpdatedProfile() {
             // Arrange
-            when(authentication.getName()).thenReturn("john.doe");
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_STUDENT.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
+            PortalUserDetails principal = studentPrincipal();
 
             StudentResponse updatedResponse = StudentResponse.builder()
                     .id(1L)
@@ -172,12 +159,12 @@ class ProfileControllerTest {
                     .phoneNumber("9876543210")
                     .email("john.updated@email.com")
                     .build();
-            when(studentService.updateStudentProfile(any(StudentUpdateRequest.class), eq("john.doe")))
+            when(studentService.updateStudentProfile(any(StudentUpdateRequest.class), eq(1L)))
                     .thenReturn(updatedResponse);
 
             // Act
             ResponseEntity<ApiResponse<?>> response =
-                    profileController.updateProfile(studentUpdateRequest, authentication);
+                    profileController.updateProfile(studentUpdateRequest, principal);
 
             // Assert
             assertNotNull(response);
@@ -186,19 +173,18 @@ class ProfileControllerTest {
             assertEquals("Profile updated successfully", response.getBody().getMessage());
             StudentResponse data = (StudentResponse) response.getBody().getData();
             assertEquals("John Updated", data.getFirstName());
-            verify(studentService, times(1)).updateStudentProfile(any(StudentUpdateRequest.class), eq("john.doe"));
+            verify(studentService, times(1)).updateStudentProfile(any(StudentUpdateRequest.class), eq(1L));
         }
 
         @Test
         @DisplayName("Should return error when teacher tries to update profile")
         void updateProfile_AsTeacher_ShouldReturnError() {
             // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_TEACHER.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
+            PortalUserDetails principal = teacherPrincipal();
 
             // Act
             ResponseEntity<ApiResponse<?>> response =
-                    profileController.updateProfile(studentUpdateRequest, authentication);
+                    profileController.updateProfile(studentUpdateRequest, principal);
 
             // Assert
             assertNotNull(response);
@@ -211,12 +197,11 @@ class ProfileControllerTest {
         @DisplayName("Should return error for unknown role")
         void updateProfile_WithUnknownRole_ShouldReturnError() {
             // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_UNKNOWN"));
-            when(authentication.getAuthorities()).thenReturn(authorities);
+            PortalUserDetails principal = unknownRolePrincipal();
 
             // Act
             ResponseEntity<ApiResponse<?>> response =
-                    profileController.updateProfile(studentUpdateRequest, authentication);
+                    profileController.updateProfile(studentUpdateRequest, principal);
 
             // Assert
             assertNotNull(response);
@@ -224,5 +209,16 @@ class ProfileControllerTest {
             assertEquals("Profile update not supported for this role", response.getBody().getMessage());
         }
     }
-}
 
+    private PortalUserDetails studentPrincipal() {
+        return new PortalUserDetails(2L, "john.doe", "password", true, Role.ROLE_STUDENT, 1L, null);
+    }
+
+    private PortalUserDetails teacherPrincipal() {
+        return new PortalUserDetails(3L, "jane.smith", "password", true, Role.ROLE_TEACHER, null, 1L);
+    }
+
+    private PortalUserDetails unknownRolePrincipal() {
+        return new PortalUserDetails(4L, "nobody", "password", true, null, null, null);
+    }
+}
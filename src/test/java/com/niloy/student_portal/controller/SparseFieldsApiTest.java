@@ -0,0 +1,188 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.TestFixtures;
+import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.TeacherRepository;
+import com.niloy.student_portal.security.CustomUserDetailsService;
+import com.niloy.student_portal.security.PortalUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Sparse Fields API Tests")
+class SparseFieldsApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private TestFixtures fixtures;
+    private PortalUserDetails teacher;
+    private Long studentId;
+    private Long courseId;
+
+    @BeforeEach
+    void setUp() {
+        teacher = (PortalUserDetails) userDetailsService.loadUserByUsername("teacher");
+
+        fixtures = new TestFixtures(context);
+        CourseResponse course = fixtures.createCourse("SPARSE101", "Sparse Fields");
+        StudentResponse student = fixtures.createEnrolledStudent(
+                fixtures.studentRequest("Sparse", "SPARSE001", "sparse.student"), course.getId());
+        studentId = student.getId();
+        courseId = student.getEnrolledCourseId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should return only the requested student fields")
+    void studentFields_ShouldReturnOnlyRequested() throws Exception {
+        mockMvc.perform(get("/api/students/" + studentId).param("fields", "studentId,enrolledCourseId")
+                        .with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", aMapWithSize(3)))
+                .andExpect(jsonPath("$.data.id").value(studentId))
+                .andExpect(jsonPath("$.data.studentId").value("SPARSE001"))
+                .andExpect(jsonPath("$.data.enrolledCourseId").value(courseId));
+
+        mockMvc.perform(get("/api/students/course/" + courseId).param("fields", "studentId")
+                        .with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0]", aMapWithSize(2)))
+                .andExpect(jsonPath("$.data[0].studentId").value("SPARSE001"));
+    }
+
+    @Test
+    @DisplayName("Should run every selectable field against the schema")
+    void allFields_ShouldQuery() throws Exception {
+        String[][] endpoints = {
+                {"/api/students", String.join(",", StudentRepository.SPARSE_FIELDS.names())},
+                {"/api/students/my-students", String.join(",", StudentRepository.SPARSE_FIELDS.names())},
+                {"/api/teachers", String.join(",", TeacherRepository.SPARSE_FIELDS.names())},
+                {"/api/teachers/department/1", String.join(",", TeacherRepository.SPARSE_FIELDS.names())},
+                {"/api/courses", String.join(",", CourseRepository.SPARSE_FIELDS.names())},
+                {"/api/courses/department/1", String.join(",", CourseRepository.SPARSE_FIELDS.names())}
+        };
+        for (String[] endpoint : endpoints) {
+            mockMvc.perform(get(endpoint[0]).param("fields", endpoint[1]).with(user(teacher)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true));
+        }
+
+        mockMvc.perform(get("/api/courses/" + courseId).param("fields", "enrolledStudentCount,departmentName")
+                        .with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.enrolledStudentCount").value(1))
+                .andExpect(jsonPath("$.data.departmentName").value("Computer Science"));
+    }
+
+    @Test
+    @DisplayName("Should shrink the payload compared to the full response")
+    void sparseList_ShouldBeSmallerThanFull() throws Exception {
+        int full = mockMvc.perform(get("/api/students").with(user(teacher)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+        int sparse = mockMvc.perform(get("/api/students").param("fields", "studentId,enrolledCourseId")
+                        .with(user(teacher)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+
+        assertTrue(sparse < full, () -> sparse + " bytes should be below " + full);
+    }
+
+    @Test
+    @DisplayName("Should side-load referenced teachers and courses once")
+    void include_ShouldSideLoadReferences() throws Exception {
+        mockMvc.perform(get("/api/students/course/" + courseId).param("include", "teacher,course")
+                        .with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].studentId").value("SPARSE001"))
+                .andExpect(jsonPath("$.data[0].teacherId").value(teacher.requireTeacherId()))
+                .andExpect(jsonPath("$.data[0].teacherName").doesNotExist())
+                .andExpect(jsonPath("$.data[0].enrolledCourseName").doesNotExist())
+                .andExpect(jsonPath("$.included.teachers.length()").value(1))
+                .andExpect(jsonPath("$.included.teachers[0].id").value(teacher.requireTeacherId()))
+                .andExpect(jsonPath("$.included.courses.length()").value(1))
+                .andExpect(jsonPath("$.included.courses[0].courseCode").value("SPARSE101"));
+
+        // With fields, the ids the includes need are added to the rows
+        mockMvc.perform(get("/api/students/my-students").param("include", "course").param("fields", "studentId")
+                        .with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0]", aMapWithSize(3)))
+                .andExpect(jsonPath("$.data[0].enrolledCourseId").exists())
+                .andExpect(jsonPath("$.included.teachers").doesNotExist())
+                .andExpect(jsonPath("$.included.courses").isArray());
+
+        mockMvc.perform(get("/api/students").with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.included").doesNotExist());
+
+        mockMvc.perform(get("/api/students").param("include", "department").with(user(teacher)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should multi-get by ids in the requested order and report missing ids")
+    void ids_ShouldReturnRequestedOrderAndMissing() throws Exception {
+        Long teacherId = teacher.requireTeacherId();
+        mockMvc.perform(get("/api/students").param("ids", "999999," + studentId).with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].studentId").value("SPARSE001"))
+                .andExpect(jsonPath("$.data[0].teacherName").exists())
+                .andExpect(jsonPath("$.missing[0]").value(999999));
+
+        mockMvc.perform(get("/api/courses").param("ids", courseId + ",1").param("fields", "courseCode")
+                        .with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].courseCode").value("SPARSE101"))
+                .andExpect(jsonPath("$.data[0]", aMapWithSize(2)));
+
+        mockMvc.perform(get("/api/teachers").param("ids", teacherId.toString()).with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(teacherId))
+                .andExpect(jsonPath("$.missing.length()").value(0));
+
+        mockMvc.perform(get("/api/students").param("ids", "1,x").with(user(teacher)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields and missing rows")
+    void badFields_ShouldFail() throws Exception {
+        mockMvc.perform(get("/api/teachers").param("fields", "id,password").with(user(teacher)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        mockMvc.perform(get("/api/courses/999999").param("fields", "courseCode").with(user(teacher)))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -3,6 +3,8 @@ package com.niloy.student_portal.controller;
 import com.niloy.student_portal.dto.request.StudentCreateRequest;
 import com.niloy.student_portal.dto.response.ApiResponse;
 import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.security.PortalUserDetails;
 import com.niloy.student_portal.service.StudentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,7 +16,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -33,17 +34,17 @@ class StudentControllerTest {
     @Mock
     private StudentService studentService;
 
-    @Mock
-    private Authentication authentication;
-
     @InjectMocks
     private StudentController studentController;
 
     private StudentCreateRequest studentCreateRequest;
     private StudentResponse studentResponse;
+    private PortalUserDetails principal;
 
     @BeforeEach
     void setUp() {
+        principal = new PortalUserDetails(10L, "teacher1", "password", true, Role.ROLE_TEACHER, null, 1L);
+
         studentCreateRequest = new StudentCreateRequest();
         studentCreateRequest.setFirstName("John");
         studentCreateRequest.setLastName("Doe");
@@ -78,12 +79,11 @@ class StudentControllerTest {
         @Test
         @DisplayName("Should create student successfully")
         void createStudent_WithValidRequest_ShouldReturnCreated() {
-            when(authentication.getName()).thenReturn("teacher1");
-            when(studentService.createStudent(any(StudentCreateRequest.class), eq("teacher1")))
+            when(studentService.createStudent(any(StudentCreateRequest.class), eq(1L)))
                     .thenReturn(studentResponse);
 
             ResponseEntity<ApiResponse<StudentResponse>> response =
-                    studentController.createStudent(studentCreateRequest, authentication);
+                    studentController.createStudent(studentCreateRequest, principal);
 
             assertNotNull(response);
             assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -92,7 +92,7 @@ class StudentControllerTest {
             assertEquals("Student created successfully", response.getBody().getMessage());
             assertEquals("John", response.getBody().getData().getFirstName());
             assertEquals("STU001", response.getBody().getData().getStudentId());
-            verify(studentService, times(1)).createStudent(any(StudentCreateRequest.class), eq("teacher1"));
+            verify(studentService, times(1)).createStudent(any(StudentCreateRequest.class), eq(1L));
         }
     }
 
@@ -163,19 +163,18 @@ class StudentControllerTest {
         @Test
         @DisplayName("Should return students managed by teacher")
         void getMyStudents_ShouldReturnTeacherStudents() {
-            when(authentication.getName()).thenReturn("teacher1");
             List<StudentResponse> students = Arrays.asList(studentResponse);
-            when(studentService.getStudentsByTeacher("teacher1")).thenReturn(students);
+            when(studentService.getStudentsByTeacher(1L)).thenReturn(students);
 
             ResponseEntity<ApiResponse<List<StudentResponse>>> response =
-                    studentController.getMyStudents(authentication);
+                    studentController.getMyStudents(principal);
 
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertNotNull(response.getBody());
             assertTrue(response.getBody().isSuccess());
             assertEquals(1, response.getBody().getData().size());
-            verify(studentService, times(1)).getStudentsByTeacher("teacher1");
+            verify(studentService, times(1)).getStudentsByTeacher(1L);
         }
     }
 
@@ -223,14 +222,13 @@ class StudentControllerTest {
         @Test
         @DisplayName("Should update student successfully")
         void updateStudentByTeacher_WithValidRequest_ShouldReturnUpdated() {
-            when(authentication.getName()).thenReturn("teacher1");
             studentCreateRequest.setFirstName("John Updated");
             studentResponse.setFirstName("John Updated");
-            when(studentService.updateStudentByTeacher(eq(1L), any(StudentCreateRequest.class), eq("teacher1")))
+            when(studentService.updateStudentByTeacher(eq(1L), any(StudentCreateRequest.class), eq(1L)))
                     .thenReturn(studentResponse);
 
             ResponseEntity<ApiResponse<StudentResponse>> response =
-                    studentController.updateStudentByTeacher(1L, studentCreateRequest, authentication);
+                    studentController.updateStudentByTeacher(1L, studentCreateRequest, principal);
 
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -239,7 +237,7 @@ class StudentControllerTest {
             assertEquals("Student updated successfully", response.getBody().getMessage());
             assertEquals("John Updated", response.getBody().getData().getFirstName());
             verify(studentService, times(1))
-                    .updateStudentByTeacher(eq(1L), any(StudentCreateRequest.class), eq("teacher1"));
+                    .updateStudentByTeacher(eq(1L), any(StudentCreateRequest.class), eq(1L));
         }
     }
 
@@ -250,18 +248,17 @@ class StudentControllerTest {
         @Test
         @DisplayName("Should delete student successfully")
         void deleteStudent_WhenAuthorized_ShouldReturnSuccess() {
-            when(authentication.getName()).thenReturn("teacher1");
-            doNothing().when(studentService).deleteStudent(1L, "teacher1");
+            doNothing().when(studentService).deleteStudent(1L, 1L);
 
             ResponseEntity<ApiResponse<Void>> response =
-                    studentController.deleteStudent(1L, authentication);
+                    studentController.deleteStudent(1L, principal);
 
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertNotNull(response.getBody());
             assertTrue(response.getBody().isSuccess());
             assertEquals("Student deleted successfully", response.getBody().getMessage());
-            verify(studentService, times(1)).deleteStudent(1L, "teacher1");
+            verify(studentService, times(1)).deleteStudent(1L, 1L);
         }
     }
 }
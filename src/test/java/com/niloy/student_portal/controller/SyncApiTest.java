@@ -0,0 +1,198 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.TestFixtures;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.security.CustomUserDetailsService;
+import com.niloy.student_portal.security.PortalUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Rows are sent as soon as they are written, so a sync run straight after a write sees only that write
+@SpringBootTest(properties = "app.sync.settle-ms=0")
+@AutoConfigureMockMvc
+@DisplayName("Sync API Tests")
+class SyncApiTest {
+
+    private static final String[] COLLECTIONS = {"departments", "teachers", "courses", "students", "deleted"};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private TestFixtures fixtures;
+    private PortalUserDetails teacher;
+
+    @BeforeEach
+    void setUp() {
+        teacher = (PortalUserDetails) userDetailsService.loadUserByUsername("teacher");
+        fixtures = new TestFixtures(context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    private JsonNode sync(UserDetails principal, String since, int limit) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/sync").with(user(principal)).param("limit", "" + limit);
+        if (since != null) {
+            request.param("since", since);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonMapper.builder().build().readTree(body).get("data");
+    }
+
+    // Reads every page from the start and returns the token to continue from
+    private String syncAll(UserDetails principal) throws Exception {
+        String token = null;
+        JsonNode page;
+        do {
+            page = sync(principal, token, 1000);
+            token = page.get("nextToken").asString();
+        } while (page.get("hasMore").asBoolean());
+        return token;
+    }
+
+    private StudentResponse createStudent(String studentId) {
+        return fixtures.createStudent("Sync", studentId);
+    }
+
+    private static int changeCount(JsonNode page) {
+        int count = 0;
+        for (String collection : COLLECTIONS) {
+            count += page.has(collection) ? page.get(collection).size() : 0;
+        }
+        return count;
+    }
+
+    @Test
+    @DisplayName("Should send only what changed since the token, deletes included")
+    void sync_SinceToken_ShouldSendOnlyChanges() throws Exception {
+        // Arrange
+        String token = syncAll(teacher);
+        StudentResponse student = createStudent("SYNC001");
+
+        // Act
+        JsonNode afterCreate = sync(teacher, token, 1000);
+
+        // Assert
+        assertEquals(1, changeCount(afterCreate));
+        assertEquals("SYNC001", afterCreate.get("students").get(0).get("studentId").asString());
+        assertEquals(teacher.requireTeacherId(), afterCreate.get("students").get(0).get("teacherId").asLong());
+        assertFalse(afterCreate.get("hasMore").asBoolean());
+
+        // Act
+        mockMvc.perform(delete("/api/students/" + student.getId()).with(user(teacher)))
+                .andExpect(status().isOk());
+        JsonNode afterDelete = sync(teacher, afterCreate.get("nextToken").asString(), 1000);
+
+        // Assert
+        assertEquals(1, changeCount(afterDelete));
+        assertEquals("student", afterDelete.get("deleted").get(0).get("type").asString());
+        assertEquals(student.getId(), afterDelete.get("deleted").get(0).get("id").asLong());
+        assertEquals(0, changeCount(sync(teacher, afterDelete.get("nextToken").asString(), 1000)));
+    }
+
+    @Test
+    @DisplayName("Should count an email change on the account as a change of the student")
+    void sync_AfterAccountEmailChange_ShouldSendStudent() throws Exception {
+        // Arrange
+        createStudent("SYNC002");
+        UserDetails student = userDetailsService.loadUserByUsername("sync002");
+        String token = syncAll(teacher);
+
+        // Act
+        mockMvc.perform(patch("/api/profile").with(user(student))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"sync002.new@email.com\"}"))
+                .andExpect(status().isOk());
+        JsonNode page = sync(teacher, token, 1000);
+
+        // Assert
+        assertEquals(1, changeCount(page));
+        assertEquals("sync002.new@email.com", page.get("students").get(0).get("email").asString());
+    }
+
+    @Test
+    @DisplayName("Should page through everything with stable tokens")
+    void sync_InSmallPages_ShouldSendEveryRowOnce() throws Exception {
+        // Arrange
+        createStudent("SYNC003");
+        JsonNode all = sync(teacher, null, 1000);
+        assertFalse(all.get("hasMore").asBoolean());
+
+        // Act
+        Set<String> seen = new HashSet<>();
+        String token = null;
+        JsonNode page;
+        int pages = 0;
+        do {
+            page = sync(teacher, token, 2);
+            for (String collection : COLLECTIONS) {
+                page.get(collection).forEach(row -> assertTrue(seen.add(collection + ":" + row.get("id")),
+                        "sent twice: " + collection + " " + row.get("id")));
+            }
+            token = page.get("nextToken").asString();
+            pages++;
+        } while (page.get("hasMore").asBoolean());
+
+        // Assert
+        assertEquals(changeCount(all), seen.size());
+        assertTrue(pages > 1);
+    }
+
+    @Test
+    @DisplayName("Should leave teachers and students out for students")
+    void sync_AsStudent_ShouldOnlySendCatalog() throws Exception {
+        // Arrange
+        createStudent("SYNC004");
+        UserDetails student = userDetailsService.loadUserByUsername("sync004");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/sync").with(user(student)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.departments").isArray())
+                .andExpect(jsonPath("$.data.courses").isArray())
+                .andExpect(jsonPath("$.data.teachers").doesNotExist())
+                .andExpect(jsonPath("$.data.students").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed token or limit")
+    void sync_WithBadParameters_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/sync").with(user(teacher)).param("since", "not-a-token"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/sync").with(user(teacher)).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
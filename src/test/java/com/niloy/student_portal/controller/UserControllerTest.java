@@ -0,0 +1,66 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.service.AccountAvailabilityService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserController Tests")
+class UserControllerTest {
+
+    @Mock
+    private AccountAvailabilityService accountAvailabilityService;
+
+    @InjectMocks
+    private UserController userController;
+
+    @Nested
+    @DisplayName("Check Availability Tests")
+    class CheckAvailabilityTests {
+
+        @Test
+        @DisplayName("Should return availability for supplied parameters only")
+        void checkAvailability_WithUsernameAndEmail_ShouldReturnBoth() {
+            // Arrange
+            when(accountAvailabilityService.isUsernameAvailable("new.user")).thenReturn(true);
+            when(accountAvailabilityService.isEmailAvailable("teacher@university.edu")).thenReturn(false);
+
+            // Act
+            ResponseEntity<ApiResponse<Map<String, Boolean>>> response =
+                    userController.checkAvailability("new.user", "teacher@university.edu", null);
+
+            // Assert
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            Map<String, Boolean> data = response.getBody().getData();
+            assertEquals(2, data.size());
+            assertTrue(data.get("username"));
+            assertFalse(data.get("email"));
+            verify(accountAvailabilityService, never()).isStudentIdAvailable(anyString());
+        }
+
+        @Test
+        @DisplayName("Should reject requests without any parameter")
+        void checkAvailability_WithoutParameters_ShouldThrowException() {
+            // Act & Assert
+            assertThrows(
+                    BadRequestException.class,
+                    () -> userController.checkAvailability(null, " ", null)
+            );
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.niloy.student_portal.controller;
 
+import com.niloy.student_portal.config.ConnectionUsageTracker;
 import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.DashboardSummaryResponse;
 import com.niloy.student_portal.dto.response.DepartmentResponse;
 import com.niloy.student_portal.dto.response.StudentResponse;
 import com.niloy.student_portal.dto.response.TeacherResponse;
 import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.security.PortalUserDetails;
 import com.niloy.student_portal.service.CourseService;
+import com.niloy.student_portal.service.DashboardService;
 import com.niloy.student_portal.service.DepartmentService;
 import com.niloy.student_portal.service.StudentService;
 import com.niloy.student_portal.service.TeacherService;
@@ -16,16 +20,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.ui.Model;
 
 import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,11 +56,18 @@ class WebControllerTest {
     @Mock
     private TeacherService teacherService;
 
+    @Mock
+    private DashboardService dashboardService;
+
     @Mock
     private Model model;
 
     @Mock
-    private Authentication authentication;
+    private FragmentCache fragmentCache;
+
+    @Spy
+    private PageDataLoader pageDataLoader =
+            new PageDataLoader(new TaskExecutorAdapter(Runnable::run), new ConnectionUsageTracker(), 5000);
 
     @InjectMocks
     private WebController webController;
@@ -60,9 +76,15 @@ class WebControllerTest {
     private CourseResponse courseResponse;
     private StudentResponse studentResponse;
     private TeacherResponse teacherResponse;
+    private PortalUserDetails teacherPrincipal;
+    private PortalUserDetails studentPrincipal;
+    private Map<String, Object> renderedModel;
 
     @BeforeEach
     void setUp() {
+        teacherPrincipal = new PortalUserDetails(10L, "teacher1", "password", true, Role.ROLE_TEACHER, null, 1L);
+        studentPrincipal = new PortalUserDetails(20L, "student1", "password", true, Role.ROLE_STUDENT, 1L, null);
+
         departmentResponse = DepartmentResponse.builder()
                 .id(1L)
                 .name("Computer Science")
@@ -105,6 +127,15 @@ class WebControllerTest {
                 .build();
     }
 
+    // Behaves like a cache miss: builds the fragment model and keeps it for the assertions
+    private void stubFragmentCacheMiss() {
+        when(fragmentCache.render(anyString(), anyList(), any())).thenAnswer(invocation -> {
+            Supplier<Map<String, Object>> model = invocation.getArgument(2);
+            renderedModel = model.get();
+            return "<div>" + invocation.getArgument(0) + "</div>";
+        });
+    }
+
     @Nested
     @DisplayName("Dashboard Tests")
     class DashboardTests {
@@ -113,37 +144,42 @@ class WebControllerTest {
         @DisplayName("Should return dashboard view for teacher")
         void dashboard_AsTeacher_ShouldReturnDashboardView() {
             // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_TEACHER.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
-            when(authentication.getName()).thenReturn("teacher1");
-            when(teacherService.getTeacherByUsername("teacher1")).thenReturn(teacherResponse);
-            when(studentService.getStudentsByTeacher("teacher1")).thenReturn(Arrays.asList(studentResponse));
-            when(departmentService.getAllDepartments()).thenReturn(Arrays.asList(departmentResponse));
-            when(courseService.getAllCourses()).thenReturn(Arrays.asList(courseResponse));
+            DashboardSummaryResponse counts = DashboardSummaryResponse.builder()
+                    .role(Role.ROLE_TEACHER.name())
+                    .departmentCount(1)
+                    .courseCount(12)
+                    .studentCount(7L)
+                    .build();
+            when(dashboardService.getCounts(teacherPrincipal)).thenReturn(counts);
 
             // Act
-            String viewName = webController.dashboard(model, authentication);
+            String viewName = webController.dashboard(model, teacherPrincipal);
 
             // Assert
             assertEquals("dashboard", viewName);
             verify(model).addAttribute("username", "teacher1");
             verify(model).addAttribute("role", Role.ROLE_TEACHER.name());
-            verify(model).addAttribute("teacher", teacherResponse);
+            verify(model).addAttribute("studentCount", 7L);
+            verify(model).addAttribute("courseCount", 12L);
+            verify(model, never()).addAttribute(eq("myStudents"), any());
+            verifyNoInteractions(departmentService, courseService, studentService);
         }
 
         @Test
         @DisplayName("Should return dashboard view for student")
         void dashboard_AsStudent_ShouldReturnDashboardView() {
             // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_STUDENT.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
-            when(authentication.getName()).thenReturn("student1");
-            when(studentService.getStudentByUsername("student1")).thenReturn(studentResponse);
-            when(departmentService.getAllDepartments()).thenReturn(Arrays.asList(departmentResponse));
-            when(courseService.getAllCourses()).thenReturn(Arrays.asList(courseResponse));
+            DashboardSummaryResponse counts = DashboardSummaryResponse.builder()
+                    .role(Role.ROLE_STUDENT.name())
+                    .departmentCount(1)
+                    .courseCount(1)
+                    .enrolledCourseCount(0)
+                    .build();
+            when(dashboardService.getCounts(studentPrincipal)).thenReturn(counts);
+            when(studentService.getStudentById(1L)).thenReturn(studentResponse);
 
             // Act
-            String viewName = webController.dashboard(model, authentication);
+            String viewName = webController.dashboard(model, studentPrincipal);
 
             // Assert
             assertEquals("dashboard", viewName);
@@ -157,32 +193,46 @@ class WebControllerTest {
     class DepartmentsViewTests {
 
         @Test
-        @DisplayName("Should return departments view")
+        @DisplayName("Should return departments view with the shared department cards")
         void departments_ShouldReturnDepartmentsView() {
             // Arrange
-            setupAuthMock();
             List<DepartmentResponse> departments = Arrays.asList(departmentResponse);
             when(departmentService.getAllDepartments()).thenReturn(departments);
+            stubFragmentCacheMiss();
 
             // Act
-            String viewName = webController.departments(model, authentication);
+            String viewName = webController.departments(model, teacherPrincipal);
 
             // Assert
             assertEquals("departments", viewName);
-            verify(model).addAttribute("departments", departments);
+            verify(model).addAttribute("departmentCards", "<div>departmentCards</div>");
+            assertEquals(departments, renderedModel.get("departments"));
+        }
+
+        @Test
+        @DisplayName("Should not read departments when the cards are cached")
+        void departments_WhenCached_ShouldSkipServiceRead() {
+            // Arrange
+            when(fragmentCache.render(eq("departmentCards"), eq(List.of()), any())).thenReturn("<div>cached</div>");
+
+            // Act
+            webController.departments(model, studentPrincipal);
+
+            // Assert
+            verify(model).addAttribute("departmentCards", "<div>cached</div>");
+            verifyNoInteractions(departmentService);
         }
 
         @Test
         @DisplayName("Should return department detail view")
         void departmentDetail_ShouldReturnDetailView() {
             // Arrange
-            setupAuthMock();
             when(departmentService.getDepartmentById(1L)).thenReturn(departmentResponse);
             when(courseService.getCoursesByDepartment(1L)).thenReturn(Arrays.asList(courseResponse));
             when(teacherService.getTeachersByDepartment(1L)).thenReturn(Arrays.asList(teacherResponse));
 
             // Act
-            String viewName = webController.departmentDetail(1L, model, authentication);
+            String viewName = webController.departmentDetail(1L, model, teacherPrincipal);
 
             // Assert
             assertEquals("department-detail", viewName);
@@ -197,39 +247,49 @@ class WebControllerTest {
     class CoursesViewTests {
 
         @Test
-        @DisplayName("Should return courses view")
+        @DisplayName("Should return courses shell without loading the catalog")
         void courses_ShouldReturnCoursesView() {
             // Arrange
-            setupAuthMock();
-            List<CourseResponse> courses = Arrays.asList(courseResponse);
             List<DepartmentResponse> departments = Arrays.asList(departmentResponse);
-            when(courseService.getAllCourses()).thenReturn(courses);
             when(departmentService.getAllDepartments()).thenReturn(departments);
 
             // Act
-            String viewName = webController.courses(model, authentication);
+            String viewName = webController.courses(model, teacherPrincipal);
 
             // Assert
             assertEquals("courses", viewName);
-            verify(model).addAttribute("courses", courses);
             verify(model).addAttribute("departments", departments);
+            verifyNoInteractions(courseService);
+        }
+
+        @Test
+        @DisplayName("Should skip the department list for students")
+        void courses_AsStudent_ShouldNotLoadDepartments() {
+            // Act
+            String viewName = webController.courses(model, studentPrincipal);
+
+            // Assert
+            assertEquals("courses", viewName);
+            verify(model).addAttribute("departments", List.of());
+            verifyNoInteractions(departmentService, courseService);
         }
 
         @Test
         @DisplayName("Should return course detail view")
         void courseDetail_ShouldReturnDetailView() {
             // Arrange
-            setupAuthMock();
             when(courseService.getCourseById(1L)).thenReturn(courseResponse);
-            when(studentService.getStudentsByCourse(1L)).thenReturn(Arrays.asList(studentResponse));
+            Iterable<StudentResponse> roster = List.of(studentResponse);
+            when(studentService.streamStudentsByCourse(1L)).thenReturn(roster);
 
             // Act
-            String viewName = webController.courseDetail(1L, model, authentication);
+            String viewName = webController.courseDetail(1L, model, teacherPrincipal);
 
             // Assert
             assertEquals("course-detail", viewName);
             verify(model).addAttribute("course", courseResponse);
-            verify(model).addAttribute("students", Arrays.asList(studentResponse));
+            verify(model).addAttribute("students", roster);
+            verify(studentService, never()).getStudentsByCourse(anyLong());
         }
     }
 
@@ -240,32 +300,23 @@ class WebControllerTest {
         @Test
         @DisplayName("Should return students view for teacher")
         void students_AsTeacher_ShouldReturnStudentsView() {
-            // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_TEACHER.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
-            when(authentication.getName()).thenReturn("teacher1");
-            List<StudentResponse> students = Arrays.asList(studentResponse);
-            when(studentService.getStudentsByTeacher("teacher1")).thenReturn(students);
-            when(courseService.getAllCourses()).thenReturn(Arrays.asList(courseResponse));
-
             // Act
-            String viewName = webController.students(model, authentication);
+            String viewName = webController.students(model, teacherPrincipal);
 
             // Assert
             assertEquals("students", viewName);
-            verify(model).addAttribute("students", students);
             verify(model).addAttribute("viewType", "my-students");
+            verifyNoInteractions(studentService, courseService);
         }
 
         @Test
         @DisplayName("Should return student detail view")
         void studentDetail_ShouldReturnDetailView() {
             // Arrange
-            setupAuthMock();
             when(studentService.getStudentById(1L)).thenReturn(studentResponse);
 
             // Act
-            String viewName = webController.studentDetail(1L, model, authentication);
+            String viewName = webController.studentDetail(1L, model, teacherPrincipal);
 
             // Assert
             assertEquals("student-detail", viewName);
@@ -273,6 +324,92 @@ class WebControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Panel Fragment Tests")
+    class PanelFragmentTests {
+
+        @Test
+        @DisplayName("Should render a page of course cards with private cache headers")
+        void coursesPanel_ShouldReturnFragmentWithCacheHeaders() {
+            // Arrange
+            SliceImpl<CourseResponse> courses = new SliceImpl<>(List.of(courseResponse), PageRequest.of(1, 12), true);
+            when(courseService.getCoursePage(PageRequest.of(1, 12))).thenReturn(courses);
+            stubFragmentCacheMiss();
+
+            // Act
+            ResponseEntity<String> response = webController.coursesPanel(1, 12);
+
+            // Assert
+            assertEquals("<div>courseCards</div>", response.getBody());
+            assertEquals("max-age=30, private", response.getHeaders().getCacheControl());
+            assertTrue(MediaType.TEXT_HTML.isCompatibleWith(response.getHeaders().getContentType()));
+            assertEquals(courses, renderedModel.get("page"));
+            assertEquals("/web/fragments/courses", renderedModel.get("panelSrc"));
+            verify(fragmentCache).render(eq("courseCards"), eq(List.of(1, 12)), any());
+        }
+
+        @Test
+        @DisplayName("Should clamp the requested page and size")
+        void dashboardCoursesPanel_WithOutOfRangePaging_ShouldClamp() {
+            // Arrange
+            when(courseService.getCoursePage(any())).thenReturn(new SliceImpl<>(List.of()));
+            stubFragmentCacheMiss();
+
+            // Act
+            webController.dashboardCoursesPanel(-3, 10_000);
+
+            // Assert
+            verify(courseService).getCoursePage(PageRequest.of(0, WebController.MAX_PANEL_SIZE));
+            verify(fragmentCache).render(eq("dashboardCourses"), eq(List.of(0, WebController.MAX_PANEL_SIZE)), any());
+        }
+
+        @Test
+        @DisplayName("Should page the teacher's own students")
+        void studentsPanel_AsTeacher_ShouldReturnTeacherStudents() {
+            // Arrange
+            SliceImpl<StudentResponse> students = new SliceImpl<>(List.of(studentResponse));
+            when(studentService.getStudentPageByTeacher(1L, PageRequest.of(0, WebController.STUDENT_PANEL_SIZE)))
+                    .thenReturn(students);
+
+            // Act
+            String viewName = webController.studentsPanel(0, WebController.STUDENT_PANEL_SIZE, model,
+                    new MockHttpServletResponse(), teacherPrincipal);
+
+            // Assert
+            assertEquals("fragments/panels :: studentRows", viewName);
+            verify(model).addAttribute("page", students);
+        }
+
+        @Test
+        @DisplayName("Should render an empty student panel for students")
+        void dashboardStudentsPanel_AsStudent_ShouldBeEmpty() {
+            // Act
+            String viewName = webController.dashboardStudentsPanel(0, WebController.DASHBOARD_PANEL_SIZE, model,
+                    new MockHttpServletResponse(), studentPrincipal);
+
+            // Assert
+            assertEquals("fragments/panels :: dashboardStudents", viewName);
+            verifyNoInteractions(studentService);
+        }
+
+        @Test
+        @DisplayName("Should render a page of departments")
+        void dashboardDepartmentsPanel_ShouldReturnFragment() {
+            // Arrange
+            SliceImpl<DepartmentResponse> departments = new SliceImpl<>(List.of(departmentResponse));
+            when(departmentService.getDepartmentPage(PageRequest.of(0, WebController.DASHBOARD_PANEL_SIZE)))
+                    .thenReturn(departments);
+            stubFragmentCacheMiss();
+
+            // Act
+            ResponseEntity<String> response = webController.dashboardDepartmentsPanel(0, WebController.DASHBOARD_PANEL_SIZE);
+
+            // Assert
+            assertEquals("<div>dashboardDepartments</div>", response.getBody());
+            assertEquals(departments, renderedModel.get("page"));
+        }
+    }
+
     @Nested
     @DisplayName("Profile View Tests")
     class ProfileViewTests {
@@ -281,13 +418,10 @@ class WebControllerTest {
         @DisplayName("Should return profile view for teacher")
         void profile_AsTeacher_ShouldReturnProfileView() {
             // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_TEACHER.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
-            when(authentication.getName()).thenReturn("teacher1");
-            when(teacherService.getTeacherByUsername("teacher1")).thenReturn(teacherResponse);
+            when(teacherService.getTeacherById(1L)).thenReturn(teacherResponse);
 
             // Act
-            String viewName = webController.profile(model, authentication);
+            String viewName = webController.profile(model, teacherPrincipal);
 
             // Assert
             assertEquals("profile", viewName);
@@ -299,13 +433,10 @@ class WebControllerTest {
         @DisplayName("Should return profile view for student")
         void profile_AsStudent_ShouldReturnProfileView() {
             // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_STUDENT.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
-            when(authentication.getName()).thenReturn("student1");
-            when(studentService.getStudentByUsername("student1")).thenReturn(studentResponse);
+            when(studentService.getStudentById(1L)).thenReturn(studentResponse);
 
             // Act
-            String viewName = webController.profile(model, authentication);
+            String viewName = webController.profile(model, studentPrincipal);
 
             // Assert
             assertEquals("profile", viewName);
@@ -322,26 +453,19 @@ class WebControllerTest {
         @DisplayName("Should return enrollment view")
         void enrollment_ShouldReturnEnrollmentView() {
             // Arrange
-            Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_STUDENT.name()));
-            when(authentication.getAuthorities()).thenReturn(authorities);
-            when(authentication.getName()).thenReturn("student1");
-            when(studentService.getStudentByUsername("student1")).thenReturn(studentResponse);
+            when(studentService.getStudentById(1L)).thenReturn(studentResponse);
             when(courseService.getAllCourses()).thenReturn(Arrays.asList(courseResponse));
+            stubFragmentCacheMiss();
 
             // Act
-            String viewName = webController.enrollment(model, authentication);
+            String viewName = webController.enrollment(model, studentPrincipal);
 
             // Assert
             assertEquals("enrollment", viewName);
             verify(model).addAttribute("student", studentResponse);
-            verify(model).addAttribute("courses", Arrays.asList(courseResponse));
+            verify(model).addAttribute("courseCards", "<div>enrollmentCourseCards</div>");
+            assertEquals(Arrays.asList(courseResponse), renderedModel.get("courses"));
         }
     }
-
-    private void setupAuthMock() {
-        Collection authorities = Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_TEACHER.name()));
-        when(authentication.getAuthorities()).thenReturn(authorities);
-        when(authentication.getName()).thenReturn("teacher1");
-    }
 }
 
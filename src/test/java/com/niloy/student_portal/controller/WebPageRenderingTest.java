@@ -0,0 +1,195 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.request.CourseRequest;
+import com.niloy.student_portal.dto.request.DepartmentRequest;
+import com.niloy.student_portal.dto.request.StudentCreateRequest;
+import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.security.CustomUserDetailsService;
+import com.niloy.student_portal.security.PortalUserDetails;
+import com.niloy.student_portal.service.CourseService;
+import com.niloy.student_portal.service.DepartmentService;
+import com.niloy.student_portal.service.StudentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renders every web page with open-session-in-view disabled. Any lazy
+ * association touched after the service transaction has ended fails the
+ * render with a LazyInitializationException.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Web Page Rendering Tests")
+class WebPageRenderingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private PortalUserDetails teacher;
+    private PortalUserDetails student;
+    private Long courseId;
+    private Long departmentId;
+
+    @BeforeEach
+    void setUp() {
+        teacher = (PortalUserDetails) userDetailsService.loadUserByUsername("teacher");
+        departmentId = departmentRepository.findByName("Computer Science").orElseThrow().getId();
+
+        if (!studentRepository.existsByStudentId("RENDER001")) {
+            CourseRequest courseRequest = new CourseRequest();
+            courseRequest.setCourseCode("RENDER101");
+            courseRequest.setCourseName("Rendering Basics");
+            courseRequest.setCredits(3);
+            courseRequest.setDepartmentId(departmentId);
+            CourseResponse course = courseService.createCourse(courseRequest);
+
+            StudentCreateRequest studentRequest = new StudentCreateRequest();
+            studentRequest.setFirstName("Render");
+            studentRequest.setLastName("Student");
+            studentRequest.setStudentId("RENDER001");
+            studentRequest.setUsername("render.student");
+            studentRequest.setPassword("password123");
+            studentRequest.setEmail("render.student@email.com");
+            StudentResponse created = studentService.createStudent(studentRequest, teacher.requireTeacherId());
+            studentService.enrollInCourse(course.getId(), created.getId());
+        }
+
+        student = (PortalUserDetails) userDetailsService.loadUserByUsername("render.student");
+        courseId = studentService.getStudentById(student.requireStudentId()).getEnrolledCourseId();
+    }
+
+    @Test
+    @DisplayName("Should run without open-session-in-view")
+    void openSessionInView_ShouldBeDisabled() {
+        assertTrue(applicationContext.getBeansOfType(OpenEntityManagerInViewInterceptor.class).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should render teacher pages without lazy loading")
+    void teacherPages_ShouldRender() throws Exception {
+        String[] pages = {
+                "/web/dashboard", "/web/departments", "/web/departments/" + departmentId, "/web/courses",
+                "/web/courses/" + courseId, "/web/students", "/web/students/" + student.requireStudentId(),
+                "/web/profile", "/web/fragments/dashboard/departments", "/web/fragments/dashboard/courses",
+                "/web/fragments/dashboard/students", "/web/fragments/courses", "/web/fragments/students?page=0&size=1"
+        };
+        for (String page : pages) {
+            mockMvc.perform(get(page).with(user(teacher))).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    @DisplayName("Should render student pages without lazy loading")
+    void studentPages_ShouldRender() throws Exception {
+        String[] pages = {
+                "/web/dashboard", "/web/profile", "/web/enrollment", "/web/courses/" + courseId, "/web/courses",
+                "/web/fragments/dashboard/courses", "/web/fragments/dashboard/students", "/web/fragments/courses"
+        };
+        for (String page : pages) {
+            mockMvc.perform(get(page).with(user(student))).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve panel fragments without the page shell and with cache headers")
+    void panelFragment_ShouldRenderFragmentOnly() throws Exception {
+        mockMvc.perform(get("/web/fragments/courses").with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=30, private"))
+                .andExpect(content().string(containsString("RENDER101")))
+                .andExpect(content().string(not(containsString("<html"))));
+
+        // The shell no longer renders the catalog inline
+        mockMvc.perform(get("/web/courses").with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("RENDER101"))))
+                .andExpect(content().string(containsString("/web/fragments/courses")));
+    }
+
+    @Test
+    @DisplayName("Should render the streamed course roster")
+    void courseDetail_ShouldRenderStreamedRoster() throws Exception {
+        mockMvc.perform(get("/web/courses/" + courseId).with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("RENDER001")))
+                .andExpect(content().string(not(containsString("No students enrolled"))));
+    }
+
+    @Test
+    @DisplayName("Should reuse cached catalog fragments until the catalog changes")
+    void catalogFragments_ShouldBeCachedUntilCatalogChanges() throws Exception {
+        mockMvc.perform(get("/web/departments").with(user(teacher))).andExpect(status().isOk());
+        Counter hits = meterRegistry.counter("portal.web.fragment.cache", "fragment", "departmentCards", "result", "hit");
+        double hitsBefore = hits.count();
+
+        // Same cards for a different user come from the cache
+        mockMvc.perform(get("/web/departments").with(user(student)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Computer Science")));
+        assertEquals(hitsBefore + 1, hits.count());
+
+        DepartmentRequest request = new DepartmentRequest();
+        request.setName("Render Cache " + System.nanoTime());
+        departmentService.createDepartment(request);
+
+        mockMvc.perform(get("/web/departments").with(user(teacher)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(request.getName())));
+    }
+
+    @Test
+    @DisplayName("Should record connection hold time per endpoint")
+    void connectionHoldTime_ShouldBeRecorded() throws Exception {
+        mockMvc.perform(get("/web/departments").with(user(teacher))).andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("portal.db.connection.hold")
+                .tag("uri", "/web/departments").timer().count() > 0);
+        // Pool metrics must still see through the tracking wrapper
+        assertNotNull(meterRegistry.find("hikaricp.connections.usage").timer());
+    }
+}
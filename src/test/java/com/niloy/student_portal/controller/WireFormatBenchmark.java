@@ -0,0 +1,88 @@
+package com.niloy.student_portal.controller;
+
+import com.niloy.student_portal.dto.response.ApiResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encode and decode cost and payload size of a student listing in each
+ * negotiable format. Not a test, surefire does not pick it up; run it from the
+ * IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.niloy.student_portal.controller.WireFormatBenchmark}.
+ * Optional arguments are the listing size and the measured iterations.
+ */
+public final class WireFormatBenchmark {
+
+    private static final TypeReference<ApiResponse<List<StudentResponse>>> LISTING = new TypeReference<>() {
+    };
+
+    private WireFormatBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        ApiResponse<List<StudentResponse>> listing = ApiResponse.success("Students retrieved successfully", students(size));
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", JsonMapper.builder().build());
+        mappers.put("cbor", CBORMapper.builder().build());
+        mappers.put("smile", SmileMapper.builder().build());
+
+        System.out.printf("%d students, %d iterations%n", size, iterations);
+        System.out.printf("%-6s %10s %14s %14s%n", "format", "bytes", "encode us/op", "decode us/op");
+        mappers.forEach((name, mapper) -> {
+            byte[] encoded = mapper.writeValueAsBytes(listing);
+            // warm up both directions before timing them
+            for (int i = 0; i < iterations; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(listing), LISTING);
+            }
+            long sink = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += mapper.writeValueAsBytes(listing).length;
+            }
+            long encodeNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += mapper.readValue(encoded, LISTING).getData().size();
+            }
+            long decodeNanos = System.nanoTime() - start;
+            System.out.printf("%-6s %10d %14.1f %14.1f%s%n", name, encoded.length,
+                    encodeNanos / 1_000.0 / iterations, decodeNanos / 1_000.0 / iterations,
+                    sink == 0 ? " (nothing measured)" : "");
+        });
+    }
+
+    private static List<StudentResponse> students(int size) {
+        List<StudentResponse> students = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            students.add(StudentResponse.builder()
+                    .id(i)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .studentId(String.format("STU%05d", i))
+                    .dateOfBirth(LocalDate.of(2000, 1, 1).plusDays(i))
+                    .address(i + " Campus Road")
+                    .phoneNumber(String.format("555-%07d", i))
+                    .email("student" + i + "@email.com")
+                    .teacherName("John Smith")
+                    .teacherId(1L)
+                    .enrolledCourseName("Data Structures")
+                    .enrolledCourseId(i % 20 + 1)
+                    .build());
+        }
+        return students;
+    }
+}
@@ -0,0 +1,154 @@
+package com.niloy.student_portal.grpc;
+
+import com.niloy.student_portal.exception.ResourceNotFoundException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FlowControlledStream Tests")
+class FlowControlledStreamTest {
+
+    @Mock
+    private ServerCallStreamObserver<String> observer;
+
+    private final List<Integer> pulled = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        pulled.clear();
+    }
+
+    // Rows 1..count that record how far the stream has read them
+    private Iterable<Integer> rows(int count) {
+        return () -> new Iterator<>() {
+            private int next = 1;
+
+            @Override
+            public boolean hasNext() {
+                return next <= count;
+            }
+
+            @Override
+            public Integer next() {
+                pulled.add(next);
+                return next++;
+            }
+        };
+    }
+
+    private Runnable onReady() {
+        ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+        verify(observer).setOnReadyHandler(handler.capture());
+        return handler.getValue();
+    }
+
+    private Runnable onCancel() {
+        ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+        verify(observer).setOnCancelHandler(handler.capture());
+        return handler.getValue();
+    }
+
+    @Test
+    @DisplayName("Should read no further than the client is ready for and resume when it is")
+    void onReady_WhenClientStalls_ShouldPauseReading() {
+        // Arrange
+        when(observer.isReady()).thenReturn(true, true, false, true);
+        FlowControlledStream.send(observer, () -> rows(3), String::valueOf);
+
+        // Act
+        onReady().run();
+
+        // Assert
+        assertEquals(List.of(1, 2), pulled);
+        verify(observer).onNext("1");
+        verify(observer).onNext("2");
+        verify(observer, never()).onCompleted();
+
+        // Act
+        onReady().run();
+
+        // Assert
+        assertEquals(List.of(1, 2, 3), pulled);
+        verify(observer).onNext("3");
+        verify(observer).onCompleted();
+    }
+
+    @Test
+    @DisplayName("Should not read rows before the call is ready")
+    void send_ShouldBeLazy() {
+        // Act
+        FlowControlledStream.send(observer, () -> rows(3), String::valueOf);
+
+        // Assert
+        assertTrue(pulled.isEmpty());
+        verify(observer, never()).onNext(anyString());
+    }
+
+    @Test
+    @DisplayName("Should stop reading once the client cancels")
+    void onReady_AfterCancel_ShouldDoNothing() {
+        // Arrange
+        FlowControlledStream.send(observer, () -> rows(3), String::valueOf);
+
+        // Act
+        onCancel().run();
+        onReady().run();
+
+        // Assert
+        assertTrue(pulled.isEmpty());
+        verify(observer, never()).onCompleted();
+    }
+
+    @Test
+    @DisplayName("Should fail the call with NOT_FOUND when the source is missing")
+    void send_WhenSourceMissing_ShouldFailNotFound() {
+        // Act
+        FlowControlledStream.send(observer, () -> {
+            throw new ResourceNotFoundException("Course", "id", 9L);
+        }, Function.<String>identity());
+
+        // Assert
+        ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+        verify(observer).onError(error.capture());
+        assertEquals(Status.Code.NOT_FOUND, ((StatusRuntimeException) error.getValue()).getStatus().getCode());
+        verify(observer, never()).setOnReadyHandler(any());
+    }
+
+    @Test
+    @DisplayName("Should fail the call with INTERNAL when reading a row fails")
+    void onReady_WhenReadFails_ShouldFailInternal() {
+        // Arrange
+        when(observer.isReady()).thenReturn(true);
+        FlowControlledStream.send(observer, () -> rows(3), row -> {
+            throw new IllegalStateException("boom");
+        });
+
+        // Act
+        onReady().run();
+
+        // Assert
+        ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+        verify(observer).onError(error.capture());
+        Status status = ((StatusRuntimeException) error.getValue()).getStatus();
+        assertEquals(Status.Code.INTERNAL, status.getCode());
+        assertFalse(status.getDescription().contains("boom"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.niloy.student_portal.grpc;
+
+import com.niloy.student_portal.TestFixtures;
+import com.niloy.student_portal.dto.response.CourseResponse;
+import com.niloy.student_portal.grpc.proto.Course;
+import com.niloy.student_portal.grpc.proto.CourseRosterRequest;
+import com.niloy.student_portal.grpc.proto.ListCoursesRequest;
+import com.niloy.student_portal.grpc.proto.ListStudentsRequest;
+import com.niloy.student_portal.grpc.proto.RosterServiceGrpc;
+import com.niloy.student_portal.grpc.proto.Student;
+import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.StudentRepository;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.grpc.test.autoconfigure.AutoConfigureInProcessTransport;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.grpc.client.GrpcChannelFactory;
+import org.springframework.grpc.client.interceptor.security.BasicAuthenticationInterceptor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureInProcessTransport
+@DisplayName("Roster gRPC Service Tests")
+class RosterGrpcServiceTest {
+
+    @Autowired
+    private GrpcChannelFactory channels;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private TestFixtures fixtures;
+    private ManagedChannel channel;
+    private Long courseId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TestFixtures(context);
+        CourseResponse course = fixtures.createCourse("GRPC101", "Remote Procedures");
+        for (String studentId : new String[]{"GRPC001", "GRPC002", "GRPC003"}) {
+            fixtures.createEnrolledStudent(fixtures.studentRequest("Remote", studentId), course.getId());
+        }
+        courseId = course.getId();
+        channel = channels.createChannel("0.0.0.0:0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        fixtures.deleteAll();
+    }
+
+    private RosterServiceGrpc.RosterServiceBlockingStub stub(String username, String password) {
+        return RosterServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(new BasicAuthenticationInterceptor(username, password));
+    }
+
+    private static <T> List<T> drain(Iterator<T> messages) {
+        List<T> received = new ArrayList<>();
+        messages.forEachRemaining(received::add);
+        return received;
+    }
+
+    @Test
+    @DisplayName("Should stream every student in id order with details")
+    void listStudents_ShouldStreamAllStudents() {
+        // Act
+        List<Student> students = drain(stub("teacher", "teacher123").listStudents(ListStudentsRequest.getDefaultInstance()));
+
+        // Assert
+        assertEquals(studentRepository.count(), students.size());
+        for (int i = 1; i < students.size(); i++) {
+            assertTrue(students.get(i - 1).getId() < students.get(i).getId());
+        }
+        Student first = students.stream().filter(s -> s.getStudentId().equals("GRPC001")).findFirst().orElseThrow();
+        assertEquals("grpc001@email.com", first.getEmail());
+        assertEquals("Remote Procedures", first.getEnrolledCourseName());
+        assertTrue(first.hasTeacherId());
+        assertFalse(first.hasAddress());
+    }
+
+    @Test
+    @DisplayName("Should stream every course with its enrollment count")
+    void listCourses_ShouldStreamAllCourses() {
+        // Act
+        List<Course> courses = drain(stub("teacher", "teacher123").listCourses(ListCoursesRequest.getDefaultInstance()));
+
+        // Assert
+        assertEquals(courseRepository.count(), courses.size());
+        Course course = courses.stream().filter(c -> c.getId() == courseId).findFirst().orElseThrow();
+        assertEquals("GRPC101", course.getCourseCode());
+        assertEquals("Computer Science", course.getDepartmentName());
+        assertEquals(3, course.getEnrolledStudentCount());
+    }
+
+    @Test
+    @DisplayName("Should stream the roster of one course")
+    void getCourseRoster_ShouldStreamEnrolledStudents() {
+        // Act
+        List<Student> roster = drain(stub("teacher", "teacher123")
+                .getCourseRoster(CourseRosterRequest.newBuilder().setCourseId(courseId).build()));
+
+        // Assert
+        assertEquals(List.of("GRPC001", "GRPC002", "GRPC003"), roster.stream().map(Student::getStudentId).toList());
+    }
+
+    @Test
+    @DisplayName("Should fail with NOT_FOUND for a missing course")
+    void getCourseRoster_WithMissingCourse_ShouldFailNotFound() {
+        // Act
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, () -> drain(stub("teacher", "teacher123")
+                .getCourseRoster(CourseRosterRequest.newBuilder().setCourseId(999999L).build())));
+
+        // Assert
+        assertEquals(Status.Code.NOT_FOUND, ex.getStatus().getCode());
+    }
+
+    @Test
+    @DisplayName("Should reject calls without teacher credentials")
+    void listStudents_WithoutTeacher_ShouldBeRejected() {
+        // Act
+        StatusRuntimeException anonymous = assertThrows(StatusRuntimeException.class, () ->
+                drain(RosterServiceGrpc.newBlockingStub(channel).listStudents(ListStudentsRequest.getDefaultInstance())));
+        StatusRuntimeException student = assertThrows(StatusRuntimeException.class, () ->
+                drain(stub("grpc001", TestFixtures.PASSWORD).listStudents(ListStudentsRequest.getDefaultInstance())));
+
+        // Assert
+        assertEquals(Status.Code.UNAUTHENTICATED, anonymous.getStatus().getCode());
+        assertEquals(Status.Code.PERMISSION_DENIED, student.getStatus().getCode());
+    }
+}
@@ -0,0 +1,57 @@
+package com.niloy.student_portal.repository;
+
+import com.niloy.student_portal.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SparseFields Tests")
+class SparseFieldsTest {
+
+    private final SparseFields fields = StudentRepository.SPARSE_FIELDS;
+
+    @Test
+    @DisplayName("Should always select the id first and drop repeats and blanks")
+    void parse_ShouldPutIdFirst() {
+        // Act
+        List<String> selected = fields.parse("studentId, enrolledCourseId,,studentId,id");
+
+        // Assert
+        assertEquals(List.of("id", "studentId", "enrolledCourseId"), selected);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields")
+    void parse_WithUnknownField_ShouldThrow() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> fields.parse("id,password"));
+        assertTrue(exception.getMessage().contains("password"));
+    }
+
+    @Test
+    @DisplayName("Should read foreign keys without joining")
+    void jpql_WithForeignKeyFields_ShouldNotJoin() {
+        // Act
+        String jpql = fields.jpql(List.of("id", "studentId", "enrolledCourseId"), null);
+
+        // Assert
+        assertEquals("select s.id as id, s.studentId as studentId, s.enrolledCourse.id as enrolledCourseId "
+                + "from Student s order by s.id", jpql);
+    }
+
+    @Test
+    @DisplayName("Should join only what the selected fields need")
+    void jpql_WithJoinedFields_ShouldJoinOnlyThose() {
+        // Act
+        String jpql = fields.jpql(List.of("id", "email", "enrolledCourseName"), "s.teacher.id = :teacherId");
+
+        // Assert
+        assertTrue(jpql.contains("left join s.user u"));
+        assertTrue(jpql.contains("left join s.enrolledCourse c"));
+        assertFalse(jpql.contains("s.teacher t"));
+        assertTrue(jpql.endsWith("where s.teacher.id = :teacherId order by s.id"));
+    }
+}
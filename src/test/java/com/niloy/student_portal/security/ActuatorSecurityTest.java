@@ -0,0 +1,47 @@
+package com.niloy.student_portal.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Metrics exposed as in the main configuration
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,metrics")
+@AutoConfigureMockMvc
+@DisplayName("Actuator Security Tests")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Should let teachers read the metrics")
+    void metrics_AsTeacher_ShouldReturnOk() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user("teacher").roles("TEACHER")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/jvm.memory.used").with(user("teacher").roles("TEACHER")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should forbid the metrics to students")
+    void metrics_AsStudent_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics/jvm.memory.used").with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should still report health to any signed-in user")
+    void health_AsStudent_ShouldReturnOk() throws Exception {
+        mockMvc.perform(get("/actuator/health").with(user("student").roles("STUDENT")))
+                .andExpect(status().isOk());
+    }
+}
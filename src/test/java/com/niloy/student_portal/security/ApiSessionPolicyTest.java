@@ -0,0 +1,65 @@
+package com.niloy.student_portal.security;
+
+import com.niloy.student_portal.config.SessionMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpSessionEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("API Session Policy Tests")
+class ApiSessionPolicyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Should not create a session for HTTP Basic API calls")
+    void apiCall_WithHttpBasic_ShouldNotCreateSession() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MvcResult result = mockMvc.perform(get("/api/departments")
+                            .with(httpBasic("teacher", "teacher123")))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            assertNull(result.getRequest().getSession(false));
+        }
+    }
+
+    @Test
+    @DisplayName("Should count live sessions and estimate their size")
+    void sessionMetrics_ShouldTrackLiveSessions() {
+        // Arrange
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SessionMetricsListener listener = new SessionMetricsListener(meterRegistry);
+        MockHttpSession first = new MockHttpSession();
+        first.setAttribute("SPRING_SECURITY_CONTEXT", "teacher");
+        MockHttpSession second = new MockHttpSession();
+        second.setAttribute("SPRING_SECURITY_SAVED_REQUEST", "/web/dashboard");
+
+        // Act
+        listener.sessionCreated(new HttpSessionEvent(first));
+        listener.sessionCreated(new HttpSessionEvent(second));
+        listener.sessionDestroyed(new HttpSessionEvent(second));
+
+        // Assert
+        assertEquals(1, listener.getActiveSessionCount());
+        assertEquals(1.0, meterRegistry.get("portal.sessions.active").gauge().value());
+        long bytes = listener.estimateMemoryBytes();
+        assertTrue(bytes > "SPRING_SECURITY_CONTEXT".length());
+        assertEquals(bytes, meterRegistry.get("portal.sessions.memory").gauge().value());
+    }
+}
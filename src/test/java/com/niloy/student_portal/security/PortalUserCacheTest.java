@@ -0,0 +1,77 @@
+package com.niloy.student_portal.security;
+
+import com.niloy.student_portal.entity.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PortalUserCache Tests")
+class PortalUserCacheTest {
+
+    private PortalUserDetails teacher() {
+        return new PortalUserDetails(1L, "teacher", "hash", true, Role.ROLE_TEACHER, null, 7L);
+    }
+
+    @Test
+    @DisplayName("Should hand out a copy that keeps its password when the last one was erased")
+    void getUserFromCache_AfterCredentialsErased_ShouldKeepPassword() {
+        // Arrange
+        PortalUserCache cache = new PortalUserCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 10);
+        cache.putUserInCache(teacher());
+
+        // Act
+        PortalUserDetails first = (PortalUserDetails) cache.getUserFromCache("teacher");
+        first.eraseCredentials();
+        PortalUserDetails second = (PortalUserDetails) cache.getUserFromCache("teacher");
+
+        // Assert
+        assertEquals("hash", second.getPassword());
+        assertEquals(7L, second.getTeacherId());
+    }
+
+    @Test
+    @DisplayName("Should forget accounts after their time to live")
+    void getUserFromCache_WhenExpired_ShouldReturnNull() {
+        // Arrange
+        PortalUserCache cache = new PortalUserCache(new SimpleMeterRegistry(), Duration.ZERO, 10);
+
+        // Act
+        cache.putUserInCache(teacher());
+        UserDetails cached = cache.getUserFromCache("teacher");
+
+        // Assert
+        assertNull(cached);
+    }
+
+    @Test
+    @DisplayName("Should drop every account when accounts are removed")
+    void accountsRemoved_ShouldClearCache() {
+        // Arrange
+        PortalUserCache cache = new PortalUserCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 10);
+        cache.putUserInCache(teacher());
+
+        // Act
+        cache.accountsRemoved();
+
+        // Assert
+        assertNull(cache.getUserFromCache("teacher"));
+    }
+
+    @Test
+    @DisplayName("Should cache nothing when turned off")
+    void putUserInCache_WithNoEntries_ShouldSkip() {
+        // Arrange
+        PortalUserCache cache = new PortalUserCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 0);
+
+        // Act
+        cache.putUserInCache(teacher());
+
+        // Assert
+        assertNull(cache.getUserFromCache("teacher"));
+    }
+}
@@ -0,0 +1,207 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountAvailabilityService Tests")
+class AccountAvailabilityServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    private MeterRegistry meterRegistry;
+    private AccountAvailabilityService availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        availabilityService = new AccountAvailabilityService(userRepository, studentRepository, meterRegistry, 1000, 0.01);
+    }
+
+    private void buildFilters() {
+        when(userRepository.findAllUsernames()).thenReturn(Arrays.asList("teacher", "john.doe"));
+        when(userRepository.findAllEmails()).thenReturn(List.of("teacher@university.edu"));
+        when(studentRepository.findAllStudentIds()).thenReturn(List.of("STU001"));
+        availabilityService.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should answer unknown usernames without querying the database")
+        void isUsernameAvailable_WhenFilterMisses_ShouldSkipQuery() {
+            // Arrange
+            buildFilters();
+
+            // Act
+            boolean available = availabilityService.isUsernameAvailable("new.user");
+
+            // Assert
+            assertTrue(available);
+            verify(userRepository, never()).existsByUsername(anyString());
+            assertEquals(1.0, meterRegistry.get("portal.availability.lookups")
+                    .tags("identifier", "username", "outcome", "absent").counter().count());
+        }
+
+        @Test
+        @DisplayName("Should confirm possible hits with the database")
+        void isUsernameAvailable_WhenFilterHits_ShouldQueryDatabase() {
+            // Arrange
+            buildFilters();
+            when(userRepository.existsByUsername("teacher")).thenReturn(true);
+
+            // Act
+            boolean available = availabilityService.isUsernameAvailable("teacher");
+
+            // Assert
+            assertFalse(available);
+            verify(userRepository, times(1)).existsByUsername("teacher");
+        }
+
+        @Test
+        @DisplayName("Should fall back to the database before the filters are built")
+        void isEmailAvailable_BeforeBuild_ShouldQueryDatabase() {
+            // Arrange
+            when(userRepository.existsByEmail("new@email.com")).thenReturn(false);
+
+            // Act
+            boolean available = availabilityService.isEmailAvailable("new@email.com");
+
+            // Assert
+            assertTrue(available);
+            verify(userRepository, times(1)).existsByEmail("new@email.com");
+        }
+
+        @Test
+        @DisplayName("Should report taken student IDs")
+        void isStudentIdAvailable_WhenTaken_ShouldReturnFalse() {
+            // Arrange
+            buildFilters();
+            when(studentRepository.existsByStudentId("STU001")).thenReturn(true);
+
+            // Act & Assert
+            assertFalse(availabilityService.isStudentIdAvailable("STU001"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Record Tests")
+    class RecordTests {
+
+        @Test
+        @DisplayName("Should route recorded accounts to the database check")
+        void recordAccount_ShouldMakeValuesPossibleHits() {
+            // Arrange
+            when(userRepository.findAllUsernames()).thenReturn(Collections.emptyList());
+            when(userRepository.findAllEmails()).thenReturn(Collections.emptyList());
+            when(studentRepository.findAllStudentIds()).thenReturn(Collections.emptyList());
+            availabilityService.rebuild();
+            when(userRepository.existsByUsername("jane.smith")).thenReturn(true);
+            when(userRepository.existsByEmail("jane.smith@email.com")).thenReturn(true);
+
+            // Act
+            availabilityService.recordAccount("jane.smith", "jane.smith@email.com");
+
+            // Assert
+            assertFalse(availabilityService.isUsernameAvailable("jane.smith"));
+            assertFalse(availabilityService.isEmailAvailable("jane.smith@email.com"));
+        }
+
+        @Test
+        @DisplayName("Should keep values committed while a build loads its snapshot")
+        void recordAccount_DuringBuild_ShouldNotBeLost() {
+            // Arrange - each signup commits after the snapshot was read, before the filter is swapped in
+            when(userRepository.findAllUsernames()).thenAnswer(call -> {
+                availabilityService.recordAccount("late.user", null);
+                return List.of("teacher");
+            });
+            when(userRepository.findAllEmails()).thenReturn(Collections.emptyList());
+            when(studentRepository.findAllStudentIds()).thenReturn(Collections.emptyList());
+            when(userRepository.existsByUsername("late.user")).thenReturn(true);
+
+            // Act
+            availabilityService.rebuild();
+            availabilityService.rebuild();
+
+            // Assert
+            assertFalse(availabilityService.isUsernameAvailable("late.user"));
+        }
+
+        @Test
+        @DisplayName("Should ignore null values")
+        void recordEmail_WithNull_ShouldDoNothing() {
+            // Arrange
+            buildFilters();
+
+            // Act & Assert
+            assertDoesNotThrow(() -> availabilityService.recordEmail(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should expose filter memory and observed false-positive rate")
+        void metrics_ShouldBeRegistered() {
+            // Arrange
+            buildFilters();
+            lenient().when(userRepository.existsByUsername(anyString())).thenReturn(false);
+
+            // Act
+            for (int i = 0; i < 200; i++) {
+                availabilityService.isUsernameAvailable("candidate" + i);
+            }
+
+            // Assert
+            assertTrue(meterRegistry.get("portal.availability.bloom.memory")
+                    .tag("identifier", "username").gauge().value() > 0);
+            double falsePositiveRate = meterRegistry.get("portal.availability.bloom.false_positive_rate")
+                    .tag("identifier", "username").gauge().value();
+            assertTrue(falsePositiveRate < 0.1);
+        }
+
+        @Test
+        @DisplayName("Should size the filters from the row count when it exceeds the expected insertions")
+        void rebuild_WithMoreRowsThanExpected_ShouldSizeFromCount() {
+            // Arrange
+            when(userRepository.count()).thenReturn(5000L);
+            when(userRepository.findAllUsernames()).thenReturn(List.of("teacher"));
+            when(userRepository.findAllEmails()).thenReturn(Collections.emptyList());
+            when(studentRepository.findAllStudentIds()).thenReturn(Collections.emptyList());
+
+            // Act
+            availabilityService.rebuild();
+
+            // Assert
+            assertEquals(new BloomFilter(10000, 0.01).memoryBytes(),
+                    meterRegistry.get("portal.availability.bloom.memory").tag("identifier", "username").gauge().value());
+            assertEquals(new BloomFilter(1000, 0.01).memoryBytes(),
+                    meterRegistry.get("portal.availability.bloom.memory").tag("identifier", "studentId").gauge().value());
+        }
+    }
+}
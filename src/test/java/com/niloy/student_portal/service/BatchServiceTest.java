@@ -0,0 +1,225 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.request.BatchOperationRequest;
+import com.niloy.student_portal.dto.request.StudentCreateRequest;
+import com.niloy.student_portal.dto.response.BatchOperationResponse;
+import com.niloy.student_portal.dto.response.StudentResponse;
+import com.niloy.student_portal.entity.Student;
+import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.exception.BatchFailedException;
+import com.niloy.student_portal.exception.DuplicateResourceException;
+import com.niloy.student_portal.exception.ResourceNotFoundException;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchService Tests")
+class BatchServiceTest {
+
+    private static final Long TEACHER_ID = 1L;
+
+    @Mock
+    private StudentService studentService;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private BatchService batchService;
+
+    private StudentCreateRequest body;
+    private StudentCreateRequest createBody;
+    private Student first;
+    private Student second;
+
+    @BeforeEach
+    void setUp() {
+        body = new StudentCreateRequest();
+        body.setFirstName("Batch");
+        body.setLastName("Student");
+        body.setStudentId("BATCH001");
+
+        createBody = new StudentCreateRequest();
+        createBody.setFirstName("New");
+        createBody.setLastName("Student");
+        createBody.setStudentId("BATCH002");
+        createBody.setEmail("batch002@email.com");
+
+        first = new Student();
+        first.setId(10L);
+        second = new Student();
+        second.setId(11L);
+    }
+
+    private Map<Long, Student> managed(Student... students) {
+        Map<Long, Student> managed = new HashMap<>();
+        for (Student student : students) {
+            managed.put(student.getId(), student);
+        }
+        return managed;
+    }
+
+    @Test
+    @DisplayName("Should check ownership once and apply the operations in order")
+    void execute_ShouldApplyInOrder() {
+        // Arrange
+        when(studentService.getManagedStudents(Set.of(10L, 11L), TEACHER_ID)).thenReturn(managed(first, second));
+        when(studentService.createStudent(createBody, TEACHER_ID))
+                .thenReturn(StudentResponse.builder().id(12L).build());
+        List<BatchOperationRequest> operations = List.of(
+                new BatchOperationRequest("update", "students", 10L, body),
+                new BatchOperationRequest("create", "students", null, createBody),
+                new BatchOperationRequest("delete", "students", 11L, null));
+
+        // Act
+        List<BatchOperationResponse> results = batchService.execute(operations, TEACHER_ID);
+
+        // Assert
+        assertEquals(List.of(200, 201, 200), results.stream().map(BatchOperationResponse::getStatus).toList());
+        assertEquals(List.of(10L, 12L, 11L), results.stream().map(BatchOperationResponse::getId).toList());
+        verify(studentService).getManagedStudents(any(), any());
+        verify(studentService).applyUpdate(first, body);
+        verify(studentService).applyDelete(second);
+        verify(studentRepository).flush();
+    }
+
+    @Test
+    @DisplayName("Should fail the batch at the first operation on a student not managed")
+    void execute_WhenStudentNotManaged_ShouldFailAtIndex() {
+        // Arrange
+        when(studentService.getManagedStudents(Set.of(10L, 99L), TEACHER_ID)).thenReturn(managed(first));
+        when(studentService.ownershipFailure(99L, "delete"))
+                .thenReturn(new ResourceNotFoundException("Student", "id", 99L));
+        List<BatchOperationRequest> operations = List.of(
+                new BatchOperationRequest("update", "students", 10L, body),
+                new BatchOperationRequest("delete", "students", 99L, null),
+                new BatchOperationRequest("delete", "students", 10L, null));
+
+        // Act
+        BatchFailedException ex = assertThrows(BatchFailedException.class,
+                () -> batchService.execute(operations, TEACHER_ID));
+
+        // Assert
+        assertEquals(1, ex.getFailedIndex());
+        assertInstanceOf(ResourceNotFoundException.class, ex.getCause());
+        verify(studentService, never()).applyDelete(any());
+        verify(studentRepository, never()).flush();
+    }
+
+    @Test
+    @DisplayName("Should not find a student again once the batch deleted it")
+    void execute_WhenStudentDeletedEarlier_ShouldFail() {
+        // Arrange
+        when(studentService.getManagedStudents(Set.of(10L), TEACHER_ID)).thenReturn(managed(first));
+        when(studentService.ownershipFailure(10L, "update"))
+                .thenReturn(new ResourceNotFoundException("Student", "id", 10L));
+        List<BatchOperationRequest> operations = List.of(
+                new BatchOperationRequest("delete", "students", 10L, null),
+                new BatchOperationRequest("update", "students", 10L, body));
+
+        // Act
+        BatchFailedException ex = assertThrows(BatchFailedException.class,
+                () -> batchService.execute(operations, TEACHER_ID));
+
+        // Assert
+        assertEquals(1, ex.getFailedIndex());
+    }
+
+    @Test
+    @DisplayName("Should blame a queued update for the student id it takes, not the create that would flush it")
+    void execute_WhenUpdateTakesExistingStudentId_ShouldFailAtUpdate() {
+        // Arrange
+        StudentRepository.StudentIdHolder holder = mock(StudentRepository.StudentIdHolder.class);
+        when(holder.getId()).thenReturn(11L);
+        when(holder.getStudentId()).thenReturn("BATCH001");
+        when(studentService.getManagedStudents(Set.of(10L), TEACHER_ID)).thenReturn(managed(first));
+        when(studentRepository.findByStudentIdIn(Set.of("BATCH001"))).thenReturn(List.of(holder));
+        List<BatchOperationRequest> operations = List.of(
+                new BatchOperationRequest("update", "students", 10L, body),
+                new BatchOperationRequest("create", "students", null, createBody));
+
+        // Act
+        BatchFailedException ex = assertThrows(BatchFailedException.class,
+                () -> batchService.execute(operations, TEACHER_ID));
+
+        // Assert
+        assertEquals(0, ex.getFailedIndex());
+        assertInstanceOf(DuplicateResourceException.class, ex.getCause());
+        assertTrue(ex.getCause().getMessage().contains("BATCH001"));
+        verify(studentService, never()).applyUpdate(any(), any());
+        verify(studentService, never()).createStudent(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail the second of two updates assigning the same student id")
+    void execute_WhenUpdatesShareStudentId_ShouldFailAtSecond() {
+        // Arrange
+        when(studentService.getManagedStudents(Set.of(10L, 11L), TEACHER_ID)).thenReturn(managed(first, second));
+        List<BatchOperationRequest> operations = List.of(
+                new BatchOperationRequest("update", "students", 10L, body),
+                new BatchOperationRequest("update", "students", 11L, body));
+
+        // Act
+        BatchFailedException ex = assertThrows(BatchFailedException.class,
+                () -> batchService.execute(operations, TEACHER_ID));
+
+        // Assert
+        assertEquals(1, ex.getFailedIndex());
+        assertInstanceOf(DuplicateResourceException.class, ex.getCause());
+        verify(studentService).applyUpdate(first, body);
+        verify(studentService, never()).applyUpdate(second, body);
+    }
+
+    @Test
+    @DisplayName("Should report a failed flush past the last operation")
+    void execute_WhenFlushFails_ShouldFailAfterLastIndex() {
+        // Arrange
+        when(studentService.getManagedStudents(Set.of(10L), TEACHER_ID)).thenReturn(managed(first));
+        doThrow(new DataIntegrityViolationException("duplicate")).when(studentRepository).flush();
+        List<BatchOperationRequest> operations = List.of(new BatchOperationRequest("update", "students", 10L, body));
+
+        // Act
+        BatchFailedException ex = assertThrows(BatchFailedException.class,
+                () -> batchService.execute(operations, TEACHER_ID));
+
+        // Assert
+        assertEquals(1, ex.getFailedIndex());
+        assertInstanceOf(DataIntegrityViolationException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed operations before touching anything")
+    void execute_WithMalformedOperations_ShouldThrow() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> batchService.execute(List.of(), TEACHER_ID));
+        assertThrows(BadRequestException.class, () -> batchService.execute(
+                List.of(new BatchOperationRequest("upsert", "students", 10L, body)), TEACHER_ID));
+        assertThrows(BadRequestException.class, () -> batchService.execute(
+                List.of(new BatchOperationRequest("create", "courses", null, body)), TEACHER_ID));
+        assertThrows(BadRequestException.class, () -> batchService.execute(
+                List.of(new BatchOperationRequest("update", "students", null, body)), TEACHER_ID));
+        assertThrows(BadRequestException.class, () -> batchService.execute(
+                List.of(new BatchOperationRequest("create", "students", null, null)), TEACHER_ID));
+        verifyNoInteractions(studentService, studentRepository, userRepository);
+    }
+}
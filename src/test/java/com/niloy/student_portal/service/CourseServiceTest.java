@@ -4,9 +4,11 @@ import com.niloy.student_portal.dto.request.CourseRequest;
 import com.niloy.student_portal.dto.response.CourseResponse;
 import com.niloy.student_portal.entity.Course;
 import com.niloy.student_portal.entity.Department;
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
 import com.niloy.student_portal.exception.DuplicateResourceException;
 import com.niloy.student_portal.exception.ResourceNotFoundException;
 import com.niloy.student_portal.repository.CourseRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,8 +16,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -35,6 +44,15 @@ class CourseServiceTest {
     @Mock
     private DepartmentService departmentService;
 
+    @Spy
+    private ConstraintViolationTranslator constraintViolationTranslator = new ConstraintViolationTranslator(false);
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Mock
+    private SyncService syncService;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -74,9 +92,8 @@ class CourseServiceTest {
         @DisplayName("Should create course successfully")
         void createCourse_WithValidRequest_ShouldReturnCourseResponse() {
             // Arrange
-            when(courseRepository.existsByCourseCode("CS101")).thenReturn(false);
             when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
-            when(courseRepository.save(any(Course.class))).thenReturn(course);
+            when(courseRepository.saveAndFlush(any(Course.class))).thenReturn(course);
 
             // Act
             CourseResponse response = courseService.createCourse(courseRequest);
@@ -87,15 +104,18 @@ class CourseServiceTest {
             assertEquals("Introduction to Computer Science", response.getCourseName());
             assertEquals(3, response.getCredits());
             assertEquals("Computer Science", response.getDepartmentName());
-            verify(courseRepository, times(1)).existsByCourseCode("CS101");
-            verify(courseRepository, times(1)).save(any(Course.class));
+            verify(courseRepository, never()).existsByCourseCode(anyString());
+            verify(courseRepository, times(1)).saveAndFlush(any(Course.class));
+            verify(catalogVersion).changed(CatalogVersion.Collection.DEPARTMENTS, CatalogVersion.Collection.COURSES);
         }
 
         @Test
         @DisplayName("Should throw exception when course code already exists")
         void createCourse_WithDuplicateCode_ShouldThrowException() {
             // Arrange
-            when(courseRepository.existsByCourseCode("CS101")).thenReturn(true);
+            when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
+            when(courseRepository.saveAndFlush(any(Course.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_COURSES_COURSE_CODE_INDEX_7"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
@@ -103,8 +123,24 @@ class CourseServiceTest {
                     () -> courseService.createCourse(courseRequest)
             );
             assertTrue(exception.getMessage().contains("Course"));
-            verify(courseRepository, times(1)).existsByCourseCode("CS101");
-            verify(courseRepository, never()).save(any(Course.class));
+            assertTrue(exception.getMessage().contains("courseCode: 'CS101'"));
+        }
+
+        @Test
+        @DisplayName("Should check for duplicate code before insert in strict mode")
+        void createCourse_InStrictMode_ShouldPreCheckDuplicate() {
+            // Arrange
+            CourseService strictCourseService = new CourseService(
+                    courseRepository, departmentService, new ConstraintViolationTranslator(true), catalogVersion, syncService);
+            when(courseRepository.existsByCourseCode("CS101")).thenReturn(true);
+
+            // Act & Assert
+            assertThrows(
+                    DuplicateResourceException.class,
+                    () -> strictCourseService.createCourse(courseRequest)
+            );
+            verify(courseRepository, never()).saveAndFlush(any(Course.class));
+            verify(catalogVersion, never()).changed(any(CatalogVersion.Collection[].class));
         }
     }
 
@@ -116,7 +152,11 @@ class CourseServiceTest {
         @DisplayName("Should return course when found")
         void getCourseById_WhenExists_ShouldReturnCourseResponse() {
             // Arrange
-            when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+            CourseRepository.CourseSummary summary = mock(CourseRepository.CourseSummary.class);
+            when(summary.getId()).thenReturn(1L);
+            when(summary.getCourseCode()).thenReturn("CS101");
+            when(summary.getEnrolledStudentCount()).thenReturn(2000L);
+            when(courseRepository.findSummaryById(1L)).thenReturn(Optional.of(summary));
 
             // Act
             CourseResponse response = courseService.getCourseById(1L);
@@ -125,14 +165,16 @@ class CourseServiceTest {
             assertNotNull(response);
             assertEquals(1L, response.getId());
             assertEquals("CS101", response.getCourseCode());
-            verify(courseRepository, times(1)).findById(1L);
+            assertEquals(2000, response.getEnrolledStudentCount());
+            verify(courseRepository, times(1)).findSummaryById(1L);
+            verify(courseRepository, never()).findById(any());
         }
 
         @Test
         @DisplayName("Should throw exception when course not found")
         void getCourseById_WhenNotExists_ShouldThrowException() {
             // Arrange
-            when(courseRepository.findById(1L)).thenReturn(Optional.empty());
+            when(courseRepository.findSummaryById(1L)).thenReturn(Optional.empty());
 
             // Act & Assert
             ResourceNotFoundException exception = assertThrows(
@@ -140,7 +182,7 @@ class CourseServiceTest {
                     () -> courseService.getCourseById(1L)
             );
             assertTrue(exception.getMessage().contains("Course"));
-            verify(courseRepository, times(1)).findById(1L);
+            verify(courseRepository, times(1)).findSummaryById(1L);
         }
     }
 
@@ -190,6 +232,61 @@ class CourseServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Get Course Page Tests")
+    class GetCoursePageTests {
+
+        @Test
+        @DisplayName("Should map a slice of course summaries without loading enrollments")
+        void getCoursePage_ShouldReturnSlice() {
+            // Arrange
+            CourseRepository.CourseSummary summary = mock(CourseRepository.CourseSummary.class);
+            when(summary.getCourseCode()).thenReturn("CS101");
+            when(summary.getDepartmentName()).thenReturn("Computer Science");
+            when(summary.getEnrolledStudentCount()).thenReturn(25L);
+            PageRequest pageable = PageRequest.of(2, 12);
+            when(courseRepository.findSummaries(pageable)).thenReturn(new SliceImpl<>(List.of(summary), pageable, true));
+
+            // Act
+            Slice<CourseResponse> response = courseService.getCoursePage(pageable);
+
+            // Assert
+            assertEquals(2, response.getNumber());
+            assertTrue(response.hasNext());
+            assertEquals("CS101", response.getContent().get(0).getCourseCode());
+            assertEquals("Computer Science", response.getContent().get(0).getDepartmentName());
+            assertEquals(25, response.getContent().get(0).getEnrolledStudentCount());
+            verify(courseRepository, never()).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Stream All Courses Tests")
+    class StreamAllCoursesTests {
+
+        @Test
+        @DisplayName("Should read course summaries in keyset chunks only while iterated")
+        void streamAllCourses_ShouldLoadChunksLazily() {
+            // Arrange
+            CourseRepository.CourseSummary summary = mock(CourseRepository.CourseSummary.class);
+            when(summary.getId()).thenReturn(7L);
+            when(summary.getCourseCode()).thenReturn("CS101");
+            when(courseRepository.findSummaryChunk(0L, Limit.of(CourseService.CHUNK_SIZE))).thenReturn(List.of(summary));
+
+            // Act
+            Iterable<CourseResponse> courses = courseService.streamAllCourses();
+
+            // Assert
+            verifyNoInteractions(courseRepository);
+            List<CourseResponse> read = new ArrayList<>();
+            courses.forEach(read::add);
+            assertEquals(1, read.size());
+            assertEquals("CS101", read.get(0).getCourseCode());
+            verify(courseRepository, times(1)).findSummaryChunk(any(), any());
+            verify(courseRepository, never()).findAll();
+        }
+    }
+
     @Nested
     @DisplayName("Get Courses By Department Tests")
     class GetCoursesByDepartmentTests {
@@ -251,9 +348,8 @@ class CourseServiceTest {
             updatedCourse.setEnrolledStudents(new ArrayList<>());
 
             when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
-            when(courseRepository.existsByCourseCode("CS101-Updated")).thenReturn(false);
             when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
-            when(courseRepository.save(any(Course.class))).thenReturn(updatedCourse);
+            when(courseRepository.saveAndFlush(any(Course.class))).thenReturn(updatedCourse);
 
             // Act
             CourseResponse response = courseService.updateCourse(1L, updateRequest);
@@ -264,7 +360,7 @@ class CourseServiceTest {
             assertEquals("Updated Course Name", response.getCourseName());
             assertEquals(4, response.getCredits());
             verify(courseRepository, times(1)).findById(1L);
-            verify(courseRepository, times(1)).save(any(Course.class));
+            verify(courseRepository, times(1)).saveAndFlush(any(Course.class));
         }
 
         @Test
@@ -273,7 +369,7 @@ class CourseServiceTest {
             // Arrange
             when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
             when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
-            when(courseRepository.save(any(Course.class))).thenReturn(course);
+            when(courseRepository.saveAndFlush(any(Course.class))).thenReturn(course);
 
             // Act
             CourseResponse response = courseService.updateCourse(1L, courseRequest);
@@ -293,7 +389,9 @@ class CourseServiceTest {
             updateRequest.setDepartmentId(1L);
 
             when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
-            when(courseRepository.existsByCourseCode("CS102")).thenReturn(true);
+            when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
+            when(courseRepository.saveAndFlush(any(Course.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_COURSES_COURSE_CODE_INDEX_7"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
@@ -301,7 +399,7 @@ class CourseServiceTest {
                     () -> courseService.updateCourse(1L, updateRequest)
             );
             assertTrue(exception.getMessage().contains("Course"));
-            verify(courseRepository, never()).save(any(Course.class));
+            assertTrue(exception.getMessage().contains("CS102"));
         }
 
         @Test
@@ -388,5 +486,9 @@ class CourseServiceTest {
             assertTrue(exception.getMessage().contains("Course"));
         }
     }
-}
 
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(), constraintName));
+    }
+}
@@ -0,0 +1,163 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.response.DashboardSummaryResponse;
+import com.niloy.student_portal.entity.Role;
+import com.niloy.student_portal.exception.ResourceNotFoundException;
+import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.TeacherRepository;
+import com.niloy.student_portal.security.PortalUserDetails;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardService Tests")
+class DashboardServiceTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @Nested
+    @DisplayName("Teacher Summary Tests")
+    class TeacherSummaryTests {
+
+        @Test
+        @DisplayName("Should build the summary from the aggregate counts and recent lists")
+        void getTeacherSummary_ShouldReturnCountsAndRecentItems() {
+            // Arrange
+            TeacherRepository.DashboardCounts counts = mock(TeacherRepository.DashboardCounts.class);
+            when(counts.getDepartmentCount()).thenReturn(3L);
+            when(counts.getCourseCount()).thenReturn(10000L);
+            when(counts.getStudentCount()).thenReturn(42L);
+            when(teacherRepository.findDashboardCounts(1L)).thenReturn(Optional.of(counts));
+
+            DepartmentRepository.DepartmentSummary department = mock(DepartmentRepository.DepartmentSummary.class);
+            when(department.getName()).thenReturn("Computer Science");
+            when(department.getCourseCount()).thenReturn(9000L);
+            when(departmentRepository.findRecentSummaries(Limit.of(5))).thenReturn(List.of(department));
+
+            CourseRepository.CourseSummary course = mock(CourseRepository.CourseSummary.class);
+            when(course.getCourseCode()).thenReturn("CS101");
+            when(course.getEnrolledStudentCount()).thenReturn(20L);
+            when(courseRepository.findRecentSummaries(Limit.of(5))).thenReturn(List.of(course));
+
+            StudentRepository.StudentSummary student = mock(StudentRepository.StudentSummary.class);
+            when(student.getStudentId()).thenReturn("STU001");
+            when(studentRepository.findRecentSummariesByTeacherId(1L, Limit.of(5))).thenReturn(List.of(student));
+
+            // Act
+            DashboardSummaryResponse summary = dashboardService.getTeacherSummary(1L, 5);
+
+            // Assert
+            assertEquals(Role.ROLE_TEACHER.name(), summary.getRole());
+            assertEquals(3L, summary.getDepartmentCount());
+            assertEquals(10000L, summary.getCourseCount());
+            assertEquals(42L, summary.getStudentCount());
+            assertEquals(9000, summary.getRecentDepartments().get(0).getCourseCount());
+            assertEquals(20, summary.getRecentCourses().get(0).getEnrolledStudentCount());
+            assertEquals("STU001", summary.getRecentStudents().get(0).getStudentId());
+            verify(courseRepository, never()).findAll();
+            verify(departmentRepository, never()).findAll();
+        }
+
+        @Test
+        @DisplayName("Should return only the counts for the dashboard shell")
+        void getCounts_AsTeacher_ShouldSkipRecentLists() {
+            // Arrange
+            PortalUserDetails principal = new PortalUserDetails(10L, "teacher1", "password", true,
+                    Role.ROLE_TEACHER, null, 1L);
+            TeacherRepository.DashboardCounts counts = mock(TeacherRepository.DashboardCounts.class);
+            when(counts.getStudentCount()).thenReturn(42L);
+            when(teacherRepository.findDashboardCounts(1L)).thenReturn(Optional.of(counts));
+
+            // Act
+            DashboardSummaryResponse summary = dashboardService.getCounts(principal);
+
+            // Assert
+            assertEquals(42L, summary.getStudentCount());
+            assertNull(summary.getRecentDepartments());
+            assertNull(summary.getRecentStudents());
+            verifyNoInteractions(departmentRepository, courseRepository, studentRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw exception when teacher not found")
+        void getTeacherSummary_WhenNotExists_ShouldThrowException() {
+            // Arrange
+            when(teacherRepository.findDashboardCounts(99L)).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThrows(ResourceNotFoundException.class, () -> dashboardService.getTeacherSummary(99L, 5));
+        }
+    }
+
+    @Nested
+    @DisplayName("Student Summary Tests")
+    class StudentSummaryTests {
+
+        @Test
+        @DisplayName("Should report the student's enrollment count")
+        void getSummary_AsStudent_ShouldReturnEnrollmentCount() {
+            // Arrange
+            PortalUserDetails principal = new PortalUserDetails(20L, "student1", "password", true,
+                    Role.ROLE_STUDENT, 1L, null);
+            StudentRepository.DashboardCounts counts = mock(StudentRepository.DashboardCounts.class);
+            when(counts.getEnrolledCourseCount()).thenReturn(1);
+            when(studentRepository.findDashboardCounts(1L)).thenReturn(Optional.of(counts));
+            when(departmentRepository.findRecentSummaries(any(Limit.class))).thenReturn(Collections.emptyList());
+            when(courseRepository.findRecentSummaries(any(Limit.class))).thenReturn(Collections.emptyList());
+
+            // Act
+            DashboardSummaryResponse summary = dashboardService.getSummary(principal, 5);
+
+            // Assert
+            assertEquals(Role.ROLE_STUDENT.name(), summary.getRole());
+            assertEquals(1, summary.getEnrolledCourseCount());
+            assertNull(summary.getStudentCount());
+            assertNull(summary.getRecentStudents());
+        }
+
+        @Test
+        @DisplayName("Should cap the number of recent items")
+        void getStudentSummary_WithLargeLimit_ShouldClampLimit() {
+            // Arrange
+            StudentRepository.DashboardCounts counts = mock(StudentRepository.DashboardCounts.class);
+            when(studentRepository.findDashboardCounts(1L)).thenReturn(Optional.of(counts));
+            when(departmentRepository.findRecentSummaries(any(Limit.class))).thenReturn(Collections.emptyList());
+            when(courseRepository.findRecentSummaries(any(Limit.class))).thenReturn(Collections.emptyList());
+
+            // Act
+            dashboardService.getStudentSummary(1L, 10_000);
+
+            // Assert
+            verify(courseRepository).findRecentSummaries(Limit.of(DashboardService.MAX_RECENT_LIMIT));
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.niloy.student_portal.service;
 import com.niloy.student_portal.dto.request.DepartmentRequest;
 import com.niloy.student_portal.dto.response.DepartmentResponse;
 import com.niloy.student_portal.entity.Department;
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
 import com.niloy.student_portal.exception.DuplicateResourceException;
 import com.niloy.student_portal.exception.ResourceNotFoundException;
 import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.security.PortalUserCache;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,8 +16,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -31,6 +40,18 @@ class DepartmentServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Spy
+    private ConstraintViolationTranslator constraintViolationTranslator = new ConstraintViolationTranslator(false);
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private PortalUserCache userCache;
+
     @InjectMocks
     private DepartmentService departmentService;
 
@@ -59,8 +80,7 @@ class DepartmentServiceTest {
         @DisplayName("Should create department successfully")
         void createDepartment_WithValidRequest_ShouldReturnDepartmentResponse() {
             // Arrange
-            when(departmentRepository.existsByName("Computer Science")).thenReturn(false);
-            when(departmentRepository.save(any(Department.class))).thenReturn(department);
+            when(departmentRepository.saveAndFlush(any(Department.class))).thenReturn(department);
 
             // Act
             DepartmentResponse response = departmentService.createDepartment(departmentRequest);
@@ -69,15 +89,16 @@ class DepartmentServiceTest {
             assertNotNull(response);
             assertEquals("Computer Science", response.getName());
             assertEquals("Department of Computer Science and Engineering", response.getDescription());
-            verify(departmentRepository, times(1)).existsByName("Computer Science");
-            verify(departmentRepository, times(1)).save(any(Department.class));
+            verify(departmentRepository, never()).existsByName(anyString());
+            verify(departmentRepository, times(1)).saveAndFlush(any(Department.class));
         }
 
         @Test
         @DisplayName("Should throw exception when department name already exists")
         void createDepartment_WithDuplicateName_ShouldThrowException() {
             // Arrange
-            when(departmentRepository.existsByName("Computer Science")).thenReturn(true);
+            when(departmentRepository.saveAndFlush(any(Department.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_DEPARTMENTS_NAME_INDEX_A"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
@@ -85,8 +106,23 @@ class DepartmentServiceTest {
                     () -> departmentService.createDepartment(departmentRequest)
             );
             assertTrue(exception.getMessage().contains("Department"));
-            verify(departmentRepository, times(1)).existsByName("Computer Science");
-            verify(departmentRepository, never()).save(any(Department.class));
+            assertTrue(exception.getMessage().contains("name: 'Computer Science'"));
+        }
+
+        @Test
+        @DisplayName("Should check for duplicate name before insert in strict mode")
+        void createDepartment_InStrictMode_ShouldPreCheckDuplicate() {
+            // Arrange
+            DepartmentService strictDepartmentService = new DepartmentService(
+                    departmentRepository, new ConstraintViolationTranslator(true), catalogVersion, syncService, userCache);
+            when(departmentRepository.existsByName("Computer Science")).thenReturn(true);
+
+            // Act & Assert
+            assertThrows(
+                    DuplicateResourceException.class,
+                    () -> strictDepartmentService.createDepartment(departmentRequest)
+            );
+            verify(departmentRepository, never()).saveAndFlush(any(Department.class));
         }
     }
 
@@ -171,6 +207,32 @@ class DepartmentServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Get Department Page Tests")
+    class GetDepartmentPageTests {
+
+        @Test
+        @DisplayName("Should map a slice of department summaries with their counts")
+        void getDepartmentPage_ShouldReturnSlice() {
+            // Arrange
+            DepartmentRepository.DepartmentSummary summary = mock(DepartmentRepository.DepartmentSummary.class);
+            when(summary.getName()).thenReturn("Computer Science");
+            when(summary.getTeacherCount()).thenReturn(4L);
+            when(summary.getCourseCount()).thenReturn(9000L);
+            PageRequest pageable = PageRequest.of(0, 5);
+            when(departmentRepository.findSummaries(pageable)).thenReturn(new SliceImpl<>(List.of(summary), pageable, false));
+
+            // Act
+            Slice<DepartmentResponse> response = departmentService.getDepartmentPage(pageable);
+
+            // Assert
+            assertFalse(response.hasNext());
+            assertEquals("Computer Science", response.getContent().get(0).getName());
+            assertEquals(4, response.getContent().get(0).getTeacherCount());
+            assertEquals(9000, response.getContent().get(0).getCourseCount());
+        }
+    }
+
     @Nested
     @DisplayName("Update Department Tests")
     class UpdateDepartmentTests {
@@ -191,8 +253,7 @@ class DepartmentServiceTest {
             updatedDepartment.setCourses(new ArrayList<>());
 
             when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
-            when(departmentRepository.existsByName("Computer Science Updated")).thenReturn(false);
-            when(departmentRepository.save(any(Department.class))).thenReturn(updatedDepartment);
+            when(departmentRepository.saveAndFlush(any(Department.class))).thenReturn(updatedDepartment);
 
             // Act
             DepartmentResponse response = departmentService.updateDepartment(1L, updateRequest);
@@ -202,7 +263,7 @@ class DepartmentServiceTest {
             assertEquals("Computer Science Updated", response.getName());
             assertEquals("Updated description", response.getDescription());
             verify(departmentRepository, times(1)).findById(1L);
-            verify(departmentRepository, times(1)).save(any(Department.class));
+            verify(departmentRepository, times(1)).saveAndFlush(any(Department.class));
         }
 
         @Test
@@ -210,7 +271,7 @@ class DepartmentServiceTest {
         void updateDepartment_WithSameName_ShouldNotCheckDuplicate() {
             // Arrange
             when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
-            when(departmentRepository.save(any(Department.class))).thenReturn(department);
+            when(departmentRepository.saveAndFlush(any(Department.class))).thenReturn(department);
 
             // Act
             DepartmentResponse response = departmentService.updateDepartment(1L, departmentRequest);
@@ -229,7 +290,8 @@ class DepartmentServiceTest {
             updateRequest.setDescription("Description");
 
             when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
-            when(departmentRepository.existsByName("Mathematics")).thenReturn(true);
+            when(departmentRepository.saveAndFlush(any(Department.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_DEPARTMENTS_NAME_INDEX_A"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
@@ -237,7 +299,7 @@ class DepartmentServiceTest {
                     () -> departmentService.updateDepartment(1L, updateRequest)
             );
             assertTrue(exception.getMessage().contains("Department"));
-            verify(departmentRepository, never()).save(any(Department.class));
+            assertTrue(exception.getMessage().contains("Mathematics"));
         }
 
         @Test
@@ -324,5 +386,9 @@ class DepartmentServiceTest {
             assertTrue(exception.getMessage().contains("Department"));
         }
     }
-}
 
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(), constraintName));
+    }
+}
@@ -0,0 +1,67 @@
+package com.niloy.student_portal.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("KeysetChunks Tests")
+class KeysetChunksTest {
+
+    private final List<Long> afterIds = new ArrayList<>();
+
+    private BiFunction<Long, Integer, List<Long>> rowsUpTo(long lastId) {
+        return (afterId, limit) -> {
+            afterIds.add(afterId);
+            return LongStream.rangeClosed(afterId + 1, Math.min(afterId + limit, lastId)).boxed().toList();
+        };
+    }
+
+    @Test
+    @DisplayName("Should read every row in chunks keyed on the last id")
+    void iterate_ShouldReadChunksInOrder() {
+        // Arrange
+        KeysetChunks<Long> rows = new KeysetChunks<>(2, rowsUpTo(5), Function.identity());
+
+        // Act
+        List<Long> read = new ArrayList<>();
+        rows.forEach(read::add);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), read);
+        assertEquals(List.of(0L, 2L, 4L), afterIds);
+    }
+
+    @Test
+    @DisplayName("Should not query until iterated")
+    void create_ShouldBeLazy() {
+        // Act
+        KeysetChunks<Long> rows = new KeysetChunks<>(2, rowsUpTo(5), Function.identity());
+
+        // Assert
+        assertTrue(afterIds.isEmpty());
+        assertEquals(1L, rows.iterator().next());
+        assertEquals(List.of(0L), afterIds);
+    }
+
+    @Test
+    @DisplayName("Should stop on an empty chunk when rows fill the last chunk exactly")
+    void iterate_WhenRowsFillLastChunk_ShouldStop() {
+        // Arrange
+        KeysetChunks<Long> rows = new KeysetChunks<>(2, rowsUpTo(4), Function.identity());
+
+        // Act
+        List<Long> read = new ArrayList<>();
+        rows.forEach(read::add);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L), read);
+        assertEquals(List.of(0L, 2L, 4L), afterIds);
+    }
+}
@@ -0,0 +1,52 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.response.MultiGetResult;
+import com.niloy.student_portal.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MultiGets Tests")
+class MultiGetsTest {
+
+    @Test
+    @DisplayName("Should parse ids in order without repeats")
+    void parseIds_ShouldKeepOrder() {
+        // Act & Assert
+        assertEquals(List.of(3L, 1L, 2L), MultiGets.parseIds("3, 1,,2,3"));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid, empty and oversized id lists")
+    void parseIds_WithInvalidInput_ShouldThrow() {
+        // Arrange
+        String tooMany = LongStream.rangeClosed(1, MultiGets.MAX_IDS + 1)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> MultiGets.parseIds("1,abc"));
+        assertThrows(BadRequestException.class, () -> MultiGets.parseIds(" , "));
+        assertThrows(BadRequestException.class, () -> MultiGets.parseIds(tooMany));
+    }
+
+    @Test
+    @DisplayName("Should return rows in requested order and list missing ids")
+    void inRequestOrder_ShouldOrderAndReportMissing() {
+        // Arrange
+        List<Map<String, Object>> found = List.of(Map.of("id", 1L), Map.of("id", 3L));
+
+        // Act
+        MultiGetResult result = MultiGets.inRequestOrder(List.of(3L, 2L, 1L), found);
+
+        // Assert
+        assertEquals(List.of(Map.of("id", 3L), Map.of("id", 1L)), result.getRows());
+        assertEquals(List.of(2L), result.getMissing());
+    }
+}
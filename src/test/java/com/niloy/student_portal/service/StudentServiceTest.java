@@ -2,14 +2,18 @@ package com.niloy.student_portal.service;
 
 import com.niloy.student_portal.dto.request.StudentCreateRequest;
 import com.niloy.student_portal.dto.request.StudentUpdateRequest;
+import com.niloy.student_portal.dto.response.NormalizedList;
 import com.niloy.student_portal.dto.response.StudentResponse;
 import com.niloy.student_portal.entity.*;
 import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
 import com.niloy.student_portal.exception.DuplicateResourceException;
 import com.niloy.student_portal.exception.ResourceNotFoundException;
 import com.niloy.student_portal.exception.UnauthorizedAccessException;
 import com.niloy.student_portal.repository.StudentRepository;
 import com.niloy.student_portal.repository.UserRepository;
+import com.niloy.student_portal.security.PortalUserCache;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,18 +21,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +67,21 @@ class StudentServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private ConstraintViolationTranslator constraintViolationTranslator = new ConstraintViolationTranslator(false);
+
+    @Mock
+    private AccountAvailabilityService accountAvailabilityService;
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private PortalUserCache userCache;
+
     @InjectMocks
     private StudentService studentService;
 
@@ -135,70 +167,115 @@ class StudentServiceTest {
         @DisplayName("Should create student successfully")
         void createStudent_WithValidRequest_ShouldReturnStudentResponse() {
             // Arrange
-            when(studentRepository.existsByStudentId("STU001")).thenReturn(false);
-            when(userRepository.existsByUsername("john.doe")).thenReturn(false);
-            when(userRepository.existsByEmail("john.doe@email.com")).thenReturn(false);
-            when(teacherService.getTeacherEntityByUsername("teacher1")).thenReturn(teacher);
+            when(teacherService.getTeacherReference(1L)).thenReturn(teacher);
             when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-            when(studentRepository.save(any(Student.class))).thenReturn(student);
+            when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(student);
 
             // Act
-            StudentResponse response = studentService.createStudent(studentCreateRequest, "teacher1");
+            StudentResponse response = studentService.createStudent(studentCreateRequest, 1L);
 
             // Assert
             assertNotNull(response);
             assertEquals("John", response.getFirstName());
             assertEquals("Doe", response.getLastName());
             assertEquals("STU001", response.getStudentId());
-            verify(studentRepository, times(1)).save(any(Student.class));
+            verify(studentRepository, times(1)).saveAndFlush(any(Student.class));
+            verify(studentRepository, never()).existsByStudentId(anyString());
+            verify(accountAvailabilityService).recordAccount("john.doe", "john.doe@email.com");
+            verify(accountAvailabilityService).recordStudentId("STU001");
         }
 
         @Test
         @DisplayName("Should throw exception when student ID already exists")
         void createStudent_WithDuplicateStudentId_ShouldThrowException() {
             // Arrange
-            when(studentRepository.existsByStudentId("STU001")).thenReturn(true);
+            when(teacherService.getTeacherReference(1L)).thenReturn(teacher);
+            when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+            when(studentRepository.saveAndFlush(any(Student.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_STUDENTS_STUDENT_ID_INDEX_F"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
                     DuplicateResourceException.class,
-                    () -> studentService.createStudent(studentCreateRequest, "teacher1")
+                    () -> studentService.createStudent(studentCreateRequest, 1L)
             );
             assertTrue(exception.getMessage().contains("Student"));
-            verify(studentRepository, never()).save(any(Student.class));
+            assertTrue(exception.getMessage().contains("STU001"));
         }
 
         @Test
         @DisplayName("Should throw exception when username already exists")
         void createStudent_WithDuplicateUsername_ShouldThrowException() {
             // Arrange
-            when(studentRepository.existsByStudentId("STU001")).thenReturn(false);
-            when(userRepository.existsByUsername("john.doe")).thenReturn(true);
+            when(teacherService.getTeacherReference(1L)).thenReturn(teacher);
+            when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+            when(studentRepository.saveAndFlush(any(Student.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_USERS_USERNAME_INDEX_4"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
                     DuplicateResourceException.class,
-                    () -> studentService.createStudent(studentCreateRequest, "teacher1")
+                    () -> studentService.createStudent(studentCreateRequest, 1L)
             );
             assertTrue(exception.getMessage().contains("User"));
-            verify(studentRepository, never()).save(any(Student.class));
+            assertTrue(exception.getMessage().contains("john.doe"));
         }
 
         @Test
         @DisplayName("Should throw exception when email already exists")
         void createStudent_WithDuplicateEmail_ShouldThrowException() {
             // Arrange
-            when(studentRepository.existsByStudentId("STU001")).thenReturn(false);
-            when(userRepository.existsByUsername("john.doe")).thenReturn(false);
-            when(userRepository.existsByEmail("john.doe@email.com")).thenReturn(true);
+            when(teacherService.getTeacherReference(1L)).thenReturn(teacher);
+            when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+            when(studentRepository.saveAndFlush(any(Student.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_USERS_EMAIL_INDEX_4"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
                     DuplicateResourceException.class,
-                    () -> studentService.createStudent(studentCreateRequest, "teacher1")
+                    () -> studentService.createStudent(studentCreateRequest, 1L)
             );
             assertTrue(exception.getMessage().contains("User"));
-            verify(studentRepository, never()).save(any(Student.class));
+            assertTrue(exception.getMessage().contains("john.doe@email.com"));
+        }
+
+        @Test
+        @DisplayName("Should pre-check duplicates when strict mode is enabled")
+        void createStudent_InStrictMode_ShouldPreCheckDuplicates() {
+            // Arrange
+            StudentService strictService = new StudentService(studentRepository, userRepository, teacherService,
+                    courseService, passwordEncoder, new ConstraintViolationTranslator(true), accountAvailabilityService,
+                    catalogVersion, syncService, userCache);
+            when(studentRepository.existsByStudentId("STU001")).thenReturn(true);
+
+            // Act & Assert
+            DuplicateResourceException exception = assertThrows(
+                    DuplicateResourceException.class,
+                    () -> strictService.createStudent(studentCreateRequest, 1L)
+            );
+            assertTrue(exception.getMessage().contains("Student"));
+            verify(studentRepository, never()).saveAndFlush(any(Student.class));
+        }
+
+        @Test
+        @DisplayName("Should pre-check emails when their unique constraint is missing")
+        void createStudent_WithEmailConstraintMissing_ShouldPreCheckEmail() {
+            // Arrange
+            ConstraintViolationTranslator translator = new ConstraintViolationTranslator(false);
+            translator.constraintMissing(ConstraintViolationTranslator.UK_USERS_EMAIL);
+            StudentService checkedService = new StudentService(studentRepository, userRepository, teacherService,
+                    courseService, passwordEncoder, translator, accountAvailabilityService, catalogVersion, syncService,
+                    userCache);
+            when(userRepository.existsByEmail("john.doe@email.com")).thenReturn(true);
+
+            // Act & Assert
+            DuplicateResourceException exception = assertThrows(
+                    DuplicateResourceException.class,
+                    () -> checkedService.createStudent(studentCreateRequest, 1L)
+            );
+            assertTrue(exception.getMessage().contains("john.doe@email.com"));
+            verify(studentRepository, never()).existsByStudentId(anyString());
+            verify(studentRepository, never()).saveAndFlush(any(Student.class));
         }
     }
 
@@ -239,37 +316,55 @@ class StudentServiceTest {
     }
 
     @Nested
-    @DisplayName("Get Student By Username Tests")
-    class GetStudentByUsernameTests {
+    @DisplayName("Get Student Fields Tests")
+    class GetStudentFieldsTests {
 
         @Test
-        @DisplayName("Should return student when found by username")
-        void getStudentByUsername_WhenExists_ShouldReturnStudentResponse() {
+        @DisplayName("Should query only the requested fields")
+        void getStudentFieldsByCourse_ShouldSelectParsedFields() {
             // Arrange
-            when(studentRepository.findByUserUsername("john.doe")).thenReturn(Optional.of(student));
+            List<Map<String, Object>> rows = List.of(Map.of("id", 1L, "studentId", "STU001"));
+            when(studentRepository.findFields(StudentRepository.SPARSE_FIELDS, List.of("id", "studentId"),
+                    "s.enrolledCourse.id = :courseId", Map.of("courseId", 1L))).thenReturn(rows);
 
             // Act
-            StudentResponse response = studentService.getStudentByUsername("john.doe");
+            List<Map<String, Object>> result = studentService.getStudentFieldsByCourse(1L, "studentId");
 
             // Assert
-            assertNotNull(response);
-            assertEquals("John", response.getFirstName());
-            assertEquals("john.doe@email.com", response.getEmail());
-            verify(studentRepository, times(1)).findByUserUsername("john.doe");
+            assertEquals(rows, result);
+            verify(studentRepository, never()).findByEnrolledCourseId(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should look up each referenced teacher once when side-loading")
+        void getStudentsByCourseIncluding_ShouldIncludeDistinctTeachers() {
+            // Arrange
+            List<Map<String, Object>> rows = List.of(
+                    Map.of("id", 1L, "studentId", "STU001", "teacherId", 7L),
+                    Map.of("id", 2L, "studentId", "STU002", "teacherId", 7L));
+            List<Map<String, Object>> teachers = List.of(Map.of("id", 7L, "firstName", "Jane"));
+            when(studentRepository.findFields(StudentRepository.SPARSE_FIELDS, List.of("id", "studentId", "teacherId"),
+                    "s.enrolledCourse.id = :courseId", Map.of("courseId", 1L))).thenReturn(rows);
+            when(teacherService.getTeacherFieldsByIds(eq(Set.of(7L)), anyString())).thenReturn(teachers);
+
+            // Act
+            NormalizedList result = studentService.getStudentsByCourseIncluding(1L, "teacher", "studentId");
+
+            // Assert
+            assertEquals(rows, result.getRows());
+            assertEquals(Map.of("teachers", teachers), result.getIncluded());
+            verifyNoInteractions(courseService);
         }
 
         @Test
-        @DisplayName("Should throw exception when student not found by username")
-        void getStudentByUsername_WhenNotExists_ShouldThrowException() {
+        @DisplayName("Should throw exception when student not found")
+        void getStudentFieldsById_WhenNotExists_ShouldThrowException() {
             // Arrange
-            when(studentRepository.findByUserUsername("unknown")).thenReturn(Optional.empty());
+            when(studentRepository.findFields(eq(StudentRepository.SPARSE_FIELDS), anyList(), anyString(), anyMap()))
+                    .thenReturn(List.of());
 
             // Act & Assert
-            ResourceNotFoundException exception = assertThrows(
-                    ResourceNotFoundException.class,
-                    () -> studentService.getStudentByUsername("unknown")
-            );
-            assertTrue(exception.getMessage().contains("Student"));
+            assertThrows(ResourceNotFoundException.class, () -> studentService.getStudentFieldsById(1L, "studentId"));
         }
     }
 
@@ -329,17 +424,37 @@ class StudentServiceTest {
         void getStudentsByTeacher_ShouldReturnList() {
             // Arrange
             List<Student> students = Arrays.asList(student);
-            when(teacherService.getTeacherEntityByUsername("teacher1")).thenReturn(teacher);
-            when(studentRepository.findByTeacher(teacher)).thenReturn(students);
+            when(studentRepository.findByTeacherId(1L)).thenReturn(students);
 
             // Act
-            List<StudentResponse> response = studentService.getStudentsByTeacher("teacher1");
+            List<StudentResponse> response = studentService.getStudentsByTeacher(1L);
 
             // Assert
             assertNotNull(response);
             assertEquals(1, response.size());
             assertEquals("John", response.get(0).getFirstName());
-            verify(studentRepository, times(1)).findByTeacher(teacher);
+            verify(studentRepository, times(1)).findByTeacherId(1L);
+        }
+
+        @Test
+        @DisplayName("Should return one page of the teacher's students")
+        void getStudentPageByTeacher_ShouldReturnSlice() {
+            // Arrange
+            StudentRepository.StudentSummary summary = mock(StudentRepository.StudentSummary.class);
+            when(summary.getFirstName()).thenReturn("John");
+            when(summary.getPhoneNumber()).thenReturn("555-0100");
+            PageRequest pageable = PageRequest.of(0, 20);
+            when(studentRepository.findSummariesByTeacherId(1L, pageable))
+                    .thenReturn(new SliceImpl<>(List.of(summary), pageable, false));
+
+            // Act
+            Slice<StudentResponse> response = studentService.getStudentPageByTeacher(1L, pageable);
+
+            // Assert
+            assertEquals(1, response.getNumberOfElements());
+            assertEquals("John", response.getContent().get(0).getFirstName());
+            assertEquals("555-0100", response.getContent().get(0).getPhoneNumber());
+            verify(studentRepository, never()).findByTeacherId(any());
         }
     }
 
@@ -364,6 +479,60 @@ class StudentServiceTest {
             assertEquals("Introduction to CS", response.get(0).getEnrolledCourseName());
             verify(studentRepository, times(1)).findByEnrolledCourseId(1L);
         }
+
+        @Test
+        @DisplayName("Should read the roster in keyset chunks only while it is iterated")
+        void streamStudentsByCourse_ShouldLoadChunksLazily() {
+            // Arrange
+            List<StudentRepository.StudentSummary> firstChunk = new ArrayList<>();
+            for (long id = 1; id <= StudentService.ROSTER_CHUNK_SIZE; id++) {
+                StudentRepository.StudentSummary summary = mock(StudentRepository.StudentSummary.class);
+                when(summary.getId()).thenReturn(id);
+                firstChunk.add(summary);
+            }
+            StudentRepository.StudentSummary last = mock(StudentRepository.StudentSummary.class);
+            when(last.getId()).thenReturn(999L);
+            when(studentRepository.findRosterChunk(1L, 0L, Limit.of(StudentService.ROSTER_CHUNK_SIZE)))
+                    .thenReturn(firstChunk);
+            when(studentRepository.findRosterChunk(1L, (long) StudentService.ROSTER_CHUNK_SIZE,
+                    Limit.of(StudentService.ROSTER_CHUNK_SIZE))).thenReturn(List.of(last));
+
+            // Act
+            Iterable<StudentResponse> roster = studentService.streamStudentsByCourse(1L);
+
+            // Assert
+            verifyNoInteractions(studentRepository);
+            long count = 0;
+            Long lastId = null;
+            for (StudentResponse student : roster) {
+                count++;
+                lastId = student.getId();
+            }
+            assertEquals(StudentService.ROSTER_CHUNK_SIZE + 1, count);
+            assertEquals(999L, lastId);
+            verify(studentRepository, times(2)).findRosterChunk(eq(1L), anyLong(), any(Limit.class));
+            verify(studentRepository, never()).findByEnrolledCourseId(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should read all students with details in keyset chunks")
+        void streamAllStudents_ShouldLoadChunksLazily() {
+            // Arrange
+            when(studentRepository.findByIdGreaterThanOrderById(0L, Limit.of(StudentService.ROSTER_CHUNK_SIZE)))
+                    .thenReturn(List.of(student));
+
+            // Act
+            Iterable<StudentResponse> students = studentService.streamAllStudents();
+
+            // Assert
+            verifyNoInteractions(studentRepository);
+            List<StudentResponse> read = new ArrayList<>();
+            students.forEach(read::add);
+            assertEquals(1, read.size());
+            assertEquals(student.getStudentId(), read.get(0).getStudentId());
+            assertNotNull(read.get(0).getTeacherName());
+            verify(studentRepository).findByIdGreaterThanOrderById(anyLong(), any(Limit.class));
+        }
     }
 
     @Nested
@@ -380,35 +549,58 @@ class StudentServiceTest {
             updateRequest.setStudentId("STU001");
             updateRequest.setEmail("john.updated@email.com");
 
-            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
-            when(teacherService.getTeacherEntityByUsername("teacher1")).thenReturn(teacher);
-            when(studentRepository.save(any(Student.class))).thenReturn(student);
+            when(studentRepository.updateManagedStudent(eq(1L), eq(1L), eq("John Updated"), eq("Doe Updated"),
+                    eq("STU001"), any(), any(), any(), any())).thenReturn(1);
+            StudentRepository.StudentRelations relations = mock(StudentRepository.StudentRelations.class);
+            when(relations.getEmail()).thenReturn("john.updated@email.com");
+            when(relations.getTeacherId()).thenReturn(1L);
+            when(relations.getTeacherFirstName()).thenReturn("Jane");
+            when(relations.getTeacherLastName()).thenReturn("Smith");
+            when(studentRepository.findRelationsById(1L)).thenReturn(Optional.of(relations));
 
             // Act
-            StudentResponse response = studentService.updateStudentByTeacher(1L, updateRequest, "teacher1");
+            StudentResponse response = studentService.updateStudentByTeacher(1L, updateRequest, 1L);
 
             // Assert
-            assertNotNull(response);
-            verify(studentRepository, times(1)).save(any(Student.class));
+            assertEquals("John Updated", response.getFirstName());
+            assertEquals("john.updated@email.com", response.getEmail());
+            assertEquals("Jane Smith", response.getTeacherName());
+            verify(userRepository, times(1)).updateEmailByStudentId(1L, "john.updated@email.com");
+            verify(studentRepository, never()).findById(anyLong());
+            verify(studentRepository, never()).findWithDetailsById(anyLong());
+            verify(studentRepository, never()).existsById(anyLong());
         }
 
         @Test
         @DisplayName("Should throw exception when teacher does not manage student")
         void updateStudentByTeacher_WhenUnauthorized_ShouldThrowException() {
             // Arrange
-            Teacher otherTeacher = new Teacher();
-            otherTeacher.setId(2L);
-
-            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
-            when(teacherService.getTeacherEntityByUsername("teacher2")).thenReturn(otherTeacher);
+            when(studentRepository.updateManagedStudent(eq(1L), eq(2L), any(), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(0);
+            when(studentRepository.existsById(1L)).thenReturn(true);
 
             // Act & Assert
             UnauthorizedAccessException exception = assertThrows(
                     UnauthorizedAccessException.class,
-                    () -> studentService.updateStudentByTeacher(1L, studentCreateRequest, "teacher2")
+                    () -> studentService.updateStudentByTeacher(1L, studentCreateRequest, 2L)
             );
             assertTrue(exception.getMessage().contains("not authorized"));
-            verify(studentRepository, never()).save(any(Student.class));
+            verify(userRepository, never()).updateEmailByStudentId(anyLong(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when student not found")
+        void updateStudentByTeacher_WhenNotExists_ShouldThrowException() {
+            // Arrange
+            when(studentRepository.updateManagedStudent(eq(99L), eq(1L), any(), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(0);
+            when(studentRepository.existsById(99L)).thenReturn(false);
+
+            // Act & Assert
+            assertThrows(
+                    ResourceNotFoundException.class,
+                    () -> studentService.updateStudentByTeacher(99L, studentCreateRequest, 1L)
+            );
         }
 
         @Test
@@ -418,16 +610,103 @@ class StudentServiceTest {
             StudentCreateRequest updateRequest = new StudentCreateRequest();
             updateRequest.setStudentId("STU002");
 
-            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
-            when(teacherService.getTeacherEntityByUsername("teacher1")).thenReturn(teacher);
-            when(studentRepository.existsByStudentId("STU002")).thenReturn(true);
+            when(studentRepository.updateManagedStudent(eq(1L), eq(1L), any(), any(), eq("STU002"), any(), any(), any(), any()))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_STUDENTS_STUDENT_ID_INDEX_F"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
                     DuplicateResourceException.class,
-                    () -> studentService.updateStudentByTeacher(1L, updateRequest, "teacher1")
+                    () -> studentService.updateStudentByTeacher(1L, updateRequest, 1L)
             );
             assertTrue(exception.getMessage().contains("Student"));
+            assertTrue(exception.getMessage().contains("STU002"));
+            verify(studentRepository, never()).existsByStudentIdAndIdNot(anyString(), anyLong());
+            verify(studentRepository, never()).findRelationsById(anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("Patch Student By Teacher Tests")
+    class PatchStudentByTeacherTests {
+
+        @Test
+        @DisplayName("Should change only the fields sent")
+        void patchStudentByTeacher_WithSomeFields_ShouldChangeOnlyThose() {
+            // Arrange
+            StudentCreateRequest patch = new StudentCreateRequest();
+            patch.setAddress("456 New St");
+            when(studentRepository.findWithDetailsByIdAndTeacherId(1L, 1L)).thenReturn(Optional.of(student));
+
+            // Act
+            StudentResponse response = studentService.patchStudentByTeacher(1L, patch, 1L);
+
+            // Assert
+            assertEquals("456 New St", response.getAddress());
+            assertEquals("John", response.getFirstName());
+            assertEquals("STU001", response.getStudentId());
+            assertEquals("john.doe@email.com", user.getEmail());
+            verify(studentRepository).flush();
+            verify(accountAvailabilityService, never()).recordEmail(anyString());
+            verify(accountAvailabilityService, never()).recordStudentId(anyString());
+        }
+
+        @Test
+        @DisplayName("Should leave the student untouched when nothing differs")
+        void patchStudentByTeacher_WithSameValues_ShouldChangeNothing() {
+            // Arrange - the profile fields as they are; credentials cannot be patched
+            studentCreateRequest.setUsername(null);
+            studentCreateRequest.setPassword(null);
+            Student original = new Student();
+            original.setFirstName(student.getFirstName());
+            original.setStudentId(student.getStudentId());
+            original.setAddress(student.getAddress());
+            when(studentRepository.findWithDetailsByIdAndTeacherId(1L, 1L)).thenReturn(Optional.of(student));
+
+            // Act
+            studentService.patchStudentByTeacher(1L, studentCreateRequest, 1L);
+
+            // Assert
+            assertEquals(original.getFirstName(), student.getFirstName());
+            assertEquals(original.getStudentId(), student.getStudentId());
+            assertEquals(original.getAddress(), student.getAddress());
+            verify(studentRepository, never()).existsByStudentIdAndIdNot(anyString(), anyLong());
+            verify(userRepository, never()).existsByEmail(anyString());
+            verify(accountAvailabilityService, never()).recordEmail(anyString());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when teacher does not manage student")
+        void patchStudentByTeacher_WhenUnauthorized_ShouldThrowException() {
+            // Arrange
+            studentCreateRequest.setUsername(null);
+            studentCreateRequest.setPassword(null);
+            when(studentRepository.findWithDetailsByIdAndTeacherId(1L, 2L)).thenReturn(Optional.empty());
+            when(studentRepository.existsById(1L)).thenReturn(true);
+
+            // Act & Assert
+            assertThrows(
+                    UnauthorizedAccessException.class,
+                    () -> studentService.patchStudentByTeacher(1L, studentCreateRequest, 2L)
+            );
+            verify(studentRepository, never()).flush();
+        }
+
+        @Test
+        @DisplayName("Should throw exception when new student ID already exists")
+        void patchStudentByTeacher_WithDuplicateStudentId_ShouldThrowException() {
+            // Arrange
+            StudentCreateRequest patch = new StudentCreateRequest();
+            patch.setStudentId("STU002");
+            when(studentRepository.findWithDetailsByIdAndTeacherId(1L, 1L)).thenReturn(Optional.of(student));
+            doThrow(uniqueViolation("PUBLIC.UK_STUDENTS_STUDENT_ID_INDEX_F")).when(studentRepository).flush();
+
+            // Act & Assert
+            DuplicateResourceException exception = assertThrows(
+                    DuplicateResourceException.class,
+                    () -> studentService.patchStudentByTeacher(1L, patch, 1L)
+            );
+            assertTrue(exception.getMessage().contains("STU002"));
+            verify(accountAvailabilityService, never()).recordStudentId(anyString());
         }
     }
 
@@ -439,15 +718,15 @@ class StudentServiceTest {
         @DisplayName("Should update student profile successfully")
         void updateStudentProfile_WithValidRequest_ShouldReturnUpdatedStudent() {
             // Arrange
-            when(studentRepository.findByUserUsername("john.doe")).thenReturn(Optional.of(student));
-            when(studentRepository.save(any(Student.class))).thenReturn(student);
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+            when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(student);
 
             // Act
-            StudentResponse response = studentService.updateStudentProfile(studentUpdateRequest, "john.doe");
+            StudentResponse response = studentService.updateStudentProfile(studentUpdateRequest, 1L);
 
             // Assert
             assertNotNull(response);
-            verify(studentRepository, times(1)).save(any(Student.class));
+            verify(studentRepository, times(1)).saveAndFlush(any(Student.class));
         }
 
         @Test
@@ -455,27 +734,30 @@ class StudentServiceTest {
         void updateStudentProfile_WithDuplicateEmail_ShouldThrowException() {
             // Arrange
             studentUpdateRequest.setEmail("existing@email.com");
-            when(studentRepository.findByUserUsername("john.doe")).thenReturn(Optional.of(student));
-            when(userRepository.existsByEmail("existing@email.com")).thenReturn(true);
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+            when(studentRepository.saveAndFlush(any(Student.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_USERS_EMAIL_INDEX_4"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
                     DuplicateResourceException.class,
-                    () -> studentService.updateStudentProfile(studentUpdateRequest, "john.doe")
+                    () -> studentService.updateStudentProfile(studentUpdateRequest, 1L)
             );
             assertTrue(exception.getMessage().contains("User"));
+            assertTrue(exception.getMessage().contains("existing@email.com"));
+            verify(userRepository, never()).existsByEmail(anyString());
         }
 
         @Test
         @DisplayName("Should throw exception when student not found")
         void updateStudentProfile_WhenNotExists_ShouldThrowException() {
             // Arrange
-            when(studentRepository.findByUserUsername("unknown")).thenReturn(Optional.empty());
+            when(studentRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThrows(
                     ResourceNotFoundException.class,
-                    () -> studentService.updateStudentProfile(studentUpdateRequest, "unknown")
+                    () -> studentService.updateStudentProfile(studentUpdateRequest, 99L)
             );
         }
     }
@@ -488,46 +770,63 @@ class StudentServiceTest {
         @DisplayName("Should delete student successfully")
         void deleteStudent_WhenAuthorized_ShouldDeleteSuccessfully() {
             // Arrange
-            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
-            when(teacherService.getTeacherEntityByUsername("teacher1")).thenReturn(teacher);
-            doNothing().when(studentRepository).delete(student);
+            when(studentRepository.findUserIdByIdAndTeacherId(1L, 1L)).thenReturn(Optional.of(2L));
+            when(studentRepository.deleteManagedStudent(1L, 1L)).thenReturn(1);
 
             // Act
-            studentService.deleteStudent(1L, "teacher1");
+            studentService.deleteStudent(1L, 1L);
 
             // Assert
-            verify(studentRepository, times(1)).delete(student);
+            verify(studentRepository, times(1)).deleteManagedStudent(1L, 1L);
+            verify(userRepository, times(1)).deleteAccountById(2L);
+            verify(studentRepository, never()).existsById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should trust the delete count over the account lookup")
+        void deleteStudent_WhenReassignedAfterLookup_ShouldThrowException() {
+            // Arrange - the student moved to another teacher between the lookup and the delete
+            when(studentRepository.findUserIdByIdAndTeacherId(1L, 1L)).thenReturn(Optional.of(2L));
+            when(studentRepository.deleteManagedStudent(1L, 1L)).thenReturn(0);
+            when(studentRepository.existsById(1L)).thenReturn(true);
+
+            // Act & Assert
+            assertThrows(
+                    UnauthorizedAccessException.class,
+                    () -> studentService.deleteStudent(1L, 1L)
+            );
+            verify(userRepository, never()).deleteAccountById(anyLong());
         }
 
         @Test
         @DisplayName("Should throw exception when teacher does not manage student")
         void deleteStudent_WhenUnauthorized_ShouldThrowException() {
             // Arrange
-            Teacher otherTeacher = new Teacher();
-            otherTeacher.setId(2L);
-
-            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
-            when(teacherService.getTeacherEntityByUsername("teacher2")).thenReturn(otherTeacher);
+            when(studentRepository.findUserIdByIdAndTeacherId(1L, 2L)).thenReturn(Optional.empty());
+            when(studentRepository.deleteManagedStudent(1L, 2L)).thenReturn(0);
+            when(studentRepository.existsById(1L)).thenReturn(true);
 
             // Act & Assert
             UnauthorizedAccessException exception = assertThrows(
                     UnauthorizedAccessException.class,
-                    () -> studentService.deleteStudent(1L, "teacher2")
+                    () -> studentService.deleteStudent(1L, 2L)
             );
             assertTrue(exception.getMessage().contains("not authorized"));
-            verify(studentRepository, never()).delete(any(Student.class));
+            verify(userRepository, never()).deleteAccountById(anyLong());
         }
 
         @Test
         @DisplayName("Should throw exception when student not found")
         void deleteStudent_WhenNotExists_ShouldThrowException() {
             // Arrange
-            when(studentRepository.findById(1L)).thenReturn(Optional.empty());
+            when(studentRepository.findUserIdByIdAndTeacherId(1L, 1L)).thenReturn(Optional.empty());
+            when(studentRepository.deleteManagedStudent(1L, 1L)).thenReturn(0);
+            when(studentRepository.existsById(1L)).thenReturn(false);
 
             // Act & Assert
             assertThrows(
                     ResourceNotFoundException.class,
-                    () -> studentService.deleteStudent(1L, "teacher1")
+                    () -> studentService.deleteStudent(1L, 1L)
             );
         }
     }
@@ -540,7 +839,7 @@ class StudentServiceTest {
         @DisplayName("Should enroll in course successfully")
         void enrollInCourse_WhenNotEnrolled_ShouldReturnUpdatedStudent() {
             // Arrange
-            when(studentRepository.findByUserUsername("john.doe")).thenReturn(Optional.of(student));
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
             when(courseService.getCourseEntity(1L)).thenReturn(course);
 
             Student enrolledStudent = new Student();
@@ -555,12 +854,13 @@ class StudentServiceTest {
             when(studentRepository.save(any(Student.class))).thenReturn(enrolledStudent);
 
             // Act
-            StudentResponse response = studentService.enrollInCourse(1L, "john.doe");
+            StudentResponse response = studentService.enrollInCourse(1L, 1L);
 
             // Assert
             assertNotNull(response);
             assertEquals("Introduction to CS", response.getEnrolledCourseName());
             verify(studentRepository, times(1)).save(any(Student.class));
+            verify(catalogVersion).changed(CatalogVersion.Collection.COURSES);
         }
 
         @Test
@@ -568,12 +868,12 @@ class StudentServiceTest {
         void enrollInCourse_WhenAlreadyEnrolled_ShouldThrowException() {
             // Arrange
             student.setEnrolledCourse(course);
-            when(studentRepository.findByUserUsername("john.doe")).thenReturn(Optional.of(student));
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
 
             // Act & Assert
             BadRequestException exception = assertThrows(
                     BadRequestException.class,
-                    () -> studentService.enrollInCourse(2L, "john.doe")
+                    () -> studentService.enrollInCourse(2L, 1L)
             );
             assertTrue(exception.getMessage().contains("already enrolled"));
             verify(studentRepository, never()).save(any(Student.class));
@@ -583,12 +883,12 @@ class StudentServiceTest {
         @DisplayName("Should throw exception when student not found")
         void enrollInCourse_WhenStudentNotFound_ShouldThrowException() {
             // Arrange
-            when(studentRepository.findByUserUsername("unknown")).thenReturn(Optional.empty());
+            when(studentRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThrows(
                     ResourceNotFoundException.class,
-                    () -> studentService.enrollInCourse(1L, "unknown")
+                    () -> studentService.enrollInCourse(1L, 99L)
             );
         }
     }
@@ -602,7 +902,7 @@ class StudentServiceTest {
         void dropCourse_WhenEnrolled_ShouldReturnUpdatedStudent() {
             // Arrange
             student.setEnrolledCourse(course);
-            when(studentRepository.findByUserUsername("john.doe")).thenReturn(Optional.of(student));
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
 
             Student droppedStudent = new Student();
             droppedStudent.setId(1L);
@@ -616,7 +916,7 @@ class StudentServiceTest {
             when(studentRepository.save(any(Student.class))).thenReturn(droppedStudent);
 
             // Act
-            StudentResponse response = studentService.dropCourse("john.doe");
+            StudentResponse response = studentService.dropCourse(1L);
 
             // Assert
             assertNotNull(response);
@@ -629,12 +929,12 @@ class StudentServiceTest {
         void dropCourse_WhenNotEnrolled_ShouldThrowException() {
             // Arrange
             student.setEnrolledCourse(null);
-            when(studentRepository.findByUserUsername("john.doe")).thenReturn(Optional.of(student));
+            when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
 
             // Act & Assert
             BadRequestException exception = assertThrows(
                     BadRequestException.class,
-                    () -> studentService.dropCourse("john.doe")
+                    () -> studentService.dropCourse(1L)
             );
             assertTrue(exception.getMessage().contains("not enrolled"));
             verify(studentRepository, never()).save(any(Student.class));
@@ -644,12 +944,12 @@ class StudentServiceTest {
         @DisplayName("Should throw exception when student not found")
         void dropCourse_WhenStudentNotFound_ShouldThrowException() {
             // Arrange
-            when(studentRepository.findByUserUsername("unknown")).thenReturn(Optional.empty());
+            when(studentRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThrows(
                     ResourceNotFoundException.class,
-                    () -> studentService.dropCourse("unknown")
+                    () -> studentService.dropCourse(99L)
             );
         }
     }
@@ -686,5 +986,9 @@ class StudentServiceTest {
             );
         }
     }
-}
 
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(), constraintName));
+    }
+}
@@ -0,0 +1,245 @@
+package com.niloy.student_portal.service;
+
+import com.niloy.student_portal.dto.response.SyncResponse;
+import com.niloy.student_portal.entity.Tombstone;
+import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.repository.CourseRepository;
+import com.niloy.student_portal.repository.DepartmentRepository;
+import com.niloy.student_portal.repository.StudentRepository;
+import com.niloy.student_portal.repository.TeacherRepository;
+import com.niloy.student_portal.repository.TombstoneRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SyncService Tests")
+class SyncServiceTest {
+
+    private static final Instant T1 = Instant.parse("2026-01-01T10:00:00Z");
+    private static final Instant T2 = Instant.parse("2026-01-01T11:00:00Z");
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @InjectMocks
+    private SyncService syncService;
+
+    private static Map<String, Object> row(long id, Instant updatedAt) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("updatedAt", updatedAt);
+        return row;
+    }
+
+    // Reads committed rows as the keyset query would, after the token and before the settled point
+    private static List<Map<String, Object>> query(List<Map<String, Object>> committed, Map<String, ?> parameters,
+                                                   Limit limit) {
+        Instant since = (Instant) parameters.get("since");
+        long afterId = (Long) parameters.get("afterId");
+        Instant settled = (Instant) parameters.get("settled");
+        return committed.stream()
+                .filter(row -> {
+                    Instant changedAt = (Instant) row.get("updatedAt");
+                    return (changedAt.isAfter(since) || changedAt.equals(since) && (Long) row.get("id") > afterId)
+                            && changedAt.isBefore(settled);
+                })
+                .sorted(Comparator.comparing((Map<String, Object> row) -> (Instant) row.get("updatedAt"))
+                        .thenComparing(row -> (Long) row.get("id")))
+                .limit(limit.max())
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("Recording Deletes")
+    class DeletedTests {
+
+        @Test
+        @DisplayName("Should record a department delete with everything it cascades to")
+        @SuppressWarnings("unchecked")
+        void deleted_Department_ShouldRecordCascade() {
+            // Arrange
+            when(teacherRepository.findIdsByDepartmentId(1L)).thenReturn(List.of(10L));
+            when(courseRepository.findIdsByDepartmentId(1L)).thenReturn(List.of(20L, 21L));
+            when(studentRepository.findIdsByTeacherIdIn(List.of(10L))).thenReturn(List.of(30L));
+
+            // Act
+            syncService.deleted(Tombstone.Kind.DEPARTMENT, 1L);
+
+            // Assert
+            ArgumentCaptor<List<Tombstone>> captor = ArgumentCaptor.forClass(List.class);
+            verify(tombstoneRepository).saveAll(captor.capture());
+            assertEquals(List.of("DEPARTMENT:1", "TEACHER:10", "COURSE:20", "COURSE:21", "STUDENT:30"),
+                    captor.getValue().stream().map(t -> t.getKind() + ":" + t.getEntityId()).toList());
+        }
+
+        @Test
+        @DisplayName("Should record a course delete alone")
+        @SuppressWarnings("unchecked")
+        void deleted_Course_ShouldRecordOnlyCourse() {
+            // Act
+            syncService.deleted(Tombstone.Kind.COURSE, 5L);
+
+            // Assert
+            ArgumentCaptor<List<Tombstone>> captor = ArgumentCaptor.forClass(List.class);
+            verify(tombstoneRepository).saveAll(captor.capture());
+            assertEquals(1, captor.getValue().size());
+            verifyNoInteractions(teacherRepository, courseRepository, studentRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Reading Changes")
+    class GetChangesTests {
+
+        @Test
+        @DisplayName("Should reject a limit out of range")
+        void getChanges_WithBadLimit_ShouldThrow() {
+            assertThrows(BadRequestException.class, () -> syncService.getChanges(null, 0, true));
+            assertThrows(BadRequestException.class, () -> syncService.getChanges(null, SyncService.MAX_LIMIT + 1, true));
+            verifyNoInteractions(departmentRepository, tombstoneRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed token")
+        void getChanges_WithBadToken_ShouldThrow() {
+            assertThrows(BadRequestException.class, () -> syncService.getChanges("bad", 10, true));
+        }
+
+        @Test
+        @DisplayName("Should merge sources by change time and stop after a page")
+        void getChanges_ShouldMergeInOrder() {
+            // Arrange
+            when(departmentRepository.findFields(eq(DepartmentRepository.SYNC_FIELDS), anyList(), anyString(),
+                    anyMap(), anyString(), any(Limit.class))).thenReturn(new ArrayList<>(List.of(row(1, T2))));
+            when(teacherRepository.findFields(eq(TeacherRepository.SYNC_FIELDS), anyList(), anyString(),
+                    anyMap(), anyString(), any(Limit.class))).thenReturn(List.of());
+            when(courseRepository.findFields(eq(CourseRepository.SYNC_FIELDS), anyList(), anyString(),
+                    anyMap(), anyString(), any(Limit.class))).thenReturn(List.of(row(7, T1)));
+            when(studentRepository.findFields(eq(StudentRepository.SYNC_FIELDS), anyList(), anyString(),
+                    anyMap(), anyString(), any(Limit.class))).thenReturn(List.of(row(3, T1)));
+            when(tombstoneRepository.findFields(eq(TombstoneRepository.SYNC_FIELDS), anyList(), anyString(),
+                    anyMap(), anyString(), any(Limit.class))).thenReturn(List.of());
+
+            // Act
+            SyncResponse response = syncService.getChanges(null, 2, true);
+
+            // Assert
+            assertTrue(response.isHasMore());
+            assertEquals(7L, response.getCourses().get(0).get("id"));
+            assertEquals(3L, response.getStudents().get(0).get("id"));
+            assertTrue(response.getDepartments().isEmpty());
+            assertEquals(new SyncToken(T1, 3, 3), SyncToken.parse(response.getNextToken()));
+            verify(departmentRepository).findFields(eq(DepartmentRepository.SYNC_FIELDS), anyList(), anyString(),
+                    anyMap(), anyString(), eq(Limit.of(3)));
+        }
+
+        @Test
+        @DisplayName("Should not page past a write that commits late within the settle window")
+        @SuppressWarnings("unchecked")
+        void getChanges_PagingThroughSettleWindow_ShouldNotSkipLateCommit() {
+            // Arrange
+            ReflectionTestUtils.setField(syncService, "settleMillis", 5_000L);
+            // The precision the columns store, and tokens keep
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            List<Map<String, Object>> committed = new CopyOnWriteArrayList<>(List.of(
+                    row(1, now.minusSeconds(60)), row(2, now.minusSeconds(30)), row(4, now.minusMillis(500))));
+            when(courseRepository.findFields(eq(CourseRepository.SYNC_FIELDS), anyList(), anyString(), anyMap(),
+                    anyString(), any(Limit.class)))
+                    .thenAnswer(call -> query(committed, call.getArgument(3), call.getArgument(5)));
+            when(departmentRepository.findFields(any(), anyList(), anyString(), anyMap(), anyString(), any(Limit.class)))
+                    .thenReturn(List.of());
+            when(teacherRepository.findFields(any(), anyList(), anyString(), anyMap(), anyString(), any(Limit.class)))
+                    .thenReturn(List.of());
+            when(studentRepository.findFields(any(), anyList(), anyString(), anyMap(), anyString(), any(Limit.class)))
+                    .thenReturn(List.of());
+            when(tombstoneRepository.findFields(any(), anyList(), anyString(), anyMap(), anyString(), any(Limit.class)))
+                    .thenReturn(List.of());
+
+            // Act - page by page, with course 3, written before course 4, committing only after the sync
+            List<Object> firstSync = new ArrayList<>();
+            String token = null;
+            SyncResponse page;
+            do {
+                page = syncService.getChanges(token, 1, true);
+                page.getCourses().forEach(course -> firstSync.add(course.get("id")));
+                token = page.getNextToken();
+            } while (page.isHasMore());
+            committed.add(row(3, now.minusSeconds(2)));
+            // Once the window has passed
+            ReflectionTestUtils.setField(syncService, "settleMillis", 0L);
+            List<Object> secondSync = new ArrayList<>();
+            syncService.getChanges(token, 10, true).getCourses().forEach(course -> secondSync.add(course.get("id")));
+
+            // Assert
+            assertEquals(List.of(1L, 2L), firstSync);
+            assertEquals(List.of(3L, 4L), secondSync);
+        }
+
+        @Test
+        @DisplayName("Should leave people out and only read catalog deletes for students")
+        @SuppressWarnings("unchecked")
+        void getChanges_ForStudent_ShouldSkipPeople() {
+            // Arrange
+            Map<String, Object> tombstone = row(4, T1);
+            tombstone.put("kind", Tombstone.Kind.COURSE);
+            tombstone.put("entityId", 9L);
+            when(departmentRepository.findFields(any(), anyList(), anyString(), anyMap(), anyString(), any(Limit.class)))
+                    .thenReturn(List.of());
+            when(courseRepository.findFields(any(), anyList(), anyString(), anyMap(), anyString(), any(Limit.class)))
+                    .thenReturn(List.of());
+            when(tombstoneRepository.findFields(any(), anyList(), anyString(), anyMap(), anyString(), any(Limit.class)))
+                    .thenReturn(List.of(tombstone));
+
+            // Act
+            SyncResponse response = syncService.getChanges(null, 10, false);
+
+            // Assert
+            assertNull(response.getTeachers());
+            assertNull(response.getStudents());
+            assertFalse(response.isHasMore());
+            assertEquals(Map.of("type", "course", "id", 9L, "deletedAt", T1), response.getDeleted().get(0));
+            ArgumentCaptor<Map<String, ?>> parameters = ArgumentCaptor.forClass(Map.class);
+            verify(tombstoneRepository).findFields(any(), anyList(), anyString(), parameters.capture(),
+                    anyString(), any(Limit.class));
+            assertTrue(parameters.getValue().containsKey("kinds"));
+            verifyNoInteractions(teacherRepository, studentRepository);
+        }
+    }
+}
@@ -6,10 +6,14 @@ import com.niloy.student_portal.entity.Department;
 import com.niloy.student_portal.entity.Role;
 import com.niloy.student_portal.entity.Teacher;
 import com.niloy.student_portal.entity.User;
+import com.niloy.student_portal.exception.BadRequestException;
+import com.niloy.student_portal.exception.ConstraintViolationTranslator;
 import com.niloy.student_portal.exception.DuplicateResourceException;
 import com.niloy.student_portal.exception.ResourceNotFoundException;
 import com.niloy.student_portal.repository.TeacherRepository;
 import com.niloy.student_portal.repository.UserRepository;
+import com.niloy.student_portal.security.PortalUserCache;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,9 +21,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -46,6 +54,21 @@ class TeacherServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private ConstraintViolationTranslator constraintViolationTranslator = new ConstraintViolationTranslator(false);
+
+    @Mock
+    private AccountAvailabilityService accountAvailabilityService;
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private PortalUserCache userCache;
+
     @InjectMocks
     private TeacherService teacherService;
 
@@ -98,12 +121,9 @@ class TeacherServiceTest {
         @DisplayName("Should create teacher successfully")
         void createTeacher_WithValidRequest_ShouldReturnTeacherResponse() {
             // Arrange
-            when(teacherRepository.existsByEmployeeId("EMP001")).thenReturn(false);
-            when(userRepository.existsByUsername("jane.smith")).thenReturn(false);
-            when(userRepository.existsByEmail("jane.smith@email.com")).thenReturn(false);
             when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
             when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-            when(teacherRepository.save(any(Teacher.class))).thenReturn(teacher);
+            when(teacherRepository.saveAndFlush(any(Teacher.class))).thenReturn(teacher);
 
             // Act
             TeacherResponse response = teacherService.createTeacher(teacherRequest);
@@ -114,14 +134,19 @@ class TeacherServiceTest {
             assertEquals("Smith", response.getLastName());
             assertEquals("EMP001", response.getEmployeeId());
             assertEquals("Computer Science", response.getDepartmentName());
-            verify(teacherRepository, times(1)).save(any(Teacher.class));
+            verify(teacherRepository, times(1)).saveAndFlush(any(Teacher.class));
+            verify(teacherRepository, never()).existsByEmployeeId(anyString());
+            verify(accountAvailabilityService).recordAccount("jane.smith", "jane.smith@email.com");
         }
 
         @Test
         @DisplayName("Should throw exception when employee ID already exists")
         void createTeacher_WithDuplicateEmployeeId_ShouldThrowException() {
             // Arrange
-            when(teacherRepository.existsByEmployeeId("EMP001")).thenReturn(true);
+            when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
+            when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+            when(teacherRepository.saveAndFlush(any(Teacher.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_TEACHERS_EMPLOYEE_ID_INDEX_B"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
@@ -129,15 +154,17 @@ class TeacherServiceTest {
                     () -> teacherService.createTeacher(teacherRequest)
             );
             assertTrue(exception.getMessage().contains("Teacher"));
-            verify(teacherRepository, never()).save(any(Teacher.class));
+            assertTrue(exception.getMessage().contains("EMP001"));
         }
 
         @Test
         @DisplayName("Should throw exception when username already exists")
         void createTeacher_WithDuplicateUsername_ShouldThrowException() {
             // Arrange
-            when(teacherRepository.existsByEmployeeId("EMP001")).thenReturn(false);
-            when(userRepository.existsByUsername("jane.smith")).thenReturn(true);
+            when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
+            when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+            when(teacherRepository.saveAndFlush(any(Teacher.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_USERS_USERNAME_INDEX_4"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
@@ -145,16 +172,17 @@ class TeacherServiceTest {
                     () -> teacherService.createTeacher(teacherRequest)
             );
             assertTrue(exception.getMessage().contains("User"));
-            verify(teacherRepository, never()).save(any(Teacher.class));
+            assertTrue(exception.getMessage().contains("jane.smith"));
         }
 
         @Test
         @DisplayName("Should throw exception when email already exists")
         void createTeacher_WithDuplicateEmail_ShouldThrowException() {
             // Arrange
-            when(teacherRepository.existsByEmployeeId("EMP001")).thenReturn(false);
-            when(userRepository.existsByUsername("jane.smith")).thenReturn(false);
-            when(userRepository.existsByEmail("jane.smith@email.com")).thenReturn(true);
+            when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
+            when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+            when(teacherRepository.saveAndFlush(any(Teacher.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_USERS_EMAIL_INDEX_4"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
@@ -162,7 +190,25 @@ class TeacherServiceTest {
                     () -> teacherService.createTeacher(teacherRequest)
             );
             assertTrue(exception.getMessage().contains("User"));
-            verify(teacherRepository, never()).save(any(Teacher.class));
+            assertTrue(exception.getMessage().contains("jane.smith@email.com"));
+        }
+
+        @Test
+        @DisplayName("Should pre-check duplicates when strict mode is enabled")
+        void createTeacher_InStrictMode_ShouldPreCheckDuplicates() {
+            // Arrange
+            TeacherService strictService = new TeacherService(teacherRepository, userRepository,
+                    departmentService, passwordEncoder, new ConstraintViolationTranslator(true),
+                    accountAvailabilityService, catalogVersion, syncService, userCache);
+            when(teacherRepository.existsByEmployeeId("EMP001")).thenReturn(true);
+
+            // Act & Assert
+            DuplicateResourceException exception = assertThrows(
+                    DuplicateResourceException.class,
+                    () -> strictService.createTeacher(teacherRequest)
+            );
+            assertTrue(exception.getMessage().contains("Teacher"));
+            verify(teacherRepository, never()).saveAndFlush(any(Teacher.class));
         }
     }
 
@@ -203,41 +249,6 @@ class TeacherServiceTest {
         }
     }
 
-    @Nested
-    @DisplayName("Get Teacher By Username Tests")
-    class GetTeacherByUsernameTests {
-
-        @Test
-        @DisplayName("Should return teacher when found by username")
-        void getTeacherByUsername_WhenExists_ShouldReturnTeacherResponse() {
-            // Arrange
-            when(teacherRepository.findByUserUsername("jane.smith")).thenReturn(Optional.of(teacher));
-
-            // Act
-            TeacherResponse response = teacherService.getTeacherByUsername("jane.smith");
-
-            // Assert
-            assertNotNull(response);
-            assertEquals("Jane", response.getFirstName());
-            assertEquals("jane.smith@email.com", response.getEmail());
-            verify(teacherRepository, times(1)).findByUserUsername("jane.smith");
-        }
-
-        @Test
-        @DisplayName("Should throw exception when teacher not found by username")
-        void getTeacherByUsername_WhenNotExists_ShouldThrowException() {
-            // Arrange
-            when(teacherRepository.findByUserUsername("unknown")).thenReturn(Optional.empty());
-
-            // Act & Assert
-            ResourceNotFoundException exception = assertThrows(
-                    ResourceNotFoundException.class,
-                    () -> teacherService.getTeacherByUsername("unknown")
-            );
-            assertTrue(exception.getMessage().contains("Teacher"));
-        }
-    }
-
     @Nested
     @DisplayName("Get All Teachers Tests")
     class GetAllTeachersTests {
@@ -350,7 +361,7 @@ class TeacherServiceTest {
 
             when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
             when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
-            when(teacherRepository.save(any(Teacher.class))).thenReturn(updatedTeacher);
+            when(teacherRepository.saveAndFlush(any(Teacher.class))).thenReturn(updatedTeacher);
 
             // Act
             TeacherResponse response = teacherService.updateTeacher(1L, updateRequest);
@@ -359,7 +370,7 @@ class TeacherServiceTest {
             assertNotNull(response);
             assertEquals("Jane Updated", response.getFirstName());
             assertEquals("AI", response.getSpecialization());
-            verify(teacherRepository, times(1)).save(any(Teacher.class));
+            verify(teacherRepository, times(1)).saveAndFlush(any(Teacher.class));
         }
 
         @Test
@@ -371,7 +382,9 @@ class TeacherServiceTest {
             updateRequest.setDepartmentId(1L);
 
             when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
-            when(teacherRepository.existsByEmployeeId("EMP002")).thenReturn(true);
+            when(departmentService.getDepartmentEntity(1L)).thenReturn(department);
+            when(teacherRepository.saveAndFlush(any(Teacher.class)))
+                    .thenThrow(uniqueViolation("PUBLIC.UK_TEACHERS_EMPLOYEE_ID_INDEX_B"));
 
             // Act & Assert
             DuplicateResourceException exception = assertThrows(
@@ -379,7 +392,8 @@ class TeacherServiceTest {
                     () -> teacherService.updateTeacher(1L, updateRequest)
             );
             assertTrue(exception.getMessage().contains("Teacher"));
-            verify(teacherRepository, never()).save(any(Teacher.class));
+            assertTrue(exception.getMessage().contains("EMP002"));
+            verify(teacherRepository, never()).existsByEmployeeId(anyString());
         }
 
         @Test
@@ -397,6 +411,128 @@ class TeacherServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Patch Teacher Tests")
+    class PatchTeacherTests {
+
+        @Test
+        @DisplayName("Should change only the fields sent")
+        void patchTeacher_WithSomeFields_ShouldChangeOnlyThose() {
+            // Arrange
+            TeacherRequest patch = new TeacherRequest();
+            patch.setSpecialization("AI");
+            when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+
+            // Act
+            TeacherResponse response = teacherService.patchTeacher(1L, patch);
+
+            // Assert
+            assertEquals("AI", response.getSpecialization());
+            assertEquals("Jane", response.getFirstName());
+            assertEquals("jane.smith@email.com", response.getEmail());
+            verify(teacherRepository).flush();
+            verify(departmentService, never()).getDepartmentEntity(anyLong());
+            verify(catalogVersion, never()).changed(any(CatalogVersion.Collection[].class));
+        }
+
+        @Test
+        @DisplayName("Should reject login credentials in a patch")
+        void patchTeacher_WithCredentials_ShouldThrow() {
+            // Arrange
+            TeacherRequest patch = new TeacherRequest();
+            patch.setPassword("newpassword");
+
+            // Act & Assert
+            assertThrows(BadRequestException.class, () -> teacherService.patchTeacher(1L, patch));
+            verify(teacherRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should pre-check a changed email when strict mode is enabled")
+        void patchTeacher_InStrictModeWithTakenEmail_ShouldThrow() {
+            // Arrange
+            TeacherService strictService = new TeacherService(teacherRepository, userRepository,
+                    departmentService, passwordEncoder, new ConstraintViolationTranslator(true),
+                    accountAvailabilityService, catalogVersion, syncService, userCache);
+            TeacherRequest patch = new TeacherRequest();
+            patch.setEmail("taken@email.com");
+            when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+            when(userRepository.existsByEmail("taken@email.com")).thenReturn(true);
+
+            // Act & Assert
+            assertThrows(DuplicateResourceException.class, () -> strictService.patchTeacher(1L, patch));
+            verify(teacherRepository, never()).flush();
+        }
+
+        @Test
+        @DisplayName("Should count an email change as a change of the teacher")
+        void patchTeacher_WithNewEmail_ShouldTouchTeacher() {
+            // Arrange
+            TeacherRequest patch = new TeacherRequest();
+            patch.setEmail("jane.new@email.com");
+            when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+
+            // Act
+            teacherService.patchTeacher(1L, patch);
+
+            // Assert
+            assertEquals("jane.new@email.com", teacher.getUser().getEmail());
+            assertNotNull(teacher.getUpdatedAt());
+            verify(accountAvailabilityService).recordEmail("jane.new@email.com");
+        }
+
+        @Test
+        @DisplayName("Should leave the teacher untouched when nothing differs")
+        void patchTeacher_WithSameValues_ShouldChangeNothing() {
+            // Arrange - the profile fields as they are; credentials cannot be patched
+            teacherRequest.setUsername(null);
+            teacherRequest.setPassword(null);
+            when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+
+            // Act
+            teacherService.patchTeacher(1L, teacherRequest);
+
+            // Assert
+            assertNull(teacher.getUpdatedAt());
+            verify(teacherRepository, never()).existsByEmployeeId(anyString());
+            verify(departmentService, never()).getDepartmentEntity(anyLong());
+            verify(accountAvailabilityService, never()).recordEmail(anyString());
+            verify(catalogVersion, never()).changed(any(CatalogVersion.Collection[].class));
+        }
+
+        @Test
+        @DisplayName("Should move the teacher and refresh department listings")
+        void patchTeacher_WithNewDepartment_ShouldMove() {
+            // Arrange
+            Department other = new Department();
+            other.setId(2L);
+            other.setName("Mathematics");
+            TeacherRequest patch = new TeacherRequest();
+            patch.setDepartmentId(2L);
+            when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
+            when(departmentService.getDepartmentEntity(2L)).thenReturn(other);
+
+            // Act
+            TeacherResponse response = teacherService.patchTeacher(1L, patch);
+
+            // Assert
+            assertEquals("Mathematics", response.getDepartmentName());
+            verify(catalogVersion).changed(CatalogVersion.Collection.DEPARTMENTS);
+        }
+
+        @Test
+        @DisplayName("Should throw exception when teacher not found")
+        void patchTeacher_WhenNotExists_ShouldThrowException() {
+            // Arrange
+            TeacherRequest patch = new TeacherRequest();
+            patch.setSpecialization("AI");
+            when(teacherRepository.findById(99L)).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThrows(ResourceNotFoundException.class, () -> teacherService.patchTeacher(99L, patch));
+        }
+    }
+
     @Nested
     @DisplayName("Delete Teacher Tests")
     class DeleteTeacherTests {
@@ -463,33 +599,10 @@ class TeacherServiceTest {
                     () -> teacherService.getTeacherEntity(1L)
             );
         }
+    }
 
-        @Test
-        @DisplayName("Should return teacher entity by username when found")
-        void getTeacherEntityByUsername_WhenExists_ShouldReturnTeacher() {
-            // Arrange
-            when(teacherRepository.findByUserUsername("jane.smith")).thenReturn(Optional.of(teacher));
-
-            // Act
-            Teacher result = teacherService.getTeacherEntityByUsername("jane.smith");
-
-            // Assert
-            assertNotNull(result);
-            assertEquals("Jane", result.getFirstName());
-        }
-
-        @Test
-        @DisplayName("Should throw exception when teacher entity not found by username")
-        void getTeacherEntityByUsername_WhenNotExists_ShouldThrowException() {
-            // Arrange
-            when(teacherRepository.findByUserUsername("unknown")).thenReturn(Optional.empty());
-
-            // Act & Assert
-            assertThrows(
-                    ResourceNotFoundException.class,
-                    () -> teacherService.getTeacherEntityByUsername("unknown")
-            );
-        }
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(), constraintName));
     }
 }
-
@@ -0,0 +1,147 @@
+package com.niloy.student_portal.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Turns single-id reads made close together into one ?ids= read. The first
+ * id waits up to the batch window for others to join it; a full batch goes
+ * out at once. Ids asked for again while waiting share one result, and a
+ * batch of one is read by id, so nothing changes for callers reading alone
+ * but the window. Accounts allowed reads by id but not ?ids= get their
+ * refused batches read id by id. Closing sends the batch still waiting and
+ * fails the reads made after it.
+ */
+final class Coalescer<T> {
+
+    private final String resource;
+    private final Duration window;
+    private final int maxBatch;
+    private final ScheduledExecutorService scheduler;
+    private final Function<Long, CompletableFuture<T>> loadOne;
+    private final Function<List<Long>, CompletableFuture<Map<Long, T>>> loadMany;
+
+    // Guarded by this
+    private Map<Long, CompletableFuture<T>> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    Coalescer(String resource, Duration window, int maxBatch, ScheduledExecutorService scheduler,
+              Function<Long, CompletableFuture<T>> loadOne,
+              Function<List<Long>, CompletableFuture<Map<Long, T>>> loadMany) {
+        this.resource = resource;
+        this.window = window;
+        this.maxBatch = maxBatch;
+        this.scheduler = scheduler;
+        this.loadOne = loadOne;
+        this.loadMany = loadMany;
+    }
+
+    CompletableFuture<T> get(long id) {
+        if (window.isZero()) {
+            return loadOne.apply(id);
+        }
+        Map<Long, CompletableFuture<T>> full = null;
+        CompletableFuture<T> result;
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new PortalClientException(0, "PortalClient is closed"));
+            }
+            result = pending.get(id);
+            if (result != null) {
+                return result;
+            }
+            result = new CompletableFuture<>();
+            if (pending.isEmpty()) {
+                scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            pending.put(id, result);
+            if (pending.size() >= maxBatch) {
+                full = take();
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return result;
+    }
+
+    // A batch sent because it filled up leaves its timer behind, which may flush the next batch early
+    private void flush() {
+        Map<Long, CompletableFuture<T>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = take();
+        }
+        dispatch(batch);
+    }
+
+    // The timer goes away with the client, so what it would have sent goes now
+    void close() {
+        Map<Long, CompletableFuture<T>> batch;
+        synchronized (this) {
+            closed = true;
+            batch = take();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private Map<Long, CompletableFuture<T>> take() {
+        Map<Long, CompletableFuture<T>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<T>> batch) {
+        if (batch.size() == 1) {
+            Map.Entry<Long, CompletableFuture<T>> only = batch.entrySet().iterator().next();
+            forward(loadOne.apply(only.getKey()), only.getValue());
+            return;
+        }
+        CompletableFuture<Map<Long, T>> loaded;
+        try {
+            loaded = loadMany.apply(new ArrayList<>(batch.keySet()));
+        } catch (RuntimeException ex) {
+            loaded = CompletableFuture.failedFuture(ex);
+        }
+        loaded.whenComplete((found, error) -> batch.forEach((id, result) -> {
+            if (refused(error)) {
+                forward(loadOne.apply(id), result);
+            } else if (error != null) {
+                result.completeExceptionally(error);
+            } else if (found.containsKey(id)) {
+                result.complete(found.get(id));
+            } else {
+                // Worded as the portal words it for a read by id
+                result.completeExceptionally(
+                        new PortalClientException(404, resource + " not found with id: '" + id + "'"));
+            }
+        }));
+    }
+
+    private static boolean refused(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        return cause instanceof PortalClientException ex && ex.getStatus() == 403;
+    }
+
+    private static <T> void forward(CompletableFuture<T> from, CompletableFuture<T> to) {
+        from.whenComplete((value, error) -> {
+            if (error != null) {
+                to.completeExceptionally(error);
+            } else {
+                to.complete(value);
+            }
+        });
+    }
+}
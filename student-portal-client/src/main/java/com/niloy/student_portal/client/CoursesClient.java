@@ -0,0 +1,53 @@
+package com.niloy.student_portal.client;
+
+import com.niloy.student_portal.client.model.Course;
+import com.niloy.student_portal.client.model.CourseRequest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/** /api/courses. Writes need a teacher account. */
+public final class CoursesClient {
+
+    private final Resource<Course> resource;
+
+    CoursesClient(PortalClient client, Duration batchWindow) {
+        this.resource = new Resource<>(client, "/api/courses", Course.class, Course::id, "Course", batchWindow);
+    }
+
+    public Course get(long id) {
+        return PortalClient.join(resource.get(id));
+    }
+
+    /** As {@link #get}, batched with the other reads by id made within the batch window. */
+    public CompletableFuture<Course> getAsync(long id) {
+        return resource.get(id);
+    }
+
+    /** The courses of {@code ids} that exist, in that order. */
+    public List<Course> getAll(Collection<Long> ids) {
+        return PortalClient.join(resource.getAll(ids));
+    }
+
+    public List<Course> list() {
+        return PortalClient.join(resource.list(""));
+    }
+
+    public List<Course> listByDepartment(long departmentId) {
+        return PortalClient.join(resource.list("/department/" + departmentId));
+    }
+
+    public Course create(CourseRequest request) {
+        return PortalClient.join(resource.create(request));
+    }
+
+    public Course update(long id, CourseRequest request) {
+        return PortalClient.join(resource.update(id, request));
+    }
+
+    public void delete(long id) {
+        PortalClient.join(resource.delete(id));
+    }
+}
@@ -0,0 +1,41 @@
+package com.niloy.student_portal.client;
+
+import com.niloy.student_portal.client.model.Department;
+import com.niloy.student_portal.client.model.DepartmentRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/** /api/departments. Departments have no ?ids=, so reads by id are not batched. */
+public final class DepartmentsClient {
+
+    private final Resource<Department> resource;
+
+    DepartmentsClient(PortalClient client) {
+        this.resource = new Resource<>(client, "/api/departments", Department.class, Department::id);
+    }
+
+    public Department get(long id) {
+        return PortalClient.join(resource.get(id));
+    }
+
+    public CompletableFuture<Department> getAsync(long id) {
+        return resource.get(id);
+    }
+
+    public List<Department> list() {
+        return PortalClient.join(resource.list(""));
+    }
+
+    public Department create(DepartmentRequest request) {
+        return PortalClient.join(resource.create(request));
+    }
+
+    public Department update(long id, DepartmentRequest request) {
+        return PortalClient.join(resource.update(id, request));
+    }
+
+    public void delete(long id) {
+        PortalClient.join(resource.delete(id));
+    }
+}
@@ -0,0 +1,46 @@
+package com.niloy.student_portal.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Last response body of each GET path that came with an ETag, least
+ * recently used dropped first. Entries are never served without asking:
+ * the ETag goes back as If-None-Match and the body is reused on a 304.
+ */
+final class ETagCache {
+
+    record Entry(String etag, byte[] body) {
+    }
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    ETagCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ETagCache.this.maxEntries;
+            }
+        };
+    }
+
+    synchronized Entry get(String path) {
+        return entries.get(path);
+    }
+
+    synchronized void put(String path, String etag, byte[] body) {
+        if (maxEntries > 0) {
+            entries.put(path, new Entry(etag, body));
+        }
+    }
+
+    synchronized void remove(String path) {
+        entries.remove(path);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,303 @@
+package com.niloy.student_portal.client;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Client for the portal's REST API, one per account. Its resource clients
+ * share one {@link HttpClient}, which keeps connections open between requests,
+ * on HTTP/2 where the server offers it. Single-id reads made close together
+ * are sent as one ?ids= read, and listings that come with an ETag are kept
+ * and revalidated, so an unchanged listing costs a 304.
+ * <pre>{@code
+ * try (PortalClient portal = PortalClient.builder(URI.create("http://localhost:8080"))
+ *         .credentials("teacher", "teacher123")
+ *         .build()) {
+ *     Course course = portal.courses().get(1);
+ * }
+ * }</pre>
+ */
+public final class PortalClient implements AutoCloseable {
+
+    // The most ids one ?ids= read accepts
+    static final int MAX_IDS = 100;
+
+    private final HttpClient http;
+    private final String baseUri;
+    private final String authorization;
+    private final Duration requestTimeout;
+    private final JsonMapper mapper;
+    private final ETagCache cache;
+    private final ScheduledExecutorService scheduler;
+    private final List<Coalescer<?>> coalescers = new CopyOnWriteArrayList<>();
+    private final AtomicLong requestsSent = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    private final DepartmentsClient departments;
+    private final CoursesClient courses;
+    private final TeachersClient teachers;
+    private final StudentsClient students;
+
+    private PortalClient(Builder builder) {
+        HttpClient.Builder http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(builder.connectTimeout);
+        if (builder.executor != null) {
+            http.executor(builder.executor);
+        }
+        this.http = http.build();
+        this.baseUri = builder.baseUri.toString().replaceAll("/+$", "");
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (builder.username + ":" + builder.password).getBytes(StandardCharsets.UTF_8));
+        this.requestTimeout = builder.requestTimeout;
+        // Fields the portal adds later must not break clients built before them
+        this.mapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.cache = new ETagCache(builder.cacheSize);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "portal-client-batches");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.departments = new DepartmentsClient(this);
+        this.courses = new CoursesClient(this, builder.batchWindow);
+        this.teachers = new TeachersClient(this, builder.batchWindow);
+        this.students = new StudentsClient(this, builder.batchWindow);
+    }
+
+    public static Builder builder(URI baseUri) {
+        return new Builder(baseUri);
+    }
+
+    public DepartmentsClient departments() {
+        return departments;
+    }
+
+    public CoursesClient courses() {
+        return courses;
+    }
+
+    public TeachersClient teachers() {
+        return teachers;
+    }
+
+    public StudentsClient students() {
+        return students;
+    }
+
+    /**
+     * Sends the reads by id still waiting for their batch, so none is left
+     * unanswered, and stops the batching timer. Reads by id that would be
+     * batched fail with a {@link PortalClientException} from then on.
+     */
+    @Override
+    public void close() {
+        coalescers.forEach(Coalescer::close);
+        scheduler.shutdownNow();
+    }
+
+    // Requests sent and 304s received so far, for tests and the benchmark
+    long requestsSent() {
+        return requestsSent.get();
+    }
+
+    long notModified() {
+        return notModified.get();
+    }
+
+    // Batches on the client's timer, and is flushed when the client closes
+    <T> Coalescer<T> coalescer(String resource, Duration window,
+                               Function<Long, CompletableFuture<T>> loadOne,
+                               Function<List<Long>, CompletableFuture<Map<Long, T>>> loadMany) {
+        Coalescer<T> coalescer = new Coalescer<>(resource, window, MAX_IDS, scheduler, loadOne, loadMany);
+        coalescers.add(coalescer);
+        return coalescer;
+    }
+
+    JavaType type(Class<?> type) {
+        return mapper.getTypeFactory().constructType(type);
+    }
+
+    JavaType listType(Class<?> element) {
+        return mapper.getTypeFactory().constructCollectionType(List.class, element);
+    }
+
+    /** GET of {@code data}, revalidating the cached body when the path was read with an ETag before. */
+    <T> CompletableFuture<T> get(String path, JavaType type) {
+        ETagCache.Entry cached = cache.get(path);
+        HttpRequest.Builder request = request(path).GET();
+        if (cached != null) {
+            request.header("If-None-Match", cached.etag());
+        }
+        return exchange("GET", path, request.build()).thenApply(response -> {
+            byte[] body = response.body();
+            if (response.statusCode() == 304 && cached != null) {
+                notModified.incrementAndGet();
+                body = cached.body();
+            } else if (response.statusCode() == 200) {
+                response.headers().firstValue("ETag").ifPresentOrElse(
+                        etag -> cache.put(path, etag, response.body()),
+                        () -> cache.remove(path));
+            }
+            return read(response.statusCode() == 304 ? 200 : response.statusCode(), body, type);
+        });
+    }
+
+    /** A write with an optional JSON body, returning {@code data}, or nothing for a {@code null} type. */
+    <T> CompletableFuture<T> send(String method, String path, Object body, JavaType type) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+        HttpRequest request = request(path)
+                .header("Content-Type", "application/json")
+                .method(method, publisher)
+                .build();
+        return exchange(method, path, request)
+                .thenApply(response -> read(response.statusCode(), response.body(), type));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("Authorization", authorization);
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> exchange(String method, String path, HttpRequest request) {
+        requestsSent.incrementAndGet();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).handle((response, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                throw new PortalClientException(method + " " + path + " failed: " + cause.getMessage(), cause);
+            }
+            return response;
+        });
+    }
+
+    private <T> T read(int status, byte[] body, JavaType type) {
+        if (status >= 400) {
+            throw new PortalClientException(status, message(status, body));
+        }
+        if (type == null) {
+            return null;
+        }
+        JsonNode data = mapper.readTree(body).get("data");
+        return data == null || data.isNull() ? null : mapper.convertValue(data, type);
+    }
+
+    // The portal's own message where the error body is an ApiResponse
+    private String message(int status, byte[] body) {
+        try {
+            JsonNode message = mapper.readTree(body).get("message");
+            if (message != null && message.isString()) {
+                return message.asString();
+            }
+        } catch (JacksonException ex) {
+            // not JSON, fall through
+        }
+        return "HTTP " + status;
+    }
+
+    /** The result of a future, with the client's own exceptions thrown as they are. */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public static final class Builder {
+
+        private final URI baseUri;
+        private String username;
+        private String password;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration requestTimeout = Duration.ofSeconds(30);
+        private Duration batchWindow = Duration.ofMillis(2);
+        private int cacheSize = 256;
+        private Executor executor;
+
+        private Builder(URI baseUri) {
+            this.baseUri = Objects.requireNonNull(baseUri, "baseUri");
+        }
+
+        /** Account every request authenticates as, with HTTP Basic. */
+        public Builder credentials(String username, String password) {
+            this.username = username;
+            this.password = password;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * How long a single-id read waits for others to share its request,
+         * {@link Duration#ZERO} sending each on its own. Default 2 ms.
+         */
+        public Builder batchWindow(Duration batchWindow) {
+            if (batchWindow.isNegative()) {
+                throw new IllegalArgumentException("batchWindow must not be negative");
+            }
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        /** Listings kept for revalidation, 0 turning the cache off. Default 256. */
+        public Builder cacheSize(int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("cacheSize must not be negative");
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /** Executor for the HTTP client's response handling, its own by default. */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public PortalClient build() {
+            if (username == null || password == null) {
+                throw new IllegalStateException("credentials are required");
+            }
+            return new PortalClient(this);
+        }
+    }
+}
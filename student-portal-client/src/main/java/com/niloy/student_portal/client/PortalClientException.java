@@ -0,0 +1,25 @@
+package com.niloy.student_portal.client;
+
+/**
+ * A request the portal answered with an error status, carrying that status
+ * and the portal's message, or a request that did not get an answer, with
+ * status 0.
+ */
+public class PortalClientException extends RuntimeException {
+
+    private final int status;
+
+    public PortalClientException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public PortalClientException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
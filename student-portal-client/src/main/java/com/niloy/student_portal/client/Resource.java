@@ -0,0 +1,92 @@
+package com.niloy.student_portal.client;
+
+import tools.jackson.databind.JavaType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Requests on one collection of the API, shared by the typed resource clients.
+ * Reads by id go through a {@link Coalescer} where the collection has ?ids=.
+ */
+final class Resource<T> {
+
+    private final PortalClient client;
+    private final String path;
+    private final JavaType one;
+    private final JavaType list;
+    private final Function<T, Long> id;
+    private final Coalescer<T> coalescer;
+
+    /** A collection without ?ids=, read one id per request. */
+    Resource(PortalClient client, String path, Class<T> type, Function<T, Long> id) {
+        this(client, path, type, id, null, null);
+    }
+
+    Resource(PortalClient client, String path, Class<T> type, Function<T, Long> id,
+             String name, Duration batchWindow) {
+        this.client = client;
+        this.path = path;
+        this.one = client.type(type);
+        this.list = client.listType(type);
+        this.id = id;
+        this.coalescer = batchWindow == null ? null
+                : client.coalescer(name, batchWindow, this::getOne, this::getMany);
+    }
+
+    CompletableFuture<T> get(long id) {
+        return coalescer != null ? coalescer.get(id) : getOne(id);
+    }
+
+    /** The records found of {@code ids}, in that order, in as few ?ids= reads as they fit. */
+    CompletableFuture<List<T>> getAll(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<CompletableFuture<Map<Long, T>>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += PortalClient.MAX_IDS) {
+            chunks.add(getMany(distinct.subList(from, Math.min(from + PortalClient.MAX_IDS, distinct.size()))));
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<T> found = new ArrayList<>(distinct.size());
+            chunks.forEach(chunk -> found.addAll(chunk.join().values()));
+            return found;
+        });
+    }
+
+    CompletableFuture<List<T>> list(String subPath) {
+        return client.get(path + subPath, list);
+    }
+
+    CompletableFuture<T> create(Object request) {
+        return client.send("POST", path, request, one);
+    }
+
+    CompletableFuture<T> update(long id, Object request) {
+        return client.send("PUT", path + "/" + id, request, one);
+    }
+
+    CompletableFuture<Void> delete(long id) {
+        return client.send("DELETE", path + "/" + id, null, null);
+    }
+
+    private CompletableFuture<T> getOne(Long id) {
+        return client.get(path + "/" + id, one);
+    }
+
+    // Rows by id, in request order, without the ids the portal listed as missing
+    private CompletableFuture<Map<Long, T>> getMany(List<Long> ids) {
+        String query = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return client.<List<T>>get(path + "?ids=" + query, list).thenApply(rows -> {
+            Map<Long, T> byId = new LinkedHashMap<>();
+            rows.forEach(row -> byId.put(id.apply(row), row));
+            return byId;
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.niloy.student_portal.client;
+
+import com.niloy.student_portal.client.model.Student;
+import com.niloy.student_portal.client.model.StudentCreateRequest;
+import com.niloy.student_portal.client.model.StudentUpdateRequest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * /api/students. Students can read records by id, one at a time, and update
+ * their own; the rest, batched reads included, needs a teacher account.
+ */
+public final class StudentsClient {
+
+    private final Resource<Student> resource;
+
+    StudentsClient(PortalClient client, Duration batchWindow) {
+        this.resource = new Resource<>(client, "/api/students", Student.class, Student::id, "Student", batchWindow);
+    }
+
+    public Student get(long id) {
+        return PortalClient.join(resource.get(id));
+    }
+
+    /** As {@link #get}, batched with the other reads by id made within the batch window. */
+    public CompletableFuture<Student> getAsync(long id) {
+        return resource.get(id);
+    }
+
+    /** The students of {@code ids} that exist, in that order. */
+    public List<Student> getAll(Collection<Long> ids) {
+        return PortalClient.join(resource.getAll(ids));
+    }
+
+    public List<Student> list() {
+        return PortalClient.join(resource.list(""));
+    }
+
+    /** Students of the teacher the client authenticates as. */
+    public List<Student> listMine() {
+        return PortalClient.join(resource.list("/my-students"));
+    }
+
+    public List<Student> listByCourse(long courseId) {
+        return PortalClient.join(resource.list("/course/" + courseId));
+    }
+
+    /** Creates a student managed by the teacher the client authenticates as. */
+    public Student create(StudentCreateRequest request) {
+        return PortalClient.join(resource.create(request));
+    }
+
+    public Student update(long id, StudentUpdateRequest request) {
+        return PortalClient.join(resource.update(id, request));
+    }
+
+    public void delete(long id) {
+        PortalClient.join(resource.delete(id));
+    }
+}
@@ -0,0 +1,53 @@
+package com.niloy.student_portal.client;
+
+import com.niloy.student_portal.client.model.Teacher;
+import com.niloy.student_portal.client.model.TeacherRequest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/** /api/teachers, for teacher accounts only. */
+public final class TeachersClient {
+
+    private final Resource<Teacher> resource;
+
+    TeachersClient(PortalClient client, Duration batchWindow) {
+        this.resource = new Resource<>(client, "/api/teachers", Teacher.class, Teacher::id, "Teacher", batchWindow);
+    }
+
+    public Teacher get(long id) {
+        return PortalClient.join(resource.get(id));
+    }
+
+    /** As {@link #get}, batched with the other reads by id made within the batch window. */
+    public CompletableFuture<Teacher> getAsync(long id) {
+        return resource.get(id);
+    }
+
+    /** The teachers of {@code ids} that exist, in that order. */
+    public List<Teacher> getAll(Collection<Long> ids) {
+        return PortalClient.join(resource.getAll(ids));
+    }
+
+    public List<Teacher> list() {
+        return PortalClient.join(resource.list(""));
+    }
+
+    public List<Teacher> listByDepartment(long departmentId) {
+        return PortalClient.join(resource.list("/department/" + departmentId));
+    }
+
+    public Teacher create(TeacherRequest request) {
+        return PortalClient.join(resource.create(request));
+    }
+
+    public Teacher update(long id, TeacherRequest request) {
+        return PortalClient.join(resource.update(id, request));
+    }
+
+    public void delete(long id) {
+        PortalClient.join(resource.delete(id));
+    }
+}
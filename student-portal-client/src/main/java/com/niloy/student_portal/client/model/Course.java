@@ -0,0 +1,12 @@
+package com.niloy.student_portal.client.model;
+
+public record Course(
+        Long id,
+        String courseCode,
+        String courseName,
+        String description,
+        Integer credits,
+        String departmentName,
+        Long departmentId,
+        int enrolledStudentCount) {
+}
@@ -0,0 +1,9 @@
+package com.niloy.student_portal.client.model;
+
+public record CourseRequest(
+        String courseCode,
+        String courseName,
+        String description,
+        Integer credits,
+        Long departmentId) {
+}
@@ -0,0 +1,9 @@
+package com.niloy.student_portal.client.model;
+
+public record Department(
+        Long id,
+        String name,
+        String description,
+        int teacherCount,
+        int courseCount) {
+}
@@ -0,0 +1,6 @@
+package com.niloy.student_portal.client.model;
+
+public record DepartmentRequest(
+        String name,
+        String description) {
+}
@@ -0,0 +1,18 @@
+package com.niloy.student_portal.client.model;
+
+import java.time.LocalDate;
+
+public record Student(
+        Long id,
+        String firstName,
+        String lastName,
+        String studentId,
+        LocalDate dateOfBirth,
+        String address,
+        String phoneNumber,
+        String email,
+        String teacherName,
+        Long teacherId,
+        String enrolledCourseName,
+        Long enrolledCourseId) {
+}
@@ -0,0 +1,15 @@
+package com.niloy.student_portal.client.model;
+
+import java.time.LocalDate;
+
+public record StudentCreateRequest(
+        String firstName,
+        String lastName,
+        String studentId,
+        LocalDate dateOfBirth,
+        String address,
+        String phoneNumber,
+        String username,
+        String password,
+        String email) {
+}
@@ -0,0 +1,12 @@
+package com.niloy.student_portal.client.model;
+
+import java.time.LocalDate;
+
+public record StudentUpdateRequest(
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        String address,
+        String phoneNumber,
+        String email) {
+}
@@ -0,0 +1,13 @@
+package com.niloy.student_portal.client.model;
+
+public record Teacher(
+        Long id,
+        String firstName,
+        String lastName,
+        String employeeId,
+        String specialization,
+        String departmentName,
+        Long departmentId,
+        String email,
+        int studentCount) {
+}
@@ -0,0 +1,12 @@
+package com.niloy.student_portal.client.model;
+
+public record TeacherRequest(
+        String firstName,
+        String lastName,
+        String employeeId,
+        String specialization,
+        Long departmentId,
+        String username,
+        String password,
+        String email) {
+}
@@ -0,0 +1,161 @@
+package com.niloy.student_portal.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Coalescer Tests")
+class CoalescerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<Long> singles = new CopyOnWriteArrayList<>();
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    // Records exist for even ids only
+    private Coalescer<String> coalescer(Duration window, int maxBatch) {
+        return new Coalescer<>("Record", window, maxBatch, scheduler,
+                id -> {
+                    singles.add(id);
+                    return id % 2 == 0
+                            ? CompletableFuture.completedFuture("record" + id)
+                            : CompletableFuture.failedFuture(new PortalClientException(404, "no " + id));
+                },
+                ids -> {
+                    batches.add(new ArrayList<>(ids));
+                    Map<Long, String> found = new LinkedHashMap<>();
+                    ids.stream().filter(id -> id % 2 == 0).forEach(id -> found.put(id, "record" + id));
+                    return CompletableFuture.completedFuture(found);
+                });
+    }
+
+    private static PortalClientException failure(CompletableFuture<?> future) {
+        CompletionException ex = assertThrows(CompletionException.class, future::join);
+        return assertInstanceOf(PortalClientException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("Should send reads made within the window as one batch")
+    void get_WithinWindow_ShouldBatch() {
+        // Arrange
+        Coalescer<String> coalescer = coalescer(Duration.ofMillis(50), 100);
+
+        // Act
+        CompletableFuture<String> first = coalescer.get(2);
+        CompletableFuture<String> second = coalescer.get(4);
+        CompletableFuture<String> missing = coalescer.get(5);
+
+        // Assert
+        assertEquals("record2", first.join());
+        assertEquals("record4", second.join());
+        assertEquals(404, failure(missing).getStatus());
+        assertEquals(List.of(List.of(2L, 4L, 5L)), batches);
+        assertTrue(singles.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should share one result between reads of the same id")
+    void get_SameIdTwice_ShouldShareResult() {
+        // Arrange
+        Coalescer<String> coalescer = coalescer(Duration.ofMillis(50), 100);
+
+        // Act
+        CompletableFuture<String> first = coalescer.get(2);
+        CompletableFuture<String> again = coalescer.get(2);
+
+        // Assert
+        assertSame(first, again);
+        assertEquals("record2", again.join());
+        assertEquals(List.of(2L), singles);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should send a batch as soon as it is full")
+    void get_FullBatch_ShouldNotWait() {
+        // Arrange
+        Coalescer<String> coalescer = coalescer(Duration.ofHours(1), 2);
+
+        // Act
+        CompletableFuture<String> first = coalescer.get(2);
+        CompletableFuture<String> second = coalescer.get(4);
+
+        // Assert
+        assertTrue(first.isDone());
+        assertEquals("record4", second.join());
+        assertEquals(List.of(List.of(2L, 4L)), batches);
+    }
+
+    @Test
+    @DisplayName("Should send the waiting batch on close and fail later reads")
+    void close_WithBatchWaiting_ShouldSendIt() {
+        // Arrange
+        Coalescer<String> coalescer = coalescer(Duration.ofHours(1), 100);
+        CompletableFuture<String> first = coalescer.get(2);
+        CompletableFuture<String> second = coalescer.get(4);
+
+        // Act
+        coalescer.close();
+
+        // Assert
+        assertEquals("record2", first.join());
+        assertEquals("record4", second.join());
+        assertEquals(List.of(List.of(2L, 4L)), batches);
+        assertEquals(0, failure(coalescer.get(6)).getStatus());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    @DisplayName("Should read each id on its own with a zero window")
+    void get_ZeroWindow_ShouldNotBatch() {
+        // Arrange
+        Coalescer<String> coalescer = coalescer(Duration.ZERO, 100);
+
+        // Act
+        coalescer.get(2).join();
+        coalescer.get(4).join();
+
+        // Assert
+        assertEquals(List.of(2L, 4L), singles);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should fail every read of a failed batch, and read one by one when refused")
+    void get_FailedBatch_ShouldFailOrFallBack() {
+        // Arrange
+        Coalescer<String> failing = new Coalescer<>("Record", Duration.ofHours(1), 2, scheduler,
+                id -> CompletableFuture.completedFuture("single" + id),
+                ids -> CompletableFuture.failedFuture(new PortalClientException(500, "down")));
+        Coalescer<String> refusing = new Coalescer<>("Record", Duration.ofHours(1), 2, scheduler,
+                id -> CompletableFuture.completedFuture("single" + id),
+                ids -> CompletableFuture.failedFuture(new PortalClientException(403, "Access Denied")));
+
+        // Act
+        CompletableFuture<String> failed = failing.get(1);
+        failing.get(2);
+        CompletableFuture<String> refused = refusing.get(1);
+        refusing.get(2);
+
+        // Assert
+        assertEquals(500, failure(failed).getStatus());
+        assertEquals("single1", refused.join());
+    }
+}
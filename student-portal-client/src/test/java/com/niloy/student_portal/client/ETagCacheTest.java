@@ -0,0 +1,78 @@
+package com.niloy.student_portal.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ETagCache Tests")
+class ETagCacheTest {
+
+    private static byte[] body(String text) {
+        return text.getBytes();
+    }
+
+    @Test
+    @DisplayName("Should return the last body kept for a path")
+    void put_ThenGet_ShouldReturnLatestEntry() {
+        // Arrange
+        ETagCache cache = new ETagCache(2);
+
+        // Act
+        cache.put("/api/courses", "\"v1\"", body("first"));
+        cache.put("/api/courses", "\"v2\"", body("second"));
+
+        // Assert
+        ETagCache.Entry entry = cache.get("/api/courses");
+        assertEquals("\"v2\"", entry.etag());
+        assertArrayEquals(body("second"), entry.body());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently used path when full")
+    void put_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        ETagCache cache = new ETagCache(2);
+        cache.put("/api/courses", "\"c\"", body("courses"));
+        cache.put("/api/departments", "\"d\"", body("departments"));
+
+        // Act
+        cache.get("/api/courses");
+        cache.put("/api/teachers", "\"t\"", body("teachers"));
+
+        // Assert
+        assertNotNull(cache.get("/api/courses"));
+        assertNull(cache.get("/api/departments"));
+        assertNotNull(cache.get("/api/teachers"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should forget a removed path")
+    void remove_ShouldForgetPath() {
+        // Arrange
+        ETagCache cache = new ETagCache(2);
+        cache.put("/api/courses", "\"c\"", body("courses"));
+
+        // Act
+        cache.remove("/api/courses");
+
+        // Assert
+        assertNull(cache.get("/api/courses"));
+    }
+
+    @Test
+    @DisplayName("Should keep nothing with a size of zero")
+    void put_WithZeroSize_ShouldKeepNothing() {
+        // Arrange
+        ETagCache cache = new ETagCache(0);
+
+        // Act
+        cache.put("/api/courses", "\"c\"", body("courses"));
+
+        // Assert
+        assertNull(cache.get("/api/courses"));
+        assertEquals(0, cache.size());
+    }
+}